@@ -30,6 +30,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -68,6 +69,9 @@ final class ConfigurationRepository
     /** Known configuration files. */
     private final Map<File, byte[]> configurationFiles;
 
+    /** Number of changes to the configuration files. */
+    private final AtomicLong version;
+
     /**
      * Constructs a new object.
      * @param config the configuration folder
@@ -77,6 +81,7 @@ final class ConfigurationRepository
     ConfigurationRepository(final File config) throws IOException {
         configFolder = config;
         configurationFiles = new java.util.HashMap<File, byte[]>();
+        version = new AtomicLong();
         final ConfigurationFolderMonitor monitor =
                 new ConfigurationFolderMonitor(config);
         monitor.addListener(this);
@@ -88,6 +93,16 @@ final class ConfigurationRepository
         }
     }
 
+    /**
+     * Retrieves the number of changes to the configuration files. The value
+     * changes whenever a configuration file is added, updated or removed.
+     * @return number of changes
+     * @since 0.7.9
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     /**
      * Retrieves the contents of the given configuration file.
      * @param file the file
@@ -219,6 +234,7 @@ final class ConfigurationRepository
         synchronized (configurationFiles) {
             configurationFiles.put(file, bytes);
         }
+        version.incrementAndGet();
     }
 
     /**
@@ -257,6 +273,7 @@ final class ConfigurationRepository
         synchronized (configurationFiles) {
             configurationFiles.remove(file);
         }
+        version.incrementAndGet();
         try {
             LOGGER.info("removed config file '" + file.getCanonicalPath()
                     + "'");
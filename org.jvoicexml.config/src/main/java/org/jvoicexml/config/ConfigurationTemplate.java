@@ -0,0 +1,112 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.config;
+
+import java.io.File;
+import java.util.Map;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * The parsed bean definitions of a configuration file.
+ *
+ * <p>
+ * Configuration files are parsed only once. Each call to
+ * {@link #createBeanFactory()} creates a new bean factory from copies of
+ * the parsed definitions so that each caller obtains its own instances of
+ * the configured beans without reading the file again.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class ConfigurationTemplate {
+    /** The configuration file. */
+    private final File file;
+
+    /** The class loader for the beans. */
+    private final ClassLoader loader;
+
+    /** The bean definitions by their name. */
+    private final Map<String, BeanDefinition> definitions;
+
+    /** The aliases of the beans by their name. */
+    private final Map<String, String[]> aliases;
+
+    /**
+     * Constructs a new object.
+     * @param configurationFile the configuration file
+     * @param classLoader the class loader for the beans
+     * @param factory the factory with the parsed bean definitions
+     */
+    ConfigurationTemplate(final File configurationFile,
+            final ClassLoader classLoader,
+            final DefaultListableBeanFactory factory) {
+        file = configurationFile;
+        loader = classLoader;
+        definitions = new java.util.LinkedHashMap<String, BeanDefinition>();
+        aliases = new java.util.HashMap<String, String[]>();
+        final String[] names = factory.getBeanDefinitionNames();
+        for (String name : names) {
+            definitions.put(name, factory.getBeanDefinition(name));
+            aliases.put(name, factory.getAliases(name));
+        }
+    }
+
+    /**
+     * Retrieves the configuration file.
+     * @return the configuration file
+     */
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Creates a new bean factory with the bean definitions of the
+     * configuration file.
+     * @return new bean factory
+     */
+    DefaultListableBeanFactory createBeanFactory() {
+        final DefaultListableBeanFactory factory =
+                new DefaultListableBeanFactory();
+        factory.setBeanClassLoader(loader);
+        for (Map.Entry<String, BeanDefinition> entry
+                : definitions.entrySet()) {
+            final String name = entry.getKey();
+            final BeanDefinition definition = entry.getValue();
+            if (definition instanceof AbstractBeanDefinition) {
+                final AbstractBeanDefinition abstractDefinition =
+                        (AbstractBeanDefinition) definition;
+                factory.registerBeanDefinition(name,
+                        abstractDefinition.cloneBeanDefinition());
+            } else {
+                factory.registerBeanDefinition(name, definition);
+            }
+            for (String alias : aliases.get(name)) {
+                factory.registerAlias(name, alias);
+            }
+        }
+        return factory;
+    }
+}
@@ -28,7 +28,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -98,6 +102,13 @@ import org.xml.sax.helpers.XMLFilterImpl;
  * the system property <code>jvoicexml.config</code>.
  * </p>
  *
+ * <p>
+ * Objects are looked up without locking. The configuration files for
+ * {@link #loadObjects(Class, String)} are parsed once per root element and
+ * parsed again only after a configuration file changed. Singletons of the
+ * main configuration are retrieved from spring only once.
+ * </p>
+ *
  * @author Arindam Das
  * @author Dirk Schnelle-Walka
  */
@@ -112,6 +123,19 @@ public final class JVoiceXmlConfiguration implements Configuration {
     /** Known class loader repositories. */
     private final Map<String, JVoiceXmlClassLoader> loaderRepositories;
 
+    /** Names and aliases of the beans in the main configuration. */
+    private final Set<String> beanNames;
+
+    /** Retrieved singletons of the main configuration by their name. */
+    private final ConcurrentMap<String, Object> singletons;
+
+    /** Parsed configuration files per root element. */
+    private final ConcurrentMap<String, Collection<ConfigurationTemplate>>
+        templates;
+
+    /** Version of the configuration repository of the templates. */
+    private volatile long templatesVersion;
+
     /** Location of the config folder. */
     private final File configFolder;
 
@@ -130,6 +154,9 @@ public final class JVoiceXmlConfiguration implements Configuration {
         configFolder = new File(filename);
         loaderRepositories =
             new java.util.HashMap<String, JVoiceXmlClassLoader>();
+        singletons = new ConcurrentHashMap<String, Object>();
+        templates =
+            new ConcurrentHashMap<String, Collection<ConfigurationTemplate>>();
         final File resource = new File(configFolder, "jvoicexml.xml");
         final File canonicalFile;
         try {
@@ -138,6 +165,7 @@ public final class JVoiceXmlConfiguration implements Configuration {
                     + configFolder.getCanonicalPath() + "'");
         } catch (IOException e) {
             configurationRepository = null;
+            beanNames = Collections.emptySet();
             LOGGER.error(e.getMessage(), e);
             return;
         }
@@ -150,6 +178,7 @@ public final class JVoiceXmlConfiguration implements Configuration {
                 context = null;
             }
         }
+        beanNames = getBeanNames(context);
         try {
             configurationRepository = new ConfigurationRepository(configFolder);
         } catch (IOException e) {
@@ -159,6 +188,24 @@ public final class JVoiceXmlConfiguration implements Configuration {
     }
 
 
+    /**
+     * Retrieves the names and aliases of all beans in the given context.
+     * @param ctx the context, maybe <code>null</code>
+     * @return names of the beans
+     * @since 0.7.9
+     */
+    private static Set<String> getBeanNames(final ApplicationContext ctx) {
+        if (ctx == null) {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new java.util.HashSet<String>();
+        for (String name : ctx.getBeanDefinitionNames()) {
+            names.add(name);
+            Collections.addAll(names, ctx.getAliases(name));
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
     /**
      * Retrieves the class loader to use for the given loader repository.
      * @param repository name of the loader repository
@@ -270,6 +317,16 @@ public final class JVoiceXmlConfiguration implements Configuration {
         return configurationRepository.getConfigurationFiles(root);
     }
 
+    /**
+     * Retrieves the storage of the configuration files.
+     * @return the configuration repository, maybe <code>null</code> if the
+     *         config folder could not be read
+     * @since 0.7.9
+     */
+    ConfigurationRepository getConfigurationRepository() {
+        return configurationRepository;
+    }
+
     /**
      * Retrieves a class path extractor for the given file.
      * @param file the file to be parsed.
@@ -305,13 +362,51 @@ public final class JVoiceXmlConfiguration implements Configuration {
     }
 
     /**
-     * {@inheritDoc}
+     * Retrieves the parsed configuration files for the given root element.
+     * The files are parsed if they have not been parsed before or if a
+     * configuration file changed in the meantime.
+     * @param root name of the root element
+     * @return parsed configuration files
+     * @exception ConfigurationException
+     *            error parsing a configuration file
+     * @since 0.7.9
      */
-    @Override
-    public synchronized <T extends Object> Collection<T> loadObjects(
-            final Class<T> baseClass, final String root)
+    private Collection<ConfigurationTemplate> getTemplates(final String root)
             throws ConfigurationException {
-        final Collection<T> beans = new java.util.ArrayList<T>();
+        final long version = configurationRepository.getVersion();
+        if (version == templatesVersion) {
+            final Collection<ConfigurationTemplate> current =
+                    templates.get(root);
+            if (current != null) {
+                return current;
+            }
+        }
+        synchronized (templates) {
+            if (version != templatesVersion) {
+                templates.clear();
+                templatesVersion = version;
+            }
+            Collection<ConfigurationTemplate> current = templates.get(root);
+            if (current == null) {
+                current = parseTemplates(root);
+                templates.put(root, current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Parses all configuration files for the given root element.
+     * @param root name of the root element
+     * @return parsed configuration files
+     * @exception ConfigurationException
+     *            error parsing a configuration file
+     * @since 0.7.9
+     */
+    private Collection<ConfigurationTemplate> parseTemplates(
+            final String root) throws ConfigurationException {
+        final Collection<ConfigurationTemplate> parsed =
+                new java.util.ArrayList<ConfigurationTemplate>();
         final Collection<File> files;
         try {
             files = getConfigurationFiles(root);
@@ -345,7 +440,30 @@ public final class JVoiceXmlConfiguration implements Configuration {
                         LOGGER.debug("using classpath entry '" + url + "'");
                     }
                 }
-                factory.setBeanClassLoader(loader);
+                final ConfigurationTemplate template =
+                        new ConfigurationTemplate(file, loader, factory);
+                parsed.add(template);
+            } catch (IOException | BeansException e) {
+                throw new ConfigurationException(e.getMessage(), e);
+            }
+        }
+        return Collections.unmodifiableCollection(parsed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Object> Collection<T> loadObjects(
+            final Class<T> baseClass, final String root)
+            throws ConfigurationException {
+        final Collection<T> beans = new java.util.ArrayList<T>();
+        final Collection<ConfigurationTemplate> parsed = getTemplates(root);
+        for (ConfigurationTemplate template : parsed) {
+            final File file = template.getFile();
+            try {
+                final DefaultListableBeanFactory factory =
+                        template.createBeanFactory();
                 final String[] names =
                         factory.getBeanNamesForType(baseClass);
                 if (names.length == 0) {
@@ -377,7 +495,7 @@ public final class JVoiceXmlConfiguration implements Configuration {
      * {@inheritDoc}
      */
     @Override
-    public synchronized <T extends Object> T loadObject(
+    public <T extends Object> T loadObject(
             final Class<T> baseClass, final String key)
         throws ConfigurationException {
         if (context == null) {
@@ -385,16 +503,27 @@ public final class JVoiceXmlConfiguration implements Configuration {
                     + key + "' from a null configuration");
             return null;
         }
-        if (!context.containsBean(key)) {
+        if (!beanNames.contains(key)) {
             LOGGER.warn("unable to load object: key '" + key + "' not found");
             return null;
         }
+        final Object singleton = singletons.get(key);
+        if (singleton != null) {
+            if (!baseClass.isInstance(singleton)) {
+                throw new ConfigurationException("bean with id '" + key
+                        + "' is not of type '" + baseClass + "'");
+            }
+            return baseClass.cast(singleton);
+        }
         final Object object;
         try {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("loading bean with id '" + key + "'");
             }
             object = context.getBean(key, baseClass);
+            if (context.isSingleton(key)) {
+                singletons.putIfAbsent(key, object);
+            }
         } catch (BeansException e) {
             throw new ConfigurationException(e.getMessage(), e);
         }
@@ -406,7 +535,7 @@ public final class JVoiceXmlConfiguration implements Configuration {
      * {@inheritDoc}
      */
     @Override
-    public synchronized <T extends Object> T loadObject(
+    public <T extends Object> T loadObject(
             final Class<T> baseClass)
         throws ConfigurationException {
         final String key = baseClass.getCanonicalName();
@@ -27,12 +27,16 @@
 package org.jvoicexml.config;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.FilenameFilter;
+import java.io.Writer;
 import java.util.Collection;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.jvoicexml.implementation.ResourceFactory;
 import org.jvoicexml.implementation.jvxml.DesktopTelephonySupportFactory;
 
@@ -43,6 +47,10 @@ import org.jvoicexml.implementation.jvxml.DesktopTelephonySupportFactory;
  * @since 0.7
  */
 public final class TestJVoiceXmlConfiguration {
+    /** Folder for configurations that are modified by a test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     /**
      * Initializes this test case.
      * @exception Exception
@@ -98,4 +106,100 @@ public final class TestJVoiceXmlConfiguration {
         Assert.assertEquals(DesktopTelephonySupportFactory.class,
                 factory.getClass());
     }
+
+    /**
+     * Test case for {@link JVoiceXmlConfiguration#loadObjects(Class, String)}
+     * to ensure that each call returns fresh objects.
+     * @throws Exception
+     *            test failed
+     * @since 0.7.9
+     */
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testLoadObjectsFresh() throws Exception {
+        final JVoiceXmlConfiguration config = new JVoiceXmlConfiguration();
+        final Collection<ResourceFactory> factories1 =
+            config.loadObjects(ResourceFactory.class, "implementation");
+        final DesktopTelephonySupportFactory factory1 =
+            (DesktopTelephonySupportFactory) factories1.iterator().next();
+        factory1.setInstances(5);
+        final Collection<ResourceFactory> factories2 =
+            config.loadObjects(ResourceFactory.class, "implementation");
+        final DesktopTelephonySupportFactory factory2 =
+            (DesktopTelephonySupportFactory) factories2.iterator().next();
+        Assert.assertNotSame(factory1, factory2);
+        Assert.assertEquals(1, factory2.getInstances());
+    }
+
+    /**
+     * Test case for {@link JVoiceXmlConfiguration#loadObjects(Class, String)}
+     * to ensure that a changed configuration file is parsed again.
+     * @throws Exception
+     *            test failed
+     * @since 0.7.9
+     */
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testLoadObjectsChangedConfiguration() throws Exception {
+        final File file = folder.newFile("test-implementation.xml");
+        writeImplementation(file, 1);
+        final String previous = System.getProperty("jvoicexml.config");
+        final JVoiceXmlConfiguration config;
+        try {
+            System.setProperty("jvoicexml.config",
+                    folder.getRoot().getCanonicalPath());
+            config = new JVoiceXmlConfiguration();
+        } finally {
+            System.setProperty("jvoicexml.config", previous);
+        }
+        final Collection<ResourceFactory> factories1 =
+            config.loadObjects(ResourceFactory.class, "implementation");
+        final DesktopTelephonySupportFactory factory1 =
+            (DesktopTelephonySupportFactory) factories1.iterator().next();
+        Assert.assertEquals(1, factory1.getInstances());
+
+        final ConfigurationRepository repository =
+                config.getConfigurationRepository();
+        final long version = repository.getVersion();
+        writeImplementation(file, 2);
+        repository.fileUpdated(file);
+        Assert.assertTrue(repository.getVersion() > version);
+        final Collection<ResourceFactory> factories2 =
+            config.loadObjects(ResourceFactory.class, "implementation");
+        final DesktopTelephonySupportFactory factory2 =
+            (DesktopTelephonySupportFactory) factories2.iterator().next();
+        Assert.assertEquals(2, factory2.getInstances());
+    }
+
+    /**
+     * Writes an implementation configuration for the desktop telephony
+     * support factory with the given number of instances.
+     * @param file the file to write
+     * @param instances number of instances
+     * @throws Exception
+     *            error writing the file
+     * @since 0.7.9
+     */
+    private static void writeImplementation(final File file,
+            final int instances) throws Exception {
+        final Writer writer = new FileWriter(file);
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<implementation xmlns:beans="
+                + "\"http://www.springframework.org/schema/beans\"\n"
+                + "  xmlns:xsi="
+                + "\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                + "  xsi:noNamespaceSchemaLocation="
+                + "\"jvxml-implementation-0-7.xsd\">\n"
+                + "  <repository>deschd</repository>\n"
+                + "  <beans:bean class=\"org.jvoicexml.implementation.jvxml."
+                + "DesktopTelephonySupportFactory\">\n"
+                + "    <beans:property name=\"instances\" value=\""
+                + instances + "\" />\n"
+                + "  </beans:bean>\n"
+                + "</implementation>\n");
+        } finally {
+            writer.close();
+        }
+    }
 }
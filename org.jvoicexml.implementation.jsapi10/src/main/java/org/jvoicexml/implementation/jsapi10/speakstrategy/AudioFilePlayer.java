@@ -38,6 +38,7 @@ import javax.sound.sampled.LineListener;
 
 import org.apache.log4j.Logger;
 import org.jvoicexml.DocumentServer;
+import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.NoresourceError;
 
@@ -87,6 +88,8 @@ final class AudioFilePlayer implements LineListener {
      *
      * @param audio
      *        URI of the audio file to play.
+     * @param attributes
+     *        attributes governing the fetch of the audio file.
      * @exception NoresourceError
      *            The output resource is not available.
      * @exception BadFetchError
@@ -94,13 +97,13 @@ final class AudioFilePlayer implements LineListener {
      *
      * @since 0.3
      */
-    public void play(final URI audio) throws NoresourceError,
-            BadFetchError {
+    public void play(final URI audio, final FetchAttributes attributes)
+            throws NoresourceError, BadFetchError {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("retrieving audio file '" + audio + "'...");
         }
         final AudioInputStream stream = documentServer
-                .getAudioInputStream(sessionId, audio);
+                .getAudioInputStream(sessionId, audio, attributes);
         if (stream == null) {
             throw new BadFetchError("cannot play a null audio stream");
         }
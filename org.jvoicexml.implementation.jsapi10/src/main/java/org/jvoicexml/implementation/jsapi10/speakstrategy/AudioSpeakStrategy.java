@@ -30,10 +30,12 @@ import java.net.URI;
 
 import org.apache.log4j.Logger;
 import org.jvoicexml.DocumentServer;
+import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.implementation.jsapi10.Jsapi10SynthesizedOutput;
 import org.jvoicexml.xml.SsmlNode;
+import org.jvoicexml.xml.TimeParser;
 import org.jvoicexml.xml.ssml.Audio;
 
 /**
@@ -49,6 +51,9 @@ class AudioSpeakStrategy
     private static final Logger LOGGER =
         Logger.getLogger(AudioSpeakStrategy.class);
 
+    /** Number of milliseconds per second. */
+    private static final long MSECS_PER_SEC = 1000;
+
     /**
      * Constructs a new object.
      */
@@ -71,18 +76,18 @@ class AudioSpeakStrategy
         } catch (java.net.URISyntaxException use) {
             throw new BadFetchError(use);
         }
-
         // Wait until all audio data is delivered before the file playback is
         // started.
         waitQueueEmpty(output);
 
         // Play the audio.
         try {
+            final FetchAttributes attributes = getFetchAttributes(audio);
             final DocumentServer server = output.getDocumentServer();
             final String sessionId = output.getSessionid();
             final AudioFilePlayer player =
                     new AudioFilePlayer(server, sessionId);
-            player.play(uri);
+            player.play(uri, attributes);
         } catch (BadFetchError bfe) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("unable to obtain audio file", bfe);
@@ -91,4 +96,44 @@ class AudioSpeakStrategy
             speakChildNodes(output, node);
         }
     }
+
+    /**
+     * Determines the fetch attributes from the given audio node.
+     *
+     * @param audio the audio node
+     * @return fetch attributes to use.
+     * @throws BadFetchError
+     *         invalid <code>fetchtimeout</code>, <code>maxage</code> or
+     *         <code>maxstale</code>
+     * @since 0.7.9
+     */
+    private FetchAttributes getFetchAttributes(final Audio audio)
+            throws BadFetchError {
+        final FetchAttributes attributes = new FetchAttributes();
+        final String fetchTimeout = audio.getFetchtimeout();
+        if (fetchTimeout != null) {
+            final TimeParser parser = new TimeParser(fetchTimeout);
+            final long msec = parser.parse();
+            if (msec < 0) {
+                throw new BadFetchError("invalid value for "
+                        + Audio.ATTRIBUTE_FETCHTIMEOUT + ": '"
+                        + fetchTimeout + "'");
+            }
+            final long seconds = (msec + MSECS_PER_SEC - 1) / MSECS_PER_SEC;
+            attributes.setFetchTimeout(seconds);
+        }
+        final String maxage = audio.getMaxage();
+        if (maxage != null) {
+            final long msec = FetchAttributes.parseAge(
+                    Audio.ATTRIBUTE_MAXAGE, maxage);
+            attributes.setMaxage(msec);
+        }
+        final String maxstale = audio.getMaxstale();
+        if (maxstale != null) {
+            final long msec = FetchAttributes.parseAge(
+                    Audio.ATTRIBUTE_MAXSTALE, maxstale);
+            attributes.setMaxstale(msec);
+        }
+        return attributes;
+    }
 }
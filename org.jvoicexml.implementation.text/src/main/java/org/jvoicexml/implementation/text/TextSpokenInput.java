@@ -48,6 +48,8 @@ import org.jvoicexml.implementation.SpokenInput;
 import org.jvoicexml.implementation.SpokenInputListener;
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
 import org.jvoicexml.implementation.grammar.GrammarParser;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammar;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammars;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.xml.srgs.GrammarType;
 import org.jvoicexml.xml.srgs.ModeType;
@@ -186,6 +188,10 @@ final class TextSpokenInput implements SpokenInput {
     public GrammarImplementation<?> loadGrammar(final URI uri,
             final GrammarType type) throws NoresourceError, IOException,
             UnsupportedFormatError {
+        final BuiltinGrammar builtin = BuiltinGrammars.getGrammar(uri);
+        if (builtin != null) {
+            return builtin;
+        }
         final GrammarParser<?> parser = parsers.get(type.getType());
         if (parser == null) {
             throw new UnsupportedFormatError("'" + type + "' is not supported");
@@ -29,6 +29,7 @@ import org.json.simple.JSONObject;
 import org.jvoicexml.event.error.SemanticError;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.interpreter.datamodel.DataModelObjectSerializer;
+import org.jvoicexml.interpreter.datamodel.StandardObjectsScope;
 import org.jvoicexml.interpreter.scope.Scope;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
@@ -38,6 +39,7 @@ import org.mozilla.javascript.NativeArray;
 import org.mozilla.javascript.NativeJavaObject;
 import org.mozilla.javascript.NativeObject;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 
@@ -53,6 +55,21 @@ public class EcmaScriptDataModel implements DataModel {
     private static final Logger LOGGER = Logger
             .getLogger(EcmaScriptDataModel.class);
 
+    /** Default maximum number of compiled expressions to keep. */
+    private static final int DEFAULT_SCRIPT_CACHE_SIZE = 500;
+
+    /** Maximum number of compiled expressions to keep. */
+    private int scriptCacheSize;
+
+    /** <code>true</code> if expressions are compiled for the interpreter. */
+    private boolean interpreted;
+
+    /**
+     * Compiled expressions that are shared with all data models of the same
+     * settings, lazily retrieved.
+     */
+    private ScriptCache scripts;
+
     /** The root scope. */
     private Scriptable rootScope;
 
@@ -78,6 +95,46 @@ public class EcmaScriptDataModel implements DataModel {
      */
     public EcmaScriptDataModel() {
         scopes = new java.util.HashMap<Scriptable, Scope>();
+        scriptCacheSize = DEFAULT_SCRIPT_CACHE_SIZE;
+    }
+
+    /**
+     * Sets the maximum number of compiled expressions that are shared by all
+     * sessions with the same settings. A value of <code>0</code> disables
+     * the cache. Other data models are not affected by this setting.
+     * @param size maximum number of compiled expressions
+     * @since 0.7.9
+     */
+    public void setScriptCacheSize(final int size) {
+        scriptCacheSize = size;
+        scripts = null;
+    }
+
+    /**
+     * Selects whether expressions are compiled for the Rhino interpreter or
+     * to optimized Java byte code. Optimized expressions execute faster
+     * but take longer to compile.
+     * @param value <code>true</code> if expressions should be
+     *          interpreted
+     * @since 0.7.9
+     */
+    public void setInterpreted(final boolean value) {
+        interpreted = value;
+        scripts = null;
+    }
+
+    /**
+     * Retrieves the compiled expressions that are shared with all data
+     * models of the same settings.
+     * @return the script cache
+     * @since 0.7.9
+     */
+    private ScriptCache getScripts() {
+        if (scripts == null) {
+            scripts = ScriptCache.getSharedCache(scriptCacheSize,
+                    interpreted);
+        }
+        return scripts;
     }
 
     /**
@@ -99,7 +156,11 @@ public class EcmaScriptDataModel implements DataModel {
      */
     @Override
     public DataModel newInstance() {
-        return new EcmaScriptDataModel();
+        final EcmaScriptDataModel model = new EcmaScriptDataModel();
+        model.scriptCacheSize = scriptCacheSize;
+        model.interpreted = interpreted;
+        model.scripts = scripts;
+        return model;
     }
     
     /**
@@ -130,7 +191,7 @@ public class EcmaScriptDataModel implements DataModel {
         if (topmostScope == null) {
             // create an initial scope if none present
             final Context context = getContext();
-            rootScope = context.initStandardObjects();
+            rootScope = StandardObjectsScope.createScope(context);
             topmostScope = rootScope;
         }
 
@@ -966,8 +1027,9 @@ public class EcmaScriptDataModel implements DataModel {
         }
         try {
             final Context context = getContext();
-            final Object value = context.evaluateString(start,
-                    preparedExpression, "expr", 1, null);
+            final Script script = getScripts().getScript(context,
+                    preparedExpression, "expr");
+            final Object value = script.exec(context, start);
             if (value == getUndefinedValue()) {
                 return null;
             }
@@ -0,0 +1,247 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.datamodel.ecmascript;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+
+/**
+ * Size-bounded cache of compiled scripts that is keyed by the source of the
+ * script.
+ *
+ * <p>
+ * Compiled scripts do not carry any state of their own but are executed
+ * against the scope that is given at execution time. Hence, a single cache
+ * can be shared by all sessions. Scripts can either be compiled for the
+ * interpreter or be optimized to Java byte code. The latter is faster to
+ * execute but slower to compile.
+ * </p>
+ *
+ * <p>
+ * Data models obtain their cache via {@link #getSharedCache(int, boolean)}
+ * so that all data models with the same settings share a single cache while
+ * a differently configured data model never changes the cache of the others.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class ScriptCache {
+    /** Optimization level to compile scripts for the interpreter. */
+    private static final int INTERPRETED_LEVEL = -1;
+
+    /** Optimization level to compile optimized scripts. */
+    private static final int OPTIMIZED_LEVEL = 9;
+
+    /** Initial capacity of the map of compiled scripts. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Load factor of the map of compiled scripts. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Shared caches by their settings. */
+    private static final Map<String, ScriptCache> SHARED_CACHES =
+            new java.util.HashMap<String, ScriptCache>();
+
+    /** The compiled scripts in access order. */
+    private final Map<String, Script> scripts;
+
+    /** Maximum number of scripts to keep. */
+    private int maxSize;
+
+    /** <code>true</code> if scripts should be compiled for the interpreter. */
+    private boolean interpreted;
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of scripts to keep
+     */
+    ScriptCache(final int size) {
+        this(size, false);
+    }
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of scripts to keep
+     * @param interpret <code>true</code> if scripts should be compiled for
+     *          the interpreter
+     */
+    ScriptCache(final int size, final boolean interpret) {
+        maxSize = Math.max(0, size);
+        interpreted = interpret;
+        scripts = new LinkedHashMap<String, Script>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true) {
+            /** The serial version UID. */
+            private static final long serialVersionUID =
+                    -6314209838316787105L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, Script> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cache that is shared by all data models with the given
+     * settings. The cache is created on first access.
+     * @param size maximum number of scripts to keep
+     * @param interpret <code>true</code> if scripts should be compiled for
+     *          the interpreter
+     * @return shared cache
+     */
+    static ScriptCache getSharedCache(final int size,
+            final boolean interpret) {
+        final String key = Math.max(0, size) + ":" + interpret;
+        synchronized (SHARED_CACHES) {
+            ScriptCache cache = SHARED_CACHES.get(key);
+            if (cache == null) {
+                cache = new ScriptCache(size, interpret);
+                SHARED_CACHES.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Sets the maximum number of scripts to keep. A value of <code>0</code>
+     * disables caching.
+     * @param size maximum number of scripts to keep
+     */
+    synchronized void setMaxSize(final int size) {
+        maxSize = Math.max(0, size);
+        final Iterator<String> iterator = scripts.keySet().iterator();
+        while (scripts.size() > maxSize) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Retrieves the maximum number of scripts to keep.
+     * @return maximum number of scripts to keep
+     */
+    synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Selects whether scripts are compiled for the interpreter or to
+     * optimized Java byte code. Changing this setting removes all
+     * scripts compiled so far.
+     * @param value <code>true</code> if scripts should be interpreted
+     */
+    synchronized void setInterpreted(final boolean value) {
+        if (interpreted != value) {
+            interpreted = value;
+            scripts.clear();
+        }
+    }
+
+    /**
+     * Checks if scripts are compiled for the interpreter.
+     * @return <code>true</code> if scripts are interpreted
+     */
+    synchronized boolean isInterpreted() {
+        return interpreted;
+    }
+
+    /**
+     * Retrieves the compiled script for the given source. If there is no
+     * such script, the source is compiled and stored.
+     * @param context the current context
+     * @param source the source of the script
+     * @param sourceName name of the source to use in error messages
+     * @return compiled script
+     */
+    Script getScript(final Context context, final String source,
+            final String sourceName) {
+        final boolean interpret;
+        synchronized (this) {
+            final Script script = scripts.get(source);
+            if (script != null) {
+                return script;
+            }
+            interpret = interpreted;
+        }
+        final Script script = compile(context, source, sourceName,
+                interpret);
+        synchronized (this) {
+            if (interpret != interpreted) {
+                return script;
+            }
+            final Script other = scripts.get(source);
+            if (other != null) {
+                return other;
+            }
+            if (maxSize > 0) {
+                scripts.put(source, script);
+            }
+        }
+        return script;
+    }
+
+    /**
+     * Retrieves the number of cached scripts.
+     * @return number of cached scripts
+     */
+    synchronized int size() {
+        return scripts.size();
+    }
+
+    /**
+     * Removes all scripts.
+     */
+    synchronized void clear() {
+        scripts.clear();
+    }
+
+    /**
+     * Compiles the given source.
+     * @param context the current context
+     * @param source the source of the script
+     * @param sourceName name of the source to use in error messages
+     * @param interpret <code>true</code> if the script should be compiled
+     *          for the interpreter
+     * @return compiled script
+     */
+    private static Script compile(final Context context,
+            final String source, final String sourceName,
+            final boolean interpret) {
+        final int level = context.getOptimizationLevel();
+        if (interpret) {
+            context.setOptimizationLevel(INTERPRETED_LEVEL);
+        } else {
+            context.setOptimizationLevel(OPTIMIZED_LEVEL);
+        }
+        try {
+            return context.compileString(source, sourceName, 1, null);
+        } finally {
+            context.setOptimizationLevel(level);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.datamodel.ecmascript;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+
+/**
+ * Test cases for {@link ScriptCache}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public class ScriptCacheTest {
+    /** The current context. */
+    private Context context;
+
+    /**
+     * Set up the test environment.
+     */
+    @Before
+    public void setUp() {
+        context = Context.enter();
+    }
+
+    /**
+     * Tear down the test environment.
+     */
+    @After
+    public void tearDown() {
+        Context.exit();
+    }
+
+    @Test
+    public void testGetScript() {
+        final ScriptCache cache = new ScriptCache(2);
+        final Script script = cache.getScript(context, "3 + 4;", "expr");
+        Assert.assertSame(script, cache.getScript(context, "3 + 4;", "expr"));
+        Assert.assertEquals(1, cache.size());
+        final Scriptable scope = context.initStandardObjects();
+        final Object value = script.exec(context, scope);
+        Assert.assertEquals(Integer.valueOf(7),
+                Context.jsToJava(value, Integer.class));
+    }
+
+    @Test
+    public void testGetScriptEvicted() {
+        final ScriptCache cache = new ScriptCache(2);
+        final Script script = cache.getScript(context, "1;", "expr");
+        cache.getScript(context, "2;", "expr");
+        cache.getScript(context, "3;", "expr");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotSame(script, cache.getScript(context, "1;", "expr"));
+    }
+
+    @Test
+    public void testGetScriptDisabled() {
+        final ScriptCache cache = new ScriptCache(2);
+        cache.getScript(context, "1;", "expr");
+        cache.setMaxSize(0);
+        Assert.assertEquals(0, cache.size());
+        cache.getScript(context, "1;", "expr");
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSetInterpreted() {
+        final int level = context.getOptimizationLevel();
+        final ScriptCache cache = new ScriptCache(2);
+        final Script optimized = cache.getScript(context, "1;", "expr");
+        cache.setInterpreted(true);
+        Assert.assertTrue(cache.isInterpreted());
+        Assert.assertEquals(0, cache.size());
+        final Script interpreted = cache.getScript(context, "1;", "expr");
+        Assert.assertNotSame(optimized, interpreted);
+        Assert.assertNotEquals(optimized.getClass(), interpreted.getClass());
+        Assert.assertEquals(level, context.getOptimizationLevel());
+    }
+
+    @Test
+    public void testGetSharedCache() {
+        final ScriptCache cache = ScriptCache.getSharedCache(2, false);
+        Assert.assertSame(cache, ScriptCache.getSharedCache(2, false));
+        Assert.assertEquals(2, cache.getMaxSize());
+        Assert.assertFalse(cache.isInterpreted());
+        final ScriptCache other = ScriptCache.getSharedCache(3, false);
+        Assert.assertNotSame(cache, other);
+        final ScriptCache interpreted = ScriptCache.getSharedCache(2, true);
+        Assert.assertNotSame(cache, interpreted);
+        Assert.assertTrue(interpreted.isInterpreted());
+        Assert.assertEquals(2, cache.getMaxSize());
+    }
+}
@@ -24,6 +24,7 @@ package org.jvoicexml.interpreter.grammar.halef;
 import java.net.URI;
 
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 
 /**
@@ -71,4 +72,15 @@ public class HalefGrammarEvaluator implements GrammarEvaluator {
             final String utterance) {
         return utterance;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Any utterance is accepted. Hence, partial input is never terminated
+     * early.
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        return PrefixMatch.CONTINUE;
+    }
 }
@@ -43,6 +43,7 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.jvoicexml.event.error.SemanticError;
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 
 /**
@@ -189,4 +190,15 @@ public class LUISGrammarEvaluator implements GrammarEvaluator {
         LOGGER.info("created semantic interpretation '" + log + "'");
         return interpretation;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The grammar evaluation is done remotely on the complete utterance.
+     * Hence, partial input is never terminated early.
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        return PrefixMatch.CONTINUE;
+    }
 }
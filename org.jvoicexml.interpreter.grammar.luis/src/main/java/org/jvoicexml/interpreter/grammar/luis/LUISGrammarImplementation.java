@@ -26,6 +26,7 @@ import java.net.URI;
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.implementation.GrammarImplementation;
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.xml.srgs.GrammarType;
 import org.jvoicexml.xml.srgs.ModeType;
@@ -124,4 +125,12 @@ public final class LUISGrammarImplementation
                 subscriptionKey, uri);
         return evaluator.getSemanticInterpretation(model, utterance);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        return PrefixMatch.CONTINUE;
+    }
 }
@@ -26,6 +26,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 
 /**
@@ -34,6 +35,9 @@ import org.jvoicexml.interpreter.datamodel.DataModel;
  * @since 0.7.8
  */
 public class RegexGrammarEvaluator implements GrammarEvaluator {
+    /** All DTMF characters. */
+    private static final String DTMF = "0123456789*#";
+
     /** The regular expression to evaluate in this grammar. */
     private final Pattern pattern;
     /** The URI of the associated grammar. */
@@ -69,4 +73,30 @@ public class RegexGrammarEvaluator implements GrammarEvaluator {
         }
         return utterance;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The input can be extended if it is the beginning of a match or if
+     * one more DTMF still leads to a match or the beginning of a match.
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        final Matcher matcher = pattern.matcher(utterance);
+        final boolean matches = matcher.matches();
+        if (!matches) {
+            if (matcher.hitEnd()) {
+                return PrefixMatch.CONTINUE;
+            }
+            return PrefixMatch.DEAD;
+        }
+        for (int i = 0; i < DTMF.length(); i++) {
+            final String extended = utterance + DTMF.charAt(i);
+            matcher.reset(extended);
+            if (matcher.matches() || matcher.hitEnd()) {
+                return PrefixMatch.CONTINUE;
+            }
+        }
+        return PrefixMatch.COMPLETE;
+    }
 }
@@ -221,8 +221,11 @@ final class DataStrategy extends AbstractTagStrategy {
      * Determines the fetch attributes from the current node.
      * 
      * @return fetch attributes to use.
+     * @throws BadFetchError
+     *         invalid <code>maxage</code> or <code>maxstale</code>
      */
-    private FetchAttributes getFetchAttributes() {
+    private FetchAttributes getFetchAttributes()
+            throws BadFetchError {
         final FetchAttributes attributes = new FetchAttributes();
         final String fetchHint = (String) getAttribute(Data.ATTRIBUTE_FETCHHINT);
         if (fetchHint != null) {
@@ -236,15 +239,15 @@ final class DataStrategy extends AbstractTagStrategy {
         }
         final String maxage = (String) getAttribute(Data.ATTRIBUTE_MAXAGE);
         if (maxage != null) {
-            final TimeParser parser = new TimeParser(maxage);
-            final long seconds = parser.parse();
-            attributes.setMaxage(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Data.ATTRIBUTE_MAXAGE, maxage);
+            attributes.setMaxage(msec);
         }
         final String maxstale = (String) getAttribute(Data.ATTRIBUTE_MAXSTALE);
         if (maxstale != null) {
-            final TimeParser parser = new TimeParser(maxstale);
-            final long seconds = parser.parse();
-            attributes.setMaxstale(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Data.ATTRIBUTE_MAXSTALE, maxstale);
+            attributes.setMaxstale(msec);
         }
         return attributes;
     }
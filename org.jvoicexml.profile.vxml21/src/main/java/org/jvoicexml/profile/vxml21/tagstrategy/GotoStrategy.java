@@ -146,9 +146,12 @@ final class GotoStrategy extends AbstractTagStrategy {
      * Determines the fetch attributes from the current node.
      * 
      * @return fetch attributes to use.
+     * @throws BadFetchError
+     *         invalid <code>maxage</code> or <code>maxstale</code>
      * @since 0.7
      */
-    private FetchAttributes getFetchAttributes() {
+    private FetchAttributes getFetchAttributes()
+            throws BadFetchError {
         final FetchAttributes attributes = new FetchAttributes();
         final String fetchHint = (String) getAttribute(Goto.ATTRIBUTE_FETCHHINT);
         if (fetchHint != null) {
@@ -162,15 +165,15 @@ final class GotoStrategy extends AbstractTagStrategy {
         }
         final String maxage = (String) getAttribute(Goto.ATTRIBUTE_MAXAGE);
         if (maxage != null) {
-            final TimeParser parser = new TimeParser(maxage);
-            final long seconds = parser.parse();
-            attributes.setMaxage(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Goto.ATTRIBUTE_MAXAGE, maxage);
+            attributes.setMaxage(msec);
         }
         final String maxstale = (String) getAttribute(Goto.ATTRIBUTE_MAXSTALE);
         if (maxstale != null) {
-            final TimeParser parser = new TimeParser(maxstale);
-            final long seconds = parser.parse();
-            attributes.setMaxstale(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Goto.ATTRIBUTE_MAXSTALE, maxstale);
+            attributes.setMaxstale(msec);
         }
         return attributes;
     }
@@ -195,9 +195,12 @@ class ScriptStrategy extends AbstractTagStrategy {
      * Determines the fetch attributes from the current node.
      * 
      * @return fetch attributes to use.
+     * @throws BadFetchError
+     *         invalid <code>maxage</code> or <code>maxstale</code>
      * @since 0.7.1
      */
-    private FetchAttributes getFetchAttributes() {
+    private FetchAttributes getFetchAttributes()
+            throws BadFetchError {
         final FetchAttributes attributes = new FetchAttributes();
         final String fetchHint = (String) getAttribute(Script.ATTRIBUTE_FETCHHINT);
         if (fetchHint != null) {
@@ -211,15 +214,15 @@ class ScriptStrategy extends AbstractTagStrategy {
         }
         final String maxage = (String) getAttribute(Script.ATTRIBUTE_MAXAGE);
         if (maxage != null) {
-            final TimeParser parser = new TimeParser(maxage);
-            final long seconds = parser.parse();
-            attributes.setMaxage(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Script.ATTRIBUTE_MAXAGE, maxage);
+            attributes.setMaxage(msec);
         }
         final String maxstale = (String) getAttribute(Script.ATTRIBUTE_MAXSTALE);
         if (maxstale != null) {
-            final TimeParser parser = new TimeParser(maxstale);
-            final long seconds = parser.parse();
-            attributes.setMaxstale(seconds);
+            final long msec = FetchAttributes.parseAge(
+                    Script.ATTRIBUTE_MAXSTALE, maxstale);
+            attributes.setMaxstale(msec);
         }
         return attributes;
     }
@@ -0,0 +1,145 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.jvoicexml.xml.srgs.SrgsXmlDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+
+/**
+ * Benchmark of the matching of utterances against SRGS grammars. Run with
+ * <code>gradle :org.jvoicexml.srgs:jmh</code>.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SrgsMatcherBenchmark {
+    /** Spoken digits. */
+    private static final String[] DIGITS = {"one", "two", "three", "four",
+        "five", "six", "seven", "eight", "nine", "zero" };
+
+    /** Number of digits in the digit utterance. */
+    @Param({"4", "16", "64" })
+    private int length;
+
+    /** A grammar for digit strings of arbitrary length. */
+    private SrgsSisrGrammar digits;
+
+    /** A grammar for phrases with optional parts. */
+    private SrgsSisrGrammar phrases;
+
+    /** A digit utterance. */
+    private String digitUtterance;
+
+    /** A phrase utterance that requires backtracking. */
+    private String phraseUtterance;
+
+    /**
+     * Loads the grammars.
+     * @throws Exception
+     *         error loading the grammars
+     */
+    @Setup
+    public void setUp() throws Exception {
+        digits = loadGrammar("/digits.srgs");
+        phrases = loadGrammar("/phrases.srgs");
+        final StringBuilder str = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                str.append(' ');
+            }
+            str.append(DIGITS[i % DIGITS.length]);
+        }
+        digitUtterance = str.toString();
+        phraseUtterance = "i would like to have " + digitUtterance
+                + " very large hot dogs thank you";
+    }
+
+    /**
+     * Loads the grammar from the given resource.
+     * @param resource name of the resource
+     * @return parsed grammar
+     * @throws Exception
+     *         error loading the grammar
+     */
+    private SrgsSisrGrammar loadGrammar(final String resource)
+            throws Exception {
+        final URL url = SrgsMatcherBenchmark.class.getResource(resource);
+        final URI uri = url.toURI();
+        try (InputStream input = url.openStream()) {
+            final InputSource source = new InputSource(input);
+            final SrgsXmlDocument document = new SrgsXmlDocument(source);
+            final SrgsSisrXmlGrammarParser parser =
+                    new SrgsSisrXmlGrammarParser();
+            return parser.parse(document, uri);
+        }
+    }
+
+    /**
+     * Matches a digit string.
+     * @return the match
+     */
+    @Benchmark
+    public MatchConsumption matchDigits() {
+        return digits.match(digitUtterance);
+    }
+
+    /**
+     * Matches a phrase with optional parts.
+     * @return the match
+     */
+    @Benchmark
+    public MatchConsumption matchPhrase() {
+        return phrases.match(phraseUtterance);
+    }
+
+    /**
+     * Matches a digit string and executes the semantic interpretation.
+     * @return the semantic interpretation
+     */
+    @Benchmark
+    public Object interpretDigits() {
+        final MatchConsumption match = digits.match(digitUtterance);
+        return match.executeSisr();
+    }
+}
@@ -94,49 +94,34 @@ public class ItemRuleExpansion implements RuleExpansion {
      */
     @Override
     public MatchConsumption match(final List<String> tokens, final int offset) {
-        if (subRules.isEmpty()) {
-            return new MatchConsumption(executableSemanticInterpretation);
-        }
-
-        MatchConsumption summationResult = new MatchConsumption();
-        if (initialSemanticInterpretation != null) {
-            summationResult.addExecutableSemanticInterpretation(initialSemanticInterpretation);
-        }
-        int matchCount = 0;
-        int tokensConsumed = 0;
-        while (maxRepeat == -1 || matchCount < maxRepeat) {
-            MatchConsumption fullIterationResult = new MatchConsumption();
-            boolean fullIterationMatched = true;
-
-            // Check all items. All have to match for it to be successful.
-            for (RuleExpansion rule : subRules) {
-                MatchConsumption individualResult = rule.match(tokens, offset
-                        + tokensConsumed);
-                if (individualResult == null) {
-                    fullIterationMatched = false;
-                    break;
-                }
-
-                // This rule matched, add to the iteration collection
-                fullIterationResult.add(individualResult);
-                tokensConsumed += individualResult.getTokensConsumed();
-            }
-
-            // The pass failed, break out and return results, if we matched
-            // enough below
-            if (!fullIterationMatched) {
-                break;
-            }
+        final SrgsMatcher matcher = new SrgsMatcher(tokens);
+        return matcher.match(this, offset);
+    }
 
-            ++matchCount;
-            summationResult.add(fullIterationResult);
+    /**
+     * Creates the result of a successful match of this item.
+     * @param matches the matches of the sub rules in the order in which they
+     *          matched over all repetitions
+     * @return the combined result
+     * @since 0.7.9
+     */
+    MatchConsumption createMatchConsumption(
+            final List<MatchConsumption> matches) {
+        if (subRules.isEmpty()) {
+            final MatchConsumption result = new MatchConsumption();
+            result.addExecutableSemanticInterpretation(
+                    executableSemanticInterpretation);
+            return result;
         }
-
-        if (matchCount >= minRepeat) {
-            summationResult.addExecutableSemanticInterpretation(executableSemanticInterpretation);
-            return summationResult;
+        final MatchConsumption result = new MatchConsumption();
+        result.addExecutableSemanticInterpretation(
+                initialSemanticInterpretation);
+        for (MatchConsumption match : matches) {
+            result.add(match);
         }
-        return null;
+        result.addExecutableSemanticInterpretation(
+                executableSemanticInterpretation);
+        return result;
     }
 
     @Override
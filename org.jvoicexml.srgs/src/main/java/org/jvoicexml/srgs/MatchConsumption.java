@@ -24,7 +24,9 @@ package org.jvoicexml.srgs;
 import java.util.List;
 
 import org.apache.log4j.Logger;
+import org.jvoicexml.interpreter.datamodel.StandardObjectsScope;
 import org.jvoicexml.srgs.sisr.ExecutableSemanticInterpretation;
+import org.jvoicexml.srgs.sisr.SisrScope;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.Scriptable;
@@ -158,7 +160,8 @@ public class MatchConsumption {
     public Object executeSisr() {
         final Context context = Context.enter();
         context.setLanguageVersion(Context.VERSION_DEFAULT);
-        final Scriptable globalScope = context.initStandardObjects();
+        final Scriptable globalScope =
+                StandardObjectsScope.createScope(context);
 
         if (globalExecutation != null) {
             globalExecutation.execute(context, globalScope);
@@ -169,11 +172,7 @@ public class MatchConsumption {
         // Set up working scope - note out initialized at this level, but
         // shouldn't be used
         Scriptable workingScope = context.newObject(globalScope);
-        context.evaluateString(
-                workingScope,
-                "var out=new Object();\nvar rules=new Object();\n"
-                        + "var meta={current: function() {return {text:'', score:1.0};}};\n",
-                "SISR init from MatchConsumer", 0, null);
+        SisrScope.initialize(context, workingScope);
 
         if (executationCollection.size() != 1) {
             LOGGER.error("Execution collection was not 1: "
@@ -187,8 +186,7 @@ public class MatchConsumption {
         }
 
         // Since the last item was a rule, we can return rules.latest
-        return context.evaluateString(workingScope, "rules.latest();",
-                "SISR from MatchConsumer", 0, null);
+        return SisrScope.getLatestRuleResult(context, workingScope);
     }
 
 }
@@ -56,26 +56,33 @@ public class OneOfRuleExpansion implements RuleExpansion {
         initialSI.append(si);
     }
 
+    List<RuleExpansion> getSubRules() {
+        return subRules;
+    }
+
     @Override
     public MatchConsumption match(List<String> tokens, int offset) {
-     // Not allowed per DTD, but not validating
-        if (subRules.isEmpty()) {
-            return new MatchConsumption(executableSI);
-        }
-
-        // Return first match, or a failure
-        for (RuleExpansion rule : subRules) {
-            MatchConsumption individualResult = rule.match(tokens, offset);
-            if (individualResult != null) {
-                if (initialSI != null)
-                    individualResult.addExecutableSemanticInterpretation(initialSI);
+        final SrgsMatcher matcher = new SrgsMatcher(tokens);
+        return matcher.match(this, offset);
+    }
 
-                individualResult.addExecutableSemanticInterpretation(executableSI);
-                return individualResult;
-            }
+    /**
+     * Creates the result of a successful match of this one-of.
+     * @param match the match of the chosen alternative, <code>null</code>
+     *          if there are no alternatives
+     * @return the result
+     * @since 0.7.9
+     */
+    MatchConsumption createMatchConsumption(final MatchConsumption match) {
+        // Not allowed per DTD, but not validating
+        if (match == null) {
+            final MatchConsumption result = new MatchConsumption();
+            result.addExecutableSemanticInterpretation(executableSI);
+            return result;
         }
-
-        return null;
+        match.addExecutableSemanticInterpretation(initialSI);
+        match.addExecutableSemanticInterpretation(executableSI);
+        return match;
     }
 
     public void dump(String pad) {
@@ -54,33 +54,43 @@ public class RuleRefExpansion implements RuleExpansion {
         executableSematicInterpretation = si;
     }
 
+    SrgsRule getReferencedRule() {
+        return referencedRule;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public MatchConsumption match(List<String> tokens, int offset) {
-        MatchConsumption individualResult = referencedRule
-                .match(tokens, offset);
-        if (individualResult != null) {
-            if (externalGrammar != null) {
-                if (individualResult.getExecutationCollection().size() != 1)
-                    LOGGER.error("SrgsRule does not have one SI component");
+        final SrgsMatcher matcher = new SrgsMatcher(tokens);
+        return matcher.match(this, offset);
+    }
 
-                // Replace the current execution component with a
-                // GrammarContext, which will run
-                // the rule in a new grammar based context
-                GrammarContext grammarContext = new GrammarContext(
-                        externalGrammar, referencedRule.getId(),
-                        individualResult.getExecutationCollection().get(0));
-                individualResult.getExecutationCollection().clear();
-                individualResult.addExecutableSemanticInterpretation(grammarContext);
-            } else {
-                individualResult.addExecutableSemanticInterpretation(executableSematicInterpretation);
-            }
-            return individualResult;
-        }
+    /**
+     * Creates the result of a successful match of the referenced rule.
+     * @param individualResult the match of the referenced rule
+     * @return the result
+     * @since 0.7.9
+     */
+    MatchConsumption createMatchConsumption(
+            final MatchConsumption individualResult) {
+        if (externalGrammar != null) {
+            if (individualResult.getExecutationCollection().size() != 1)
+                LOGGER.error("SrgsRule does not have one SI component");
 
-        return null;
+            // Replace the current execution component with a
+            // GrammarContext, which will run
+            // the rule in a new grammar based context
+            GrammarContext grammarContext = new GrammarContext(
+                    externalGrammar, referencedRule.getId(),
+                    individualResult.getExecutationCollection().get(0));
+            individualResult.getExecutationCollection().clear();
+            individualResult.addExecutableSemanticInterpretation(grammarContext);
+        } else {
+            individualResult.addExecutableSemanticInterpretation(executableSematicInterpretation);
+        }
+        return individualResult;
     }
 
     public void dump(String pad) {
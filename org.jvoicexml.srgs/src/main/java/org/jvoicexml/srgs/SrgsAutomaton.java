@@ -0,0 +1,767 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+
+/**
+ * A finite-state automaton that has been compiled from a non-recursive SRGS
+ * grammar by the {@link SrgsAutomatonCompiler}.
+ *
+ * <p>
+ * The automaton consists of two parts:
+ * </p>
+ * <ul>
+ * <li>A minimized deterministic automaton over the tokens of the grammar.
+ * It decides in constant time per token whether an utterance is in the
+ * language of the grammar.</li>
+ * <li>The nondeterministic automaton the deterministic one was built from.
+ * Its transitions carry the actions to enter and exit the expansions of the
+ * grammar. If an accepted utterance can be parsed in exactly one way, the
+ * actions along this single path are replayed to create the
+ * {@link MatchConsumption} with the semantic interpretation.</li>
+ * <li>The deterministic automaton of the subset construction before
+ * minimization together with the states of the nondeterministic automaton
+ * that make up each of its states. It yields the reachable states of the
+ * nondeterministic automaton per token without simulating it, so that only
+ * the single path has to be traced back.</li>
+ * </ul>
+ *
+ * <p>
+ * Instances are immutable and can be shared by all sessions.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class SrgsAutomaton {
+    /** Symbol of tokens that are not part of the grammar. */
+    static final int UNKNOWN_SYMBOL = -1;
+
+    /** Index of a missing state. */
+    static final int NO_STATE = -1;
+
+    /** Mapping of the tokens of the grammar to symbols. */
+    private final Map<String, Integer> alphabet;
+
+    /** The tokens of the grammar per symbol. */
+    private final String[] tokens;
+
+    /** Transitions of the deterministic automaton per state and symbol. */
+    private final int[][] transitions;
+
+    /** Accepting states of the deterministic automaton. */
+    private final boolean[] accepting;
+
+    /** Start state of the deterministic automaton. */
+    private final int start;
+
+    /** The nondeterministic automaton with the actions. */
+    private final Nfa nfa;
+
+    /**
+     * Transitions of the deterministic automaton of the subset construction
+     * per state and symbol. Its start state is <code>0</code>.
+     */
+    private final int[][] subsetTransitions;
+
+    /**
+     * States of the nondeterministic automaton per state of the subset
+     * construction.
+     */
+    private final BitSet[] subsets;
+
+    /**
+     * Constructs a new object.
+     * @param symbols mapping of the tokens of the grammar to symbols
+     * @param table transitions of the deterministic automaton per state and
+     *          symbol
+     * @param finals accepting states of the deterministic automaton
+     * @param initial start state of the deterministic automaton
+     * @param nondeterministic the nondeterministic automaton
+     * @param subsetTable transitions of the subset construction per state
+     *          and symbol
+     * @param states states of the nondeterministic automaton per state of
+     *          the subset construction
+     */
+    SrgsAutomaton(final Map<String, Integer> symbols, final int[][] table,
+            final boolean[] finals, final int initial,
+            final Nfa nondeterministic, final int[][] subsetTable,
+            final BitSet[] states) {
+        alphabet = symbols;
+        tokens = new String[symbols.size()];
+        for (Map.Entry<String, Integer> entry : symbols.entrySet()) {
+            tokens[entry.getValue()] = entry.getKey();
+        }
+        transitions = table;
+        accepting = finals;
+        start = initial;
+        nfa = nondeterministic;
+        subsetTransitions = subsetTable;
+        subsets = states;
+    }
+
+    /**
+     * Retrieves the number of states of the deterministic automaton.
+     * @return number of states
+     */
+    int getStateCount() {
+        return transitions.length;
+    }
+
+    /**
+     * Checks if the given tokens are in the language of the grammar.
+     * @param tokens the received tokens
+     * @return <code>true</code> if the tokens are accepted
+     */
+    boolean accepts(final List<String> tokens) {
+        int state = start;
+        for (String token : tokens) {
+            final int symbol = getSymbol(token);
+            if (symbol == UNKNOWN_SYMBOL) {
+                return false;
+            }
+            state = transitions[state][symbol];
+            if (state == NO_STATE) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Checks how the grammar relates to the given partial DTMF input.
+     * Since DTMF input is not separated into tokens, the characters of the
+     * input are matched against the characters of the tokens. The input
+     * can be extended if it ends within a token or in a state with outgoing
+     * transitions.
+     * @param input the digits that have been entered so far
+     * @return state of the partial input
+     */
+    PrefixMatch matchPrefix(final CharSequence input) {
+        // A position is either a state at a token boundary or the offset
+        // within the token of a transition to a state.
+        Collection<Position> positions = new java.util.HashSet<Position>();
+        positions.add(new Position(start, UNKNOWN_SYMBOL, 0));
+        for (int i = 0; i < input.length(); i++) {
+            final char ch = input.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                continue;
+            }
+            final Collection<Position> next =
+                    new java.util.HashSet<Position>();
+            for (Position position : positions) {
+                advance(position, ch, next);
+            }
+            if (next.isEmpty()) {
+                return PrefixMatch.DEAD;
+            }
+            positions = next;
+        }
+        boolean complete = false;
+        boolean extensible = false;
+        for (Position position : positions) {
+            final int state = position.getState();
+            if (position.getSymbol() != UNKNOWN_SYMBOL) {
+                extensible = true;
+            } else {
+                complete |= accepting[state];
+                extensible |= hasTransitions(state);
+            }
+        }
+        if (extensible) {
+            return PrefixMatch.CONTINUE;
+        }
+        if (complete) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.DEAD;
+    }
+
+    /**
+     * Adds all positions that are reached from the given position by the
+     * given character.
+     * @param position the current position
+     * @param ch the next character
+     * @param next the reached positions
+     */
+    private void advance(final Position position, final char ch,
+            final Collection<Position> next) {
+        final int symbol = position.getSymbol();
+        if (symbol != UNKNOWN_SYMBOL) {
+            final String token = tokens[symbol];
+            final int offset = position.getOffset();
+            if (token.charAt(offset) == ch) {
+                next.add(createPosition(position.getState(), symbol,
+                        offset + 1));
+            }
+            return;
+        }
+        final int[] targets = transitions[position.getState()];
+        for (int i = 0; i < targets.length; i++) {
+            final int target = targets[i];
+            if (target != NO_STATE && tokens[i].length() > 0
+                    && tokens[i].charAt(0) == ch) {
+                next.add(createPosition(target, i, 1));
+            }
+        }
+    }
+
+    /**
+     * Creates the position after the given offset within the token of the
+     * given symbol.
+     * @param target the state that is reached after the token
+     * @param symbol the symbol
+     * @param offset the number of matched characters of the token
+     * @return the position
+     */
+    private Position createPosition(final int target, final int symbol,
+            final int offset) {
+        if (offset == tokens[symbol].length()) {
+            return new Position(target, UNKNOWN_SYMBOL, 0);
+        }
+        return new Position(target, symbol, offset);
+    }
+
+    /**
+     * Checks if the given state has outgoing transitions.
+     * @param state the state
+     * @return <code>true</code> if there is at least one transition
+     */
+    private boolean hasTransitions(final int state) {
+        final int[] targets = transitions[state];
+        for (int target : targets) {
+            if (target != NO_STATE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the match for the given accepted tokens. The reachable states
+     * of the nondeterministic automaton are looked up in the subset
+     * construction so that only the path back from the final state has to
+     * be traced.
+     * @param tokens the received tokens that have been accepted
+     * @return the match, <code>null</code> if the tokens can be parsed in
+     *          more than one way
+     */
+    MatchConsumption interpret(final List<String> tokens) {
+        final int[] symbols = new int[tokens.size()];
+        final BitSet[] reachable = new BitSet[symbols.length + 1];
+        int state = 0;
+        reachable[0] = subsets[state];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = getSymbol(tokens.get(i));
+            if (symbols[i] == UNKNOWN_SYMBOL) {
+                return null;
+            }
+            state = subsetTransitions[state][symbols[i]];
+            if (state == NO_STATE) {
+                return null;
+            }
+            reachable[i + 1] = subsets[state];
+        }
+        if (!reachable[symbols.length].get(nfa.getEnd())) {
+            return null;
+        }
+        final Deque<Nfa.Edge> path = nfa.getUniquePath(symbols, reachable);
+        if (path == null) {
+            return null;
+        }
+        return replay(tokens, path);
+    }
+
+    /**
+     * Replays the actions along the given path.
+     * @param tokens the received tokens
+     * @param path the path through the nondeterministic automaton
+     * @return created match
+     */
+    private MatchConsumption replay(final List<String> tokens,
+            final Deque<Nfa.Edge> path) {
+        final Deque<Frame> frames = new ArrayDeque<Frame>();
+        MatchConsumption result = null;
+        int position = 0;
+        for (Nfa.Edge edge : path) {
+            if (edge.getSymbol() != UNKNOWN_SYMBOL) {
+                ++position;
+            } else if (edge.getAction() == Nfa.ENTER) {
+                frames.push(new Frame(edge.getExpansion(), position));
+            } else if (edge.getAction() == Nfa.EXIT) {
+                final Frame frame = frames.pop();
+                final MatchConsumption match =
+                        frame.createMatchConsumption(tokens);
+                if (frames.isEmpty()) {
+                    result = match;
+                } else {
+                    frames.peek().add(match);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the symbol of the given token.
+     * @param token the token
+     * @return the symbol, {@link #UNKNOWN_SYMBOL} if the token is not part
+     *          of the grammar
+     */
+    private int getSymbol(final String token) {
+        final Integer symbol = alphabet.get(token);
+        if (symbol == null) {
+            return UNKNOWN_SYMBOL;
+        }
+        return symbol;
+    }
+
+    /**
+     * A position while matching partial DTMF input.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class Position {
+        /** The state, or the target state of a partially matched token. */
+        private final int state;
+
+        /**
+         * The symbol of a partially matched token, {@link #UNKNOWN_SYMBOL}
+         * at a token boundary.
+         */
+        private final int symbol;
+
+        /** Number of matched characters of the token. */
+        private final int offset;
+
+        /**
+         * Constructs a new object.
+         * @param st the state
+         * @param sym the symbol of a partially matched token
+         * @param off number of matched characters of the token
+         */
+        Position(final int st, final int sym, final int off) {
+            state = st;
+            symbol = sym;
+            offset = off;
+        }
+
+        /**
+         * Retrieves the state.
+         * @return the state
+         */
+        int getState() {
+            return state;
+        }
+
+        /**
+         * Retrieves the symbol of a partially matched token.
+         * @return the symbol, {@link #UNKNOWN_SYMBOL} at a token boundary
+         */
+        int getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Retrieves the number of matched characters of the token.
+         * @return number of matched characters
+         */
+        int getOffset() {
+            return offset;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = state;
+            result = prime * result + symbol;
+            return prime * result + offset;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Position)) {
+                return false;
+            }
+            final Position other = (Position) obj;
+            return state == other.state && symbol == other.symbol
+                    && offset == other.offset;
+        }
+    }
+
+    /**
+     * An expansion that has been entered while replaying a path.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class Frame {
+        /** The entered expansion. */
+        private final RuleExpansion expansion;
+
+        /** Offset of the first token of the expansion. */
+        private final int start;
+
+        /** Matches of the nested expansions. */
+        private final List<MatchConsumption> matches;
+
+        /**
+         * Constructs a new object.
+         * @param exp the entered expansion
+         * @param offset offset of the first token of the expansion
+         */
+        Frame(final RuleExpansion exp, final int offset) {
+            expansion = exp;
+            start = offset;
+            matches = new ArrayList<MatchConsumption>();
+        }
+
+        /**
+         * Adds the match of a nested expansion.
+         * @param match the match
+         */
+        void add(final MatchConsumption match) {
+            matches.add(match);
+        }
+
+        /**
+         * Creates the match of the expansion.
+         * @param tokens the received tokens
+         * @return the match
+         */
+        MatchConsumption createMatchConsumption(final List<String> tokens) {
+            if (expansion instanceof TokenRuleExpansion) {
+                return expansion.match(tokens, start);
+            } else if (expansion instanceof ItemRuleExpansion) {
+                final ItemRuleExpansion item = (ItemRuleExpansion) expansion;
+                return item.createMatchConsumption(matches);
+            } else if (expansion instanceof OneOfRuleExpansion) {
+                final OneOfRuleExpansion oneOf =
+                        (OneOfRuleExpansion) expansion;
+                if (matches.isEmpty()) {
+                    return oneOf.createMatchConsumption(null);
+                }
+                return oneOf.createMatchConsumption(matches.get(0));
+            } else if (expansion instanceof RuleRefExpansion) {
+                final RuleRefExpansion ruleref = (RuleRefExpansion) expansion;
+                return ruleref.createMatchConsumption(matches.get(0));
+            } else {
+                final SrgsRule rule = (SrgsRule) expansion;
+                return rule.createMatchConsumption(matches.get(0));
+            }
+        }
+    }
+
+    /**
+     * A nondeterministic automaton with actions on its epsilon transitions.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    static final class Nfa {
+        /** No action. */
+        static final int NONE = 0;
+
+        /** Action to enter an expansion. */
+        static final int ENTER = 1;
+
+        /** Action to exit an expansion. */
+        static final int EXIT = 2;
+
+        /** Outgoing edges per state. */
+        private final List<List<Edge>> outgoing;
+
+        /** Incoming edges per state. */
+        private final List<List<Edge>> incoming;
+
+        /** The start state. */
+        private int start;
+
+        /** The final state. */
+        private int end;
+
+        /**
+         * Constructs a new object.
+         */
+        Nfa() {
+            outgoing = new ArrayList<List<Edge>>();
+            incoming = new ArrayList<List<Edge>>();
+        }
+
+        /**
+         * Adds a new state.
+         * @return the new state
+         */
+        int addState() {
+            outgoing.add(new ArrayList<Edge>());
+            incoming.add(new ArrayList<Edge>());
+            return outgoing.size() - 1;
+        }
+
+        /**
+         * Retrieves the number of states.
+         * @return number of states
+         */
+        int getStateCount() {
+            return outgoing.size();
+        }
+
+        /**
+         * Adds an epsilon transition.
+         * @param from the source state
+         * @param to the target state
+         * @param action the action of the transition
+         * @param expansion the expansion of the action
+         */
+        void addEpsilon(final int from, final int to, final int action,
+                final RuleExpansion expansion) {
+            addEdge(new Edge(from, to, UNKNOWN_SYMBOL, action, expansion));
+        }
+
+        /**
+         * Adds a transition that consumes a token.
+         * @param from the source state
+         * @param to the target state
+         * @param symbol the symbol of the token
+         */
+        void addSymbol(final int from, final int to, final int symbol) {
+            addEdge(new Edge(from, to, symbol, NONE, null));
+        }
+
+        /**
+         * Adds the given edge.
+         * @param edge the edge
+         */
+        private void addEdge(final Edge edge) {
+            outgoing.get(edge.getFrom()).add(edge);
+            incoming.get(edge.getTo()).add(edge);
+        }
+
+        /**
+         * Sets the start and the final state.
+         * @param first the start state
+         * @param last the final state
+         */
+        void setStartAndEnd(final int first, final int last) {
+            start = first;
+            end = last;
+        }
+
+        /**
+         * Retrieves the start state.
+         * @return the start state
+         */
+        int getStart() {
+            return start;
+        }
+
+        /**
+         * Retrieves the final state.
+         * @return the final state
+         */
+        int getEnd() {
+            return end;
+        }
+
+        /**
+         * Retrieves the outgoing edges of the given state.
+         * @param state the state
+         * @return outgoing edges
+         */
+        List<Edge> getOutgoing(final int state) {
+            return outgoing.get(state);
+        }
+
+        /**
+         * Adds all states that are reachable via epsilon transitions to the
+         * given set of states.
+         * @param states the set of states
+         */
+        void closure(final BitSet states) {
+            final Deque<Integer> stack = new ArrayDeque<Integer>();
+            for (int i = states.nextSetBit(0); i >= 0;
+                    i = states.nextSetBit(i + 1)) {
+                stack.push(i);
+            }
+            while (!stack.isEmpty()) {
+                final int state = stack.pop();
+                for (Edge edge : outgoing.get(state)) {
+                    if (edge.getSymbol() == UNKNOWN_SYMBOL
+                            && !states.get(edge.getTo())) {
+                        states.set(edge.getTo());
+                        stack.push(edge.getTo());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Determines the path from the start state to the final state for
+         * the given symbols. Since each state that is reachable from the
+         * start state is the end of at least one path, the path is unique
+         * if and only if each state on the way back from the final state
+         * has exactly one reachable predecessor.
+         * @param symbols the symbols
+         * @param reachable reachable states per position
+         * @return the edges of the path, <code>null</code> if there is more
+         *          than one path
+         */
+        Deque<Edge> getUniquePath(final int[] symbols,
+                final BitSet[] reachable) {
+            final Deque<Edge> path = new ArrayDeque<Edge>();
+            int state = end;
+            int position = symbols.length;
+            final int maxSteps = (symbols.length + 1) * getStateCount();
+            while (state != start || position != 0) {
+                if (path.size() > maxSteps) {
+                    return null;
+                }
+                Edge predecessor = null;
+                for (Edge edge : incoming.get(state)) {
+                    final boolean possible;
+                    if (edge.getSymbol() == UNKNOWN_SYMBOL) {
+                        possible = reachable[position].get(edge.getFrom());
+                    } else {
+                        possible = position > 0
+                                && edge.getSymbol() == symbols[position - 1]
+                                && reachable[position - 1]
+                                        .get(edge.getFrom());
+                    }
+                    if (possible) {
+                        if (predecessor != null) {
+                            return null;
+                        }
+                        predecessor = edge;
+                    }
+                }
+                if (predecessor == null) {
+                    return null;
+                }
+                path.push(predecessor);
+                if (predecessor.getSymbol() != UNKNOWN_SYMBOL) {
+                    --position;
+                }
+                state = predecessor.getFrom();
+            }
+            return path;
+        }
+
+        /**
+         * A transition of the nondeterministic automaton.
+         *
+         * @author Dirk Schnelle-Walka
+         * @since 0.7.9
+         */
+        static final class Edge {
+            /** The source state. */
+            private final int from;
+
+            /** The target state. */
+            private final int to;
+
+            /** The consumed symbol, {@link #UNKNOWN_SYMBOL} for epsilon. */
+            private final int symbol;
+
+            /** The action. */
+            private final int action;
+
+            /** The expansion of the action. */
+            private final RuleExpansion expansion;
+
+            /**
+             * Constructs a new object.
+             * @param source the source state
+             * @param target the target state
+             * @param sym the consumed symbol
+             * @param act the action
+             * @param exp the expansion of the action
+             */
+            Edge(final int source, final int target, final int sym,
+                    final int act, final RuleExpansion exp) {
+                from = source;
+                to = target;
+                symbol = sym;
+                action = act;
+                expansion = exp;
+            }
+
+            /**
+             * Retrieves the source state.
+             * @return the source state
+             */
+            int getFrom() {
+                return from;
+            }
+
+            /**
+             * Retrieves the target state.
+             * @return the target state
+             */
+            int getTo() {
+                return to;
+            }
+
+            /**
+             * Retrieves the consumed symbol.
+             * @return the symbol, {@link #UNKNOWN_SYMBOL} for epsilon
+             */
+            int getSymbol() {
+                return symbol;
+            }
+
+            /**
+             * Retrieves the action.
+             * @return the action
+             */
+            int getAction() {
+                return action;
+            }
+
+            /**
+             * Retrieves the expansion of the action.
+             * @return the expansion
+             */
+            RuleExpansion getExpansion() {
+                return expansion;
+            }
+        }
+    }
+}
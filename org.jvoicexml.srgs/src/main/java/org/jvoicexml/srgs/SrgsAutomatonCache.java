@@ -0,0 +1,209 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the automata that have been compiled for the grammars with a
+ * given URI. The automata are shared by all sessions.
+ *
+ * <p>
+ * Since different documents may be served under the same URI, an automaton
+ * is only reused if the digest of the sources of the grammar and of all
+ * external grammars that it references is the same. Grammars
+ * that can not be compiled are remembered as well to avoid repeated
+ * attempts.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class SrgsAutomatonCache {
+    /** Initial capacity of the map of compiled automata. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Load factor of the map of compiled automata. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Algorithm to compute the digest of the grammar sources. */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** Encoding of the grammar sources for the digest. */
+    private static final Charset ENCODING = Charset.forName("UTF-8");
+
+    /** The compiled automata in access order. */
+    private final Map<URI, CachedAutomaton> automata;
+
+    /** Maximum number of automata to keep. */
+    private final int maxSize;
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of automata to keep
+     */
+    SrgsAutomatonCache(final int size) {
+        maxSize = size;
+        automata = new LinkedHashMap<URI, CachedAutomaton>(
+                INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            /** The serial version UID. */
+            private static final long serialVersionUID =
+                    -2467002402766339171L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<URI, CachedAutomaton> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the automaton for the given grammar. If there is no such
+     * automaton, the grammar is compiled and the result is stored.
+     * @param grammar the grammar
+     * @return the automaton, <code>null</code> if the grammar can not be
+     *          compiled
+     */
+    SrgsAutomaton getAutomaton(final SrgsSisrGrammar grammar) {
+        final URI uri = grammar.getURI();
+        if (uri == null) {
+            return compile(grammar);
+        }
+        final byte[] digest = getDigest(grammar);
+        synchronized (automata) {
+            final CachedAutomaton entry = automata.get(uri);
+            if (entry != null && Arrays.equals(entry.getDigest(), digest)) {
+                return entry.getAutomaton();
+            }
+        }
+        final SrgsAutomaton automaton = compile(grammar);
+        synchronized (automata) {
+            automata.put(uri, new CachedAutomaton(digest, automaton));
+        }
+        return automaton;
+    }
+
+    /**
+     * Computes the digest of the sources of the given grammar and of all
+     * external grammars that are referenced directly or indirectly.
+     * @param grammar the grammar
+     * @return digest of the sources
+     */
+    static byte[] getDigest(final SrgsSisrGrammar grammar) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        final Collection<SrgsSisrGrammar> visited =
+                new java.util.LinkedHashSet<SrgsSisrGrammar>();
+        collect(grammar, visited);
+        for (SrgsSisrGrammar current : visited) {
+            final String source = current.getGrammar().toString();
+            digest.update(source.getBytes(ENCODING));
+            // Separate the sources so that they can not be shifted.
+            digest.update((byte) 0);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Collects the given grammar and all external grammars that it
+     * references directly or indirectly.
+     * @param grammar the grammar
+     * @param visited the grammars collected so far
+     */
+    private static void collect(final SrgsSisrGrammar grammar,
+            final Collection<SrgsSisrGrammar> visited) {
+        if (!visited.add(grammar)) {
+            return;
+        }
+        for (SrgsSisrGrammar external : grammar.getExternalGrammars()) {
+            collect(external, visited);
+        }
+    }
+
+    /**
+     * Compiles the root rule of the given grammar.
+     * @param grammar the grammar
+     * @return the automaton, <code>null</code> if the grammar can not be
+     *          compiled
+     */
+    private static SrgsAutomaton compile(final SrgsSisrGrammar grammar) {
+        final SrgsRule rule = grammar.getRule(null, false);
+        if (rule == null) {
+            return null;
+        }
+        final SrgsAutomatonCompiler compiler = new SrgsAutomatonCompiler();
+        return compiler.compile(rule);
+    }
+
+    /**
+     * A cached automaton together with the digest of the grammar sources it
+     * was compiled from.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class CachedAutomaton {
+        /** The digest of the grammar sources. */
+        private final byte[] digest;
+
+        /** The automaton, <code>null</code> if not compilable. */
+        private final SrgsAutomaton automaton;
+
+        /**
+         * Constructs a new object.
+         * @param sources the digest of the grammar sources
+         * @param compiled the automaton
+         */
+        CachedAutomaton(final byte[] sources, final SrgsAutomaton compiled) {
+            digest = sources;
+            automaton = compiled;
+        }
+
+        /**
+         * Retrieves the digest of the grammar sources.
+         * @return the digest
+         */
+        byte[] getDigest() {
+            return digest;
+        }
+
+        /**
+         * Retrieves the automaton.
+         * @return the automaton, <code>null</code> if not compilable
+         */
+        SrgsAutomaton getAutomaton() {
+            return automaton;
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Compiler of non-recursive SRGS grammars into an {@link SrgsAutomaton}.
+ *
+ * <p>
+ * The rule expansions are translated into a nondeterministic automaton
+ * whose epsilon transitions enter and exit the expansions. Referenced rules
+ * are inlined and repeats are unrolled. This automaton is then turned into
+ * a deterministic one by the subset construction which is finally
+ * minimized.
+ * </p>
+ *
+ * <p>
+ * Grammars that reference their rules recursively, that use the special
+ * rules or that would result in too many states can not be compiled. They
+ * have to be evaluated by the {@link SrgsMatcher}.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class SrgsAutomatonCompiler {
+    /** Logger instance. */
+    private static final Logger LOGGER = Logger
+            .getLogger(SrgsAutomatonCompiler.class);
+
+    /** Maximal number of states of the nondeterministic automaton. */
+    static final int MAX_NFA_STATES = 20000;
+
+    /** Maximal number of states of the deterministic automaton. */
+    static final int MAX_DFA_STATES = 5000;
+
+    /** The automaton under construction. */
+    private final SrgsAutomaton.Nfa nfa;
+
+    /** Mapping of the tokens of the grammar to symbols. */
+    private final Map<String, Integer> alphabet;
+
+    /** Rules that are currently being inlined. */
+    private final Deque<SrgsRule> activeRules;
+
+    /**
+     * Constructs a new object.
+     */
+    SrgsAutomatonCompiler() {
+        nfa = new SrgsAutomaton.Nfa();
+        alphabet = new HashMap<String, Integer>();
+        activeRules = new ArrayDeque<SrgsRule>();
+    }
+
+    /**
+     * Compiles the given root rule.
+     * @param rule the root rule of the grammar
+     * @return compiled automaton, <code>null</code> if the grammar can not
+     *          be compiled
+     */
+    SrgsAutomaton compile(final SrgsRule rule) {
+        final int start = nfa.addState();
+        final int end = nfa.addState();
+        try {
+            final int[] fragment = build(rule);
+            nfa.addEpsilon(start, fragment[0], SrgsAutomaton.Nfa.NONE, null);
+            nfa.addEpsilon(fragment[1], end, SrgsAutomaton.Nfa.NONE, null);
+        } catch (NotCompilableException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("grammar with root '" + rule.getId()
+                        + "' can not be compiled: " + e.getMessage());
+            }
+            return null;
+        }
+        nfa.setStartAndEnd(start, end);
+        final List<BitSet> subsets = new ArrayList<BitSet>();
+        final List<int[]> transitions = determinize(subsets);
+        if (transitions == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("grammar with root '" + rule.getId()
+                        + "' exceeds " + MAX_DFA_STATES + " states");
+            }
+            return null;
+        }
+        final boolean[] accepting = new boolean[subsets.size()];
+        for (int i = 0; i < accepting.length; i++) {
+            accepting[i] = subsets.get(i).get(end);
+        }
+        return minimize(transitions, accepting, subsets);
+    }
+
+    /**
+     * Builds the fragment for the given expansion.
+     * @param expansion the expansion
+     * @return start and end state of the fragment
+     * @exception NotCompilableException
+     *            if the expansion can not be compiled
+     */
+    private int[] build(final RuleExpansion expansion)
+            throws NotCompilableException {
+        final int start = addState();
+        final int end = addState();
+        final int enter = addState();
+        final int exit = addState();
+        nfa.addEpsilon(start, enter, SrgsAutomaton.Nfa.ENTER, expansion);
+        nfa.addEpsilon(exit, end, SrgsAutomaton.Nfa.EXIT, expansion);
+        if (expansion instanceof TokenRuleExpansion) {
+            buildToken((TokenRuleExpansion) expansion, enter, exit);
+        } else if (expansion instanceof ItemRuleExpansion) {
+            buildItem((ItemRuleExpansion) expansion, enter, exit);
+        } else if (expansion instanceof OneOfRuleExpansion) {
+            final OneOfRuleExpansion oneOf = (OneOfRuleExpansion) expansion;
+            final List<RuleExpansion> alternatives = oneOf.getSubRules();
+            if (alternatives.isEmpty()) {
+                nfa.addEpsilon(enter, exit, SrgsAutomaton.Nfa.NONE, null);
+            }
+            for (RuleExpansion alternative : alternatives) {
+                final int[] fragment = build(alternative);
+                connect(enter, fragment[0]);
+                connect(fragment[1], exit);
+            }
+        } else if (expansion instanceof RuleRefExpansion) {
+            final RuleRefExpansion ruleref = (RuleRefExpansion) expansion;
+            final int[] fragment = build(ruleref.getReferencedRule());
+            connect(enter, fragment[0]);
+            connect(fragment[1], exit);
+        } else if (expansion.getClass() == SrgsRule.class) {
+            buildRule((SrgsRule) expansion, enter, exit);
+        } else {
+            throw new NotCompilableException("unsupported expansion "
+                    + expansion.getClass().getSimpleName());
+        }
+        return new int[] {start, end};
+    }
+
+    /**
+     * Builds the transitions for the given tokens.
+     * @param token the token expansion
+     * @param enter the state after entering the expansion
+     * @param exit the state before exiting the expansion
+     * @exception NotCompilableException
+     *            if there are too many states
+     */
+    private void buildToken(final TokenRuleExpansion token, final int enter,
+            final int exit) throws NotCompilableException {
+        int current = enter;
+        for (String word : token.getTokens()) {
+            Integer symbol = alphabet.get(word);
+            if (symbol == null) {
+                symbol = alphabet.size();
+                alphabet.put(word, symbol);
+            }
+            final int next = addState();
+            nfa.addSymbol(current, next, symbol);
+            current = next;
+        }
+        connect(current, exit);
+    }
+
+    /**
+     * Builds the fragment for the given item by unrolling its repeats.
+     * @param item the item
+     * @param enter the state after entering the item
+     * @param exit the state before exiting the item
+     * @exception NotCompilableException
+     *            if the item can not be compiled
+     */
+    private void buildItem(final ItemRuleExpansion item, final int enter,
+            final int exit) throws NotCompilableException {
+        int current = enter;
+        final int min = item.getMinRepeat();
+        for (int i = 0; i < min; i++) {
+            current = buildSequence(item.getSubItems(), current);
+        }
+        final int max = item.getMaxRepeat();
+        if (max < 0) {
+            final int loop = addState();
+            connect(current, loop);
+            final int next = buildSequence(item.getSubItems(), loop);
+            connect(next, loop);
+            connect(loop, exit);
+        } else {
+            for (int i = min; i < max; i++) {
+                connect(current, exit);
+                current = buildSequence(item.getSubItems(), current);
+            }
+            connect(current, exit);
+        }
+    }
+
+    /**
+     * Builds the given expansions one after the other.
+     * @param expansions the expansions
+     * @param start the state to start from
+     * @return the state after the last expansion
+     * @exception NotCompilableException
+     *            if an expansion can not be compiled
+     */
+    private int buildSequence(final List<RuleExpansion> expansions,
+            final int start) throws NotCompilableException {
+        int current = start;
+        for (RuleExpansion expansion : expansions) {
+            final int[] fragment = build(expansion);
+            connect(current, fragment[0]);
+            current = fragment[1];
+        }
+        final int end = addState();
+        connect(current, end);
+        return end;
+    }
+
+    /**
+     * Inlines the given rule.
+     * @param rule the rule
+     * @param enter the state after entering the rule
+     * @param exit the state before exiting the rule
+     * @exception NotCompilableException
+     *            if the rule is recursive or can not be compiled
+     */
+    private void buildRule(final SrgsRule rule, final int enter,
+            final int exit) throws NotCompilableException {
+        final RuleExpansion inner = rule.getInnerRule();
+        if (inner == null) {
+            // Never matches, so there is no way to the exit.
+            return;
+        }
+        if (activeRules.contains(rule)) {
+            throw new NotCompilableException("rule '" + rule.getId()
+                    + "' is recursive");
+        }
+        activeRules.push(rule);
+        final int[] fragment = build(inner);
+        activeRules.pop();
+        connect(enter, fragment[0]);
+        connect(fragment[1], exit);
+    }
+
+    /**
+     * Connects the given states by an epsilon transition without action.
+     * @param from the source state
+     * @param to the target state
+     */
+    private void connect(final int from, final int to) {
+        nfa.addEpsilon(from, to, SrgsAutomaton.Nfa.NONE, null);
+    }
+
+    /**
+     * Adds a new state to the nondeterministic automaton.
+     * @return the new state
+     * @exception NotCompilableException
+     *            if there are too many states
+     */
+    private int addState() throws NotCompilableException {
+        if (nfa.getStateCount() >= MAX_NFA_STATES) {
+            throw new NotCompilableException("more than " + MAX_NFA_STATES
+                    + " states");
+        }
+        return nfa.addState();
+    }
+
+    /**
+     * Performs the subset construction.
+     * @param subsets the states of the nondeterministic automaton per
+     *          state of the deterministic automaton
+     * @return transitions per state and symbol, <code>null</code> if there
+     *          are too many states
+     */
+    private List<int[]> determinize(final List<BitSet> subsets) {
+        final Map<BitSet, Integer> states = new HashMap<BitSet, Integer>();
+        final List<int[]> transitions = new ArrayList<int[]>();
+        final BitSet initial = new BitSet();
+        initial.set(nfa.getStart());
+        nfa.closure(initial);
+        states.put(initial, 0);
+        subsets.add(initial);
+        for (int current = 0; current < subsets.size(); current++) {
+            final BitSet subset = subsets.get(current);
+            final BitSet[] targets = new BitSet[alphabet.size()];
+            for (int state = subset.nextSetBit(0); state >= 0;
+                    state = subset.nextSetBit(state + 1)) {
+                for (SrgsAutomaton.Nfa.Edge edge : nfa.getOutgoing(state)) {
+                    final int symbol = edge.getSymbol();
+                    if (symbol != SrgsAutomaton.UNKNOWN_SYMBOL) {
+                        if (targets[symbol] == null) {
+                            targets[symbol] = new BitSet();
+                        }
+                        targets[symbol].set(edge.getTo());
+                    }
+                }
+            }
+            final int[] row = new int[alphabet.size()];
+            for (int symbol = 0; symbol < row.length; symbol++) {
+                final BitSet target = targets[symbol];
+                if (target == null) {
+                    row[symbol] = SrgsAutomaton.NO_STATE;
+                    continue;
+                }
+                nfa.closure(target);
+                Integer index = states.get(target);
+                if (index == null) {
+                    if (subsets.size() >= MAX_DFA_STATES) {
+                        return null;
+                    }
+                    index = subsets.size();
+                    states.put(target, index);
+                    subsets.add(target);
+                }
+                row[symbol] = index;
+            }
+            transitions.add(row);
+        }
+        return transitions;
+    }
+
+    /**
+     * Minimizes the deterministic automaton by partition refinement.
+     * @param transitions transitions per state and symbol
+     * @param accepting accepting states
+     * @param subsets the states of the nondeterministic automaton per
+     *          state of the deterministic automaton
+     * @return minimized automaton
+     */
+    private SrgsAutomaton minimize(final List<int[]> transitions,
+            final boolean[] accepting, final List<BitSet> subsets) {
+        final int count = transitions.size();
+        int[] partition = new int[count];
+        for (int i = 0; i < count; i++) {
+            partition[i] = accepting[i] ? 1 : 0;
+        }
+        int blocks = 0;
+        while (true) {
+            final Map<List<Integer>, Integer> signatures =
+                    new HashMap<List<Integer>, Integer>();
+            final int[] refined = new int[count];
+            for (int i = 0; i < count; i++) {
+                final int[] row = transitions.get(i);
+                final List<Integer> signature =
+                        new ArrayList<Integer>(row.length + 1);
+                signature.add(partition[i]);
+                for (int target : row) {
+                    if (target == SrgsAutomaton.NO_STATE) {
+                        signature.add(SrgsAutomaton.NO_STATE);
+                    } else {
+                        signature.add(partition[target]);
+                    }
+                }
+                Integer block = signatures.get(signature);
+                if (block == null) {
+                    block = signatures.size();
+                    signatures.put(signature, block);
+                }
+                refined[i] = block;
+            }
+            partition = refined;
+            if (signatures.size() == blocks) {
+                break;
+            }
+            blocks = signatures.size();
+        }
+        final int[][] table = new int[blocks][];
+        final boolean[] finals = new boolean[blocks];
+        for (int i = 0; i < count; i++) {
+            final int block = partition[i];
+            if (table[block] != null) {
+                continue;
+            }
+            final int[] row = transitions.get(i);
+            final int[] minimized = Arrays.copyOf(row, row.length);
+            for (int symbol = 0; symbol < minimized.length; symbol++) {
+                if (minimized[symbol] != SrgsAutomaton.NO_STATE) {
+                    minimized[symbol] = partition[minimized[symbol]];
+                }
+            }
+            table[block] = minimized;
+            finals[block] = accepting[i];
+        }
+        final int[][] subsetTable =
+                transitions.toArray(new int[count][]);
+        final BitSet[] states = subsets.toArray(new BitSet[count]);
+        return new SrgsAutomaton(alphabet, table, finals, partition[0], nfa,
+                subsetTable, states);
+    }
+
+    /**
+     * Indicates that a grammar can not be compiled.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class NotCompilableException extends Exception {
+        /** The serial version UID. */
+        private static final long serialVersionUID = 4395183018318236425L;
+
+        /**
+         * Constructs a new object.
+         * @param message the detail message
+         */
+        NotCompilableException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher of received tokens against {@link RuleExpansion}s.
+ *
+ * <p>
+ * The matcher determines all the ways in which an expansion can match at a
+ * given offset, i.e. it backtracks over the alternatives of a
+ * <code>one-of</code> and over the number of repetitions of an
+ * <code>item</code>. The results are memoized per expansion and offset, so
+ * that each expansion is evaluated at most once per offset. For each offset
+ * where a match can end, only the preferred match is kept. Matches with more
+ * repetitions are preferred over those with less repetitions and earlier
+ * alternatives of a <code>one-of</code> are preferred over later ones.
+ * </p>
+ *
+ * <p>
+ * While matching, only lightweight {@link Derivation}s are created. The
+ * {@link MatchConsumption} with the semantic interpretation to execute is
+ * created only for the match that is finally chosen.
+ * </p>
+ *
+ * <p>
+ * A matcher is created for a single list of tokens and is not thread-safe.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class SrgsMatcher {
+    /** The received tokens. */
+    private final List<String> tokens;
+
+    /**
+     * Known derivations per expansion, indexed by the offset. Unknown
+     * offsets are <code>null</code>.
+     */
+    private final Map<RuleExpansion, List<List<Derivation>>> memo;
+
+    /**
+     * Constructs a new object.
+     * @param received the received tokens
+     */
+    SrgsMatcher(final List<String> received) {
+        tokens = received;
+        memo = new java.util.IdentityHashMap<RuleExpansion,
+                List<List<Derivation>>>();
+    }
+
+    /**
+     * Matches the given expansion at the given offset and returns the
+     * preferred match regardless of the number of consumed tokens.
+     * @param expansion the expansion to match
+     * @param offset current offset in tokens
+     * @return preferred match, <code>null</code> if there is no match
+     */
+    MatchConsumption match(final RuleExpansion expansion, final int offset) {
+        final List<Derivation> derivations = getDerivations(expansion,
+                offset);
+        if (derivations.isEmpty()) {
+            return null;
+        }
+        final Derivation derivation = derivations.get(0);
+        return derivation.createMatchConsumption();
+    }
+
+    /**
+     * Matches the given expansion against all tokens.
+     * @param expansion the expansion to match
+     * @return preferred match that consumes all tokens, <code>null</code> if
+     *          there is no such match
+     */
+    MatchConsumption matchAll(final RuleExpansion expansion) {
+        final List<Derivation> derivations = getDerivations(expansion, 0);
+        for (Derivation derivation : derivations) {
+            if (derivation.getEnd() == tokens.size()) {
+                return derivation.createMatchConsumption();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves all derivations of the given expansion at the given offset.
+     * @param expansion the expansion to match
+     * @param offset current offset in tokens
+     * @return derivations in the order of preference with distinct end
+     *          offsets
+     */
+    private List<Derivation> getDerivations(final RuleExpansion expansion,
+            final int offset) {
+        List<List<Derivation>> known = memo.get(expansion);
+        if (known == null) {
+            final List<List<Derivation>> unknown =
+                    Collections.nCopies(tokens.size() + 1, null);
+            known = new java.util.ArrayList<List<Derivation>>(unknown);
+            memo.put(expansion, known);
+        }
+        final List<Derivation> memoized = known.get(offset);
+        if (memoized != null) {
+            return memoized;
+        }
+        // Guard against left recursion that is not allowed in SRGS
+        final List<Derivation> none = Collections.emptyList();
+        known.set(offset, none);
+        final List<Derivation> derivations = derive(expansion, offset);
+        known.set(offset, derivations);
+        return derivations;
+    }
+
+    /**
+     * Determines all derivations of the given expansion at the given
+     * offset.
+     * @param expansion the expansion to match
+     * @param offset current offset in tokens
+     * @return derivations in the order of preference with distinct end
+     *          offsets
+     */
+    private List<Derivation> derive(final RuleExpansion expansion,
+            final int offset) {
+        if (expansion instanceof TokenRuleExpansion) {
+            return deriveToken((TokenRuleExpansion) expansion, offset);
+        } else if (expansion instanceof ItemRuleExpansion) {
+            return deriveItem((ItemRuleExpansion) expansion, offset);
+        } else if (expansion instanceof OneOfRuleExpansion) {
+            return deriveOneOf((OneOfRuleExpansion) expansion, offset);
+        } else if (expansion instanceof RuleRefExpansion) {
+            final RuleRefExpansion ruleref = (RuleRefExpansion) expansion;
+            final SrgsRule rule = ruleref.getReferencedRule();
+            return wrap(ruleref, getDerivations(rule, offset));
+        } else if (expansion instanceof SrgsRule) {
+            return deriveRule((SrgsRule) expansion, offset);
+        }
+        return deriveOther(expansion, offset);
+    }
+
+    /**
+     * Determines the derivation of a token.
+     * @param token the token expansion
+     * @param offset current offset in tokens
+     * @return derivations
+     */
+    private List<Derivation> deriveToken(final TokenRuleExpansion token,
+            final int offset) {
+        if (token.getTokenCount() > 0 && !token.matches(tokens, offset)) {
+            return Collections.emptyList();
+        }
+        final Derivation derivation = new Derivation(token, offset,
+                offset + token.getTokenCount(), null, null);
+        return Collections.singletonList(derivation);
+    }
+
+    /**
+     * Determines the derivations of a rule. Special rules are matched
+     * directly.
+     * @param rule the rule
+     * @param offset current offset in tokens
+     * @return derivations
+     */
+    private List<Derivation> deriveRule(final SrgsRule rule,
+            final int offset) {
+        final RuleExpansion inner = rule.getInnerRule();
+        if (inner == null) {
+            return deriveOther(rule, offset);
+        }
+        return wrap(rule, getDerivations(inner, offset));
+    }
+
+    /**
+     * Determines the derivation of an expansion that is not known to this
+     * matcher by its own matching.
+     * @param expansion the expansion
+     * @param offset current offset in tokens
+     * @return derivations
+     */
+    private List<Derivation> deriveOther(final RuleExpansion expansion,
+            final int offset) {
+        final MatchConsumption result = expansion.match(tokens, offset);
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        final Derivation derivation = new Derivation(expansion, offset,
+                offset + result.getTokensConsumed(), result);
+        return Collections.singletonList(derivation);
+    }
+
+    /**
+     * Determines the derivations of a one-of.
+     * @param oneOf the one-of
+     * @param offset current offset in tokens
+     * @return derivations
+     */
+    private List<Derivation> deriveOneOf(final OneOfRuleExpansion oneOf,
+            final int offset) {
+        final List<RuleExpansion> alternatives = oneOf.getSubRules();
+        if (alternatives.isEmpty()) {
+            final Derivation derivation = new Derivation(oneOf, offset,
+                    offset, null, null);
+            return Collections.singletonList(derivation);
+        }
+        final Derivation[] ends = new Derivation[tokens.size() + 1];
+        final List<Derivation> derivations =
+                new java.util.ArrayList<Derivation>();
+        for (RuleExpansion alternative : alternatives) {
+            for (Derivation match : getDerivations(alternative, offset)) {
+                final int end = match.getEnd();
+                if (ends[end] == null) {
+                    ends[end] = new Derivation(oneOf, offset, end, match,
+                            null);
+                    derivations.add(ends[end]);
+                }
+            }
+        }
+        return derivations;
+    }
+
+    /**
+     * Determines the derivations of an item by backtracking over the
+     * number of repetitions.
+     * @param item the item
+     * @param offset current offset in tokens
+     * @return derivations
+     */
+    private List<Derivation> deriveItem(final ItemRuleExpansion item,
+            final int offset) {
+        final List<RuleExpansion> sequence = item.getSubItems();
+        final Derivation empty = new Derivation(item, offset, offset, null,
+                null);
+        if (sequence.isEmpty()) {
+            return Collections.singletonList(empty);
+        }
+        final int minRepeat = item.getMinRepeat();
+        final int maxRepeat = item.getMaxRepeat();
+        final int limit;
+        if (maxRepeat < 0) {
+            // Each further repetition has to consume at least one token
+            limit = minRepeat + tokens.size() - offset;
+        } else {
+            limit = maxRepeat;
+        }
+
+        // Determine the possible ends after each number of repetitions
+        final List<List<Derivation>> repetitions =
+                new java.util.ArrayList<List<Derivation>>();
+        List<Derivation> current = Collections.singletonList(empty);
+        repetitions.add(current);
+        for (int i = 0; i < limit && !current.isEmpty(); i++) {
+            for (RuleExpansion expansion : sequence) {
+                current = extend(item, current, expansion);
+            }
+            if (!current.isEmpty()) {
+                repetitions.add(current);
+            }
+        }
+
+        // Prefer more repetitions
+        final Derivation[] ends = new Derivation[tokens.size() + 1];
+        final List<Derivation> derivations =
+                new java.util.ArrayList<Derivation>();
+        for (int i = repetitions.size() - 1; i >= minRepeat; i--) {
+            for (Derivation derivation : repetitions.get(i)) {
+                final int end = derivation.getEnd();
+                if (ends[end] == null) {
+                    ends[end] = derivation;
+                    derivations.add(derivation);
+                }
+            }
+        }
+        return derivations;
+    }
+
+    /**
+     * Extends the given partial derivations of an item by the given
+     * expansion.
+     * @param item the item
+     * @param partials partial derivations of the item
+     * @param expansion the next expansion of the item
+     * @return extended partial derivations
+     */
+    private List<Derivation> extend(final ItemRuleExpansion item,
+            final List<Derivation> partials, final RuleExpansion expansion) {
+        final Derivation[] ends = new Derivation[tokens.size() + 1];
+        final List<Derivation> extended =
+                new java.util.ArrayList<Derivation>();
+        for (Derivation partial : partials) {
+            final int start = partial.getEnd();
+            for (Derivation match : getDerivations(expansion, start)) {
+                final int end = match.getEnd();
+                if (ends[end] == null) {
+                    ends[end] = new Derivation(item, partial.getStart(), end,
+                            match, partial);
+                    extended.add(ends[end]);
+                }
+            }
+        }
+        return extended;
+    }
+
+    /**
+     * Wraps the given derivations into derivations of the given expansion.
+     * @param expansion the wrapping expansion
+     * @param derivations the derivations to wrap
+     * @return wrapped derivations
+     */
+    private List<Derivation> wrap(final RuleExpansion expansion,
+            final List<Derivation> derivations) {
+        final List<Derivation> wrapped =
+                new java.util.ArrayList<Derivation>(derivations.size());
+        for (Derivation derivation : derivations) {
+            wrapped.add(new Derivation(expansion, derivation.getStart(),
+                    derivation.getEnd(), derivation, null));
+        }
+        return wrapped;
+    }
+
+    /**
+     * A way in which an expansion matches a range of the tokens.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private final class Derivation {
+        /** The matching expansion. */
+        private final RuleExpansion expansion;
+
+        /** Offset of the first matched token. */
+        private final int start;
+
+        /** Offset after the last matched token. */
+        private final int end;
+
+        /**
+         * The derivation of the nested expansion. For items, this is the
+         * derivation of the last matched sub rule.
+         */
+        private final Derivation child;
+
+        /**
+         * For items, the partial derivation of the item before the
+         * child matched.
+         */
+        private final Derivation previous;
+
+        /** A match that has been determined by the expansion itself. */
+        private final MatchConsumption result;
+
+        /**
+         * Constructs a new object.
+         * @param exp the matching expansion
+         * @param first offset of the first matched token
+         * @param last offset after the last matched token
+         * @param nested derivation of the nested expansion
+         * @param partial partial derivation of an item
+         */
+        Derivation(final RuleExpansion exp, final int first, final int last,
+                final Derivation nested, final Derivation partial) {
+            expansion = exp;
+            start = first;
+            end = last;
+            child = nested;
+            previous = partial;
+            result = null;
+        }
+
+        /**
+         * Constructs a new object for an expansion that matched on its own.
+         * @param exp the matching expansion
+         * @param first offset of the first matched token
+         * @param last offset after the last matched token
+         * @param match the match
+         */
+        Derivation(final RuleExpansion exp, final int first, final int last,
+                final MatchConsumption match) {
+            expansion = exp;
+            start = first;
+            end = last;
+            child = null;
+            previous = null;
+            result = match;
+        }
+
+        /**
+         * Retrieves the offset of the first matched token.
+         * @return offset of the first matched token
+         */
+        int getStart() {
+            return start;
+        }
+
+        /**
+         * Retrieves the offset after the last matched token.
+         * @return offset after the last matched token
+         */
+        int getEnd() {
+            return end;
+        }
+
+        /**
+         * Creates the match for this derivation.
+         * @return the match
+         */
+        MatchConsumption createMatchConsumption() {
+            if (result != null) {
+                return result;
+            }
+            if (expansion instanceof TokenRuleExpansion) {
+                return expansion.match(tokens, start);
+            } else if (expansion instanceof ItemRuleExpansion) {
+                final ItemRuleExpansion item = (ItemRuleExpansion) expansion;
+                final List<MatchConsumption> matches =
+                        new java.util.LinkedList<MatchConsumption>();
+                Derivation current = this;
+                while (current.child != null) {
+                    matches.add(0, current.child.createMatchConsumption());
+                    current = current.previous;
+                }
+                return item.createMatchConsumption(matches);
+            } else if (expansion instanceof OneOfRuleExpansion) {
+                final OneOfRuleExpansion oneOf =
+                        (OneOfRuleExpansion) expansion;
+                if (child == null) {
+                    return oneOf.createMatchConsumption(null);
+                }
+                final MatchConsumption match =
+                        child.createMatchConsumption();
+                return oneOf.createMatchConsumption(match);
+            } else if (expansion instanceof RuleRefExpansion) {
+                final RuleRefExpansion ruleref = (RuleRefExpansion) expansion;
+                final MatchConsumption match =
+                        child.createMatchConsumption();
+                return ruleref.createMatchConsumption(match);
+            } else {
+                final SrgsRule rule = (SrgsRule) expansion;
+                final MatchConsumption match =
+                        child.createMatchConsumption();
+                return rule.createMatchConsumption(match);
+            }
+        }
+    }
+}
@@ -108,12 +108,17 @@ public class SrgsRule implements RuleExpansion {
         if (rule == null) {
             return null;
         }
+        final SrgsMatcher matcher = new SrgsMatcher(tokens);
+        return matcher.match(this, index);
+    }
 
-        final MatchConsumption result = rule.match(tokens, index);
-        if (result == null) {
-            return null;
-        }
-
+    /**
+     * Creates the result of a successful match of the inner rule.
+     * @param result the match of the inner rule
+     * @return the result
+     * @since 0.7.9
+     */
+    MatchConsumption createMatchConsumption(final MatchConsumption result) {
         // Wrap it in a new execution context and return
         final Context context = new Context(getId());
         if (getInitialSemanticInterpretation() != null) {
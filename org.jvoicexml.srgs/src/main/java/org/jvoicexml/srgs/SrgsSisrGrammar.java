@@ -34,6 +34,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.apache.log4j.Logger;
 import org.jvoicexml.implementation.GrammarImplementation;
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.srgs.sisr.SemanticInterpretationBlock;
 import org.jvoicexml.xml.srgs.Grammar;
@@ -54,6 +55,14 @@ public class SrgsSisrGrammar
     /** Logger instance. */
     private static final Logger LOGGER = Logger
             .getLogger(SrgsSisrGrammar.class);
+
+    /** Maximum number of compiled automata to keep. */
+    private static final int AUTOMATON_CACHE_SIZE = 100;
+
+    /** Compiled automata of all grammars by their URI. */
+    private static final SrgsAutomatonCache AUTOMATA =
+            new SrgsAutomatonCache(AUTOMATON_CACHE_SIZE);
+
     private Grammar grammarNode;
     private String rootRule;
     private URI uri;
@@ -67,6 +76,16 @@ public class SrgsSisrGrammar
     /** A pool of grammars shared by all that were parsed together. */
     private Map<URI, SrgsSisrGrammar> grammarPool;
 
+    /** External grammars that are referenced by rules of this grammar. */
+    private final Collection<SrgsSisrGrammar> externalGrammars =
+            new java.util.LinkedHashSet<SrgsSisrGrammar>();
+
+    /** The compiled automaton, <code>null</code> if not compilable. */
+    private volatile SrgsAutomaton automaton;
+
+    /** <code>true</code> if the automaton has been looked up. */
+    private volatile boolean automatonResolved;
+
     public SrgsSisrGrammar(Grammar grammar, URI uri,
             Map<URI, SrgsSisrGrammar> grammarPool) {
         grammarNode = grammar;
@@ -94,6 +113,26 @@ public class SrgsSisrGrammar
         return grammarPool;
     }
 
+    /**
+     * Adds an external grammar that is referenced by a rule of this
+     * grammar.
+     * @param grammar the referenced grammar
+     * @since 0.7.9
+     */
+    void addExternalGrammar(final SrgsSisrGrammar grammar) {
+        externalGrammars.add(grammar);
+    }
+
+    /**
+     * Retrieves the external grammars that are referenced by rules of this
+     * grammar.
+     * @return referenced grammars in the order of their first reference
+     * @since 0.7.9
+     */
+    Collection<SrgsSisrGrammar> getExternalGrammars() {
+        return externalGrammars;
+    }
+
     public SisrRecognitionResult isValid(String[] words) {
         // TODO Auto-generated method stub
         return null;
@@ -159,12 +198,65 @@ public class SrgsSisrGrammar
         return mc.executeSisr();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The partial input is evaluated by the compiled automaton. Recursive
+     * grammars can not be compiled. Their partial input is never terminated
+     * early.
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        final SrgsAutomaton compiled = getAutomaton();
+        if (compiled == null) {
+            return PrefixMatch.CONTINUE;
+        }
+        return compiled.matchPrefix(utterance);
+    }
+
+    /**
+     * Retrieves the automaton that has been compiled from this grammar.
+     * The automaton is compiled once for all grammars with the same URI
+     * and the same sources of this and all referenced external grammars.
+     * @return the automaton, <code>null</code> if this grammar can not be
+     *          compiled
+     * @since 0.7.9
+     */
+    SrgsAutomaton getAutomaton() {
+        if (!automatonResolved) {
+            automaton = AUTOMATA.getAutomaton(this);
+            automatonResolved = true;
+        }
+        return automaton;
+    }
+
+    /**
+     * Matches the given tokens against the root rule of this grammar.
+     * If this grammar could be compiled, the compiled automaton decides
+     * about the match and creates the semantic interpretation. The rules
+     * are only evaluated by the {@link SrgsMatcher} for recursive grammars
+     * or if the utterance can be parsed in more than one way.
+     * @param tokens the received tokens
+     * @return match that consumes all tokens, <code>null</code> if there is
+     *          no such match
+     */
     MatchConsumption match(final List<String> tokens) {
         final SrgsRule rule = rules.get(rootRule);
         if (rule == null) {
             return null;
         }
-        final MatchConsumption mc = rule.match(tokens, 0);
+        final SrgsAutomaton compiled = getAutomaton();
+        MatchConsumption mc = null;
+        if (compiled != null) {
+            if (!compiled.accepts(tokens)) {
+                return null;
+            }
+            mc = compiled.interpret(tokens);
+        }
+        if (mc == null) {
+            final SrgsMatcher matcher = new SrgsMatcher(tokens);
+            mc = matcher.matchAll(rule);
+        }
         if (mc != null) {
             mc.setGlobalExecutableSemanticInterpretation(globalTags);
         }
@@ -403,6 +403,7 @@ public class SrgsSisrXmlGrammarParser
                     "Unable to find a public rule with the name '" + ruleName
                             + "' in grammar " + uri);
         }
+        currentGrammar.addExternalGrammar(externalGrammar);
         return new RuleRefExpansion(externalGrammar, rule);
     }
 
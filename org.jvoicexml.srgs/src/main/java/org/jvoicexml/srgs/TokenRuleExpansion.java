@@ -69,6 +69,47 @@ public class TokenRuleExpansion implements RuleExpansion {
         executableSI = si;
     }
 
+    /**
+     * Retrieves the tokens of this expansion.
+     * @return the tokens
+     * @since 0.7.9
+     */
+    List<String> getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Retrieves the number of tokens that are consumed by a match.
+     * @return number of tokens
+     * @since 0.7.9
+     */
+    int getTokenCount() {
+        return tokens.size();
+    }
+
+    /**
+     * Checks if the tokens of this expansion appear at the given offset.
+     * @param tokensToMatch received tokens
+     * @param offset current offset in tokens
+     * @return <code>true</code> if the tokens match
+     * @since 0.7.9
+     */
+    boolean matches(List<String> tokensToMatch, int offset) {
+        int tokenCount = tokens.size();
+
+        // If there aren't enough tokens left to match, short circuit the check
+        if (tokenCount > tokensToMatch.size() - offset) {
+            return false;
+        }
+
+        for (int i = 0; i < tokenCount; i++) {
+            if (!tokens.get(i).equals(tokensToMatch.get(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -80,17 +121,10 @@ public class TokenRuleExpansion implements RuleExpansion {
             return new MatchConsumption(); // empty match
         }
 
-        // If there aren't enough tokens left to match, short circuit the check
-        if (tokenCount > tokensToMatch.size() - offset) {
+        if (!matches(tokensToMatch, offset)) {
             return null;
         }
 
-        for (int i = 0; i < tokenCount; i++) {
-            if (!tokens.get(i).equals(tokensToMatch.get(offset + i))) {
-                return null;
-            }
-        }
-
         // Return match. No SI attached to a token (items, yes, tokens no)
         MatchConsumption result = new MatchConsumption(tokenCount);
         result.addTokens(tokens);
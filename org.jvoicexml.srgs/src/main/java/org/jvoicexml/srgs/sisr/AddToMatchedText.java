@@ -58,19 +58,6 @@ public class AddToMatchedText implements ExecutableSemanticInterpretation {
      */
     @Override
     public void execute(final Context context, final Scriptable scope) {
-        String metaCurrent = (String) context.evaluateString(scope,
-                "meta.current().text;", "AddToMatchedText:get meta", 0, null);
-
-        if (metaCurrent.length() == 0) {
-            context.evaluateString(scope,
-                    "meta.current=function() {return {text:'" + matchedText
-                            + "', score:1.0};};", "AddToMatchedText:set meta1",
-                    0, null);
-        } else {
-            context.evaluateString(scope,
-                    "meta.current=function() {return {text:'" + metaCurrent
-                            + " " + matchedText + "', score:1.0};};".replace("'", "\\'"),
-                    "AddToMatchedText:set meta1", 0, null);
-        }
+        SisrScope.appendCurrentText(context, scope, matchedText);
     }
 }
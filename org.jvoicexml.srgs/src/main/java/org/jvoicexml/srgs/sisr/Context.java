@@ -69,8 +69,7 @@ public class Context implements ExecutableSemanticInterpretation {
         Scriptable ruleScope = context.newObject(parentScope);
 
         // Initialize out, rules and meta
-        context.evaluateString(ruleScope, contextInitSemanticInterpretation(ruleName),
-                "Context:init", 0, null);
+        SisrScope.initialize(context, ruleScope);
 
         // Perform SI execution
         boolean ruleRefProcessed = false;
@@ -85,15 +84,19 @@ public class Context implements ExecutableSemanticInterpretation {
         Object out = getOutApplyDefaultAssignmentIfNeeded(context, ruleScope,
                 ruleRefProcessed);
 
-        LOGGER.debug("out=" + out);
-        if (out instanceof Scriptable)
-            dumpScope((Scriptable) out, " ");
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("out=" + out);
+            if (out instanceof Scriptable)
+                dumpScope((Scriptable) out, " ");
+        }
 
         // Apply to parentScope
         updateParentScope(context, parentScope, ruleScope, out);
 
-        LOGGER.debug("Dumping parent scope:");
-        dumpScope(parentScope);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Dumping parent scope:");
+            dumpScope(parentScope);
+        }
         LOGGER.debug("Ending context " + ruleName);
         LOGGER.debug("===================================================================================");
     }
@@ -102,23 +105,18 @@ public class Context implements ExecutableSemanticInterpretation {
             org.mozilla.javascript.Context context, Scriptable ruleScope,
             boolean ruleRefProcessed) {
 
-        Object out = context.evaluateString(ruleScope, "out;", "Context:out",
-                0, null);
+        Object out = SisrScope.getOut(ruleScope);
         // If out is still an empty object, perform the default assignment
         if (out instanceof NativeObject
                 && ((NativeObject) out).getIds().length == 0) {
             if (ruleRefProcessed) {
                 LOGGER.debug("default assignment(lastrule)");
-                out = context.evaluateString(ruleScope,
-                        "out = rules.latest();", "Context:out", 0, null);
+                out = SisrScope.getLatestRuleResult(context, ruleScope);
             } else {
-                String ruleMetaCurrent = (String) context.evaluateString(
-                        ruleScope, "meta.current().text;",
-                        "Context:rule get meta", 0, null);
-                LOGGER.debug("default assignment(meta): " + ruleMetaCurrent);
-                out = context.evaluateString(ruleScope, "out = '"
-                        + ruleMetaCurrent + "';", "Context:out", 0, null);
+                out = SisrScope.getCurrentText(context, ruleScope);
+                LOGGER.debug("default assignment(meta): " + out);
             }
+            SisrScope.setOut(ruleScope, out);
         }
         return out;
     }
@@ -140,57 +138,21 @@ public class Context implements ExecutableSemanticInterpretation {
     private void updateParentScope(org.mozilla.javascript.Context context,
             Scriptable parentScope, Scriptable ruleScope, Object out) {
         // Setup rules
-        Scriptable ruleObject = (Scriptable) parentScope.get("rules",
-                parentScope);
-        ruleObject.put(ruleName, ruleObject, out); // sets rules.rulename
-        context.evaluateString(parentScope, getRulesLastestScript(ruleName),
-                "Context:rules.Latest", 0, null); // sets rules.latest()
+        SisrScope.setRuleResult(parentScope, ruleName, out);
 
         // Setup meta
         // meta.rulename will be set based on the match in the current context
         // meta.current() will be set based on the current value if the parent
         // context plus the value coming out of the rule context
-        String ruleMetaCurrent = (String) context.evaluateString(ruleScope,
-                "meta.current().text;", "Context:rule get meta", 0, null);
-
-//        LOGGER.debug("ruleMetaCurrent="+ruleMetaCurrent);
-//        LOGGER.debug("about to execute: "+"meta."+ruleName+"=function() {return {text:'"+ruleMetaCurrent+"', score:1.0}};");
-        context.evaluateString(parentScope, "meta." + ruleName
-                + "=function() {return {text:'" + ruleMetaCurrent
-                + "', score:1.0};};", "Context:rule set meta." + ruleName, 0,
-                null);
-
+        final String ruleMetaCurrent =
+                SisrScope.getCurrentText(context, ruleScope);
+        SisrScope.setRuleText(parentScope, ruleName, ruleMetaCurrent);
         if (ruleMetaCurrent.length() > 0) {
-            String parentMetaCurrent = (String) context.evaluateString(
-                    parentScope, "meta.current().text;",
-                    "Context:parent get meta", 0, null);
-
-            if (parentMetaCurrent.length() == 0) {
-                context.evaluateString(parentScope,
-                        "meta.current=function() {return {text:'"
-                                + ruleMetaCurrent + "', score:1.0};};",
-                        "AddToMatchedText:set meta1", 0, null);
-            } else {
-                context.evaluateString(parentScope,
-                        "meta.current=function() {return {text:'"
-                                + parentMetaCurrent + " " + ruleMetaCurrent
-                                + "', score:1.0};};",
-                        "AddToMatchedText:set meta1", 0, null);
-            }
+            SisrScope.appendCurrentText(context, parentScope,
+                    ruleMetaCurrent);
         }
     }
 
-    private String getRulesLastestScript(String contextName) {
-        return "rules.latest = function() {return this." + contextName + ";};";
-        // We are within the rules context, so the rule id should be valid
-    }
-
-    private String contextInitSemanticInterpretation(String contextName) {
-        return "var out=new Object();\n"
-                + "var rules=new Object();\n"
-                + "var meta={current: function() {return {text:'', score:1.0};}};\n";
-    }
-
     public void dumpScope(final Scriptable scope) {
         dumpScope(scope, " ");
     }
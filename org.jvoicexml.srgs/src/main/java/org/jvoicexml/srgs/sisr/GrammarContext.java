@@ -22,6 +22,7 @@
 package org.jvoicexml.srgs.sisr;
 
 import org.apache.log4j.Logger;
+import org.jvoicexml.interpreter.datamodel.StandardObjectsScope;
 import org.jvoicexml.srgs.SrgsSisrGrammar;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
@@ -52,7 +53,8 @@ public class GrammarContext implements ExecutableSemanticInterpretation {
         org.mozilla.javascript.Context context = org.mozilla.javascript.Context
                 .enter();
         context.setLanguageVersion(org.mozilla.javascript.Context.VERSION_DEFAULT);
-        Scriptable globalScope = context.initStandardObjects();
+        Scriptable globalScope =
+                StandardObjectsScope.createScope(context);
 
         if (grammar.getGlobalTags() != null) {
             grammar.getGlobalTags().execute(context, globalScope);
@@ -62,11 +64,7 @@ public class GrammarContext implements ExecutableSemanticInterpretation {
         // Set up working scope - note out initialized at this level, but
         // shouldn't be used
         Scriptable grammarScope = context.newObject(globalScope);
-        context.evaluateString(
-                grammarScope,
-                "var out=new Object();\nvar rules=new Object();\n"
-                        + "var meta={current: function() {return {text:'', score:1.0};}};\n",
-                "SISR init from MatchConsumer", 0, null);
+        SisrScope.initialize(context, grammarScope);
 
         executableSI.execute(context, grammarScope);
 
@@ -98,60 +96,19 @@ public class GrammarContext implements ExecutableSemanticInterpretation {
             Scriptable grammarScope, Object out) {
 
         // Setup rules
-        Scriptable ruleObject = (Scriptable) parentScope.get("rules",
-                parentScope);
-        ruleObject.put(ruleName, ruleObject, out); // sets rules.rulename
-        parentContext.evaluateString(parentScope,
-                getRulesLastestScript(ruleName), "Context:rules.Latest", 0,
-                null); // sets rules.latest()
+        SisrScope.setRuleResult(parentScope, ruleName, out);
 
         // Setup meta
         // meta.rulename will be set based on the match in the current context
         // meta.current() will be set based on the current value if the parent
         // context plus the value coming out of the rule context
-        String ruleMetaCurrent = (String) grammarContext.evaluateString(
-                grammarScope, "meta.current().text;", "Context:rule get meta",
-                0, null);
-
-        parentContext.evaluateString(parentScope, "meta." + ruleName
-                + "=function() {return {text:'" + ruleMetaCurrent
-                + "', score:1.0};};", "Context:rule set meta." + ruleName, 0,
-                null);
-
+        final String ruleMetaCurrent =
+                SisrScope.getCurrentText(grammarContext, grammarScope);
+        SisrScope.setRuleText(parentScope, ruleName, ruleMetaCurrent);
         if (ruleMetaCurrent.length() > 0) {
-            String parentMetaCurrent = (String) parentContext.evaluateString(
-                    parentScope, "meta.current().text;",
-                    "Context:parent get meta", 0, null);
-
-            if (parentMetaCurrent.length() == 0) {
-                parentContext.evaluateString(parentScope,
-                        "meta.current=function() {return {text:'"
-                                + ruleMetaCurrent + "', score:1.0};};",
-                        "AddToMatchedText:set meta1", 0, null);
-            } else {
-                parentContext.evaluateString(parentScope,
-                        "meta.current=function() {return {text:'"
-                                + parentMetaCurrent + " " + ruleMetaCurrent
-                                + "', score:1.0};};",
-                        "AddToMatchedText:set meta1", 0, null);
-            }
+            SisrScope.appendCurrentText(parentContext, parentScope,
+                    ruleMetaCurrent);
         }
     }
 
-    private String getRulesLastestScript(String contextName) {
-        return "rules.latest = function() {return this." + contextName + ";};"; // We
-                                                                               // are
-                                                                               // within
-                                                                               // the
-                                                                               // rules
-                                                                               // context,
-                                                                               // so
-                                                                               // the
-                                                                               // rule
-                                                                               // id
-                                                                               // should
-                                                                               // be
-                                                                               // valid
-    }
-
 }
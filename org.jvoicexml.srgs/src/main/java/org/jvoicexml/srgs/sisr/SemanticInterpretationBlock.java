@@ -26,6 +26,7 @@ import java.io.StringWriter;
 
 import org.apache.log4j.Logger;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 
 public class SemanticInterpretationBlock implements ExecutableSemanticInterpretation {
@@ -33,6 +34,9 @@ public class SemanticInterpretationBlock implements ExecutableSemanticInterpreta
     private StringBuffer tagContent = new StringBuffer();
     private String lastRulename = null;
 
+    /** The compiled tag content, created upon first execution. */
+    private volatile Script script;
+
     public SemanticInterpretationBlock() {
     }
 
@@ -57,6 +61,7 @@ public class SemanticInterpretationBlock implements ExecutableSemanticInterpreta
 
         tagContent.append(cleanedText);
         tagContent.append('\n');
+        script = null;
     }
 
     public String getLastRulename() {
@@ -75,6 +80,7 @@ public class SemanticInterpretationBlock implements ExecutableSemanticInterpreta
         SemanticInterpretationBlock newCopy = new SemanticInterpretationBlock();
         newCopy.append(tagContent.toString());
         newCopy.lastRulename = lastRulename;
+        newCopy.script = script;
         return newCopy;
     }
 
@@ -82,12 +88,31 @@ public class SemanticInterpretationBlock implements ExecutableSemanticInterpreta
         LOGGER.debug(pad + "SI: " + tagContent);
     }
 
+    /**
+     * Retrieves the compiled tag content. The tag content is compiled only
+     * once, so that all matches of the grammar share the same script.
+     * @param context the current context
+     * @return the compiled script
+     * @since 0.7.9
+     */
+    private Script getScript(final Context context) {
+        Script compiled = script;
+        if (compiled == null) {
+            compiled = context.compileString(tagContent.toString(),
+                    "SISR executable from TagCollection", 0, null);
+            script = compiled;
+        }
+        return compiled;
+    }
+
     @Override
     public void execute(Context context, Scriptable scope) {
-        LOGGER.debug("executing: " + tagContent);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("executing: " + tagContent);
+        }
 
-        context.evaluateString(scope, tagContent.toString(),
-                "SISR executable from TagCollection", 0, null);
+        final Script compiled = getScript(context);
+        compiled.exec(context, scope);
     }
 
 }
@@ -0,0 +1,341 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.srgs.sisr;
+
+import org.mozilla.javascript.BaseFunction;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+
+/**
+ * Access to the variables <code>out</code>, <code>rules</code> and
+ * <code>meta</code> of a rule scope.
+ *
+ * <p>
+ * The bookkeeping of the semantic interpretation is done by direct property
+ * access rather than by evaluating generated scripts. The functions
+ * <code>rules.latest()</code>, <code>meta.current()</code> and
+ * <code>meta.</code><em>rulename</em><code>()</code> are Java functions
+ * that remain callable from the tags.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class SisrScope {
+    /** Name of the variable with the result of a rule. */
+    private static final String OUT = "out";
+
+    /** Name of the variable with the results of the referenced rules. */
+    private static final String RULES = "rules";
+
+    /** Name of the variable with the matched text. */
+    private static final String META = "meta";
+
+    /** Name of the function with the latest rule result. */
+    private static final String LATEST = "latest";
+
+    /** Name of the function with the matched text of the current rule. */
+    private static final String CURRENT = "current";
+
+    /** Name of the text in a meta object. */
+    private static final String TEXT = "text";
+
+    /** Name of the score in a meta object. */
+    private static final String SCORE = "score";
+
+    /** Score of all matches. */
+    private static final Double DEFAULT_SCORE = Double.valueOf(1.0);
+
+    /**
+     * Do not create from outside.
+     */
+    private SisrScope() {
+    }
+
+    /**
+     * Initializes the variables <code>out</code>, <code>rules</code> and
+     * <code>meta</code> of the given scope.
+     * @param context the current context
+     * @param scope the rule scope
+     */
+    public static void initialize(final Context context,
+            final Scriptable scope) {
+        scope.put(OUT, scope, context.newObject(scope));
+        scope.put(RULES, scope, context.newObject(scope));
+        final Scriptable meta = context.newObject(scope);
+        scope.put(META, scope, meta);
+        meta.put(CURRENT, meta, new MetaFunction(scope, ""));
+    }
+
+    /**
+     * Retrieves the value of <code>out</code>.
+     * @param scope the rule scope
+     * @return value of <code>out</code>
+     */
+    public static Object getOut(final Scriptable scope) {
+        return toJava(getProperty(scope, OUT));
+    }
+
+    /**
+     * Sets the value of <code>out</code>.
+     * @param scope the rule scope
+     * @param out the new value
+     */
+    public static void setOut(final Scriptable scope, final Object out) {
+        ScriptableObject.putProperty(scope, OUT, out);
+    }
+
+    /**
+     * Stores the result of the given rule as <code>rules.</code>
+     * <em>rulename</em> and makes it the result of
+     * <code>rules.latest()</code>.
+     * @param scope the rule scope
+     * @param ruleName name of the rule
+     * @param out result of the rule
+     */
+    public static void setRuleResult(final Scriptable scope,
+            final String ruleName, final Object out) {
+        final Scriptable rules = (Scriptable) getProperty(scope, RULES);
+        rules.put(ruleName, rules, out);
+        rules.put(LATEST, rules, new LatestFunction(scope, ruleName));
+    }
+
+    /**
+     * Retrieves the result of <code>rules.latest()</code>.
+     * @param context the current context
+     * @param scope the rule scope
+     * @return the latest rule result
+     */
+    public static Object getLatestRuleResult(final Context context,
+            final Scriptable scope) {
+        final Scriptable rules = (Scriptable) getProperty(scope, RULES);
+        final Object latest = getProperty(rules, LATEST);
+        if (latest instanceof Function) {
+            final Function function = (Function) latest;
+            final Object result = function.call(context, scope, rules,
+                    ScriptRuntime.emptyArgs);
+            return toJava(result);
+        }
+        return Undefined.instance;
+    }
+
+    /**
+     * Retrieves the text of <code>meta.current()</code>.
+     * @param context the current context
+     * @param scope the rule scope
+     * @return the matched text so far
+     */
+    public static String getCurrentText(final Context context,
+            final Scriptable scope) {
+        return getMetaText(context, scope, CURRENT);
+    }
+
+    /**
+     * Sets the text of <code>meta.current()</code>.
+     * @param scope the rule scope
+     * @param text the matched text so far
+     */
+    public static void setCurrentText(final Scriptable scope,
+            final String text) {
+        setMetaText(scope, CURRENT, text);
+    }
+
+    /**
+     * Appends the given text to the text of <code>meta.current()</code>.
+     * @param context the current context
+     * @param scope the rule scope
+     * @param text the text to append
+     */
+    public static void appendCurrentText(final Context context,
+            final Scriptable scope, final String text) {
+        final String current = getCurrentText(context, scope);
+        if (current.length() == 0) {
+            setCurrentText(scope, text);
+        } else {
+            setCurrentText(scope, current + " " + text);
+        }
+    }
+
+    /**
+     * Sets the text of <code>meta.</code><em>rulename</em><code>()</code>.
+     * @param scope the rule scope
+     * @param ruleName name of the rule
+     * @param text the text matched by the rule
+     */
+    public static void setRuleText(final Scriptable scope,
+            final String ruleName, final String text) {
+        setMetaText(scope, ruleName, text);
+    }
+
+    /**
+     * Retrieves the text of the given meta function.
+     * @param context the current context
+     * @param scope the rule scope
+     * @param name name of the meta function
+     * @return the text
+     */
+    private static String getMetaText(final Context context,
+            final Scriptable scope, final String name) {
+        final Scriptable meta = (Scriptable) getProperty(scope, META);
+        final Object value = getProperty(meta, name);
+        if (value instanceof MetaFunction) {
+            final MetaFunction function = (MetaFunction) value;
+            return function.getText();
+        }
+        if (!(value instanceof Function)) {
+            return "";
+        }
+        final Function function = (Function) value;
+        final Object result = function.call(context, scope, meta,
+                ScriptRuntime.emptyArgs);
+        if (!(result instanceof Scriptable)) {
+            return "";
+        }
+        final Object text = getProperty((Scriptable) result, TEXT);
+        return Context.toString(text);
+    }
+
+    /**
+     * Sets the text of the given meta function.
+     * @param scope the rule scope
+     * @param name name of the meta function
+     * @param text the text
+     */
+    private static void setMetaText(final Scriptable scope,
+            final String name, final String text) {
+        final Scriptable meta = (Scriptable) getProperty(scope, META);
+        meta.put(name, meta, new MetaFunction(scope, text));
+    }
+
+    /**
+     * Converts lazily concatenated strings into plain Java strings like the
+     * evaluation of a script does.
+     * @param value the value to convert
+     * @return converted value
+     */
+    private static Object toJava(final Object value) {
+        if (value instanceof CharSequence) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves the given property of the given object or one of its
+     * prototypes.
+     * @param object the object
+     * @param name name of the property
+     * @return value of the property, {@link Undefined#instance} if there is
+     *          no such property
+     */
+    private static Object getProperty(final Scriptable object,
+            final String name) {
+        final Object value = ScriptableObject.getProperty(object, name);
+        if (value == Scriptable.NOT_FOUND) {
+            return Undefined.instance;
+        }
+        return value;
+    }
+
+    /**
+     * Function <code>meta.</code><em>name</em><code>()</code> that returns
+     * the matched text and the score.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class MetaFunction extends BaseFunction {
+        /** The serial version UID. */
+        private static final long serialVersionUID = 2850283960146932474L;
+
+        /** The matched text. */
+        private final String text;
+
+        /**
+         * Constructs a new object.
+         * @param scope the scope of the function
+         * @param matchedText the matched text
+         */
+        MetaFunction(final Scriptable scope, final String matchedText) {
+            text = matchedText;
+            ScriptRuntime.setFunctionProtoAndParent(this, scope);
+        }
+
+        /**
+         * Retrieves the matched text.
+         * @return the matched text
+         */
+        String getText() {
+            return text;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object call(final Context context, final Scriptable scope,
+                final Scriptable thisObj, final Object[] args) {
+            final Scriptable result = context.newObject(scope);
+            result.put(TEXT, result, text);
+            result.put(SCORE, result, DEFAULT_SCORE);
+            return result;
+        }
+    }
+
+    /**
+     * Function <code>rules.latest()</code> that returns the result of the
+     * rule that has been matched last.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class LatestFunction extends BaseFunction {
+        /** The serial version UID. */
+        private static final long serialVersionUID = -5468342233745612473L;
+
+        /** Name of the rule that has been matched last. */
+        private final String ruleName;
+
+        /**
+         * Constructs a new object.
+         * @param scope the scope of the function
+         * @param name name of the rule that has been matched last
+         */
+        LatestFunction(final Scriptable scope, final String name) {
+            ruleName = name;
+            ScriptRuntime.setFunctionProtoAndParent(this, scope);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object call(final Context context, final Scriptable scope,
+                final Scriptable thisObj, final Object[] args) {
+            return getProperty(thisObj, ruleName);
+        }
+    }
+}
@@ -144,6 +144,26 @@ public class TestItem {
         Assert.assertNull(result);
     }
 
+    @Test
+    public void matchItemWithBacktracking() {
+        OneOfRuleExpansion digit = new OneOfRuleExpansion();
+        digit.addSubRule(createToken(new String[] { "one" }));
+        digit.addSubRule(createToken(new String[] { "four" }));
+        ItemRuleExpansion digits = new ItemRuleExpansion();
+        digits.addSubRule(digit);
+        digits.setRepeat(1, -1);
+        ItemRuleExpansion item = new ItemRuleExpansion();
+        item.addSubRule(digits);
+        item.addSubRule(createToken(new String[] { "four" }));
+
+        ArrayList<String> input = createStringArrayList(new String[] { "one",
+                "four", "one", "four" });
+        MatchConsumption result = item.match(input, 0);
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(4, result.getTokensConsumed());
+    }
+
     private TokenRuleExpansion createToken(String[] tokens) {
         TokenRuleExpansion token = new TokenRuleExpansion();
         for (String s : tokens)
@@ -40,6 +40,12 @@ public class TestMatching {
         Assert.assertNotNull(mc);
     }
 
+    @Test
+    public void phrasesNoMatchTrailingTokens() {
+        MatchConsumption mc = parsedGrammar.match("two three dogs cats");
+        Assert.assertNull(mc);
+    }
+
     @Test
     public void phrasesNoMatch() {
         MatchConsumption mc = parsedGrammar.match("alpha two three four cats");
@@ -28,4 +28,31 @@ public class TestMeta {
         Assert.assertEquals("one two", Utils.getItemOnNativeObject(o, "all"));
     }
 
+    @Test
+    public void testQuotedText() throws Exception {
+        SrgsSisrGrammar parsedGrammar = Utils
+                .loadDocument("/metaQuotedText.srgs");
+
+        MatchConsumption mc = parsedGrammar.match("o'neill please");
+        Assert.assertNotNull(mc);
+
+        Object o = mc.executeSisr();
+        Assert.assertEquals("o'neill",
+                Utils.getItemOnNativeObject(o, "name"));
+        Assert.assertEquals("o'neill please",
+                Utils.getItemOnNativeObject(o, "all"));
+    }
+
+    @Test
+    public void testRepeatedExecution() throws Exception {
+        SrgsSisrGrammar parsedGrammar = Utils
+                .loadDocument("/metaCurrentText.srgs");
+
+        for (int i = 0; i < 3; i++) {
+            MatchConsumption mc = parsedGrammar.match("three four");
+            Object o = mc.executeSisr();
+            Assert.assertEquals("three four",
+                    Utils.getItemOnNativeObject(o, "all"));
+        }
+    }
 }
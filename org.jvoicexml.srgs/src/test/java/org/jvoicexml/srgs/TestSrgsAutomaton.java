@@ -0,0 +1,130 @@
+package org.jvoicexml.srgs;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+
+public class TestSrgsAutomaton {
+    @BeforeClass
+    public static void loggerSetup() {
+        Utils.initLogger();
+    }
+
+    private static List<String> tokens(final String utterance) {
+        return Arrays.asList(utterance.split(" "));
+    }
+
+    @Test
+    public void testAccepts() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/MediumGrammar.srgs");
+        final SrgsAutomaton automaton = grammar.getAutomaton();
+        Assert.assertNotNull(automaton);
+        Assert.assertTrue(automaton.accepts(tokens("two three dogs")));
+        Assert.assertTrue(automaton.accepts(tokens("i want two three dogs")));
+        Assert.assertTrue(automaton.accepts(tokens("two three four cats")));
+        Assert.assertFalse(automaton.accepts(tokens("two three dogs cats")));
+        Assert.assertFalse(automaton.accepts(tokens("i want dogs")));
+        Assert.assertFalse(automaton.accepts(tokens("alpha two three cats")));
+    }
+
+    @Test
+    public void testInterpret() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/MediumGrammar.srgs");
+        final SrgsAutomaton automaton = grammar.getAutomaton();
+        final List<String> utterance = tokens("can i have two oh four cats");
+        final MatchConsumption compiled = automaton.interpret(utterance);
+        Assert.assertNotNull(compiled);
+        Assert.assertEquals(utterance.size(), compiled.getTokensConsumed());
+        compiled.setGlobalExecutableSemanticInterpretation(
+                grammar.getGlobalTags());
+        final SrgsRule rule = grammar.getRule(null, false);
+        final MatchConsumption matched =
+                new SrgsMatcher(utterance).matchAll(rule);
+        matched.setGlobalExecutableSemanticInterpretation(
+                grammar.getGlobalTags());
+        final Object expected = matched.executeSisr();
+        final Object actual = compiled.executeSisr();
+        Assert.assertEquals("204", Utils.getItemOnNativeObject(actual,
+                "count"));
+        Assert.assertEquals(Utils.getItemOnNativeObject(expected, "count"),
+                Utils.getItemOnNativeObject(actual, "count"));
+        Assert.assertEquals(Utils.getItemOnNativeObject(expected, "thing"),
+                Utils.getItemOnNativeObject(actual, "thing"));
+    }
+
+    @Test
+    public void testSharedAcrossGrammars() throws Exception {
+        final SrgsSisrGrammar grammar1 = Utils
+                .loadDocument("/MediumGrammar.srgs");
+        final SrgsSisrGrammar grammar2 = Utils
+                .loadDocument("/MediumGrammar.srgs");
+        Assert.assertSame(grammar1.getAutomaton(), grammar2.getAutomaton());
+    }
+
+    @Test
+    public void testDigestCoversExternalGrammars() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/ExternalParentDefault.srgs");
+        Assert.assertFalse(grammar.getExternalGrammars().isEmpty());
+        final byte[] digest = SrgsAutomatonCache.getDigest(grammar);
+        Assert.assertArrayEquals(digest,
+                SrgsAutomatonCache.getDigest(grammar));
+        final SrgsSisrGrammar external =
+                grammar.getExternalGrammars().iterator().next();
+        external.getGrammar().setXmlLang("de-DE");
+        Assert.assertFalse(Arrays.equals(digest,
+                SrgsAutomatonCache.getDigest(grammar)));
+    }
+
+    @Test
+    public void testRecursiveNotCompiled() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/recursive.srgs");
+        Assert.assertNull(grammar.getAutomaton());
+        Assert.assertNotNull(grammar.match("apples and pears and apples"));
+        Assert.assertNull(grammar.match("apples and"));
+    }
+
+    @Test
+    public void testMatchPrefix() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/dtmfMenu.srgs");
+        final SrgsAutomaton automaton = grammar.getAutomaton();
+        Assert.assertNotNull(automaton);
+        Assert.assertEquals(PrefixMatch.CONTINUE, automaton.matchPrefix(""));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                automaton.matchPrefix("1"));
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                automaton.matchPrefix("2"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                automaton.matchPrefix("20"));
+        Assert.assertEquals(PrefixMatch.DEAD, automaton.matchPrefix("21"));
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                automaton.matchPrefix("90"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                automaton.matchPrefix("900"));
+        Assert.assertEquals(PrefixMatch.DEAD,
+                automaton.matchPrefix("9000"));
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                automaton.matchPrefix("4"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                automaton.matchPrefix("42"));
+        Assert.assertEquals(PrefixMatch.DEAD, automaton.matchPrefix("5"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                grammar.getPrefixMatch("2 0"));
+    }
+
+    @Test
+    public void testMatchPrefixRecursive() throws Exception {
+        final SrgsSisrGrammar grammar = Utils
+                .loadDocument("/recursive.srgs");
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                grammar.getPrefixMatch("x"));
+    }
+}
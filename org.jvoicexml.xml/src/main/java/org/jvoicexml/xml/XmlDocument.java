@@ -93,6 +93,10 @@ public abstract class XmlDocument
     /** The serial version UID. */
     private static final long serialVersionUID = 2293026699195796236L;
 
+    /** Name of the Xerces feature to defer the node expansion. */
+    private static final String FEATURE_DEFER_NODE_EXPANSION =
+            "http://apache.org/xml/features/dom/defer-node-expansion";
+
     /** The encapsulated document, implemented as a delegate. */
     private transient Document document;
 
@@ -104,21 +108,9 @@ public abstract class XmlDocument
         = new ThreadLocal<DocumentBuilder>() {
         @Override
         protected DocumentBuilder initialValue() {
-            final DocumentBuilderFactory factory =
-                    DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-
-            // Configure the factory to ignore comments
-            factory.setIgnoringComments(true);
             DocumentBuilder builder = null;
             try {
-                builder = factory.newDocumentBuilder();
-                final EntityResolver resolver = new IgnoringEntityResolver();
-                boolean resolveEntities =
-                    Boolean.getBoolean("org.jvoicexml.xml.resolveEntities");
-                if (!resolveEntities) {
-                    builder.setEntityResolver(resolver);
-                }
+                builder = newDocumentBuilder(false);
             } catch (ParserConfigurationException e) {
                 e.printStackTrace();
             }
@@ -126,6 +118,41 @@ public abstract class XmlDocument
         };
     };
 
+    /**
+     * Creates a new document builder with the settings that are used for
+     * all XML documents.
+     *
+     * @param expandNodes
+     *        <code>true</code> if all nodes should be created while parsing
+     *        rather than upon their first access. Documents that are parsed
+     *        this way are not modified when they are read.
+     * @return the new document builder
+     * @throws ParserConfigurationException
+     *         Error creating the document builder or the parser does not
+     *         support the expansion of nodes while parsing.
+     * @since 0.7.9
+     */
+    public static DocumentBuilder newDocumentBuilder(
+            final boolean expandNodes) throws ParserConfigurationException {
+        final DocumentBuilderFactory factory =
+                DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+
+        // Configure the factory to ignore comments
+        factory.setIgnoringComments(true);
+        if (expandNodes) {
+            factory.setFeature(FEATURE_DEFER_NODE_EXPANSION, false);
+        }
+        final DocumentBuilder builder = factory.newDocumentBuilder();
+        final EntityResolver resolver = new IgnoringEntityResolver();
+        final boolean resolveEntities =
+            Boolean.getBoolean("org.jvoicexml.xml.resolveEntities");
+        if (!resolveEntities) {
+            builder.setEntityResolver(resolver);
+        }
+        return builder;
+    }
+
     /**
      * Creates an empty XML document.
      *
@@ -817,7 +817,7 @@ public final class Grammar
      * @since 0.6
      */
     public long getMaxstaleAsMsec() {
-        final String timeout = getMaxage();
+        final String timeout = getMaxstale();
         final TimeParser parser = new TimeParser(timeout);
         return parser.parse();
     }
@@ -0,0 +1,63 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml;
+
+import java.io.OutputStream;
+import java.net.URI;
+
+import org.jvoicexml.event.error.BadFetchError;
+
+/**
+ * A recording of audio that is stored by the {@link DocumentServer} while
+ * it is being recorded.
+ *
+ * <p>
+ * The recorded audio is written to the stream that is obtained by
+ * {@link #getOutputStream()}. Writes beyond the maximum recording time are
+ * ignored. Once the recording is done, {@link #finish()} must be called to
+ * complete the stored audio. If the recording fails, {@link #discard()}
+ * removes the stored audio.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface AudioRecording {
+    /**
+     * Retrieves the stream to write the recorded audio to.
+     * @return stream for the recorded audio
+     */
+    OutputStream getOutputStream();
+
+    /**
+     * Stops accepting audio and completes the stored audio.
+     * @return URI of the stored audio
+     * @throws BadFetchError
+     *         error storing the audio
+     */
+    URI finish() throws BadFetchError;
+
+    /**
+     * Stops accepting audio and removes the stored audio.
+     */
+    void discard();
+}
@@ -29,6 +29,7 @@ package org.jvoicexml;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 
 import org.jvoicexml.event.error.BadFetchError;
@@ -137,11 +138,14 @@ public interface DocumentServer {
      *            the Id of the current JVoiceXML session
      * @param uri
      *            URI of the audio file.
+     * @param attributes
+     *            attributes governing the fetch, maybe <code>null</code>.
      * @return <code>AudioInputStream</code> for the audio file.
      * @exception BadFetchError
      *                Error retrieving the audio file.
      */
-    AudioInputStream getAudioInputStream(final String sessionId, final URI uri)
+    AudioInputStream getAudioInputStream(final String sessionId, final URI uri,
+            final FetchAttributes attributes)
             throws BadFetchError;
 
     /**
@@ -153,7 +157,9 @@ public interface DocumentServer {
      *            descriptor for the document to fetch.
      * @param type
      *            the type, e.g. <code>text/plain</code>.
-     * @return retrieved object
+     * @return retrieved object. If no type is given, this is a
+     *         {@link org.jvoicexml.documentserver.ReadBuffer} that must be
+     *         released by the caller.
      * @throws BadFetchError
      *             Error retrieving the object.
      * @since 0.6
@@ -173,6 +179,22 @@ public interface DocumentServer {
      */
     URI storeAudio(final AudioInputStream in) throws BadFetchError;
 
+    /**
+     * Creates a new recording that stores the audio while it is being
+     * recorded.
+     * 
+     * @param format
+     *            the audio format of the recording
+     * @param maxTime
+     *            maximum recording time in msec, <code>0</code> for no limit
+     * @return the new recording
+     * @throws BadFetchError
+     *             Error creating the storage of the recording.
+     * @since 0.7.9
+     */
+    AudioRecording createAudioRecording(final AudioFormat format,
+            final long maxTime) throws BadFetchError;
+
     /**
      * Notification that the given session is closed. Now the document server
      * may free any resources related to the given session.
@@ -29,6 +29,9 @@ package org.jvoicexml;
 
 import java.net.URI;
 
+import org.jvoicexml.event.error.BadFetchError;
+import org.jvoicexml.xml.TimeParser;
+
 /**
  * A VoiceXML interpreter context needs to fetch VoiceXML documents, and other
  * resources, such as audio files, grammars, scripts, and objects. Each fetch
@@ -53,6 +56,16 @@ public final class FetchAttributes implements Cloneable {
      */
     public static final String HINT_SAFE = "safe";
 
+    /**
+     * Value of {@link #maxage} and {@link #maxstale} if they are not
+     * specified. This value can not be the result of a parsed time.
+     * @since 0.7.9
+     */
+    public static final long UNSPECIFIED = Long.MIN_VALUE;
+
+    /** Number of milliseconds per second. */
+    private static final long MSECS_PER_SEC = 1000;
+
     /**
      * The interval to wait for the content to be returned before throwing an
      * <code>error.badfetch</code> event.
@@ -68,7 +81,7 @@ public final class FetchAttributes implements Cloneable {
 
     /**
      * Indicates that the document is willing to use content whose age is no
-     * greater than the specified time in seconds. The document is not willing
+     * greater than the specified time in msec. The document is not willing
      * to use stale content, unless <code>maxstale</code> is also provided.
      * If not specified, a value derived from the innermost relevant
      * <code>maxage</code> property, if present, is used.
@@ -79,7 +92,7 @@ public final class FetchAttributes implements Cloneable {
      * Indicates that the document is willing to use content that has exceeded
      * its expiration time. If <code>maxstale</code> is assigned a value, then
      * the document is willing to accept content that has exceeded its
-     * expiration time by no more than the specified number of seconds.
+     * expiration time by no more than the specified number of msec.
      * If not specified, a value derived from the innermost relevant
      * <code>maxstale</code> property, if present, is used.
      */
@@ -102,6 +115,8 @@ public final class FetchAttributes implements Cloneable {
      * Construct a new object.
      */
     public FetchAttributes() {
+        maxage = UNSPECIFIED;
+        maxstale = UNSPECIFIED;
     }
 
     /**
@@ -117,6 +132,37 @@ public final class FetchAttributes implements Cloneable {
         maxstale = attributes.getMaxstale();
     }
 
+    /**
+     * Parses the value of a <code>maxage</code> or <code>maxstale</code>
+     * attribute. Values without a unit are seconds as in HTTP.
+     * @param name name of the attribute
+     * @param value the value of the attribute
+     * @return time in msec
+     * @throws BadFetchError
+     *         if the value is negative or not a valid time
+     * @since 0.7.9
+     */
+    public static long parseAge(final String name, final String value)
+            throws BadFetchError {
+        final String time = value.trim();
+        long msec = -1;
+        if (time.matches("\\d+")) {
+            try {
+                msec = Long.parseLong(time) * MSECS_PER_SEC;
+            } catch (NumberFormatException e) {
+                msec = -1;
+            }
+        } else {
+            final TimeParser parser = new TimeParser(time);
+            msec = parser.parse();
+        }
+        if (msec < 0) {
+            throw new BadFetchError("invalid value for " + name + ": '"
+                    + value + "'");
+        }
+        return msec;
+    }
+
     /**
      * Retrieve the <code>fetchtimeout</code> attribute.
      * @param seconds Number of seconds to wait.
@@ -181,16 +227,17 @@ public final class FetchAttributes implements Cloneable {
     
     /**
      * Retrieve the <code>maxage</code> attribute.
-     * @param seconds Maximum age of documents in seconds.
+     * @param msec Maximum age of documents in msec.
      * @see #maxage
      */
-    public void setMaxage(final long seconds) {
-        maxage = seconds;
+    public void setMaxage(final long msec) {
+        maxage = msec;
     }
 
     /**
      * Set the <code>maxage</code> attribute.
-     * @return Maximum age of documents in seconds.
+     * @return Maximum age of documents in msec, {@link #UNSPECIFIED} if
+     *         not specified.
      * @see #maxage
      */
     public long getMaxage() {
@@ -199,18 +246,18 @@ public final class FetchAttributes implements Cloneable {
 
     /**
      * Retrieve the <code>maxstale</code> attribute.
-     * @param seconds Number of seconds to use content that has exceeded
+     * @param msec Number of msec to use content that has exceeded
      * its expiration time.
      * @see #maxstale
      */
-    public void setMaxstale(final long seconds) {
-        maxstale = seconds;
+    public void setMaxstale(final long msec) {
+        maxstale = msec;
     }
 
     /**
      * Set the <code>maxstale</code> attribute.
-     * @return Number of seconds to use content that has exceeded
-     * its expiration time.
+     * @return Number of msec to use content that has exceeded
+     * its expiration time, {@link #UNSPECIFIED} if not specified.
      * @see #maxstale
      */
     public long getMaxstale() {
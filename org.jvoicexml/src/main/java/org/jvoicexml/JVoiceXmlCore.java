@@ -68,6 +68,13 @@ public interface JVoiceXmlCore
      */
     ImplementationPlatformFactory getImplementationPlatformFactory();
 
+    /**
+     * Retrieves the registry of all active sessions.
+     * @return the session registry
+     * @since 0.7.9
+     */
+    SessionRegistry getSessionRegistry();
+
     /**
      * Creates a new session given the implementation platform.
      *
@@ -29,12 +29,17 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jvoicexml.event.ErrorEvent;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.interpreter.GrammarProcessor;
+import org.jvoicexml.interpreter.JVoiceXmlSession;
+import org.jvoicexml.interpreter.JVoiceXmlSessionRegistry;
+import org.jvoicexml.interpreter.SessionExecutor;
+import org.jvoicexml.interpreter.executor.ThreadSessionExecutor;
 import org.jvoicexml.profile.Profile;
 
 /**
@@ -63,6 +68,9 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
     private static final Logger LOGGER = LogManager
             .getLogger(JVoiceXmlMain.class);
 
+    /** Maximum time in msec to wait for active sessions on shutdown. */
+    private static final long SESSION_SHUTDOWN_TIMEOUT = 5000;
+
     /** Semaphore to handle the shutdown notification. */
     private final Object shutdownSemaphore;
 
@@ -75,6 +83,9 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
     /** The grammar processor. */
     private GrammarProcessor grammarProcessor;
 
+    /** The executor of the sessions. */
+    private SessionExecutor sessionExecutor;
+
     /** JNDI support. */
     private JndiSupport jndi;
 
@@ -96,6 +107,9 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
     /** Registered listeners to JVoiceXml. */
     private final Collection<JVoiceXmlMainListener> listeners;
 
+    /** The active sessions. */
+    private final JVoiceXmlSessionRegistry sessions;
+
     /** The state of the interpreter. */
     private InterpreterState state;
 
@@ -119,7 +133,8 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
         shutdownSemaphore = new Object();
         setName(JVoiceXmlMain.class.getSimpleName());
         configuration = config;
-        listeners = new java.util.ArrayList<JVoiceXmlMainListener>();
+        listeners = new CopyOnWriteArrayList<JVoiceXmlMainListener>();
+        sessions = new JVoiceXmlSessionRegistry();
         profiles = new java.util.HashMap<String, Profile>();
         state = InterpreterState.STARTED;
         LOGGER.info("interpreter state " + state);
@@ -155,9 +170,7 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
      *            the listener to add.
      */
     public void addListener(final JVoiceXmlMainListener listener) {
-        synchronized (listeners) {
-            listeners.add(listener);
-        }
+        listeners.add(listener);
     }
 
     /**
@@ -167,9 +180,7 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
      *            the listener to remove.
      */
     public void removeListener(final JVoiceXmlMainListener listener) {
-        synchronized (listeners) {
-            listeners.remove(listener);
-        }
+        listeners.remove(listener);
     }
 
     /**
@@ -207,13 +218,22 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
             throw new NoresourceError(
                     "Unable to find a profile named '" + profileName + "'");
         }
-        final Session session = new org.jvoicexml.interpreter.JVoiceXmlSession(
-                platform, this, info, profile);
+        final Session session = new JVoiceXmlSession(platform, this, info,
+                profile, sessionExecutor);
         platform.setSession(session);
+        sessions.register(session);
         LOGGER.info("created session " + session.getSessionId());
 
         return session;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SessionRegistry getSessionRegistry() {
+        return sessions;
+    }
     
     /**
      * {@inheritDoc}
@@ -295,6 +315,17 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
         grammarProcessor = processor;
     }
 
+    /**
+     * Sets the executor of the sessions.
+     * 
+     * @param executor
+     *            the session executor.
+     * @since 0.7.9
+     */
+    public void setSessionExecutor(final SessionExecutor executor) {
+        sessionExecutor = executor;
+    }
+
     /**
      * Set the call managers to use.
      * 
@@ -367,6 +398,7 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
                 abortStartup(exception);
             }
             grammarProcessor.init(config);
+            initSessionExecutor(config);
             initCallManager(config);
             initProfiles(config);
             initJndi(config);
@@ -382,6 +414,28 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
         fireJVoiceXmlStarted();
     }
 
+    /**
+     * Loads the executor of the sessions. If none is configured, each
+     * session is started in a new thread.
+     * 
+     * @param config
+     *            the current configuration
+     * @throws ConfigurationException
+     *             error loading the session executor
+     * @since 0.7.9
+     */
+    private void initSessionExecutor(final Configuration config)
+            throws ConfigurationException {
+        if (sessionExecutor == null) {
+            sessionExecutor = config.loadObject(SessionExecutor.class);
+        }
+        if (sessionExecutor == null) {
+            sessionExecutor = new ThreadSessionExecutor();
+        }
+        LOGGER.info("using session executor '"
+                + sessionExecutor.getClass().getCanonicalName() + "'");
+    }
+
     /**
      * Aborts a startup of JVoiceXML, e.g., because of configuration errors.
      * 
@@ -532,6 +586,19 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
             jndi = null;
         }
 
+        // Hang up all sessions that are still active
+        final int remaining = sessions.hangupAll(SESSION_SHUTDOWN_TIMEOUT);
+        if (remaining > 0) {
+            LOGGER.warn(remaining + " session(s) did not end within "
+                    + SESSION_SHUTDOWN_TIMEOUT + " msecs");
+        }
+
+        // Do not accept further sessions
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdown();
+            sessionExecutor = null;
+        }
+
         // Release all references to the allocated resources.
         grammarProcessor = null;
         documentServer = null;
@@ -615,10 +682,8 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
      * @since 0.7.6
      */
     private void fireJVoiceXmlStartupError(final Throwable exception) {
-        synchronized (listeners) {
-            for (JVoiceXmlMainListener listener : listeners) {
-                listener.jvxmlStartupError(exception);
-            }
+        for (JVoiceXmlMainListener listener : listeners) {
+            listener.jvxmlStartupError(exception);
         }
     }
 
@@ -628,10 +693,8 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
      * @since 0.7.5
      */
     private void fireJVoiceXmlStarted() {
-        synchronized (listeners) {
-            for (JVoiceXmlMainListener listener : listeners) {
-                listener.jvxmlStarted();
-            }
+        for (JVoiceXmlMainListener listener : listeners) {
+            listener.jvxmlStarted();
         }
     }
 
@@ -641,10 +704,8 @@ public final class JVoiceXmlMain extends Thread implements JVoiceXmlCore {
      * @since 0.7.5
      */
     private void fireJVoiceXmlTerminated() {
-        synchronized (listeners) {
-            for (JVoiceXmlMainListener listener : listeners) {
-                listener.jvxmlTerminated();
-            }
+        for (JVoiceXmlMainListener listener : listeners) {
+            listener.jvxmlTerminated();
         }
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml;
+
+/**
+ * Registry of all sessions that have been created and have not ended yet.
+ *
+ * <p>
+ * Sessions can be looked up by their session id and by a call id that has
+ * been assigned, e.g., by a call manager. Implementations must be
+ * thread-safe and must not block sessions that are created or closed
+ * concurrently.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface SessionRegistry {
+    /**
+     * Retrieves the session with the given session id.
+     * @param sessionId the session id
+     * @return the session, <code>null</code> if there is no such session
+     */
+    Session getSession(final String sessionId);
+
+    /**
+     * Retrieves the session with the given call id.
+     * @param callId the call id
+     * @return the session, <code>null</code> if there is no such session
+     */
+    Session getSessionByCallId(final String callId);
+
+    /**
+     * Assigns the given call id to the given session. The call id is
+     * released when the session ends.
+     * @param session the session
+     * @param callId the call id
+     * @return <code>true</code> if the call id has been assigned,
+     *         <code>false</code> if the session is not registered
+     */
+    boolean setCallId(final Session session, final String callId);
+
+    /**
+     * Retrieves all registered sessions. Iterating the sessions does not
+     * block the creation or closing of sessions. Sessions that are created
+     * or closed meanwhile may or may not be returned.
+     * @return all registered sessions
+     */
+    Iterable<Session> getSessions();
+
+    /**
+     * Retrieves the number of registered sessions.
+     * @return number of registered sessions
+     */
+    int size();
+}
@@ -25,6 +25,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -33,6 +35,7 @@ import org.jvoicexml.ConnectionInformation;
 import org.jvoicexml.JVoiceXml;
 import org.jvoicexml.JVoiceXmlCore;
 import org.jvoicexml.Session;
+import org.jvoicexml.SessionRegistry;
 import org.jvoicexml.event.ErrorEvent;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.NoresourceError;
@@ -62,7 +65,7 @@ public abstract class BaseCallManager implements CallManager, TerminalListener {
     private Collection<Terminal> terminals;
 
     /** Established sessions. */
-    private final Map<Terminal, Session> sessions;
+    private final ConcurrentMap<Terminal, Session> sessions;
 
     /** Flag if the call manager has been started. */
     boolean started;
@@ -72,7 +75,7 @@ public abstract class BaseCallManager implements CallManager, TerminalListener {
      */
     public BaseCallManager() {
         applications = new java.util.HashMap<String, ConfiguredApplication>();
-        sessions = new java.util.HashMap<Terminal, Session>();
+        sessions = new ConcurrentHashMap<Terminal, Session>();
     }
 
     /**
@@ -248,9 +251,9 @@ public abstract class BaseCallManager implements CallManager, TerminalListener {
             final CallParameters parameters) {
         try {
             final Session session = createSession(terminal, parameters);
-            synchronized (sessions) {
-                sessions.put(terminal, session);
-            }
+            sessions.put(terminal, session);
+            final SessionRegistry registry = jvxml.getSessionRegistry();
+            registry.setCallId(session, terminal.getName());
         } catch (ErrorEvent e) {
             LOGGER.error("error creating the session", e);
         }
@@ -261,16 +264,13 @@ public abstract class BaseCallManager implements CallManager, TerminalListener {
      */
     @Override
     public final void terminalDisconnected(final Terminal terminal) {
-        synchronized (sessions) {
-            final Session session = sessions.get(terminal);
-            if (session == null) {
-                return;
-            }
-            session.hangup();
-            sessions.remove(terminal);
-            LOGGER.info("hung up session for terminal '" + terminal.getName()
-                    + "'");
+        final Session session = sessions.remove(terminal);
+        if (session == null) {
+            return;
         }
+        session.hangup();
+        LOGGER.info("hung up session for terminal '" + terminal.getName()
+                + "'");
     }
 
     /**
@@ -289,20 +289,16 @@ public abstract class BaseCallManager implements CallManager, TerminalListener {
      * @return <code>true</code> if the given terminal is connected
      */
     public final boolean isConnected(final Terminal terminal) {
-        synchronized (sessions) {
-            return sessions.containsKey(terminal);
-        }
+        return sessions.containsKey(terminal);
     }
 
     /**
      * Calls the hangup for each connected session and stops the terminals.
      */
     protected final void hangupSessions() {
-       synchronized (sessions) {
-           final Collection<Terminal> openTerminals = sessions.keySet();
-           for (Terminal terminal : openTerminals) {
-               terminalDisconnected(terminal);
-           }
+       final Collection<Terminal> openTerminals = sessions.keySet();
+       for (Terminal terminal : openTerminals) {
+           terminalDisconnected(terminal);
        }
     }
 
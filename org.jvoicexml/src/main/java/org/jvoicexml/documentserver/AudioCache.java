@@ -0,0 +1,438 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.jvoicexml.FetchAttributes;
+
+/**
+ * Size-bounded cache of audio files that is shared by all sessions.
+ *
+ * <p>
+ * The cache keeps the decoded audio data of each file together with its
+ * {@link AudioFormat} in a direct buffer outside of the heap. A hit
+ * returns an {@link AudioInputStream} that reads from a view of that
+ * buffer, so the data is neither fetched nor decoded nor copied again.
+ * </p>
+ *
+ * <p>
+ * Each entry keeps the {@link CacheableResponse} that delivered the audio
+ * file. Entries are used as long as they are fresh according to the HTTP
+ * caching headers or the <code>maxage</code> and <code>maxstale</code>
+ * fetch attributes of the <code>&lt;audio&gt;</code> element. Otherwise,
+ * they are revalidated by the caller. If the cache is full, the least
+ * recently used audio files are evicted.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class AudioCache {
+    /** Initial capacity of the map of cached audio files. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Load factor of the map of cached audio files. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Portion of the cache that a single audio file may occupy. */
+    private static final int MAX_ENTRY_PORTION = 4;
+
+    /** Size of the chunks to read audio data of unknown length. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** The cached audio files in access order. */
+    private final Map<URI, CachedAudio> entries;
+
+    /** Maximum number of bytes to keep. */
+    private final long maxBytes;
+
+    /** Number of bytes that are currently kept. */
+    private long bytes;
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of bytes to keep
+     */
+    AudioCache(final long size) {
+        maxBytes = size;
+        entries = new LinkedHashMap<URI, CachedAudio>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true);
+    }
+
+    /**
+     * Retrieves the cache entry for the given URI.
+     * @param uri URI of the audio file
+     * @return cache entry, <code>null</code> if the audio file is not cached
+     */
+    CachedAudio get(final URI uri) {
+        synchronized (entries) {
+            return entries.get(uri);
+        }
+    }
+
+    /**
+     * Reads the given audio stream into the cache.
+     * @param uri URI of the audio file
+     * @param response the response that delivered the audio file
+     * @param stream the audio stream of the file
+     * @return stream of the audio file to be used instead of the given
+     *          stream
+     * @exception IOException
+     *            error reading the audio stream
+     */
+    AudioInputStream put(final URI uri, final CacheableResponse response,
+            final AudioInputStream stream) throws IOException {
+        final AudioFormat format = stream.getFormat();
+        final long frameLength = stream.getFrameLength();
+        final int frameSize = format.getFrameSize();
+        final long maxEntry = maxBytes / MAX_ENTRY_PORTION;
+        final ByteBuffer buffer;
+        if ((frameLength != AudioSystem.NOT_SPECIFIED)
+                && (frameSize != AudioSystem.NOT_SPECIFIED)) {
+            final long length = frameLength * frameSize;
+            if ((length > maxEntry) || (length > Integer.MAX_VALUE)) {
+                return stream;
+            }
+            buffer = readKnownLength(stream, (int) length);
+        } else {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!readUnknownLength(stream, out, maxEntry)) {
+                final InputStream rest = new SequenceInputStream(
+                        new ByteArrayInputStream(out.toByteArray()), stream);
+                return new AudioInputStream(rest, format,
+                        AudioSystem.NOT_SPECIFIED);
+            }
+            buffer = ByteBuffer.allocateDirect(out.size());
+            buffer.put(out.toByteArray());
+            buffer.flip();
+        }
+        stream.close();
+        final CachedAudio audio = new CachedAudio(format, buffer, response);
+        synchronized (entries) {
+            removeEntry(uri);
+            entries.put(uri, audio);
+            bytes += audio.getSize();
+            evict();
+        }
+        return audio.getAudioInputStream();
+    }
+
+    /**
+     * Reads the audio data of known length into a direct buffer.
+     * @param stream the audio stream
+     * @param length number of bytes of audio data
+     * @return buffer with the audio data
+     * @exception IOException
+     *            error reading the audio stream
+     */
+    private static ByteBuffer readKnownLength(final AudioInputStream stream,
+            final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        final byte[] chunk = new byte[Math.min(CHUNK_SIZE,
+                Math.max(1, length))];
+        while (buffer.hasRemaining()) {
+            final int len = Math.min(chunk.length, buffer.remaining());
+            final int read = stream.read(chunk, 0, len);
+            if (read < 0) {
+                break;
+            }
+            buffer.put(chunk, 0, read);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads the audio data of unknown length.
+     * @param stream the audio stream
+     * @param out the stream to read into
+     * @param limit maximum number of bytes to read
+     * @return <code>true</code> if the stream has been read completely,
+     *          <code>false</code> if it exceeds the limit
+     * @exception IOException
+     *            error reading the audio stream
+     */
+    private static boolean readUnknownLength(final AudioInputStream stream,
+            final ByteArrayOutputStream out, final long limit)
+            throws IOException {
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = stream.read(chunk)) >= 0) {
+            out.write(chunk, 0, read);
+            if (out.size() > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the audio file with the given URI.
+     * @param uri URI of the audio file
+     */
+    void remove(final URI uri) {
+        synchronized (entries) {
+            removeEntry(uri);
+        }
+    }
+
+    /**
+     * Removes the audio file with the given URI. The caller must hold the
+     * lock on the entries.
+     * @param uri URI of the audio file
+     */
+    private void removeEntry(final URI uri) {
+        final CachedAudio audio = entries.remove(uri);
+        if (audio != null) {
+            bytes -= audio.getSize();
+        }
+    }
+
+    /**
+     * Evicts the least recently used audio files until the size limit is
+     * met. The caller must hold the lock on the entries.
+     */
+    private void evict() {
+        final Iterator<CachedAudio> iterator = entries.values().iterator();
+        while ((bytes > maxBytes) && iterator.hasNext()) {
+            final CachedAudio audio = iterator.next();
+            iterator.remove();
+            bytes -= audio.getSize();
+        }
+    }
+
+    /**
+     * Removes all audio files.
+     */
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Retrieves the number of bytes that are currently kept.
+     * @return number of bytes
+     */
+    long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * The decoded audio data of an audio file.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    static final class CachedAudio {
+        /** The format of the audio data. */
+        private final AudioFormat format;
+
+        /** The audio data. */
+        private final ByteBuffer data;
+
+        /** The response carrying freshness information and validators. */
+        private CacheableResponse response;
+
+        /**
+         * Constructs a new object.
+         * @param audioFormat the format of the audio data
+         * @param buffer the audio data
+         * @param res the response that delivered the audio file
+         */
+        CachedAudio(final AudioFormat audioFormat, final ByteBuffer buffer,
+                final CacheableResponse res) {
+            format = audioFormat;
+            data = buffer;
+            response = res;
+        }
+
+        /**
+         * Retrieves the response that delivered the audio file.
+         * @return the response
+         */
+        synchronized CacheableResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Updates the freshness information after a successful
+         * revalidation.
+         * @param revalidation the response of the revalidation
+         */
+        synchronized void revalidated(final CacheableResponse revalidation) {
+            revalidation.inherit(response);
+            response = revalidation;
+        }
+
+        /**
+         * Checks if the audio file may be used without revalidation.
+         * @param now the current time in msec
+         * @param attributes the fetch attributes
+         * @param defaultLifetime the freshness lifetime in msec if neither
+         *          the server nor the fetch attributes specify one
+         * @return <code>true</code> if the audio file may be used
+         */
+        synchronized boolean isFresh(final long now,
+                final FetchAttributes attributes,
+                final long defaultLifetime) {
+            return response.isFresh(now, attributes, defaultLifetime);
+        }
+
+        /**
+         * Retrieves the number of bytes of the audio data.
+         * @return number of bytes
+         */
+        long getSize() {
+            return data.limit();
+        }
+
+        /**
+         * Creates a new stream that reads from a view of the audio data.
+         * @return new stream of the audio data
+         */
+        AudioInputStream getAudioInputStream() {
+            final InputStream input = new ByteBufferInputStream(
+                    data.duplicate());
+            final int frameSize = format.getFrameSize();
+            final long frames;
+            if (frameSize > 0) {
+                frames = data.limit() / frameSize;
+            } else {
+                frames = AudioSystem.NOT_SPECIFIED;
+            }
+            return new AudioInputStream(input, format, frames);
+        }
+    }
+
+    /**
+     * An input stream that reads from a byte buffer.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        /** The buffer to read from. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructs a new object.
+         * @param view the buffer to read from
+         */
+        ByteBufferInputStream(final ByteBuffer view) {
+            buffer = view;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xff;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long skip(final long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            final int count = (int) Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void mark(final int readlimit) {
+            buffer.mark();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void reset() throws IOException {
+            try {
+                buffer.reset();
+            } catch (java.nio.InvalidMarkException e) {
+                throw new IOException("mark has not been set", e);
+            }
+        }
+    }
+}
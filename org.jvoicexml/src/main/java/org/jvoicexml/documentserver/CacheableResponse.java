@@ -0,0 +1,303 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import org.jvoicexml.FetchAttributes;
+
+/**
+ * Content retrieved by a {@link ConditionalSchemeStrategy} together with the
+ * cache relevant metadata of the response, i.e. the freshness information
+ * and the validators to be used for conditional requests.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class CacheableResponse {
+    /** Value of the freshness lifetime if it is unknown. */
+    public static final long UNKNOWN_LIFETIME = -1;
+
+    /** <code>true</code> if the server reported that nothing changed. */
+    private boolean notModified;
+
+    /** The retrieved content. */
+    private byte[] content;
+
+    /** Local time in msec when the response was received. */
+    private long date;
+
+    /** The age of the response in msec when it was received. */
+    private long age;
+
+    /** The freshness lifetime of the response in msec. */
+    private long freshnessLifetime;
+
+    /** The entity tag of the response. */
+    private String etag;
+
+    /** The last modified date of the response as it was sent. */
+    private String lastModified;
+
+    /** <code>true</code> if the response may be stored in a shared cache. */
+    private boolean storable;
+
+    /** <code>true</code> if the response must be revalidated before use. */
+    private boolean noCache;
+
+    /** <code>true</code> if stale responses must not be used. */
+    private boolean mustRevalidate;
+
+    /**
+     * Constructs a new object.
+     */
+    public CacheableResponse() {
+        date = System.currentTimeMillis();
+        freshnessLifetime = UNKNOWN_LIFETIME;
+    }
+
+    /**
+     * Checks if the server reported that the content has not been modified
+     * since the previous request.
+     * @return <code>true</code> if the content has not been modified
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Sets the not modified flag.
+     * @param value <code>true</code> if the content has not been modified
+     */
+    public void setNotModified(final boolean value) {
+        notModified = value;
+    }
+
+    /**
+     * Retrieves the content.
+     * @return the content, <code>null</code> if the content was not modified
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the content.
+     * @param value the content
+     */
+    public void setContent(final byte[] value) {
+        content = value;
+    }
+
+    /**
+     * Retrieves the local time when the response was received.
+     * @return time in msec
+     */
+    public long getDate() {
+        return date;
+    }
+
+    /**
+     * Sets the local time when the response was received.
+     * @param msec time in msec
+     */
+    public void setDate(final long msec) {
+        date = msec;
+    }
+
+    /**
+     * Retrieves the age of the response when it was received.
+     * @return age in msec
+     */
+    public long getAge() {
+        return age;
+    }
+
+    /**
+     * Sets the age of the response when it was received.
+     * @param msec age in msec
+     */
+    public void setAge(final long msec) {
+        age = msec;
+    }
+
+    /**
+     * Retrieves the freshness lifetime as it was specified by the server.
+     * @return freshness lifetime in msec, {@link #UNKNOWN_LIFETIME} if
+     *         the server did not specify a freshness lifetime
+     */
+    public long getFreshnessLifetime() {
+        return freshnessLifetime;
+    }
+
+    /**
+     * Sets the freshness lifetime.
+     * @param msec freshness lifetime in msec
+     */
+    public void setFreshnessLifetime(final long msec) {
+        freshnessLifetime = msec;
+    }
+
+    /**
+     * Retrieves the entity tag.
+     * @return the entity tag, <code>null</code> if none was sent
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Sets the entity tag.
+     * @param value the entity tag
+     */
+    public void setEtag(final String value) {
+        etag = value;
+    }
+
+    /**
+     * Retrieves the last modified date as it was sent by the server.
+     * @return the last modified date, <code>null</code> if none was sent
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the last modified date as it was sent by the server.
+     * @param value the last modified date
+     */
+    public void setLastModified(final String value) {
+        lastModified = value;
+    }
+
+    /**
+     * Checks if this response may be stored in a cache that is shared by
+     * all sessions.
+     * @return <code>true</code> if the response may be stored
+     */
+    public boolean isStorable() {
+        return storable;
+    }
+
+    /**
+     * Sets the storable flag.
+     * @param value <code>true</code> if the response may be stored
+     */
+    public void setStorable(final boolean value) {
+        storable = value;
+    }
+
+    /**
+     * Checks if the response must be revalidated each time before it is
+     * used.
+     * @return <code>true</code> if the response must be revalidated
+     */
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    /**
+     * Sets the no cache flag.
+     * @param value <code>true</code> if the response must be revalidated
+     */
+    public void setNoCache(final boolean value) {
+        noCache = value;
+    }
+
+    /**
+     * Checks if the response must not be used after it became stale.
+     * @return <code>true</code> if the response must not be used when stale
+     */
+    public boolean isMustRevalidate() {
+        return mustRevalidate;
+    }
+
+    /**
+     * Sets the must revalidate flag.
+     * @param value <code>true</code> if the response must not be used when
+     *          stale
+     */
+    public void setMustRevalidate(final boolean value) {
+        mustRevalidate = value;
+    }
+
+    /**
+     * Checks if this response carries validators that can be used for a
+     * conditional request.
+     * @return <code>true</code> if there are validators
+     */
+    public boolean hasValidators() {
+        return (etag != null) || (lastModified != null);
+    }
+
+    /**
+     * Takes over the validators and the freshness lifetime of the given
+     * previous response if they are not repeated in this response of a
+     * revalidation.
+     * @param previous the previous response
+     */
+    public void inherit(final CacheableResponse previous) {
+        if (etag == null) {
+            etag = previous.getEtag();
+        }
+        if (lastModified == null) {
+            lastModified = previous.getLastModified();
+        }
+        if (freshnessLifetime == UNKNOWN_LIFETIME) {
+            freshnessLifetime = previous.getFreshnessLifetime();
+        }
+    }
+
+    /**
+     * Checks if this response may be used without revalidation. The
+     * <code>maxage</code> and <code>maxstale</code> fetch attributes
+     * override the freshness lifetime as it was specified by the server.
+     * @param now the current time in msec
+     * @param attributes the fetch attributes
+     * @param defaultLifetime the freshness lifetime in msec if neither the
+     *          server nor the fetch attributes specify one,
+     *          {@link #UNKNOWN_LIFETIME} to always revalidate in this case
+     * @return <code>true</code> if the response may be used
+     */
+    public boolean isFresh(final long now, final FetchAttributes attributes,
+            final long defaultLifetime) {
+        if (noCache) {
+            return false;
+        }
+        final long currentAge = age + now - date;
+        final long maxage = attributes.getMaxage();
+        final long lifetime;
+        if (maxage != FetchAttributes.UNSPECIFIED) {
+            lifetime = maxage;
+        } else if (freshnessLifetime != UNKNOWN_LIFETIME) {
+            lifetime = freshnessLifetime;
+        } else {
+            lifetime = defaultLifetime;
+        }
+        if (lifetime == UNKNOWN_LIFETIME) {
+            return false;
+        }
+        final long maxstale = attributes.getMaxstale();
+        if ((maxstale == FetchAttributes.UNSPECIFIED) || mustRevalidate) {
+            return currentAge <= lifetime;
+        }
+        return currentAge <= lifetime + maxstale;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.jvoicexml.event.error.BadFetchError;
+
+/**
+ * A {@link SchemeStrategy} that is able to report the cache relevant
+ * metadata of the retrieved content and to issue conditional requests.
+ *
+ * <p>
+ * The document server uses this to maintain its document cache. Only plain
+ * <code>GET</code> requests without parameters are issued via this interface.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface ConditionalSchemeStrategy extends SchemeStrategy {
+    /**
+     * Retrieves the content of the given URI. If a previous response is
+     * given, its validators are used to issue a conditional request.
+     *
+     * @param sessionId
+     *            the Id of the current JVoiceXML session.
+     * @param uri
+     *            the URI of the object to open.
+     * @param timeout
+     *            fetch timeout in msec to wait for the content to be returned
+     *            before throwing an <code>error.badfetch</code> event.
+     * @param previous
+     *            the previous response for the URI, maybe <code>null</code>
+     * @return the response, <code>null</code> if the content could not
+     *          be retrieved
+     * @exception BadFetchError
+     *                error retrieving the content
+     * @exception IOException
+     *                error reading the content
+     */
+    CacheableResponse getCacheableResponse(final String sessionId,
+            final URI uri, final long timeout,
+            final CacheableResponse previous)
+            throws BadFetchError, IOException;
+}
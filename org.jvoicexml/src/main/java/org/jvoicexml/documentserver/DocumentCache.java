@@ -0,0 +1,189 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jvoicexml.FetchAttributes;
+import org.jvoicexml.xml.vxml.VoiceXmlDocument;
+
+/**
+ * Size-bounded cache of parsed VoiceXML documents that is shared by all
+ * sessions.
+ *
+ * <p>
+ * The cache follows the HTTP caching semantics of the
+ * {@link CacheableResponse}s but lets the <code>maxage</code> and
+ * <code>maxstale</code> fetch attributes of the VoiceXML document override
+ * the freshness lifetime as it was specified by the server. If the cache
+ * is full, the least recently used document is evicted.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DocumentCache {
+    /** Initial capacity of the map of cached documents. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Load factor of the map of cached documents. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** The cached documents in access order. */
+    private final Map<URI, CachedDocument> entries;
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of documents to keep
+     */
+    DocumentCache(final int size) {
+        entries = new LinkedHashMap<URI, CachedDocument>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true) {
+            /** The serial version UID. */
+            private static final long serialVersionUID =
+                    -1937211413489426873L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<URI, CachedDocument> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cache entry for the given URI.
+     * @param uri the URI
+     * @return cache entry, <code>null</code> if there is none
+     */
+    synchronized CachedDocument get(final URI uri) {
+        return entries.get(uri);
+    }
+
+    /**
+     * Stores the given document.
+     * @param uri the URI of the document
+     * @param response the response that delivered the document
+     * @param document the parsed document
+     * @return the created cache entry
+     */
+    synchronized CachedDocument put(final URI uri,
+            final CacheableResponse response,
+            final VoiceXmlDocument document) {
+        final CachedDocument entry = new CachedDocument(response, document);
+        entries.put(uri, entry);
+        return entry;
+    }
+
+    /**
+     * Removes the document with the given URI.
+     * @param uri the URI of the document
+     */
+    synchronized void remove(final URI uri) {
+        entries.remove(uri);
+    }
+
+    /**
+     * Removes all documents.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Retrieves the number of cached documents.
+     * @return number of cached documents
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached document.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    static final class CachedDocument {
+        /** The response carrying freshness information and validators. */
+        private CacheableResponse response;
+
+        /**
+         * The parsed document template. It is never handed out directly,
+         * but only as a copy.
+         */
+        private final VoiceXmlDocument document;
+
+        /**
+         * Constructs a new object.
+         * @param res the response
+         * @param doc the parsed document
+         */
+        CachedDocument(final CacheableResponse res,
+                final VoiceXmlDocument doc) {
+            response = res;
+            document = doc;
+        }
+
+        /**
+         * Retrieves the response that delivered the document.
+         * @return the response
+         */
+        synchronized CacheableResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Updates the freshness information after a successful
+         * revalidation.
+         * @param revalidation the response of the revalidation
+         */
+        synchronized void revalidated(final CacheableResponse revalidation) {
+            // Headers that are not repeated in the revalidation remain valid
+            revalidation.inherit(response);
+            response = revalidation;
+        }
+
+        /**
+         * Checks if the document may be used without revalidation.
+         * @param now the current time in msec
+         * @param attributes the fetch attributes
+         * @return <code>true</code> if the document may be used
+         */
+        synchronized boolean isFresh(final long now,
+                final FetchAttributes attributes) {
+            return response.isFresh(now, attributes,
+                    CacheableResponse.UNKNOWN_LIFETIME);
+        }
+
+        /**
+         * Creates a copy of the cached document that can be used by a
+         * session.
+         * @return copy of the cached document
+         */
+        VoiceXmlDocument getDocument() {
+            return DocumentTemplateCache.copy(document);
+        }
+    }
+}
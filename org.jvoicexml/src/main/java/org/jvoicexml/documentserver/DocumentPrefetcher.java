@@ -0,0 +1,192 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Retrieves resources that are marked with a <code>fetchhint</code> of
+ * <code>prefetch</code> in the background.
+ *
+ * <p>
+ * Resources are fetched in parallel by a bounded number of threads. The
+ * prefetched content is kept per session and handed out only once to the
+ * first request of the resource. Requests for a resource that is still being
+ * fetched wait for that fetch to complete rather than fetching it a second
+ * time. If the queue of pending fetches is full, further resources are
+ * simply not prefetched.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DocumentPrefetcher {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(DocumentPrefetcher.class);
+
+    /** Time in seconds that idle threads are kept. */
+    private static final long KEEP_ALIVE = 60;
+
+    /** The executor that performs the fetches. */
+    private final ThreadPoolExecutor executor;
+
+    /** Pending and completed fetches per session. */
+    private final Map<String, Map<URI, Future<byte[]>>> sessions;
+
+    /**
+     * Constructs a new object.
+     * @param threads maximum number of concurrent fetches
+     * @param queueSize maximum number of pending fetches
+     */
+    DocumentPrefetcher(final int threads, final int queueSize) {
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize),
+                new DaemonThreadFactory("JVoiceXML prefetch"));
+        executor.allowCoreThreadTimeOut(true);
+        sessions = new HashMap<String, Map<URI, Future<byte[]>>>();
+    }
+
+    /**
+     * Schedules the retrieval of the given resource for the given session.
+     * Resources that have already been scheduled for this session are
+     * ignored.
+     * @param sessionId the Id of the session
+     * @param uri the URI of the resource
+     * @param fetcher the retrieval of the content, may return
+     *          <code>null</code> if the content is stored elsewhere
+     */
+    void prefetch(final String sessionId, final URI uri,
+            final Callable<byte[]> fetcher) {
+        synchronized (sessions) {
+            Map<URI, Future<byte[]>> fetches = sessions.get(sessionId);
+            if (fetches == null) {
+                fetches = new HashMap<URI, Future<byte[]>>();
+                sessions.put(sessionId, fetches);
+            } else if (fetches.containsKey(uri)) {
+                return;
+            }
+            try {
+                final Future<byte[]> future = executor.submit(fetcher);
+                fetches.put(uri, future);
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("too many pending prefetches. not prefetching '"
+                        + uri + "'");
+                return;
+            }
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("prefetching '" + uri + "'");
+        }
+    }
+
+    /**
+     * Retrieves the prefetched content of the given resource and removes it.
+     * If the resource is still being fetched, this method waits for the
+     * fetch to complete.
+     * @param sessionId the Id of the session
+     * @param uri the URI of the resource
+     * @param timeout maximum time in msec to wait for a pending fetch
+     * @return prefetched content, <code>null</code> if the resource has not
+     *          been prefetched or the prefetch failed
+     */
+    byte[] take(final String sessionId, final URI uri, final long timeout) {
+        final Future<byte[]> future;
+        synchronized (sessions) {
+            final Map<URI, Future<byte[]>> fetches = sessions.get(sessionId);
+            if (fetches == null) {
+                return null;
+            }
+            future = fetches.remove(uri);
+        }
+        if (future == null) {
+            return null;
+        }
+        try {
+            final byte[] content;
+            if (timeout > 0) {
+                content = future.get(timeout, TimeUnit.MILLISECONDS);
+            } else {
+                content = future.get();
+            }
+            if ((content != null) && LOGGER.isDebugEnabled()) {
+                LOGGER.debug("using prefetched '" + uri + "'");
+            }
+            return content;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.warn("error prefetching '" + uri + "'", e.getCause());
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Discards all prefetched resources of the given session.
+     * @param sessionId the Id of the session
+     */
+    void sessionClosed(final String sessionId) {
+        final Map<URI, Future<byte[]>> fetches;
+        synchronized (sessions) {
+            fetches = sessions.remove(sessionId);
+        }
+        if (fetches == null) {
+            return;
+        }
+        final Collection<Future<byte[]>> futures = fetches.values();
+        for (Future<byte[]> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Stops all fetches.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+        synchronized (sessions) {
+            sessions.clear();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.event.error.BadFetchError;
+import org.jvoicexml.xml.XmlDocument;
+import org.jvoicexml.xml.vxml.VoiceXmlDocument;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Cache of parsed VoiceXML documents that is keyed by a digest of the
+ * document's content.
+ *
+ * <p>
+ * Each distinct document is parsed only once into a template. Sessions never
+ * get the template itself, since the interpreter modifies the documents it
+ * processes, e.g. to add the grammars of a menu. Instead, they get a deep
+ * copy of the template which is much cheaper to create than parsing the
+ * document again.
+ * </p>
+ *
+ * <p>
+ * Templates are parsed without deferred node expansion. Hence, they are
+ * never modified after they have been parsed and can be copied concurrently
+ * without synchronization.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DocumentTemplateCache {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(DocumentTemplateCache.class);
+
+    /** The digest algorithm to identify documents. */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** Initial capacity of the map of templates. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Load factor of the map of templates. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The document builder to parse templates. Parsing is not thread safe,
+     * so we store the builder in a thread local variable.
+     */
+    private static final ThreadLocal<DocumentBuilder> LOCAL_BUILDER
+        = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+            try {
+                return XmlDocument.newDocumentBuilder(true);
+            } catch (ParserConfigurationException e) {
+                LOGGER.warn("unable to disable deferred node expansion", e);
+            }
+            try {
+                return XmlDocument.newDocumentBuilder(false);
+            } catch (ParserConfigurationException e) {
+                LOGGER.error("unable to create a document builder", e);
+                return null;
+            }
+        }
+    };
+
+    /** The templates in access order. */
+    private final Map<String, VoiceXmlDocument> templates;
+
+    /**
+     * Constructs a new object.
+     * @param size maximum number of templates to keep
+     */
+    DocumentTemplateCache(final int size) {
+        templates = new LinkedHashMap<String, VoiceXmlDocument>(
+                INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            /** The serial version UID. */
+            private static final long serialVersionUID =
+                    4529318227394611829L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, VoiceXmlDocument> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the template for the given content. If there is no such
+     * template, the content is parsed into a new template.
+     * @param content the content of the VoiceXML document
+     * @return the template, must not be modified
+     * @throws BadFetchError
+     *         error parsing the document
+     */
+    VoiceXmlDocument getTemplate(final byte[] content) throws BadFetchError {
+        final String digest = digest(content);
+        synchronized (templates) {
+            final VoiceXmlDocument template = templates.get(digest);
+            if (template != null) {
+                return template;
+            }
+        }
+        final VoiceXmlDocument template = parse(content);
+        synchronized (templates) {
+            final VoiceXmlDocument other = templates.get(digest);
+            if (other != null) {
+                return other;
+            }
+            templates.put(digest, template);
+        }
+        return template;
+    }
+
+    /**
+     * Retrieves a copy of the template for the given content.
+     * @param content the content of the VoiceXML document
+     * @return copy of the template that can be modified
+     * @throws BadFetchError
+     *         error parsing the document
+     */
+    VoiceXmlDocument getDocument(final byte[] content) throws BadFetchError {
+        final VoiceXmlDocument template = getTemplate(content);
+        return copy(template);
+    }
+
+    /**
+     * Removes all templates.
+     */
+    void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    /**
+     * Creates a copy of the given template.
+     * @param template the template
+     * @return copy of the template that can be modified
+     */
+    static VoiceXmlDocument copy(final VoiceXmlDocument template) {
+        final Document document = template.getDocument();
+        final Document copy = (Document) document.cloneNode(true);
+        return new VoiceXmlDocument(copy);
+    }
+
+    /**
+     * Parses the given content into a template.
+     * @param content the content of the VoiceXML document
+     * @return parsed template
+     * @throws BadFetchError
+     *         error parsing the document
+     */
+    private static VoiceXmlDocument parse(final byte[] content)
+            throws BadFetchError {
+        final DocumentBuilder builder = LOCAL_BUILDER.get();
+        if (builder == null) {
+            throw new BadFetchError("no document builder available");
+        }
+        final InputSource source =
+                new InputSource(new ByteArrayInputStream(content));
+        try {
+            final Document document = builder.parse(source);
+            return new VoiceXmlDocument(document);
+        } catch (SAXException e) {
+            throw new BadFetchError(e);
+        } catch (IOException e) {
+            throw new BadFetchError(e);
+        }
+    }
+
+    /**
+     * Calculates the digest of the given content.
+     * @param content the content
+     * @return digest as a hex string
+     * @throws BadFetchError
+     *         the digest algorithm is not available
+     */
+    private static String digest(final byte[] content) throws BadFetchError {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+        final byte[] hash = digest.digest(content);
+        final StringBuilder str = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            str.append(Character.forDigit((b >> 4) & 0xf, 16));
+            str.append(Character.forDigit(b & 0xf, 16));
+        }
+        return str.toString();
+    }
+}
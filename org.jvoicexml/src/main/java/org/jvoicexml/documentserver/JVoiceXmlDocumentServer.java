@@ -22,6 +22,8 @@
 package org.jvoicexml.documentserver;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,8 +32,13 @@ import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.xml.parsers.DocumentBuilder;
@@ -40,18 +47,26 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jvoicexml.AudioRecording;
 import org.jvoicexml.DocumentDescriptor;
 import org.jvoicexml.DocumentServer;
 import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.documentserver.jetty.DocumentStorage;
+import org.jvoicexml.event.JVoiceXMLEvent;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.UnsupportedElementError;
 import org.jvoicexml.interpreter.datamodel.KeyValuePair;
+import org.jvoicexml.xml.XmlNode;
+import org.jvoicexml.xml.srgs.Grammar;
+import org.jvoicexml.xml.ssml.Audio;
+import org.jvoicexml.xml.vxml.Property;
 import org.jvoicexml.xml.vxml.RequestMethod;
+import org.jvoicexml.xml.vxml.Subdialog;
 import org.jvoicexml.xml.vxml.VoiceXmlDocument;
 import org.jvoicexml.xml.vxml.Vxml;
 import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
@@ -63,6 +78,38 @@ import org.xml.sax.SAXException;
  * known handlers for schemes are held in a list of {@link SchemeStrategy}s.
  * </p>
  *
+ * <p>
+ * VoiceXML documents that are retrieved via a
+ * {@link ConditionalSchemeStrategy} are kept in a {@link DocumentCache} that
+ * is shared by all sessions. Cached documents are reused as long as they are
+ * fresh according to the HTTP caching headers, or the <code>maxage</code> and
+ * <code>maxstale</code> fetch attributes if they are specified. Stale
+ * documents are revalidated with a conditional request.
+ * </p>
+ *
+ * <p>
+ * Grammars, audio files and subdialogs with a <code>fetchhint</code> of
+ * <code>prefetch</code> are retrieved in the background as soon as the
+ * referencing document has been loaded. The hint is taken from the element,
+ * the <code>grammarfetchhint</code>, <code>audiofetchhint</code> or
+ * <code>documentfetchhint</code> property of the document or the default
+ * fetch attributes.
+ * </p>
+ *
+ * <p>
+ * Decoded audio files are kept in an {@link AudioCache} that is shared by
+ * all sessions, so that frequently played prompts are neither fetched nor
+ * decoded again. They follow the same freshness rules as documents.
+ * Audio files without caching headers and without a <code>maxage</code>
+ * are considered fresh for a configurable lifetime.
+ * </p>
+ *
+ * <p>
+ * Recordings are written to a {@link WaveFileRecording} while they are being
+ * recorded. The files are written by a pool of threads that is shared by
+ * all recordings.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
 */
 public final class JVoiceXmlDocumentServer implements DocumentServer {
@@ -70,6 +117,47 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
     private static final Logger LOGGER = LogManager
             .getLogger(JVoiceXmlDocumentServer.class);
 
+    /** The default maximum number of cached documents. */
+    private static final int DEFAULT_DOCUMENT_CACHE_SIZE = 100;
+
+    /** The default maximum number of cached document templates. */
+    private static final int DEFAULT_TEMPLATE_CACHE_SIZE = 100;
+
+    /** The default maximum number of concurrent prefetches. */
+    private static final int DEFAULT_PREFETCH_THREADS = 4;
+
+    /** The default maximum number of bytes of cached audio files. */
+    private static final long DEFAULT_AUDIO_CACHE_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * The default freshness lifetime in msec of cached audio files without
+     * caching headers.
+     */
+    private static final long DEFAULT_AUDIO_CACHE_LIFETIME = 5 * 60 * 1000;
+
+    /** The default maximum number of recordings written concurrently. */
+    private static final int DEFAULT_RECORDING_THREADS = 2;
+
+    /** Time in seconds that idle recording threads are kept. */
+    private static final long RECORDING_KEEP_ALIVE = 60;
+
+    /** Maximum number of pending prefetches. */
+    private static final int PREFETCH_QUEUE_SIZE = 100;
+
+    /** Size of the buffer to read documents. */
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    /** Name of the property with the default fetch hint of grammars. */
+    private static final String PROPERTY_GRAMMARFETCHHINT =
+            "grammarfetchhint";
+
+    /** Name of the property with the default fetch hint of audio files. */
+    private static final String PROPERTY_AUDIOFETCHHINT = "audiofetchhint";
+
+    /** Name of the property with the default fetch hint of documents. */
+    private static final String PROPERTY_DOCUMENTFETCHHINT =
+            "documentfetchhint";
+
     /** Known strategy handler. */
     private final Map<String, SchemeStrategy> strategies;
 
@@ -79,6 +167,30 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
     /** The document storage. */
     private DocumentStorage storage;
 
+    /** Cache of retrieved documents, <code>null</code> if disabled. */
+    private volatile DocumentCache cache;
+
+    /** Cache of parsed document templates. */
+    private volatile DocumentTemplateCache templates;
+
+    /** Retrieval of prefetched resources, <code>null</code> if disabled. */
+    private volatile DocumentPrefetcher prefetcher;
+
+    /** Cache of decoded audio files, <code>null</code> if disabled. */
+    private volatile AudioCache audioCache;
+
+    /**
+     * Freshness lifetime in msec of cached audio files without caching
+     * headers.
+     */
+    private volatile long audioCacheLifetime;
+
+    /** The executor that writes recordings to their files. */
+    private final ThreadPoolExecutor recordingExecutor;
+
+    /** <code>true</code> if silence at the end of recordings is cut off. */
+    private boolean trimRecordingSilence;
+
     /**
      * Creates a new object.
      *
@@ -90,6 +202,120 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
      */
     public JVoiceXmlDocumentServer() {
         strategies = new java.util.HashMap<String, SchemeStrategy>();
+        cache = new DocumentCache(DEFAULT_DOCUMENT_CACHE_SIZE);
+        templates = new DocumentTemplateCache(DEFAULT_TEMPLATE_CACHE_SIZE);
+        prefetcher = new DocumentPrefetcher(DEFAULT_PREFETCH_THREADS,
+                PREFETCH_QUEUE_SIZE);
+        audioCache = new AudioCache(DEFAULT_AUDIO_CACHE_SIZE);
+        audioCacheLifetime = DEFAULT_AUDIO_CACHE_LIFETIME;
+        recordingExecutor = new ThreadPoolExecutor(DEFAULT_RECORDING_THREADS,
+                DEFAULT_RECORDING_THREADS, RECORDING_KEEP_ALIVE,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new DaemonThreadFactory("JVoiceXML recording"));
+        recordingExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Sets the maximum number of documents to keep in the document cache.
+     * A value of <code>0</code> disables the cache.
+     * @param size maximum number of cached documents
+     * @since 0.7.9
+     */
+    public void setDocumentCacheSize(final int size) {
+        if (size > 0) {
+            cache = new DocumentCache(size);
+        } else {
+            cache = null;
+        }
+        LOGGER.info("document cache size: " + size);
+    }
+
+    /**
+     * Sets the maximum number of bytes of decoded audio files to keep in
+     * the audio cache. A value of <code>0</code> disables the cache.
+     * @param size maximum number of bytes of cached audio files
+     * @since 0.7.9
+     */
+    public void setAudioCacheSize(final long size) {
+        if (size > 0) {
+            audioCache = new AudioCache(size);
+        } else {
+            audioCache = null;
+        }
+        LOGGER.info("audio cache size: " + size);
+    }
+
+    /**
+     * Sets the time that cached audio files are used without revalidation
+     * if neither the server nor the <code>maxage</code> attribute specify
+     * a freshness lifetime.
+     * @param msec freshness lifetime in msec
+     * @since 0.7.9
+     */
+    public void setAudioCacheLifetime(final long msec) {
+        audioCacheLifetime = msec;
+        LOGGER.info("audio cache lifetime: " + msec + " msec");
+    }
+
+    /**
+     * Sets the maximum number of parsed document templates to keep. Each
+     * distinct VoiceXML document is parsed only once into a template as long
+     * as it is kept.
+     * @param size maximum number of cached templates, at least 1
+     * @since 0.7.9
+     */
+    public void setTemplateCacheSize(final int size) {
+        templates = new DocumentTemplateCache(Math.max(1, size));
+        LOGGER.info("document template cache size: " + size);
+    }
+
+    /**
+     * Sets the maximum number of resources that are prefetched concurrently.
+     * A value of <code>0</code> disables prefetching.
+     * @param threads maximum number of concurrent prefetches
+     * @since 0.7.9
+     */
+    public void setPrefetchThreads(final int threads) {
+        final DocumentPrefetcher previous = prefetcher;
+        if (threads > 0) {
+            prefetcher = new DocumentPrefetcher(threads, PREFETCH_QUEUE_SIZE);
+        } else {
+            prefetcher = null;
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+        LOGGER.info("prefetch threads: " + threads);
+    }
+
+    /**
+     * Sets the maximum number of recordings that are written to their files
+     * concurrently. Further recordings wait until a thread becomes
+     * available.
+     * @param threads maximum number of concurrently written recordings,
+     *          at least 1
+     * @since 0.7.9
+     */
+    public void setRecordingThreads(final int threads) {
+        final int size = Math.max(1, threads);
+        if (size > recordingExecutor.getMaximumPoolSize()) {
+            recordingExecutor.setMaximumPoolSize(size);
+            recordingExecutor.setCorePoolSize(size);
+        } else {
+            recordingExecutor.setCorePoolSize(size);
+            recordingExecutor.setMaximumPoolSize(size);
+        }
+        LOGGER.info("recording threads: " + size);
+    }
+
+    /**
+     * Sets whether the silence at the end of PCM recordings should be cut
+     * off.
+     * @param trim <code>true</code> if silence should be cut off
+     * @since 0.7.9
+     */
+    public void setTrimRecordingSilence(final boolean trim) {
+        trimRecordingSilence = trim;
     }
 
     /**
@@ -169,12 +395,12 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
             merge.setFetchTimeout(fetchTimeout);
         }
         final long maxAge = attrs.getMaxage();
-        if (maxAge > 0) {
+        if (maxAge != FetchAttributes.UNSPECIFIED) {
             merge.setMaxage(maxAge);
         }
         final long maxStale = attrs.getMaxstale();
-        if (maxStale > 0) {
-            merge.setMaxage(maxStale);
+        if (maxStale != FetchAttributes.UNSPECIFIED) {
+            merge.setMaxstale(maxStale);
         }
         return merge;
     }
@@ -182,6 +408,12 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
     /**
      * Reads the VoiceXML document from the given <code>InputStream</code>.
      *
+     * <p>
+     * Documents are parsed only once into a template of the
+     * {@link DocumentTemplateCache}. The returned document is a copy of that
+     * template.
+     * </p>
+     *
      * @param input
      *            <code>InputStream</code> for the VoiceXML document.
      * @return Retrieved VoiceXML document.
@@ -192,17 +424,37 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
      */
     private VoiceXmlDocument readDocument(final InputStream input)
             throws BadFetchError {
-        final InputSource inputSource = new InputSource(input);
-
+        if (input == null) {
+            throw new BadFetchError("no input to read the document from");
+        }
+        final byte[] content;
         try {
-            return new VoiceXmlDocument(inputSource);
-        } catch (javax.xml.parsers.ParserConfigurationException pce) {
-            throw new BadFetchError(pce);
-        } catch (org.xml.sax.SAXException saxe) {
-            throw new BadFetchError(saxe);
-        } catch (java.io.IOException ioe) {
-            throw new BadFetchError(ioe);
+            content = readContent(input);
+        } catch (IOException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+        return templates.getDocument(content);
+    }
+
+    /**
+     * Reads the complete content of the given <code>InputStream</code>.
+     *
+     * @param input
+     *            the input stream to read from
+     * @return read content
+     * @exception IOException
+     *                error reading from the input stream
+     * @since 0.7.9
+     */
+    private static byte[] readContent(final InputStream input)
+            throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int num;
+        while ((num = input.read(buffer)) >= 0) {
+            out.write(buffer, 0, num);
         }
+        return out.toByteArray();
     }
 
     /**
@@ -219,11 +471,58 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
         final FetchAttributes mergedAttrs = mergeFetchAttributes(attrs);
         final long timeout = mergedAttrs.getFetchTimeout();
         LOGGER.info("loading document with URI '" + uri + "...");
+        final DocumentCache currentCache = cache;
+        final VoiceXmlDocument document;
+        if ((currentCache != null) && (method == RequestMethod.GET)
+                && parameters.isEmpty() && !descriptor.isForceLoad()
+                && (strategy instanceof ConditionalSchemeStrategy)) {
+            final ConditionalSchemeStrategy conditional =
+                    (ConditionalSchemeStrategy) strategy;
+            // Wait for a pending prefetch into the document cache.
+            takePrefetched(sessionId, uri, method, parameters, timeout);
+            document = getCachedDocument(currentCache, sessionId,
+                    conditional, uri, mergedAttrs);
+        } else {
+            document = loadDocument(sessionId, strategy, descriptor,
+                    timeout);
+        }
+        prefetchResources(sessionId, uri, document, mergedAttrs);
+        return document;
+    }
+
+    /**
+     * Loads the VoiceXML document without the document cache.
+     * 
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param strategy
+     *            the strategy to retrieve the document
+     * @param descriptor
+     *            descriptor of the document
+     * @param timeout
+     *            the fetch timeout in msec
+     * @return the document
+     * @throws BadFetchError
+     *             error retrieving the document
+     * @since 0.7.9
+     */
+    private VoiceXmlDocument loadDocument(final String sessionId,
+            final SchemeStrategy strategy,
+            final DocumentDescriptor descriptor, final long timeout)
+            throws BadFetchError {
+        final URI uri = descriptor.getUri();
+        final RequestMethod method = descriptor.getMethod();
+        final Collection<KeyValuePair> parameters = descriptor.getParameters();
         InputStream input = null;
         final VoiceXmlDocument document;
         try {
-            input = strategy.getInputStream(sessionId, uri, method, timeout,
-                    parameters);
+            if (descriptor.isForceLoad()) {
+                input = strategy.getInputStream(sessionId, uri, method,
+                        timeout, parameters);
+            } else {
+                input = getInputStream(sessionId, strategy, uri, method,
+                        timeout, parameters);
+            }
             document = readDocument(input);
         } catch (UnsupportedElementError e) {
             throw new BadFetchError(e.getMessage(), e);
@@ -239,6 +538,364 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
             }
         }
 
+        checkVersion(uri, document);
+        return document;
+    }
+
+    /**
+     * Opens a stream to the given resource. Prefetched content is used if
+     * available.
+     * 
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param strategy
+     *            the strategy to retrieve the resource
+     * @param uri
+     *            the URI of the resource
+     * @param method
+     *            the request method
+     * @param timeout
+     *            the fetch timeout in msec
+     * @param parameters
+     *            the request parameters
+     * @return stream to the resource
+     * @throws BadFetchError
+     *             error retrieving the resource
+     * @throws UnsupportedElementError
+     *             the request method is not supported
+     * @throws IOException
+     *             error opening the stream
+     * @since 0.7.9
+     */
+    private InputStream getInputStream(final String sessionId,
+            final SchemeStrategy strategy, final URI uri,
+            final RequestMethod method, final long timeout,
+            final Collection<KeyValuePair> parameters)
+            throws BadFetchError, UnsupportedElementError, IOException {
+        final byte[] content = takePrefetched(sessionId, uri, method,
+                parameters, timeout);
+        if (content != null) {
+            return new ByteArrayInputStream(content);
+        }
+        return strategy.getInputStream(sessionId, uri, method, timeout,
+                parameters);
+    }
+
+    /**
+     * Retrieves the prefetched content of the given resource. If the
+     * resource is still being prefetched, this method waits for the prefetch
+     * to complete.
+     * 
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param uri
+     *            the URI of the resource
+     * @param method
+     *            the request method
+     * @param parameters
+     *            the request parameters
+     * @param timeout
+     *            the fetch timeout in msec
+     * @return prefetched content, <code>null</code> if there is none
+     * @throws BadFetchError
+     *             error evaluating the URI
+     * @since 0.7.9
+     */
+    private byte[] takePrefetched(final String sessionId, final URI uri,
+            final RequestMethod method,
+            final Collection<KeyValuePair> parameters, final long timeout)
+            throws BadFetchError {
+        final DocumentPrefetcher currentPrefetcher = prefetcher;
+        if ((currentPrefetcher == null) || (method != RequestMethod.GET)
+                || ((parameters != null) && !parameters.isEmpty())) {
+            return null;
+        }
+        final URI key = removeFragment(uri);
+        return currentPrefetcher.take(sessionId, key, timeout);
+    }
+
+    /**
+     * Starts prefetching the grammars, audio files and subdialogs of the
+     * given document that are marked with a <code>fetchhint</code> of
+     * <code>prefetch</code>.
+     * 
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param uri
+     *            the URI of the document
+     * @param document
+     *            the loaded document
+     * @param attrs
+     *            the fetch attributes of the document
+     * @since 0.7.9
+     */
+    private void prefetchResources(final String sessionId, final URI uri,
+            final VoiceXmlDocument document, final FetchAttributes attrs) {
+        final DocumentPrefetcher currentPrefetcher = prefetcher;
+        if (currentPrefetcher == null) {
+            return;
+        }
+        final Vxml vxml = document.getVxml();
+        if (vxml == null) {
+            return;
+        }
+        URI base = uri;
+        try {
+            final URI xmlBase = vxml.getXmlBaseUri();
+            if (xmlBase != null) {
+                base = uri.resolve(xmlBase);
+            }
+        } catch (URISyntaxException e) {
+            LOGGER.warn("invalid xml:base. not prefetching: "
+                    + e.getMessage());
+            return;
+        }
+        String grammarHint = attrs.getFetchHint();
+        String audioHint = grammarHint;
+        String documentHint = grammarHint;
+        final Collection<Property> properties =
+                vxml.getChildNodes(Property.class);
+        for (Property property : properties) {
+            final String name = property.getName();
+            final String value = property.getValue();
+            if (PROPERTY_GRAMMARFETCHHINT.equals(name)) {
+                grammarHint = value;
+            } else if (PROPERTY_AUDIOFETCHHINT.equals(name)) {
+                audioHint = value;
+            } else if (PROPERTY_DOCUMENTFETCHHINT.equals(name)) {
+                documentHint = value;
+            }
+        }
+        final long timeout = attrs.getFetchTimeout();
+        prefetchElements(currentPrefetcher, sessionId, base, document,
+                Grammar.TAG_NAME, grammarHint, timeout, false);
+        prefetchElements(currentPrefetcher, sessionId, base, document,
+                Audio.TAG_NAME, audioHint, timeout, false);
+        prefetchElements(currentPrefetcher, sessionId, base, document,
+                Subdialog.TAG_NAME, documentHint, timeout, true);
+    }
+
+    /**
+     * Starts prefetching the resources that are referenced by the
+     * <code>src</code> attribute of all elements with the given tag name.
+     * 
+     * @param currentPrefetcher
+     *            the prefetcher to use
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param base
+     *            the base URI to resolve relative URIs
+     * @param document
+     *            the loaded document
+     * @param tagName
+     *            name of the elements
+     * @param defaultHint
+     *            the fetch hint if the element does not specify one
+     * @param timeout
+     *            the fetch timeout in msec
+     * @param voicexml
+     *            <code>true</code> if the resources are VoiceXML documents
+     * @since 0.7.9
+     */
+    private void prefetchElements(final DocumentPrefetcher currentPrefetcher,
+            final String sessionId, final URI base,
+            final VoiceXmlDocument document, final String tagName,
+            final String defaultHint, final long timeout,
+            final boolean voicexml) {
+        final NodeList elements = document.getElementsByTagName(tagName);
+        for (int i = 0; i < elements.getLength(); i++) {
+            final XmlNode element = (XmlNode) elements.item(i);
+            final String src = element.getAttribute(Grammar.ATTRIBUTE_SRC);
+            if (src == null) {
+                continue;
+            }
+            String hint = element.getAttribute(Grammar.ATTRIBUTE_FETCHHINT);
+            if (hint == null) {
+                hint = defaultHint;
+            }
+            if (!FetchAttributes.HINT_PREFETCH.equalsIgnoreCase(hint)) {
+                continue;
+            }
+            try {
+                final URI uri = removeFragment(base.resolve(src));
+                final SchemeStrategy strategy = getSchemeStrategy(uri);
+                final Callable<byte[]> fetcher = createFetcher(sessionId,
+                        strategy, uri, timeout, voicexml);
+                currentPrefetcher.prefetch(sessionId, uri, fetcher);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("unable to prefetch '" + src + "': "
+                        + e.getMessage());
+            } catch (BadFetchError e) {
+                LOGGER.warn("unable to prefetch '" + src + "': "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates the retrieval of the given resource. VoiceXML documents that
+     * can be kept in the document cache are retrieved into the document
+     * cache. All other resources are read into memory.
+     * 
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param strategy
+     *            the strategy to retrieve the resource
+     * @param uri
+     *            the URI of the resource
+     * @param timeout
+     *            the fetch timeout in msec
+     * @param voicexml
+     *            <code>true</code> if the resource is a VoiceXML document
+     * @return the retrieval of the resource
+     * @since 0.7.9
+     */
+    private Callable<byte[]> createFetcher(final String sessionId,
+            final SchemeStrategy strategy, final URI uri,
+            final long timeout, final boolean voicexml) {
+        final DocumentCache currentCache = cache;
+        if (voicexml && (currentCache != null)
+                && (strategy instanceof ConditionalSchemeStrategy)) {
+            final ConditionalSchemeStrategy conditional =
+                    (ConditionalSchemeStrategy) strategy;
+            final FetchAttributes attrs = mergeFetchAttributes(null);
+            return new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws Exception {
+                    try {
+                        getCachedDocument(currentCache, sessionId,
+                                conditional, uri, attrs);
+                    } catch (BadFetchError e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                    return null;
+                }
+            };
+        }
+        return new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                final InputStream input;
+                try {
+                    input = strategy.getInputStream(sessionId, uri,
+                            RequestMethod.GET, timeout, null);
+                } catch (JVoiceXMLEvent e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                try {
+                    return readContent(input);
+                } finally {
+                    input.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Retrieves the VoiceXML document with the given URI from the document
+     * cache. If there is no fresh document in the cache, it is retrieved or
+     * revalidated using the given strategy.
+     * 
+     * @param documentCache
+     *            the document cache
+     * @param sessionId
+     *            the Id of the current JVoiceXML session
+     * @param strategy
+     *            the strategy to retrieve the document
+     * @param uri
+     *            the URI of the document
+     * @param attrs
+     *            the fetch attributes
+     * @return the document
+     * @throws BadFetchError
+     *             error retrieving the document
+     * @since 0.7.9
+     */
+    private VoiceXmlDocument getCachedDocument(
+            final DocumentCache documentCache, final String sessionId,
+            final ConditionalSchemeStrategy strategy, final URI uri,
+            final FetchAttributes attrs) throws BadFetchError {
+        final URI key = removeFragment(uri);
+        final DocumentCache.CachedDocument entry = documentCache.get(key);
+        if ((entry != null)
+                && entry.isFresh(System.currentTimeMillis(), attrs)) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("using cached document '" + key + "'");
+            }
+            return entry.getDocument();
+        }
+
+        final CacheableResponse previous;
+        if (entry == null) {
+            previous = null;
+        } else {
+            previous = entry.getResponse();
+        }
+        final long timeout = attrs.getFetchTimeout();
+        final CacheableResponse response;
+        try {
+            response = strategy.getCacheableResponse(sessionId, uri, timeout,
+                    previous);
+        } catch (IOException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+        if (response == null) {
+            throw new BadFetchError("unable to retrieve '" + uri + "'");
+        }
+        if (response.isNotModified() && (entry != null)) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("revalidated cached document '" + key + "'");
+            }
+            entry.revalidated(response);
+            return entry.getDocument();
+        }
+
+        final byte[] content = response.getContent();
+        final VoiceXmlDocument template = templates.getTemplate(content);
+        checkVersion(uri, template);
+        if (response.isStorable()) {
+            documentCache.put(key, response, template);
+        } else {
+            documentCache.remove(key);
+        }
+        return DocumentTemplateCache.copy(template);
+    }
+
+    /**
+     * Removes the fragment from the given URI.
+     * 
+     * @param uri
+     *            the URI
+     * @return URI without the fragment
+     * @throws BadFetchError
+     *             error creating the URI
+     * @since 0.7.9
+     */
+    private URI removeFragment(final URI uri) throws BadFetchError {
+        if (uri.getFragment() == null) {
+            return uri;
+        }
+        try {
+            return new URI(uri.getScheme(), uri.getSchemeSpecificPart(),
+                    null);
+        } catch (URISyntaxException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks if the given document provides a version attribute.
+     * 
+     * @param uri
+     *            the URI of the document
+     * @param document
+     *            the document to check
+     * @throws BadFetchError
+     *             the document does not provide a version attribute
+     * @since 0.7.9
+     */
+    private void checkVersion(final URI uri, final VoiceXmlDocument document)
+            throws BadFetchError {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("...read document");
             LOGGER.debug(document);
@@ -250,7 +907,6 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
             throw new BadFetchError("The document at '" + uri
                     + "' does not provide a version attribute!");
         }
-        return document;
     }
 
     /**
@@ -341,7 +997,14 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
         final ReadBuffer buffer = (ReadBuffer) getObject(sessionId, descriptor,
                 null);
 
-        final byte[] bytes = buffer.getBytes();
+        final byte[] bytes;
+        try {
+            bytes = buffer.getBytes();
+        } catch (IOException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        } finally {
+            buffer.release();
+        }
         final String encoding = buffer.getCharset();
         final boolean ascii = buffer.isAscii();
         return new ExternalGrammarDocument(uri, bytes, encoding, ascii);
@@ -352,23 +1015,80 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
      */
     @Override
     public AudioInputStream getAudioInputStream(final String sessionId,
-            final URI uri) throws BadFetchError {
+            final URI uri, final FetchAttributes attrs) throws BadFetchError {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("retrieving audio input stream '" + uri + "'");
         }
 
         final SchemeStrategy strategy = getSchemeStrategy(uri);
-        final FetchAttributes attrs = mergeFetchAttributes(null);
-        final long timeout = attrs.getFetchTimeout();
+        final FetchAttributes mergedAttrs = mergeFetchAttributes(attrs);
+        final long timeout = mergedAttrs.getFetchTimeout();
+        final AudioCache currentAudioCache = audioCache;
+        final URI key = removeFragment(uri);
+        AudioCache.CachedAudio entry = null;
+        if (currentAudioCache != null) {
+            entry = currentAudioCache.get(key);
+            if ((entry != null) && entry.isFresh(System.currentTimeMillis(),
+                    mergedAttrs, audioCacheLifetime)) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("using cached audio '" + uri + "'");
+                }
+                return entry.getAudioInputStream();
+            }
+        }
 
         try {
-            final InputStream input = strategy.getInputStream(sessionId, uri,
-                    RequestMethod.GET, timeout, null);
+            final byte[] prefetched = takePrefetched(sessionId, uri,
+                    RequestMethod.GET, null, timeout);
+            final CacheableResponse response;
+            final InputStream input;
+            if (prefetched != null) {
+                response = createPlainResponse();
+                input = new ByteArrayInputStream(prefetched);
+            } else if ((currentAudioCache != null)
+                    && (strategy instanceof ConditionalSchemeStrategy)) {
+                final ConditionalSchemeStrategy conditional =
+                        (ConditionalSchemeStrategy) strategy;
+                final CacheableResponse previous;
+                if (entry == null) {
+                    previous = null;
+                } else {
+                    previous = entry.getResponse();
+                }
+                response = conditional.getCacheableResponse(sessionId, uri,
+                        timeout, previous);
+                if (response == null) {
+                    throw new BadFetchError("unable to retrieve '" + uri
+                            + "'");
+                }
+                if (response.isNotModified() && (entry != null)) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("revalidated cached audio '" + uri
+                                + "'");
+                    }
+                    entry.revalidated(response);
+                    return entry.getAudioInputStream();
+                }
+                input = new ByteArrayInputStream(response.getContent());
+            } else {
+                response = createPlainResponse();
+                input = strategy.getInputStream(sessionId, uri,
+                        RequestMethod.GET, timeout, null);
+            }
             // Some InputStreams do not support mark/reset which is required
             // by the AudioSystem. So we use a BufferedInputStream that
             // guarantees these features.
             final BufferedInputStream buf = new BufferedInputStream(input);
-            return AudioSystem.getAudioInputStream(buf);
+            final AudioInputStream stream = AudioSystem.getAudioInputStream(
+                    buf);
+            if (currentAudioCache == null) {
+                return stream;
+            }
+            if (!response.isStorable()) {
+                currentAudioCache.remove(key);
+                return stream;
+            }
+            return currentAudioCache.put(key, response, stream);
         } catch (javax.sound.sampled.UnsupportedAudioFileException e) {
             throw new BadFetchError(e.getMessage(), e);
         } catch (java.io.IOException e) {
@@ -378,6 +1098,18 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
         }
     }
 
+    /**
+     * Creates a response for content that has been retrieved without
+     * caching headers.
+     * @return response that may be stored
+     * @since 0.7.9
+     */
+    private static CacheableResponse createPlainResponse() {
+        final CacheableResponse response = new CacheableResponse();
+        response.setStorable(true);
+        return response;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -403,16 +1135,15 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
 
         final Object object;
         try {
-            input = strategy.getInputStream(sessionId, uri, method, timeout,
+            input = getInputStream(sessionId, strategy, uri, method, timeout,
                     parameters);
             if (type == null) {
-                final ReadBuffer buffer = new ReadBuffer();
-                buffer.read(input);
-                return buffer;
+                return getReadBuffer(input);
             } else if (type.equals(TEXT_PLAIN)) {
-                final ReadBuffer buffer = new ReadBuffer();
-                buffer.read(input);
-                return buffer.toString();
+                final ReadBuffer buffer = getReadBuffer(input);
+                final String text = buffer.toString();
+                buffer.release();
+                return text;
             } else if (type.equals(TEXT_XML)) {
                 object = readXml(input);
             } else {
@@ -435,6 +1166,30 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
         return object;
     }
 
+    /**
+     * Retrieves a buffer with the contents of the given stream. If the
+     * stream is a view of the buffer of a scheme strategy, this buffer is
+     * taken over, so that the data is not buffered twice and the character
+     * set that was declared by the server is kept.
+     * 
+     * @param input
+     *            the input stream to use
+     * @return buffer with the contents, must be released by the caller
+     * @throws IOException
+     *             error reading
+     * @since 0.7.9
+     */
+    private static ReadBuffer getReadBuffer(final InputStream input)
+            throws IOException {
+        final ReadBuffer reclaimed = ReadBuffer.reclaim(input);
+        if (reclaimed != null) {
+            return reclaimed;
+        }
+        final ReadBuffer buffer = new ReadBuffer();
+        buffer.read(input);
+        return buffer;
+    }
+
     /**
      * Reads a {@link Document} from the given {@link InputStream}.
      * 
@@ -479,6 +1234,29 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AudioRecording createAudioRecording(final AudioFormat format,
+            final long maxTime) throws BadFetchError {
+        if (format == null) {
+            throw new BadFetchError("no audio format for the recording");
+        }
+        File file = null;
+        try {
+            final File directory = getRecordingsDirectory();
+            file = File.createTempFile("rec-", ".wav", directory);
+            return new WaveFileRecording(file, format, maxTime,
+                    trimRecordingSilence, recordingExecutor);
+        } catch (IOException ex) {
+            if ((file != null) && !file.delete()) {
+                LOGGER.warn("unable to delete '" + file + "'");
+            }
+            throw new BadFetchError(ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Retrieves the recording directory. If it does not exist, create it.
      * 
@@ -499,6 +1277,10 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
      */
     @Override
     public void sessionClosed(final String sessionId) {
+        final DocumentPrefetcher currentPrefetcher = prefetcher;
+        if (currentPrefetcher != null) {
+            currentPrefetcher.sessionClosed(sessionId);
+        }
         final Collection<SchemeStrategy> knownStrategies = strategies.values();
         for (SchemeStrategy strategy : knownStrategies) {
             strategy.sessionClosed(sessionId);
@@ -512,6 +1294,16 @@ public final class JVoiceXmlDocumentServer implements DocumentServer {
 
     @Override
     public void stop() {
+        final DocumentCache currentCache = cache;
+        if (currentCache != null) {
+            currentCache.clear();
+        }
+        templates.clear();
+        final DocumentPrefetcher currentPrefetcher = prefetcher;
+        if (currentPrefetcher != null) {
+            currentPrefetcher.shutdown();
+        }
+        recordingExecutor.shutdown();
         try {
             storage.stop();
         } catch (Exception e) {
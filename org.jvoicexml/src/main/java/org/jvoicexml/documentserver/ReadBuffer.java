@@ -19,13 +19,30 @@
  *
  */
 
+
 package org.jvoicexml.documentserver;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,6 +52,28 @@ import org.mozilla.intl.chardet.nsDetector;
  * A simple buffer to read data. While the data is read, it is also checked
  * if the content is ASCII or binary. For ASCII content, this implementation
  * also tries to detect the used character set.
+ *
+ * <p>
+ * The data is kept in chunks of fixed size that are taken from a pool
+ * shared by all buffers, so that reading does not need to copy the data
+ * when the buffer grows. Consumers should read the data via
+ * {@link #getInputStream()} which is a view of the chunks rather than a
+ * copy. If the data exceeds the memory limit, it is moved to a temporary
+ * file. The resources of a buffer, including the temporary file, are given
+ * back by {@link #release()}. Buffers that are handed out to consumers
+ * which do not release them should be copied into memory via
+ * {@link #detach()}. The owner of a view of a released buffer may take the
+ * buffer over via {@link #reclaim(InputStream)} instead of buffering the
+ * view again.
+ * </p>
+ *
+ * <p>
+ * The character set is taken from the encoding that was declared by the
+ * server or in the XML declaration. Only if there is no such declaration,
+ * it is detected from the first bytes that are not plain ASCII, up to the
+ * detection limit.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  * @since 0.7.5
  */
@@ -43,23 +82,78 @@ public class ReadBuffer {
     private static final Logger LOGGER =
             LogManager.getLogger(ReadBuffer.class);
 
-    /** Size of the read buffer when reading objects. */
-    private static final int READ_BUFFER_SIZE = 1024;
+    /** Size of a chunk of buffered bytes. */
+    static final int CHUNK_SIZE = 8192;
+
+    /** Default number of bytes to use for the character set detection. */
+    public static final int DEFAULT_DETECTION_LIMIT = 8192;
+
+    /** Default number of bytes to keep in memory. */
+    public static final long DEFAULT_MEMORY_LIMIT = 1024 * 1024;
+
+    /** Maximum number of bytes to look for an XML declaration. */
+    private static final int DECLARATION_LENGTH = 256;
+
+    /** Maximum number of unused chunks to keep in the pool. */
+    private static final int MAX_POOLED_CHUNKS = 64;
+
+    /** The encoding in an XML declaration. */
+    private static final Pattern XML_ENCODING = Pattern.compile(
+            "<\\?xml[^>]*encoding\\s*=\\s*[\"']([A-Za-z0-9._:\\-]+)[\"']");
 
-    /** The buffered bytes. */
-    private final ByteArrayOutputStream buffer;
+    /** Unused chunks. */
+    private static final Queue<byte[]> POOL =
+            new ConcurrentLinkedQueue<byte[]>();
 
-    /** <code>true</code> if the contents of {@link #buffer} is plain text. */
+    /** Number of unused chunks in the pool. */
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    /** Number of bytes to use for the character set detection. */
+    private final int detectionLimit;
+
+    /** Number of bytes to keep in memory. */
+    private final long memoryLimit;
+
+    /** The buffered bytes if kept in memory. */
+    private final List<byte[]> chunks;
+
+    /** Number of buffered bytes. */
+    private long size;
+
+    /** The file with the buffered bytes if not kept in memory. */
+    private File file;
+
+    /** <code>true</code> if the contents of the buffer is plain text. */
     private boolean isAscii;
 
     /** The detected charset. */
     private String charset;
 
+    /** Number of views that have not been closed yet. */
+    private int openViews;
+
+    /** <code>true</code> if the buffer has been released. */
+    private boolean released;
+
     /**
-     * Constructs a new object.
+     * Constructs a new object with default limits.
      */
     public ReadBuffer() {
-        buffer = new ByteArrayOutputStream();
+        this(DEFAULT_DETECTION_LIMIT, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Constructs a new object.
+     * @param detection maximum number of bytes to use for the character set
+     *          detection
+     * @param memory maximum number of bytes to keep in memory before the
+     *          data is moved to a temporary file
+     * @since 0.7.9
+     */
+    public ReadBuffer(final int detection, final long memory) {
+        detectionLimit = detection;
+        memoryLimit = memory;
+        chunks = new java.util.ArrayList<byte[]>();
         isAscii = true;
     }
 
@@ -70,34 +164,217 @@ public class ReadBuffer {
      *         Error reading.
      */
     public void read(final InputStream input) throws IOException {
+        read(input, null);
+    }
+
+    /**
+     * Reads the contents of the given {@link InputStream}.
+     * @param input the input stream to use.
+     * @param declaredCharset the character set as declared by the server,
+     *          <code>null</code> if unknown
+     * @throws IOException
+     *         Error reading.
+     * @since 0.7.9
+     */
+    public void read(final InputStream input, final String declaredCharset)
+            throws IOException {
+        charset = declaredCharset;
+        boolean detecting = declaredCharset == null;
+        boolean declarationChecked = !detecting;
         final nsDetector detector = new nsDetector();
         final JVoiceXmlCharsetDetectionObserver observer =
             new JVoiceXmlCharsetDetectionObserver();
         detector.Init(observer);
-        boolean done = false;
-        // Read from the input
-        final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
-        int num;
-        do {
-            num = input.read(readBuffer);
-            if (num >= 0) {
-                buffer.write(readBuffer, 0, num);
-                if (isAscii) {
-                    isAscii = detector.isAscii(readBuffer, num);
+        int detected = 0;
+        OutputStream output = null;
+        byte[] chunk = null;
+        int position = 0;
+        try {
+            int num;
+            do {
+                if ((chunk == null) || (position == CHUNK_SIZE)) {
+                    if (output != null) {
+                        output.write(chunk);
+                    } else if (size > memoryLimit) {
+                        // Look up the XML declaration before the head chunk
+                        // is moved to the file.
+                        if (!declarationChecked) {
+                            declarationChecked = true;
+                            if (applyDeclaredEncoding()) {
+                                detecting = false;
+                            }
+                        }
+                        output = spill();
+                        chunk = allocateChunk();
+                    } else {
+                        chunk = allocateChunk();
+                        chunks.add(chunk);
+                    }
+                    position = 0;
                 }
+                num = input.read(chunk, position, CHUNK_SIZE - position);
+                if (num > 0) {
+                    if (isAscii) {
+                        isAscii = isAscii(chunk, position, num);
+                    }
 
-                // Do character set detection if non-ascii and not done yet.
-                if (!isAscii && !done) {
-                    done = detector.DoIt(readBuffer, num, false);
+                    // Do character set detection on the first non-ascii
+                    // bytes only.
+                    if (detecting && !isAscii && (detected < detectionLimit)) {
+                        final int length = Math.min(num,
+                                detectionLimit - detected);
+                        final byte[] bytes;
+                        if (position == 0) {
+                            bytes = chunk;
+                        } else {
+                            bytes = Arrays.copyOfRange(chunk, position,
+                                    position + length);
+                        }
+                        detecting = !detector.DoIt(bytes, length, false);
+                        detected += length;
+                    }
+                    position += num;
+                    size += num;
+                }
+                if (!declarationChecked
+                        && ((size >= DECLARATION_LENGTH) || (num < 0))) {
+                    declarationChecked = true;
+                    if (applyDeclaredEncoding()) {
+                        detecting = false;
+                    }
+                }
+            } while (num >= 0);
+            if (output != null) {
+                output.write(chunk, 0, position);
+                output.close();
+                output = null;
+                recycleChunk(chunk);
+            }
+        } catch (IOException e) {
+            if (output != null) {
+                output.close();
+            }
+            release();
+            throw e;
+        }
+        if (charset == null) {
+            detector.DataEnd();
+            charset = observer.getCharset();
+            if (charset != null) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("detected charset '" + charset + "'");
                 }
             }
-        } while(num >= 0);
-        detector.DataEnd();
-        charset = observer.getCharset();
-        if (charset != null) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("detected charset '" + charset + "'");
+        }
+    }
+
+    /**
+     * Moves the buffered bytes to a temporary file.
+     * @return stream to write further bytes to the file
+     * @throws IOException
+     *         error writing the file
+     */
+    private OutputStream spill() throws IOException {
+        file = File.createTempFile("jvxml-", ".buf");
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("buffering more than " + memoryLimit
+                    + " bytes in '" + file + "'");
+        }
+        final OutputStream output = new FileOutputStream(file);
+        for (byte[] chunk : chunks) {
+            output.write(chunk);
+            recycleChunk(chunk);
+        }
+        chunks.clear();
+        return output;
+    }
+
+    /**
+     * Checks if the given bytes are plain ASCII.
+     * @param bytes the bytes to check
+     * @param offset index of the first byte to check
+     * @param length number of bytes to check
+     * @return <code>true</code> if all bytes are plain ASCII
+     */
+    private static boolean isAscii(final byte[] bytes, final int offset,
+            final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if ((bytes[i] & 0x80) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the encoding of an XML declaration at the beginning of the
+     * buffered bytes as the character set. The head chunk must still be
+     * kept in memory.
+     * @return <code>true</code> if a supported encoding has been declared
+     */
+    private boolean applyDeclaredEncoding() {
+        final int length = (int) Math.min(size, DECLARATION_LENGTH);
+        final String declared = getDeclaredEncoding(chunks.get(0), length);
+        if (declared == null) {
+            return false;
+        }
+        charset = declared;
+        return true;
+    }
+
+    /**
+     * Retrieves the encoding that is declared in an XML declaration at the
+     * beginning of the given bytes.
+     * @param bytes the first bytes
+     * @param length number of bytes to consider
+     * @return declared encoding, <code>null</code> if there is no supported
+     *          declared encoding
+     */
+    private static String getDeclaredEncoding(final byte[] bytes,
+            final int length) {
+        final String prefix = new String(bytes, 0, length,
+                Charset.forName("ISO-8859-1"));
+        final Matcher matcher = XML_ENCODING.matcher(prefix);
+        if (!matcher.find()) {
+            return null;
+        }
+        final String encoding = matcher.group(1);
+        try {
+            if (!Charset.isSupported(encoding)) {
+                return null;
             }
+        } catch (IllegalCharsetNameException e) {
+            return null;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("declared charset '" + encoding + "'");
+        }
+        return encoding;
+    }
+
+    /**
+     * Takes a chunk from the pool or creates a new one.
+     * @return an unused chunk
+     */
+    private static byte[] allocateChunk() {
+        final byte[] chunk = POOL.poll();
+        if (chunk == null) {
+            return new byte[CHUNK_SIZE];
+        }
+        POOL_SIZE.decrementAndGet();
+        return chunk;
+    }
+
+    /**
+     * Returns the given chunk to the pool.
+     * @param chunk the chunk that is no longer used
+     */
+    private static void recycleChunk(final byte[] chunk) {
+        if (POOL_SIZE.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+            POOL.offer(chunk);
+        } else {
+            POOL_SIZE.decrementAndGet();
         }
     }
 
@@ -119,21 +396,170 @@ public class ReadBuffer {
     }
 
     /**
-     * Retrieves the read buffer.
+     * Retrieves the number of buffered bytes.
+     * @return number of buffered bytes
+     * @since 0.7.9
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Checks if the buffered bytes have been moved to a temporary file.
+     * @return <code>true</code> if the bytes are not kept in memory
+     * @since 0.7.9
+     */
+    boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Retrieves a copy of the read buffer. Consumers should prefer
+     * {@link #getInputStream()} which does not copy the data.
      * @return the buffer contents
+     * @throws IOException
+     *         error reading the temporary file
      */
-    public byte[] getBytes() {
-        return buffer.toByteArray();
+    public byte[] getBytes() throws IOException {
+        final byte[] bytes = new byte[(int) size];
+        final InputStream input = getInputStream();
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int num = input.read(bytes, offset,
+                        bytes.length - offset);
+                if (num < 0) {
+                    break;
+                }
+                offset += num;
+            }
+        } finally {
+            input.close();
+        }
+        return bytes;
     }
 
     /**
-     * Obtain an input stream for the buffer.
+     * Obtain an input stream for the buffer. The stream reads the buffered
+     * bytes without copying them. It should be closed after use.
      * @return associated input stream
+     * @throws IOException
+     *         error opening the temporary file
      * @since 0.7.8
      */
-    public InputStream getInputStream() {
-        final byte[] bytes = getBytes();
-        return new ByteArrayInputStream(bytes);
+    public InputStream getInputStream() throws IOException {
+        final InputStream input;
+        synchronized (this) {
+            if (released) {
+                throw new IOException("buffer has already been released");
+            }
+            if (file == null) {
+                final List<InputStream> views =
+                        new java.util.ArrayList<InputStream>(chunks.size());
+                long remaining = size;
+                for (byte[] chunk : chunks) {
+                    final int length = (int) Math.min(CHUNK_SIZE, remaining);
+                    views.add(new ByteArrayInputStream(chunk, 0, length));
+                    remaining -= length;
+                }
+                input = new SequenceInputStream(
+                        Collections.enumeration(views));
+            } else {
+                input = new FileInputStream(file);
+            }
+            ++openViews;
+        }
+        return new View(input);
+    }
+
+    /**
+     * Copies the data of this buffer into a new buffer that keeps all data
+     * in memory and releases this buffer. The copy does not need to be
+     * released.
+     * @return copy of this buffer in memory
+     * @throws IOException
+     *         error reading the temporary file
+     * @since 0.7.9
+     */
+    public ReadBuffer detach() throws IOException {
+        final ReadBuffer copy = new ReadBuffer(detectionLimit,
+                Long.MAX_VALUE);
+        final InputStream input = getInputStream();
+        try {
+            copy.read(input, charset);
+        } finally {
+            input.close();
+            release();
+        }
+        return copy;
+    }
+
+    /**
+     * Takes over the buffer of the given stream if the stream is the only
+     * open view of a buffer that has been released. The view is closed and
+     * the caller becomes responsible to release the returned buffer. The
+     * view must not have been read.
+     * @param input the stream
+     * @return the buffer of the view, <code>null</code> if the stream is no
+     *          such view
+     * @throws IOException
+     *         error closing the view
+     * @since 0.7.9
+     */
+    public static ReadBuffer reclaim(final InputStream input)
+            throws IOException {
+        if (!(input instanceof View)) {
+            return null;
+        }
+        final View view = (View) input;
+        final ReadBuffer buffer = view.getBuffer();
+        synchronized (buffer) {
+            if (!buffer.released || (buffer.openViews != 1)
+                    || view.closed) {
+                return null;
+            }
+            buffer.released = false;
+        }
+        view.close();
+        return buffer;
+    }
+
+    /**
+     * Gives back the resources of this buffer. Views that are still open
+     * remain readable until they are closed.
+     * @since 0.7.9
+     */
+    public synchronized void release() {
+        released = true;
+        if (openViews == 0) {
+            dispose();
+        }
+    }
+
+    /**
+     * Notification that a view has been closed.
+     */
+    private synchronized void viewClosed() {
+        --openViews;
+        if (released && (openViews == 0)) {
+            dispose();
+        }
+    }
+
+    /**
+     * Returns the chunks to the pool and deletes the temporary file.
+     */
+    private void dispose() {
+        for (byte[] chunk : chunks) {
+            recycleChunk(chunk);
+        }
+        chunks.clear();
+        if (file != null) {
+            if (!file.delete()) {
+                LOGGER.warn("unable to delete '" + file + "'");
+            }
+            file = null;
+        }
     }
 
     /**
@@ -141,19 +567,73 @@ public class ReadBuffer {
      */
     @Override
     public String toString() {
-        final byte[] bytes = getBytes();
-        if (isAscii) {
+        if (!isAscii) {
+            return super.toString();
+        }
+        try {
+            final InputStream input = getInputStream();
+            final Reader reader;
             if (charset == null) {
-                return new String(bytes);
+                reader = new InputStreamReader(input);
             } else {
-                try {
-                    return new String(bytes, charset);
-                } catch (UnsupportedEncodingException e) {
-                    return super.toString();
+                reader = new InputStreamReader(input, charset);
+            }
+            try {
+                final StringBuilder str = new StringBuilder((int) size);
+                final char[] buffer = new char[CHUNK_SIZE];
+                int num;
+                while ((num = reader.read(buffer)) >= 0) {
+                    str.append(buffer, 0, num);
                 }
+                return str.toString();
+            } finally {
+                reader.close();
             }
-        } else {
+        } catch (IOException e) {
             return super.toString();
         }
     }
+
+    /**
+     * A view of the buffered bytes.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private final class View extends FilterInputStream {
+        /** <code>true</code> if this view has been closed. */
+        private boolean closed;
+
+        /**
+         * Constructs a new object.
+         * @param input the stream of the buffered bytes
+         */
+        View(final InputStream input) {
+            super(input);
+        }
+
+        /**
+         * Retrieves the buffer of this view.
+         * @return the buffer
+         */
+        ReadBuffer getBuffer() {
+            return ReadBuffer.this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                viewClosed();
+            }
+        }
+    }
 }
@@ -170,7 +170,7 @@ public class UriGrammarDocument implements GrammarDocument {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        return equals((ExternalGrammarDocument) obj);
+        return equals((GrammarDocument) obj);
     }
 
     /**
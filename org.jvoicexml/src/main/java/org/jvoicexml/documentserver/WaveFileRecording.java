@@ -0,0 +1,526 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.AudioRecording;
+import org.jvoicexml.event.error.BadFetchError;
+
+/**
+ * A recording that is written to a WAVE file while it is being recorded.
+ *
+ * <p>
+ * The recorded audio is split into chunks of complete frames that are
+ * passed through a bounded queue to a task on a shared executor which
+ * appends them to the file. Writers are blocked if the queue is full. The
+ * header of the file is written with the final length once the recording
+ * is finished. Audio beyond the maximum recording time is ignored.
+ * </p>
+ *
+ * <p>
+ * Optionally, the silence at the end of a PCM recording is cut off. A frame
+ * is considered as silence if all samples are below
+ * 1/{@value #SILENCE_RATIO} of the full scale.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class WaveFileRecording implements AudioRecording {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(WaveFileRecording.class);
+
+    /** Size of the header of a WAVE file. */
+    static final int HEADER_SIZE = 44;
+
+    /** Size of the header without the RIFF chunk header. */
+    private static final int RIFF_HEADER_SIZE = 36;
+
+    /** Size of the format chunk. */
+    private static final int FORMAT_CHUNK_SIZE = 16;
+
+    /** Format tag for PCM data. */
+    private static final short WAVE_FORMAT_PCM = 1;
+
+    /** Format tag for A-law data. */
+    private static final short WAVE_FORMAT_ALAW = 6;
+
+    /** Format tag for u-law data. */
+    private static final short WAVE_FORMAT_MULAW = 7;
+
+    /** Maximum number of chunks waiting to be written. */
+    private static final int QUEUE_SIZE = 64;
+
+    /** Ratio of the full scale below which a sample is silence. */
+    private static final int SILENCE_RATIO = 64;
+
+    /** Threshold for silence of a sample with 16 bits. */
+    private static final int SILENCE_THRESHOLD = 32768 / SILENCE_RATIO;
+
+    /** Number of bits in a byte. */
+    private static final int BITS_PER_BYTE = 8;
+
+    /** Mask of a byte. */
+    private static final int BYTE_MASK = 0xff;
+
+    /** Offset of unsigned 8 bit samples. */
+    private static final int UNSIGNED_OFFSET = 128;
+
+    /** The file. */
+    private final File file;
+
+    /** The channel to write the file. */
+    private final FileChannel channel;
+
+    /** The audio format of the recording. */
+    private final AudioFormat format;
+
+    /** The WAVE format tag of the audio format. */
+    private final short formatTag;
+
+    /** Size of a frame in bytes. */
+    private final int frameSize;
+
+    /** Size of a sample in bytes. */
+    private final int sampleSize;
+
+    /** <code>true</code> if the samples are signed. */
+    private final boolean signed;
+
+    /** <code>true</code> if the bytes of the samples have to be swapped. */
+    private final boolean swap;
+
+    /** <code>true</code> if silence at the end is cut off. */
+    private final boolean trimSilence;
+
+    /** Maximum number of bytes to accept. */
+    private final long maxBytes;
+
+    /** The executor to write the chunks. */
+    private final Executor executor;
+
+    /** Chunks waiting to be written. */
+    private final BlockingQueue<byte[]> queue;
+
+    /** <code>true</code> if a task to write the chunks is pending. */
+    private final AtomicBoolean scheduled;
+
+    /** The task to write the chunks. */
+    private final Runnable writer;
+
+    /** The stream to write the recorded audio to. */
+    private final RecordingOutputStream out;
+
+    /** Number of bytes written to the file after the header. */
+    private long written;
+
+    /** Number of bytes up to the last frame that is not silence. */
+    private long lastSound;
+
+    /** The first error while writing the file. */
+    private IOException error;
+
+    /** <code>true</code> if the recording has been finished. */
+    private boolean finished;
+
+    /**
+     * Constructs a new object.
+     * @param target the file to write
+     * @param recordingFormat the audio format of the recording
+     * @param maxTime maximum recording time in msec, <code>0</code> for no
+     *          limit
+     * @param trim <code>true</code> if silence at the end should be cut off
+     * @param ioExecutor the executor to write the chunks
+     * @throws IOException
+     *         error opening the file or the audio format is not supported
+     */
+    WaveFileRecording(final File target, final AudioFormat recordingFormat,
+            final long maxTime, final boolean trim,
+            final Executor ioExecutor) throws IOException {
+        file = target;
+        format = recordingFormat;
+        formatTag = getFormatTag(format);
+        frameSize = Math.max(1, format.getFrameSize());
+        sampleSize = Math.max(1, (format.getSampleSizeInBits()
+                + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+        signed = AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding());
+        swap = format.isBigEndian() && (sampleSize > 1);
+        trimSilence = trim && (formatTag == WAVE_FORMAT_PCM);
+        final float frameRate = format.getFrameRate();
+        if ((maxTime > 0) && (frameRate > 0)) {
+            final long frames = (long) (frameRate * maxTime / 1000);
+            maxBytes = frames * frameSize;
+        } else {
+            maxBytes = Long.MAX_VALUE;
+        }
+        executor = ioExecutor;
+        queue = new ArrayBlockingQueue<byte[]>(QUEUE_SIZE);
+        scheduled = new AtomicBoolean();
+        writer = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        };
+        out = new RecordingOutputStream();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            channel.write(createHeader(0));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Determines the WAVE format tag of the given audio format.
+     * @param audioFormat the audio format
+     * @return the format tag
+     * @throws IOException
+     *         the audio format is not supported
+     */
+    private static short getFormatTag(final AudioFormat audioFormat)
+            throws IOException {
+        final AudioFormat.Encoding encoding = audioFormat.getEncoding();
+        if (AudioFormat.Encoding.PCM_SIGNED.equals(encoding)
+                || AudioFormat.Encoding.PCM_UNSIGNED.equals(encoding)) {
+            return WAVE_FORMAT_PCM;
+        } else if (AudioFormat.Encoding.ALAW.equals(encoding)) {
+            return WAVE_FORMAT_ALAW;
+        } else if (AudioFormat.Encoding.ULAW.equals(encoding)) {
+            return WAVE_FORMAT_MULAW;
+        }
+        throw new IOException("unsupported recording format '" + audioFormat
+                + "'");
+    }
+
+    /**
+     * Creates the header of the WAVE file.
+     * @param length number of bytes of audio data
+     * @return the header
+     */
+    private ByteBuffer createHeader(final long length) {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        header.putInt((int) (RIFF_HEADER_SIZE + length));
+        header.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        header.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        header.putInt(FORMAT_CHUNK_SIZE);
+        header.putShort(formatTag);
+        header.putShort((short) format.getChannels());
+        final int sampleRate = (int) format.getSampleRate();
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * frameSize);
+        header.putShort((short) frameSize);
+        header.putShort((short) format.getSampleSizeInBits());
+        header.put("data".getBytes(StandardCharsets.US_ASCII));
+        header.putInt((int) length);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * Schedules the writing of the pending chunks. If the executor does not
+     * accept further tasks, the chunks are written by the calling thread.
+     */
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(writer);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            drain();
+        }
+    }
+
+    /**
+     * Writes all pending chunks to the file. Chunks that arrive after the
+     * recording has been finished or after an error are discarded.
+     */
+    private synchronized void drain() {
+        byte[] chunk = queue.poll();
+        while (chunk != null) {
+            if (!finished && (error == null)) {
+                try {
+                    write(chunk);
+                } catch (IOException e) {
+                    LOGGER.warn("error writing recording '" + file + "'", e);
+                    error = e;
+                }
+            }
+            chunk = queue.poll();
+        }
+    }
+
+    /**
+     * Appends the given chunk of complete frames to the file.
+     * @param chunk the chunk
+     * @throws IOException
+     *         error writing
+     */
+    private void write(final byte[] chunk) throws IOException {
+        if (swap) {
+            swapBytes(chunk);
+        }
+        if (trimSilence) {
+            final int end = getSoundEnd(chunk);
+            if (end > 0) {
+                lastSound = written + end;
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+    }
+
+    /**
+     * Converts the samples in the given chunk into little endian.
+     * @param chunk the chunk
+     */
+    private void swapBytes(final byte[] chunk) {
+        for (int i = 0; i + sampleSize <= chunk.length; i += sampleSize) {
+            for (int j = 0; j < sampleSize / 2; j++) {
+                final int k = i + sampleSize - 1 - j;
+                final byte b = chunk[i + j];
+                chunk[i + j] = chunk[k];
+                chunk[k] = b;
+            }
+        }
+    }
+
+    /**
+     * Determines the end of the last frame in the given chunk that is not
+     * silence.
+     * @param chunk the chunk with little endian samples
+     * @return number of bytes up to the end of the last frame that is not
+     *          silence, <code>0</code> if the chunk contains silence only
+     */
+    private int getSoundEnd(final byte[] chunk) {
+        for (int frame = chunk.length - frameSize; frame >= 0;
+                frame -= frameSize) {
+            for (int i = frame; i + sampleSize <= frame + frameSize;
+                    i += sampleSize) {
+                final int high = i + sampleSize - 1;
+                int sample;
+                if (signed) {
+                    sample = chunk[high];
+                } else {
+                    sample = (chunk[high] & BYTE_MASK) - UNSIGNED_OFFSET;
+                }
+                sample <<= BITS_PER_BYTE;
+                if (sampleSize > 1) {
+                    sample |= chunk[high - 1] & BYTE_MASK;
+                }
+                if (Math.abs(sample) >= SILENCE_THRESHOLD) {
+                    return frame + frameSize;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URI finish() throws BadFetchError {
+        out.closeRecording();
+        final long length;
+        synchronized (this) {
+            if (finished) {
+                return file.toURI();
+            }
+            drain();
+            finished = true;
+            try {
+                if (error != null) {
+                    throw error;
+                }
+                if (trimSilence) {
+                    length = lastSound;
+                    channel.truncate(HEADER_SIZE + length);
+                } else {
+                    length = written;
+                }
+                channel.write(createHeader(length), 0);
+            } catch (IOException e) {
+                throw new BadFetchError(e.getMessage(), e);
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.warn("error closing recording '" + file + "'", e);
+                }
+            }
+        }
+        final URI uri = file.toURI();
+        LOGGER.info("recorded " + length + " bytes to file '" + uri + "'");
+        return uri;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void discard() {
+        out.closeRecording();
+        synchronized (this) {
+            if (!finished) {
+                finished = true;
+                queue.clear();
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.warn("error closing recording '" + file + "'", e);
+                }
+            }
+            if (file.exists() && !file.delete()) {
+                LOGGER.warn("unable to delete recording '" + file + "'");
+                return;
+            }
+        }
+        LOGGER.info("discarded recording '" + file.toURI() + "'");
+    }
+
+    /**
+     * The stream to write the recorded audio to.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private final class RecordingOutputStream extends OutputStream {
+        /** Bytes of an incomplete frame. */
+        private final byte[] partial;
+
+        /** Number of bytes of the incomplete frame. */
+        private int partialLength;
+
+        /** Number of accepted bytes. */
+        private long accepted;
+
+        /** <code>true</code> if no further bytes are accepted. */
+        private boolean closed;
+
+        /**
+         * Constructs a new object.
+         */
+        RecordingOutputStream() {
+            partial = new byte[frameSize];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized void write(final byte[] b, final int off,
+                final int len) throws IOException {
+            if (closed) {
+                throw new IOException("recording has been finished");
+            }
+            final int count = (int) Math.min(len, maxBytes - accepted);
+            if (count <= 0) {
+                return;
+            }
+            accepted += count;
+            final int total = partialLength + count;
+            final int aligned = total - total % frameSize;
+            if (aligned == 0) {
+                System.arraycopy(b, off, partial, partialLength, count);
+                partialLength = total;
+                return;
+            }
+            final byte[] chunk = new byte[aligned];
+            System.arraycopy(partial, 0, chunk, 0, partialLength);
+            final int used = aligned - partialLength;
+            System.arraycopy(b, off, chunk, partialLength, used);
+            partialLength = total - aligned;
+            System.arraycopy(b, off + used, partial, 0, partialLength);
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(e.getMessage());
+            }
+            schedule();
+        }
+
+        /**
+         * Stops accepting further bytes.
+         */
+        synchronized void closeRecording() {
+            closed = true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() {
+            closeRecording();
+        }
+    }
+}
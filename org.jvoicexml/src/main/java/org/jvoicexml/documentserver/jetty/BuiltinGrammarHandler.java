@@ -25,6 +25,8 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -51,9 +53,15 @@ public class BuiltinGrammarHandler extends AbstractHandler {
     /** The context path of this handler. */
     public static String CONTEXT_PATH = "/builtin";
 
+    /** Maximal number of created grammars to keep. */
+    private static final int MAX_GRAMMARS = 256;
+
     /** Known grammar creators. */
     private final Map<String, GrammarCreator> creators;
 
+    /** Created grammars by their builtin URI. */
+    private final ConcurrentMap<String, byte[]> grammars;
+
     /**
      * Adds the specified grammar creators to the list of known grammar
      * creators.
@@ -85,6 +93,7 @@ public class BuiltinGrammarHandler extends AbstractHandler {
      */
     public BuiltinGrammarHandler() {
         creators = new java.util.HashMap<String, GrammarCreator>();
+        grammars = new ConcurrentHashMap<String, byte[]>();
     }
 
     /**
@@ -97,7 +106,11 @@ public class BuiltinGrammarHandler extends AbstractHandler {
         LOGGER.info("request from " + request.getRemoteAddr()
                 + " to builtin grammar handler");
         final String requestUri = request.getRequestURI();
-        final String builtintUri = requestUri.substring(CONTEXT_PATH.length() + 1);
+        final String query = request.getQueryString();
+        String builtintUri = requestUri.substring(CONTEXT_PATH.length() + 1);
+        if (query != null) {
+            builtintUri += "?" + query;
+        }
         final String type = extractBuiltinType(builtintUri);
         final GrammarCreator creator = creators.get(type);
         if (creator == null) {
@@ -106,8 +119,14 @@ public class BuiltinGrammarHandler extends AbstractHandler {
             return;
         }
         try {
-            final URI uri = new URI("builtin:" + builtintUri);
-            final byte[] bytes = creator.createGrammar(uri);
+            byte[] bytes = grammars.get(builtintUri);
+            if (bytes == null) {
+                final URI uri = new URI("builtin:" + builtintUri);
+                bytes = creator.createGrammar(uri);
+                if (grammars.size() < MAX_GRAMMARS) {
+                    grammars.putIfAbsent(builtintUri, bytes);
+                }
+            }
             final OutputStream out = response.getOutputStream();
             out.write(bytes);
             baseRequest.setHandled(true);
@@ -32,6 +32,7 @@ import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.documentserver.schemestrategy.builtin.GrammarCreator;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammars;
 
 /**
  * A storage for documents for ASR and TTS that are generated while executing a
@@ -127,6 +128,7 @@ public class DocumentStorage {
         contexts.setHandlers(handlers);
         server.setHandler(contexts);
         server.start();
+        BuiltinGrammars.addServerUri(server.getURI());
         LOGGER.info("document storage started on port " + storagePort);
     }
 
@@ -256,6 +258,7 @@ public class DocumentStorage {
         if (storagePort < 0) {
             return;
         }
+        BuiltinGrammars.removeServerUri(server.getURI());
         server.stop();
         LOGGER.info("document storage stopped");
     }
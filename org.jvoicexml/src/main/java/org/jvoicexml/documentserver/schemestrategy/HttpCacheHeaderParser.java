@@ -0,0 +1,192 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver.schemestrategy;
+
+import java.util.Date;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.jvoicexml.documentserver.CacheableResponse;
+
+/**
+ * Parser for the cache relevant headers of HTTP responses as they are
+ * specified in RFC 7234.
+ *
+ * <p>
+ * The resulting {@link CacheableResponse} is meant to be stored in a cache
+ * that is shared by all sessions. Hence, responses that are marked as
+ * <code>private</code> or that set a cookie are not storable.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class HttpCacheHeaderParser {
+    /** Number of msec per second. */
+    private static final long MSECS_PER_SEC = 1000;
+
+    /**
+     * Fraction of the time since the last modification to use as freshness
+     * lifetime if there is no explicit expiration time.
+     */
+    private static final int HEURISTIC_FRACTION = 10;
+
+    /**
+     * Do not create from outside.
+     */
+    private HttpCacheHeaderParser() {
+    }
+
+    /**
+     * Parses the cache relevant headers of the given response.
+     * @param response the HTTP response
+     * @param date local time in msec when the response was received
+     * @return parsed response without content
+     */
+    static CacheableResponse parse(final HttpResponse response,
+            final long date) {
+        final CacheableResponse cacheable = new CacheableResponse();
+        cacheable.setDate(date);
+        cacheable.setEtag(getValue(response, HttpHeaders.ETAG));
+        final String lastModified = getValue(response,
+                HttpHeaders.LAST_MODIFIED);
+        cacheable.setLastModified(lastModified);
+        final String age = getValue(response, HttpHeaders.AGE);
+        cacheable.setAge(parseSeconds(age, 0));
+
+        boolean storable = !response.containsHeader("Set-Cookie");
+        long maxAge = CacheableResponse.UNKNOWN_LIFETIME;
+        long sharedMaxAge = CacheableResponse.UNKNOWN_LIFETIME;
+        final Header[] headers =
+                response.getHeaders(HttpHeaders.CACHE_CONTROL);
+        for (Header header : headers) {
+            for (HeaderElement element : header.getElements()) {
+                final String name = element.getName();
+                if ("no-store".equalsIgnoreCase(name)
+                        || "private".equalsIgnoreCase(name)) {
+                    storable = false;
+                } else if ("no-cache".equalsIgnoreCase(name)) {
+                    cacheable.setNoCache(true);
+                } else if ("must-revalidate".equalsIgnoreCase(name)
+                        || "proxy-revalidate".equalsIgnoreCase(name)) {
+                    cacheable.setMustRevalidate(true);
+                } else if ("max-age".equalsIgnoreCase(name)) {
+                    maxAge = parseSeconds(element.getValue(), 0);
+                } else if ("s-maxage".equalsIgnoreCase(name)) {
+                    sharedMaxAge = parseSeconds(element.getValue(), 0);
+                    cacheable.setMustRevalidate(true);
+                }
+            }
+        }
+        cacheable.setStorable(storable);
+
+        final long lifetime;
+        if (sharedMaxAge != CacheableResponse.UNKNOWN_LIFETIME) {
+            lifetime = sharedMaxAge;
+        } else if (maxAge != CacheableResponse.UNKNOWN_LIFETIME) {
+            lifetime = maxAge;
+        } else {
+            lifetime = getExpiresLifetime(response, lastModified);
+        }
+        cacheable.setFreshnessLifetime(lifetime);
+        return cacheable;
+    }
+
+    /**
+     * Determines the freshness lifetime from the <code>Expires</code> header
+     * or, if there is none, heuristically from the
+     * <code>Last-Modified</code> header.
+     * @param response the HTTP response
+     * @param lastModified value of the <code>Last-Modified</code> header
+     * @return freshness lifetime in msec
+     */
+    private static long getExpiresLifetime(final HttpResponse response,
+            final String lastModified) {
+        final Date date = parseDate(getValue(response, HttpHeaders.DATE));
+        if (date == null) {
+            return CacheableResponse.UNKNOWN_LIFETIME;
+        }
+        final String expiresValue = getValue(response, HttpHeaders.EXPIRES);
+        if (expiresValue != null) {
+            final Date expires = parseDate(expiresValue);
+            if (expires == null) {
+                // Invalid dates represent a time in the past
+                return 0;
+            }
+            return Math.max(0, expires.getTime() - date.getTime());
+        }
+        final Date modified = parseDate(lastModified);
+        if (modified == null) {
+            return CacheableResponse.UNKNOWN_LIFETIME;
+        }
+        final long sinceModification = date.getTime() - modified.getTime();
+        return Math.max(0, sinceModification / HEURISTIC_FRACTION);
+    }
+
+    /**
+     * Retrieves the value of the first header with the given name.
+     * @param response the HTTP response
+     * @param name name of the header
+     * @return value of the header, <code>null</code> if there is none
+     */
+    private static String getValue(final HttpResponse response,
+            final String name) {
+        final Header header = response.getFirstHeader(name);
+        if (header == null) {
+            return null;
+        }
+        return header.getValue();
+    }
+
+    /**
+     * Parses the given HTTP date.
+     * @param value the date
+     * @return parsed date, <code>null</code> if it could not be parsed
+     */
+    private static Date parseDate(final String value) {
+        if (value == null) {
+            return null;
+        }
+        return DateUtils.parseDate(value);
+    }
+
+    /**
+     * Parses the given number of seconds.
+     * @param value the number of seconds
+     * @param fallback value to return if the value could not be parsed
+     * @return number of msec
+     */
+    private static long parseSeconds(final String value,
+            final long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim()) * MSECS_PER_SEC;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver.schemestrategy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Process-wide pool of HTTP connections that is shared by all
+ * {@link HttpSchemeStrategy}s.
+ *
+ * <p>
+ * All fetches are executed by a single {@link CloseableHttpClient} that leases
+ * its connections from a {@link PoolingHttpClientConnectionManager}. Hence,
+ * connections to the same application server are kept alive and reused
+ * across sessions instead of paying a new TCP (and TLS) handshake for each
+ * fetch. Session specific state, like cookies, is not kept in the client
+ * but in the {@link org.apache.http.client.protocol.HttpClientContext} that
+ * is maintained per session by the {@link SessionStorage}.
+ * </p>
+ *
+ * <p>
+ * The client is created upon the first fetch with the settings that have
+ * been configured so far. Since these settings are frozen into the client,
+ * any attempt to change them afterwards is rejected with an
+ * {@link IllegalStateException}.
+ * </p>
+ *
+ * <p>
+ * This implementation uses the proxy settings that are delivered via the
+ * environment variables <code>http.proxyHost</code> and
+ * <code>http.proxyPort</code>.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+class HttpClientConnectionPool {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(HttpClientConnectionPool.class);
+
+    /** The default maximum number of connections. */
+    static final int DEFAULT_MAX_CONNECTIONS = 200;
+
+    /** The default maximum number of connections per route. */
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 50;
+
+    /** The default keep alive time in msec. */
+    static final long DEFAULT_KEEP_ALIVE = 30000;
+
+    /** The default proxy port. */
+    private static final int DEFAULT_PROXY_PORT = 80;
+
+    /** The name of the proxy to use. */
+    private static final String PROXY_HOST;
+
+    /** The port of the proxy server. */
+    private static final int PROXY_PORT;
+
+    static {
+        PROXY_HOST = System.getProperty("http.proxyHost");
+        final String port = System.getProperty("http.proxyPort");
+        if (PROXY_HOST != null && port != null) {
+            PROXY_PORT = Integer.parseInt(port);
+        } else {
+            PROXY_PORT = DEFAULT_PROXY_PORT;
+        }
+    }
+
+    /** Maximum number of connections in total. */
+    private int maxConnections;
+
+    /** Maximum number of connections per route. */
+    private int maxConnectionsPerRoute;
+
+    /**
+     * Time in msec to keep idle connections alive if the server does not
+     * specify a keep alive time.
+     */
+    private long keepAlive;
+
+    /** The connection manager, lazily created. */
+    private PoolingHttpClientConnectionManager manager;
+
+    /** The shared client, lazily created. */
+    private CloseableHttpClient client;
+
+    /**
+     * Constructs a new object.
+     */
+    HttpClientConnectionPool() {
+        maxConnections = DEFAULT_MAX_CONNECTIONS;
+        maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        keepAlive = DEFAULT_KEEP_ALIVE;
+    }
+
+    /**
+     * Sets the maximum number of connections in total.
+     * @param max the maximum number of connections
+     * @exception IllegalStateException
+     *            if the client has already been created
+     */
+    public synchronized void setMaxConnections(final int max) {
+        checkNotCreated();
+        maxConnections = max;
+    }
+
+    /**
+     * Sets the maximum number of connections per route.
+     * @param max the maximum number of connections per route
+     * @exception IllegalStateException
+     *            if the client has already been created
+     */
+    public synchronized void setMaxConnectionsPerRoute(final int max) {
+        checkNotCreated();
+        maxConnectionsPerRoute = max;
+    }
+
+    /**
+     * Sets the time to keep idle connections alive if the server does not
+     * specify a keep alive time.
+     * @param msec keep alive time in msec
+     * @exception IllegalStateException
+     *            if the client has already been created
+     */
+    public synchronized void setKeepAlive(final long msec) {
+        checkNotCreated();
+        keepAlive = msec;
+    }
+
+    /**
+     * Ensures that the client has not been created yet.
+     * @exception IllegalStateException
+     *            if the client has already been created
+     */
+    private void checkNotCreated() {
+        if (client != null) {
+            throw new IllegalStateException("HTTP connection pool is already"
+                    + " in use and can no longer be configured");
+        }
+    }
+
+    /**
+     * Retrieves the shared client. The client is created upon the first call.
+     * @return the shared client
+     */
+    public synchronized CloseableHttpClient getClient() {
+        if (client == null) {
+            manager = new PoolingHttpClientConnectionManager();
+            manager.setMaxTotal(maxConnections);
+            manager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+            final HttpClientBuilder builder = HttpClientBuilder.create()
+                    .setConnectionManager(manager)
+                    .setKeepAliveStrategy(new KeepAliveStrategy(keepAlive))
+                    .evictExpiredConnections()
+                    .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS);
+            if (PROXY_HOST != null) {
+                final HttpHost proxy = new HttpHost(PROXY_HOST, PROXY_PORT);
+                builder.setProxy(proxy);
+            }
+            client = builder.build();
+            LOGGER.info("created HTTP connection pool with max "
+                    + maxConnections + " connections (" + maxConnectionsPerRoute
+                    + " per route)");
+        }
+        return client;
+    }
+
+    /**
+     * Keep alive strategy that honors the <code>Keep-Alive</code> header of
+     * the server and falls back to the configured keep alive time.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class KeepAliveStrategy
+            implements ConnectionKeepAliveStrategy {
+        /** Keep alive time in msec if not specified by the server. */
+        private final long keepAlive;
+
+        /**
+         * Constructs a new object.
+         * @param msec keep alive time in msec if not specified by the server
+         */
+        KeepAliveStrategy(final long msec) {
+            keepAlive = msec;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getKeepAliveDuration(final HttpResponse response,
+                final HttpContext context) {
+            final long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+            if (duration > 0) {
+                return duration;
+            }
+            return keepAlive;
+        }
+    }
+}
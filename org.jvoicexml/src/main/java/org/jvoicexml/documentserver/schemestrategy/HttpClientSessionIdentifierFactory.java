@@ -1,7 +1,7 @@
 /*
  * JVoiceXML - A free VoiceXML implementation.
  *
- * Copyright (C) 2008-2017 JVoiceXML group - http://jvoicexml.sourceforge.net
+ * Copyright (C) 2008-2020 JVoiceXML group - http://jvoicexml.sourceforge.net
  *
  * This library is free software; you can redistribute it and/or
  * modify it under the terms of the GNU Library General Public
@@ -21,47 +21,34 @@
 
 package org.jvoicexml.documentserver.schemestrategy;
 
-import org.apache.http.HttpHost;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
 
 /**
  * Session identifier factory for the {@link HttpSchemeStrategy}.
+ *
+ * <p>
+ * Each session gets its own {@link HttpClientContext} with a dedicated
+ * cookie store. The context is not used to execute requests since requests
+ * of a session may run concurrently. It only holds the cookie store that is
+ * shared by the contexts of the requests of the session. Connections are
+ * not bound to the session but leased from the shared
+ * {@link HttpClientConnectionPool}.
+ * </p>
  * 
  * @author Dirk Schnelle-Walka
  * @since 0.7
  */
 final class HttpClientSessionIdentifierFactory
-        implements SessionIdentifierFactory<HttpClientBuilder> {
-    /** The default proxy port. */
-    private static final int DEFAULT_PROXY_PORT = 80;
-
-    /** The name of the proxy to use. */
-    private static final String PROXY_HOST;
-
-    /** The port of the proxy server. */
-    private static final int PROXY_PORT;
-
-    static {
-        PROXY_HOST = System.getProperty("http.proxyHost");
-        final String port = System.getProperty("http.proxyPort");
-        if (PROXY_HOST != null && port != null) {
-            PROXY_PORT = Integer.parseInt(port);
-        } else {
-            PROXY_PORT = DEFAULT_PROXY_PORT;
-        }
-    }
-
+        implements SessionIdentifierFactory<HttpClientContext> {
     /**
      * {@inheritDoc}
      */
     @Override
-    public HttpClientBuilder createSessionIdentifier(final String sessionId) {
-        final HttpClientBuilder builder = HttpClientBuilder.create();
-        if (PROXY_HOST != null) {
-            HttpHost proxy = new HttpHost(PROXY_HOST, PROXY_PORT);
-            builder.setProxy(proxy);
-        }
-        return builder;
+    public HttpClientContext createSessionIdentifier(final String sessionId) {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(new BasicCookieStore());
+        return context;
     }
 
 }
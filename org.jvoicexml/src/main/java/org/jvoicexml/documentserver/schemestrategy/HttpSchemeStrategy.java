@@ -27,25 +27,31 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.Collection;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.ParseException;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jvoicexml.documentserver.CacheableResponse;
+import org.jvoicexml.documentserver.ConditionalSchemeStrategy;
 import org.jvoicexml.documentserver.ReadBuffer;
 import org.jvoicexml.documentserver.SchemeStrategy;
 import org.jvoicexml.event.error.BadFetchError;
@@ -62,9 +68,22 @@ import org.jvoicexml.xml.vxml.RequestMethod;
  * <code>http.proxyPort</code>.
  * </p>
  *
+ * <p>
+ * Connections are leased from a process-wide {@link HttpClientConnectionPool}
+ * and kept alive for reuse by subsequent fetches of any session. Cookies are
+ * maintained per session.
+ * </p>
+ *
+ * <p>
+ * As a {@link ConditionalSchemeStrategy} this strategy reports the cache
+ * relevant headers to the document server and issues conditional requests
+ * using the <code>ETag</code> and <code>Last-Modified</code> validators of
+ * a previous response.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  */
-public final class HttpSchemeStrategy implements SchemeStrategy {
+public final class HttpSchemeStrategy implements ConditionalSchemeStrategy {
     /** Logger for this class. */
     private static final Logger LOGGER = LogManager
             .getLogger(HttpSchemeStrategy.class);
@@ -73,7 +92,10 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
     public static final String HTTP_SCHEME_NAME = "http";
 
     /** the storage of session identifiers. */
-    protected static SessionStorage<HttpClientBuilder> SESSION_STORAGE;
+    protected static SessionStorage<HttpClientContext> SESSION_STORAGE;
+
+    /** The shared pool of HTTP connections. */
+    protected static HttpClientConnectionPool CONNECTION_POOL;
 
     /** Scheme name for this strategy. */
     private String scheme;
@@ -82,8 +104,9 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
     private int defaultFetchTimeout;
 
     static {
-        final SessionIdentifierFactory<HttpClientBuilder> factory = new HttpClientSessionIdentifierFactory();
-        SESSION_STORAGE = new SessionStorage<HttpClientBuilder>(factory);
+        final SessionIdentifierFactory<HttpClientContext> factory = new HttpClientSessionIdentifierFactory();
+        SESSION_STORAGE = new SessionStorage<HttpClientContext>(factory);
+        CONNECTION_POOL = new HttpClientConnectionPool();
     }
 
     /**
@@ -127,6 +150,81 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
         defaultFetchTimeout = timeout;
     }
 
+    /**
+     * Sets the maximum number of pooled connections in total.
+     * 
+     * <p>
+     * Note that the connection pool is shared by all instances of this
+     * strategy. It must be configured before the first fetch.
+     * </p>
+     * 
+     * @param max
+     *            the maximum number of connections
+     * @exception IllegalStateException
+     *            if a fetch has already been made
+     * @since 0.7.9
+     */
+    public void setMaxConnections(final int max) {
+        CONNECTION_POOL.setMaxConnections(max);
+    }
+
+    /**
+     * Sets the maximum number of pooled connections per route, i.e. per
+     * application server.
+     * 
+     * <p>
+     * Note that the connection pool is shared by all instances of this
+     * strategy. It must be configured before the first fetch.
+     * </p>
+     * 
+     * @param max
+     *            the maximum number of connections per route
+     * @exception IllegalStateException
+     *            if a fetch has already been made
+     * @since 0.7.9
+     */
+    public void setMaxConnectionsPerRoute(final int max) {
+        CONNECTION_POOL.setMaxConnectionsPerRoute(max);
+    }
+
+    /**
+     * Sets the time to keep idle connections alive if the server does not
+     * send a <code>Keep-Alive</code> header.
+     * 
+     * <p>
+     * Note that the connection pool is shared by all instances of this
+     * strategy. It must be configured before the first fetch.
+     * </p>
+     * 
+     * @param msec
+     *            keep alive time in msec
+     * @exception IllegalStateException
+     *            if a fetch has already been made
+     * @since 0.7.9
+     */
+    public void setKeepAlive(final long msec) {
+        CONNECTION_POOL.setKeepAlive(msec);
+    }
+
+    /**
+     * Creates the context for a single request of the given session.
+     * Requests of a session may be executed concurrently, e.g. by prefetches
+     * and the interpreter, but an {@link HttpClientContext} must not be
+     * shared among threads. Hence, each request gets its own context and
+     * only the thread-safe cookie store of the session is shared.
+     * @param sessionId the Id of the session
+     * @return new context for the request
+     * @since 0.7.9
+     */
+    private static HttpClientContext createRequestContext(
+            final String sessionId) {
+        final HttpClientContext session =
+                SESSION_STORAGE.getSessionIdentifier(sessionId);
+        final HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(session.getCookieStore());
+        return context;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -134,44 +232,148 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
     public InputStream getInputStream(final String sessionId, final URI uri,
             final RequestMethod method, final long timeout,
             final Collection<KeyValuePair> parameters) throws BadFetchError {
-        final HttpClientBuilder builder = SESSION_STORAGE
-                .getSessionIdentifier(sessionId);
+        final HttpClientContext context = createRequestContext(sessionId);
         final RequestConfig config = setTimeout(timeout);
-        try (CloseableHttpClient client = builder
-                .setDefaultRequestConfig(config).build()) {
+        final CloseableHttpClient client = CONNECTION_POOL.getClient();
+        try {
             final String fragmentLessUriString = StringUtils.substringBeforeLast(uri.toString(), "#");
             final URI fragmentLessUri = new URI(fragmentLessUriString);
             final URI requestUri = addParameters(parameters, fragmentLessUri);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("connecting to '" + requestUri + "'...");
             }
-            final HttpUriRequest request;
+            final HttpRequestBase request;
             if (method == RequestMethod.GET) {
                 request = new HttpGet(requestUri);
             } else {
                 request = new HttpPost(requestUri);
             }
+            request.setConfig(config);
             attachFiles(request, parameters);
-            final HttpResponse response = client.execute(request);
-            final StatusLine statusLine = response.getStatusLine();
-            final int status = statusLine.getStatusCode();
-            if (status != HttpStatus.SC_OK) {
-                final String reasonPhrase = statusLine.getReasonPhrase();
-                LOGGER.error("error accessing '" + uri + "': " + reasonPhrase
-                        + " (HTTP error code " + status + ")");
-                return null;
+            try (CloseableHttpResponse response = client.execute(request,
+                    context)) {
+                final StatusLine statusLine = response.getStatusLine();
+                final int status = statusLine.getStatusCode();
+                final HttpEntity entity = response.getEntity();
+                if (status != HttpStatus.SC_OK) {
+                    final String reasonPhrase = statusLine.getReasonPhrase();
+                    LOGGER.error("error accessing '" + uri + "': "
+                            + reasonPhrase + " (HTTP error code " + status
+                            + ")");
+                    // Consume the entity so that the connection can be
+                    // reused.
+                    EntityUtils.consume(entity);
+                    return null;
+                }
+                final InputStream input = entity.getContent();
+                final ReadBuffer buffer = new ReadBuffer();
+                buffer.read(input, getCharset(entity));
+                // The view remains readable until the caller closes it. The
+                // caller may also take over the buffer with the declared
+                // charset via ReadBuffer.reclaim().
+                final InputStream view = buffer.getInputStream();
+                buffer.release();
+                return view;
             }
-            final HttpEntity entity = response.getEntity();
-            final InputStream input = entity.getContent();
-            final ReadBuffer buffer = new ReadBuffer();
-            buffer.read(input);
-            return buffer.getInputStream();
         } catch (IOException | URISyntaxException | ParseException
                 | SemanticError e) {
             throw new BadFetchError(e.getMessage(), e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheableResponse getCacheableResponse(final String sessionId,
+            final URI uri, final long timeout,
+            final CacheableResponse previous) throws BadFetchError {
+        final HttpClientContext context = createRequestContext(sessionId);
+        final RequestConfig config = setTimeout(timeout);
+        final CloseableHttpClient client = CONNECTION_POOL.getClient();
+        try {
+            final String fragmentLessUriString = StringUtils.substringBeforeLast(uri.toString(), "#");
+            final URI fragmentLessUri = new URI(fragmentLessUriString);
+            final HttpGet request = new HttpGet(fragmentLessUri);
+            request.setConfig(config);
+            if (previous != null) {
+                final String etag = previous.getEtag();
+                if (etag != null) {
+                    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+                }
+                final String lastModified = previous.getLastModified();
+                if (lastModified != null) {
+                    request.addHeader(HttpHeaders.IF_MODIFIED_SINCE,
+                            lastModified);
+                }
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("connecting to '" + fragmentLessUri + "'...");
+            }
+            try (CloseableHttpResponse response = client.execute(request,
+                    context)) {
+                final long date = System.currentTimeMillis();
+                final StatusLine statusLine = response.getStatusLine();
+                final int status = statusLine.getStatusCode();
+                final HttpEntity entity = response.getEntity();
+                if ((status == HttpStatus.SC_NOT_MODIFIED)
+                        && (previous != null)) {
+                    EntityUtils.consume(entity);
+                    final CacheableResponse cacheable = HttpCacheHeaderParser
+                            .parse(response, date);
+                    cacheable.setNotModified(true);
+                    return cacheable;
+                }
+                if (status != HttpStatus.SC_OK) {
+                    final String reasonPhrase = statusLine.getReasonPhrase();
+                    LOGGER.error("error accessing '" + uri + "': "
+                            + reasonPhrase + " (HTTP error code " + status
+                            + ")");
+                    EntityUtils.consume(entity);
+                    return null;
+                }
+                final CacheableResponse cacheable = HttpCacheHeaderParser
+                        .parse(response, date);
+                if (entity == null) {
+                    cacheable.setContent(new byte[0]);
+                } else {
+                    final byte[] content = EntityUtils.toByteArray(entity);
+                    cacheable.setContent(content);
+                }
+                return cacheable;
+            }
+        } catch (IOException | URISyntaxException | ParseException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves the character set that the server declared for the given
+     * entity.
+     * 
+     * @param entity
+     *            the received entity
+     * @return declared character set, <code>null</code> if there is no
+     *         supported declared character set
+     * @since 0.7.9
+     */
+    private String getCharset(final HttpEntity entity) {
+        final ContentType type;
+        try {
+            type = ContentType.get(entity);
+        } catch (ParseException | UnsupportedCharsetException e) {
+            return null;
+        }
+        if (type == null) {
+            return null;
+        }
+        final Charset charset = type.getCharset();
+        if (charset == null) {
+            return null;
+        }
+        return charset.name();
+    }
+
     /**
      * Sets the timeout for the current connection.
      * 
@@ -192,10 +394,10 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
         }
         final RequestConfig config = RequestConfig.custom()
                 .setConnectTimeout(usedTimeout * 1000)
-                .setConnectionRequestTimeout((int) (timeout * 1000))
-                .setSocketTimeout((int) (timeout * 1000)).build();
+                .setConnectionRequestTimeout(usedTimeout * 1000)
+                .setSocketTimeout(usedTimeout * 1000).build();
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("timeout set to '" + timeout + "'");
+            LOGGER.debug("timeout set to '" + usedTimeout + "'");
         }
         return config;
     }
@@ -239,7 +441,7 @@ public final class HttpSchemeStrategy implements SchemeStrategy {
      *            the parameters
      * @since 0.7.3
      */
-    private void attachFiles(final HttpUriRequest request,
+    private void attachFiles(final HttpRequestBase request,
             final Collection<KeyValuePair> parameters) {
         if (!(request instanceof HttpPost)) {
             return;
@@ -20,7 +20,8 @@
  */
 package org.jvoicexml.event;
 
-import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An event bus to transport events between interpreter and implementation
@@ -30,19 +31,49 @@ import java.util.Collection;
  * can be published to all {@link EventSubscriber}s via
  * {@link #publish(JVoiceXMLEvent)}.
  *
+ * <p>
+ * Publishing does not lock. The subscriptions are kept in an immutable set
+ * that is replaced on each change. The subscribers that match an event type
+ * are determined only once per set. By default, events are delivered in the
+ * publishing thread. If the event bus is created with an {@link Executor},
+ * events are delivered one after another on that executor so that a slow
+ * subscriber does not block the publishers.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  * @version $Revision$
  * @since 0.7.7
  */
 public final class EventBus {
     /** The registered event subscriptions. */
-    private final Collection<EventSubscription> subscriptions;
-    
+    private final AtomicReference<EventSubscriptions> subscriptions;
+
+    /** Executor for the delivery, <code>null</code> for synchronous. */
+    private final Executor dispatcher;
+
     /**
-     * Constructs a new object.
+     * Constructs a new object that delivers events in the publishing
+     * thread.
      */
     public EventBus() {
-        subscriptions = new java.util.ArrayList<EventSubscription>();
+        this(null);
+    }
+
+    /**
+     * Constructs a new object that delivers events asynchronously. Events
+     * are delivered in the order of their publication.
+     * @param executor executor to deliver the events, <code>null</code> to
+     *          deliver events in the publishing thread
+     * @since 0.7.9
+     */
+    public EventBus(final Executor executor) {
+        subscriptions = new AtomicReference<EventSubscriptions>(
+                EventSubscriptions.EMPTY);
+        if (executor == null) {
+            dispatcher = null;
+        } else {
+            dispatcher = new SerialExecutor(executor);
+        }
     }
 
     /**
@@ -57,9 +88,11 @@ public final class EventBus {
     public void subscribe(final String type, final EventSubscriber subscriber) {
         final EventSubscription subscription =
                 new EventSubscription(type, subscriber);
-        synchronized (subscriptions) {
-            subscriptions.add(subscription);
-        }
+        EventSubscriptions current;
+        do {
+            current = subscriptions.get();
+        } while (!subscriptions.compareAndSet(current,
+                current.add(subscription)));
     }
 
     /**
@@ -72,15 +105,16 @@ public final class EventBus {
             final EventSubscriber subscriber) {
         final EventSubscription subscription =
                 new EventSubscription(type, subscriber);
-        synchronized (subscriptions) {
-            for (EventSubscription current : subscriptions) {
-                if (subscription.equals(current)) {
-                    subscriptions.remove(subscription);
-                    return true;
-                }
+        EventSubscriptions current;
+        EventSubscriptions next;
+        do {
+            current = subscriptions.get();
+            next = current.remove(subscription);
+            if (next == current) {
+                return false;
             }
-        }
-        return false;
+        } while (!subscriptions.compareAndSet(current, next));
+        return true;
     }
 
     /**
@@ -89,12 +123,32 @@ public final class EventBus {
      */
     public void publish(final JVoiceXMLEvent event) {
         final String type = event.getEventType();
-        synchronized (subscriptions) {
-            for (EventSubscription subscription : subscriptions) {
-                if (subscription.matches(type)) {
-                    subscription.publish(event);
+        final EventSubscriptions current = subscriptions.get();
+        final EventSubscription[] matches = current.getMatches(type);
+        if (matches.length == 0) {
+            return;
+        }
+        if (dispatcher == null) {
+            deliver(event, matches);
+        } else {
+            dispatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(event, matches);
                 }
-            }
+            });
+        }
+    }
+
+    /**
+     * Delivers the given event to the given subscriptions.
+     * @param event the event to deliver
+     * @param matches the subscriptions to deliver to
+     */
+    private static void deliver(final JVoiceXMLEvent event,
+            final EventSubscription[] matches) {
+        for (EventSubscription subscription : matches) {
+            subscription.publish(event);
         }
     }
 }
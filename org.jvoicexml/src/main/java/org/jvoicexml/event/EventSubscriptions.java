@@ -0,0 +1,121 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.event;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable set of {@link EventSubscription}s of an {@link EventBus}.
+ *
+ * <p>
+ * Each modification creates a new object. The subscriptions that match an
+ * event type are determined once per event type and kept as long as the set
+ * is not modified.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class EventSubscriptions {
+    /** Maximum number of event types to keep the matches for. */
+    private static final int MAX_CACHED_TYPES = 256;
+
+    /** No subscriptions. */
+    static final EventSubscriptions EMPTY =
+            new EventSubscriptions(new EventSubscription[0]);
+
+    /** The subscriptions in the order of their registration. */
+    private final EventSubscription[] subscriptions;
+
+    /** The matching subscriptions per event type. */
+    private final ConcurrentMap<String, EventSubscription[]> matches;
+
+    /**
+     * Constructs a new object.
+     * @param subs the subscriptions
+     */
+    private EventSubscriptions(final EventSubscription[] subs) {
+        subscriptions = subs;
+        matches = new ConcurrentHashMap<String, EventSubscription[]>();
+    }
+
+    /**
+     * Creates a new set with the given subscription added.
+     * @param subscription the subscription to add
+     * @return the new set
+     */
+    EventSubscriptions add(final EventSubscription subscription) {
+        final EventSubscription[] subs =
+                new EventSubscription[subscriptions.length + 1];
+        System.arraycopy(subscriptions, 0, subs, 0, subscriptions.length);
+        subs[subscriptions.length] = subscription;
+        return new EventSubscriptions(subs);
+    }
+
+    /**
+     * Creates a new set with the first occurrence of the given subscription
+     * removed.
+     * @param subscription the subscription to remove
+     * @return the new set, this object if there is no such subscription
+     */
+    EventSubscriptions remove(final EventSubscription subscription) {
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscription.equals(subscriptions[i])) {
+                final EventSubscription[] subs =
+                        new EventSubscription[subscriptions.length - 1];
+                System.arraycopy(subscriptions, 0, subs, 0, i);
+                System.arraycopy(subscriptions, i + 1, subs, i,
+                        subs.length - i);
+                return new EventSubscriptions(subs);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Retrieves the subscriptions that match the given event type.
+     * @param type the event type
+     * @return matching subscriptions in the order of their registration
+     */
+    EventSubscription[] getMatches(final String type) {
+        final EventSubscription[] cached = matches.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        int count = 0;
+        final EventSubscription[] found =
+                new EventSubscription[subscriptions.length];
+        for (EventSubscription subscription : subscriptions) {
+            if (subscription.matches(type)) {
+                found[count] = subscription;
+                ++count;
+            }
+        }
+        final EventSubscription[] result = new EventSubscription[count];
+        System.arraycopy(found, 0, result, 0, count);
+        if (matches.size() < MAX_CACHED_TYPES) {
+            matches.put(type, result);
+        }
+        return result;
+    }
+}
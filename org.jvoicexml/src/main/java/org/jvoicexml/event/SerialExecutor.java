@@ -0,0 +1,113 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An {@link Executor} that executes the tasks one after another in the
+ * order of their submission on another {@link Executor}. A thread of the
+ * underlying executor is only occupied while there are pending tasks.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class SerialExecutor implements Executor {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(SerialExecutor.class);
+
+    /** The underlying executor. */
+    private final Executor executor;
+
+    /** The pending tasks. */
+    private final Queue<Runnable> tasks;
+
+    /** Flag if there is a drain scheduled on the underlying executor. */
+    private final AtomicBoolean scheduled;
+
+    /** The drain of the pending tasks. */
+    private final Runnable drain;
+
+    /**
+     * Constructs a new object.
+     * @param target the underlying executor
+     */
+    SerialExecutor(final Executor target) {
+        executor = target;
+        tasks = new ConcurrentLinkedQueue<Runnable>();
+        scheduled = new AtomicBoolean();
+        drain = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Schedules a drain of the pending tasks if none is scheduled.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(drain);
+        }
+    }
+
+    /**
+     * Executes all pending tasks.
+     */
+    private void drain() {
+        try {
+            Runnable task = tasks.poll();
+            while (task != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("error dispatching event", e);
+                }
+                task = tasks.poll();
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // Tasks may have been added after the last poll.
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -26,6 +26,8 @@
 
 package org.jvoicexml.event.plain.jvxml;
 
+import java.net.URI;
+
 import org.jvoicexml.event.PlainEvent;
 
 /**
@@ -46,6 +48,9 @@ public final class RecordingEvent extends PlainEvent
     /** The output buffer of the recording. */
     private final byte[] buffer;
 
+    /** The URI of the stored recording. */
+    private final URI uri;
+
     /** The input result. */
     private Object result;
 
@@ -57,6 +62,19 @@ public final class RecordingEvent extends PlainEvent
      */
     public RecordingEvent(final byte[] recordingBuffer) {
         buffer = recordingBuffer;
+        uri = null;
+    }
+
+    /**
+     * Constructs a new object for a recording that has already been stored.
+     * 
+     * @param recordingUri
+     *            URI of the stored recording.
+     * @since 0.7.9
+     */
+    public RecordingEvent(final URI recordingUri) {
+        buffer = null;
+        uri = recordingUri;
     }
 
     /**
@@ -93,4 +111,15 @@ public final class RecordingEvent extends PlainEvent
     public byte[] getRecordingBuffer() {
         return buffer;
     }
+
+    /**
+     * Retrieves the URI of the stored recording.
+     * 
+     * @return URI of the recording, <code>null</code> if the recording has
+     *         not been stored yet
+     * @since 0.7.9
+     */
+    public URI getRecordingUri() {
+        return uri;
+    }
 }
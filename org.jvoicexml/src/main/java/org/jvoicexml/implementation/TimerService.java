@@ -0,0 +1,154 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler for all timeouts of the implementation platforms, like the
+ * <code>noinput</code> timeout, the inter-digit timeout or the reaping of
+ * platforms that have not been returned.
+ *
+ * <p>
+ * All timeouts of all sessions share a small number of daemon threads.
+ * Canceled timeouts are removed immediately so that they can be canceled
+ * and rescheduled cheaply, e.g., with each entered digit. Since the threads
+ * are shared, the scheduled tasks must not block. Work that may block, like
+ * publishing events to the subscribers of a session, has to be handed off
+ * via {@link #dispatch(Runnable)}.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TimerService {
+    /** Number of threads that execute the timeouts. */
+    private static final int THREADS = 2;
+
+    /** The shared instance. */
+    private static final TimerService INSTANCE = new TimerService();
+
+    /** The scheduler. */
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Executor for the work that is handed off by the timeouts. */
+    private final ExecutorService dispatcher;
+
+    /**
+     * Constructs a new object.
+     */
+    private TimerService() {
+        executor = new ScheduledThreadPoolExecutor(THREADS,
+                new TimerThreadFactory("JVoiceXML timer-"));
+        executor.setRemoveOnCancelPolicy(true);
+        dispatcher = Executors.newCachedThreadPool(
+                new TimerThreadFactory("JVoiceXML dispatch-"));
+    }
+
+    /**
+     * Retrieves the shared instance.
+     * @return the timer service
+     */
+    public static TimerService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules the given task to be executed once after the given delay.
+     * @param task the task to execute
+     * @param delay the delay in msec
+     * @return handle to cancel the task
+     */
+    public ScheduledFuture<?> schedule(final Runnable task,
+            final long delay) {
+        return executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules the given task to be executed periodically.
+     * @param task the task to execute
+     * @param period the period in msec
+     * @return handle to cancel the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task,
+            final long period) {
+        return executor.scheduleAtFixedRate(task, period, period,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executes the given task outside of the threads that execute the
+     * timeouts, so that it may block without delaying other timeouts.
+     * @param task the task to execute
+     */
+    public void dispatch(final Runnable task) {
+        dispatcher.execute(task);
+    }
+
+    /**
+     * Retrieves the number of scheduled timeouts.
+     * @return number of scheduled timeouts
+     */
+    public int getScheduledTimeouts() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Factory for the daemon threads that execute the timeouts and the
+     * dispatched tasks.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class TimerThreadFactory implements ThreadFactory {
+        /** Number of created threads. */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /** Prefix of the names of the threads. */
+        private final String prefix;
+
+        /**
+         * Constructs a new object.
+         * @param name prefix of the names of the threads
+         */
+        TimerThreadFactory(final String name) {
+            prefix = name;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                    prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,6 +45,9 @@ import org.jvoicexml.implementation.SpokenInput;
 import org.jvoicexml.implementation.SpokenInputListener;
 import org.jvoicexml.implementation.grammar.GrammarEvaluator;
 import org.jvoicexml.implementation.grammar.GrammarParser;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammar;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammars;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.xml.srgs.GrammarType;
 import org.jvoicexml.xml.vxml.BargeInType;
@@ -62,23 +66,17 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
     /** Maximum number of DTMFs in this buffer. */
     private static final int MAX_DTMF_INPUT = 512;
 
-    /** All queued characters. */
-    private volatile List<Character> buffer;
-
     /** Listener for user input events. */
     private final Collection<SpokenInputListener> listener;
 
-    /** Active grammars. */
-    private volatile Collection<GrammarImplementation<?>> activeGrammars;
-
-    /** The thread reading the dtmf sequences. */
-    private Thread inputThread;
-
-    /** Thread to monitor the inter digit timeout. */
-    private InterdigitTimeoutThread interDigitTimeout;
+    /**
+     * Active grammars. Prefix matches are evaluated on the timer thread
+     * while the session thread activates and deactivates grammars.
+     */
+    private final Collection<GrammarImplementation<?>> activeGrammars;
 
-    /** Reference to the current DTMF recognition properties. */
-    private DtmfRecognizerProperties props;
+    /** The collector of the entered digits. */
+    private final DtmfCollector collector;
 
     /** The grammar parser to use. */
     private final Map<GrammarType, GrammarParser<?>> parsers;
@@ -90,10 +88,10 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
      * Constructs a new object.
      */
     public BufferedDtmfInput() {
-        buffer = new java.util.ArrayList<Character>(
-                MAX_DTMF_INPUT);
+        collector = new DtmfCollector(this, MAX_DTMF_INPUT);
         listener = new java.util.ArrayList<SpokenInputListener>();
-        activeGrammars = new java.util.ArrayList<GrammarImplementation<?>>();
+        activeGrammars =
+            new CopyOnWriteArrayList<GrammarImplementation<?>>();
         parsers = new java.util.HashMap<GrammarType, GrammarParser<?>>();
     }
 
@@ -171,50 +169,25 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
      * {@inheritDoc}
      */
     @Override
-    public synchronized void addDtmf(final char dtmf)
-            throws IllegalArgumentException {
-        if ("01234567890#*".indexOf(Character.toString(dtmf)) < 0) {
+    public void addDtmf(final char dtmf) throws IllegalArgumentException {
+        if (!isDtmf(dtmf)) {
             throw new IllegalArgumentException(
                     "'" + dtmf + "' is not one of 0123456789#* ");
         }
-        synchronized (buffer) {
-            buffer.add(dtmf);
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("added char '" + dtmf + "' buffer is now '"
-                        + buffer.toString() + "'");
-            }
-            buffer.notifyAll();
-        }
-        final char termchar = props.getTermchar();
-        if (dtmf == termchar) {
-            return;
-        }
-        if (interDigitTimeout == null) {
-            final long interdigittimeout = props.getInterdigittimeoutAsMsec();
-            interDigitTimeout = new InterdigitTimeoutThread(this,
-                    interdigittimeout, termchar);
-            interDigitTimeout.start();
-        } else {
-            interDigitTimeout.enteredDigit();
-        }
+        collector.addDtmf(dtmf);
     }
 
     /**
-     * Reads the next character. If no character is available this methods waits
-     * for the next character.
+     * Checks if the given character is a valid DTMF.
      * 
-     * @return next character.
-     * @throws InterruptedException
-     *             waiting interrupted.
-     * @since 0.7
+     * @param dtmf
+     *            the character to check
+     * @return <code>true</code> if the character is a valid DTMF
+     * @since 0.7.9
      */
-    char getNextCharacter() throws InterruptedException {
-        synchronized (buffer) {
-            if (buffer.isEmpty()) {
-                buffer.wait();
-            }
-            return buffer.remove(0);
-        }
+    private static boolean isDtmf(final char dtmf) {
+        return ((dtmf >= '0') && (dtmf <= '9')) || (dtmf == '#')
+                || (dtmf == '*');
     }
 
     /**
@@ -226,9 +199,7 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
             final DtmfRecognizerProperties dtmf)
             throws NoresourceError, BadFetchError {
         model = dataModel;
-        props = dtmf;
-        inputThread = new DtmfInputThread(this, props);
-        inputThread.start();
+        collector.start(dtmf);
         LOGGER.info("started DTMF recognition");
     }
 
@@ -262,20 +233,44 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
         return false;
     }
 
+    /**
+     * Checks how the active grammars relate to the given partial input.
+     * The input can only be completed or rejected early if all active
+     * grammars agree.
+     * 
+     * @param utterance
+     *            the digits that have been entered so far
+     * @return state of the partial input
+     * @since 0.7.9
+     */
+    PrefixMatch getPrefixMatch(final String utterance) {
+        boolean complete = false;
+        for (GrammarImplementation<?> grammar : activeGrammars) {
+            if (!(grammar instanceof GrammarEvaluator)) {
+                return PrefixMatch.CONTINUE;
+            }
+            final GrammarEvaluator evaluator = (GrammarEvaluator) grammar;
+            final PrefixMatch match = evaluator.getPrefixMatch(utterance);
+            if (match == PrefixMatch.CONTINUE) {
+                return PrefixMatch.CONTINUE;
+            }
+            complete |= match == PrefixMatch.COMPLETE;
+        }
+        if (complete) {
+            return PrefixMatch.COMPLETE;
+        }
+        if (activeGrammars.isEmpty()) {
+            return PrefixMatch.CONTINUE;
+        }
+        return PrefixMatch.DEAD;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void stopRecognition() {
-        if (inputThread != null) {
-            inputThread.interrupt();
-            inputThread = null;
-        }
-        if (interDigitTimeout != null) {
-            interDigitTimeout.interrupt();
-            interDigitTimeout = null;
-        }
-        props = null;
+        collector.stop();
         LOGGER.info("stopped DTMF recognition");
     }
 
@@ -390,6 +385,11 @@ public class BufferedDtmfInput implements DtmfInput, SpokenInput {
     public GrammarImplementation<?> loadGrammar(final URI uri,
             final GrammarType type)
             throws NoresourceError, IOException, UnsupportedFormatError {
+        final BuiltinGrammar builtin = BuiltinGrammars.getGrammar(uri);
+        if (builtin != null) {
+            LOGGER.info("using builtin grammar '" + builtin + "'");
+            return builtin;
+        }
         final GrammarParser<?> parser = parsers.get(type);
         if (parser == null) {
             throw new UnsupportedFormatError("'" + type + "' is not supported");
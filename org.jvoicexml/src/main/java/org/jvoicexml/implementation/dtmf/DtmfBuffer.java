@@ -0,0 +1,142 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.dtmf;
+
+/**
+ * Bounded first-in-first-out buffer of DTMF digits. The digits are stored
+ * as primitive characters in a ring so that neither adding nor removing a
+ * digit allocates or copies memory.
+ *
+ * <p>
+ * This class is not thread-safe. Callers have to synchronize the access.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DtmfBuffer {
+    /** The buffered digits. */
+    private final char[] digits;
+
+    /** Index of the oldest digit. */
+    private int head;
+
+    /** Number of buffered digits. */
+    private int size;
+
+    /**
+     * Constructs a new object.
+     * @param capacity maximum number of digits to buffer
+     */
+    DtmfBuffer(final int capacity) {
+        digits = new char[capacity];
+    }
+
+    /**
+     * Appends the given digit.
+     * @param dtmf the digit to append
+     * @return <code>true</code> if the digit has been added,
+     *          <code>false</code> if the buffer is full
+     */
+    boolean offer(final char dtmf) {
+        if (size == digits.length) {
+            return false;
+        }
+        int tail = head + size;
+        if (tail >= digits.length) {
+            tail -= digits.length;
+        }
+        digits[tail] = dtmf;
+        ++size;
+        return true;
+    }
+
+    /**
+     * Removes the oldest digit. The buffer must not be empty.
+     * @return the oldest digit
+     */
+    char poll() {
+        if (size == 0) {
+            throw new IllegalStateException("no buffered DTMF");
+        }
+        final char dtmf = digits[head];
+        ++head;
+        if (head == digits.length) {
+            head = 0;
+        }
+        --size;
+        return dtmf;
+    }
+
+    /**
+     * Retrieves the oldest digit without removing it. The buffer must not
+     * be empty.
+     * @return the oldest digit
+     */
+    char peek() {
+        if (size == 0) {
+            throw new IllegalStateException("no buffered DTMF");
+        }
+        return digits[head];
+    }
+
+    /**
+     * Checks if there are no buffered digits.
+     * @return <code>true</code> if there are no buffered digits
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the number of buffered digits.
+     * @return number of buffered digits
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all buffered digits.
+     */
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        final StringBuilder str = new StringBuilder(size);
+        int index = head;
+        for (int i = 0; i < size; i++) {
+            str.append(digits[index]);
+            ++index;
+            if (index == digits.length) {
+                index = 0;
+            }
+        }
+        return str.toString();
+    }
+}
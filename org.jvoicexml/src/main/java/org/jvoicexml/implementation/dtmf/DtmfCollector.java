@@ -0,0 +1,349 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.dtmf;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.DtmfRecognizerProperties;
+import org.jvoicexml.event.plain.implementation.InputStartedEvent;
+import org.jvoicexml.event.plain.implementation.NomatchEvent;
+import org.jvoicexml.event.plain.implementation.RecognitionEvent;
+import org.jvoicexml.event.plain.implementation.SpokenInputEvent;
+import org.jvoicexml.implementation.TimerService;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * Collects the entered DTMF digits into an utterance.
+ *
+ * <p>
+ * The collector does not own a thread. Entered digits are buffered and
+ * processed by a task that is dispatched by the {@link TimerService} which
+ * also monitors the inter-digit timeout. Since the listeners may block, the
+ * task does not run on the timer threads. At most one such task processes
+ * the digits at a time
+ * so that the events are delivered in the order of the digits. The same
+ * collector is reused for all recognitions of its input. Digits that are
+ * entered while no recognition is active are kept for the next
+ * recognition.
+ * </p>
+ *
+ * <p>
+ * Each digit is evaluated against the active grammars. The input is
+ * terminated without waiting for the terminating character or the
+ * inter-digit timeout as soon as it is complete or can not be accepted
+ * anymore. A terminating character that is entered right after such a
+ * complete input is ignored.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DtmfCollector implements Runnable {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(DtmfCollector.class);
+
+    /** The related character input. */
+    private final BufferedDtmfInput input;
+
+    /** Digits that have not been processed yet. */
+    private final DtmfBuffer buffer;
+
+    /** The digits of the current recognition. */
+    private final StringBuilder utterance;
+
+    /** <code>true</code> if a task to process the digits is scheduled. */
+    private final AtomicBoolean scheduled;
+
+    /**
+     * The properties of the current recognition, <code>null</code> if no
+     * recognition is active.
+     */
+    private DtmfRecognizerProperties props;
+
+    /** Timer to monitor the inter digit timeout. */
+    private InterdigitTimer timer;
+
+    /** <code>true</code> if the inter digit timeout expired. */
+    private boolean expired;
+
+    /** <code>true</code> if the input started event has been sent. */
+    private boolean started;
+
+    /** <code>true</code> if the current input can not be accepted. */
+    private boolean rejected;
+
+    /**
+     * <code>true</code> if the last input has been completed before the
+     * terminating character was entered. Only honored until the next
+     * recognition is started.
+     */
+    private boolean completedEarly;
+
+    /** The terminating character of the early completed input. */
+    private char earlyTermchar;
+
+    /**
+     * Constructs a new object.
+     * @param characterInput the related character input
+     * @param capacity maximum number of digits to buffer
+     */
+    DtmfCollector(final BufferedDtmfInput characterInput,
+            final int capacity) {
+        input = characterInput;
+        buffer = new DtmfBuffer(capacity);
+        utterance = new StringBuilder();
+        scheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Starts a new recognition. Digits that have been entered before are
+     * processed immediately.
+     * @param dtmf the DTMF recognition properties
+     */
+    void start(final DtmfRecognizerProperties dtmf) {
+        synchronized (this) {
+            if (timer != null) {
+                timer.cancel();
+            }
+            props = dtmf;
+            completedEarly = false;
+            utterance.setLength(0);
+            expired = false;
+            started = false;
+            rejected = false;
+            final long interdigittimeout = dtmf.getInterdigittimeoutAsMsec();
+            timer = new InterdigitTimer(this, interdigittimeout);
+            if (buffer.isEmpty()) {
+                return;
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Stops the current recognition.
+     */
+    synchronized void stop() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        props = null;
+    }
+
+    /**
+     * Adds the given digit.
+     * @param dtmf the entered digit
+     */
+    void addDtmf(final char dtmf) {
+        synchronized (this) {
+            if (!buffer.offer(dtmf)) {
+                LOGGER.warn("DTMF buffer full. ignoring '" + dtmf + "'");
+                return;
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("added char '" + dtmf + "' buffer is now '"
+                        + buffer + "'");
+            }
+            if (props == null) {
+                if (completedEarly) {
+                    skipTermchar();
+                }
+                return;
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Drops the terminating character that follows an input that has been
+     * completed early. Any other digit is kept for the next recognition.
+     * Callers have to synchronize on this object.
+     */
+    private void skipTermchar() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        completedEarly = false;
+        if (buffer.peek() == earlyTermchar) {
+            buffer.poll();
+        }
+    }
+
+    /**
+     * Notification that the inter digit timeout of the given timer
+     * expired.
+     * @param expiredTimer the timer
+     */
+    void interdigitTimeout(final InterdigitTimer expiredTimer) {
+        synchronized (this) {
+            if (expiredTimer != timer) {
+                return;
+            }
+            expired = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Schedules a task to process the digits unless there is one already.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            final TimerService service = TimerService.getInstance();
+            service.dispatch(this);
+        }
+    }
+
+    /**
+     * Checks if there is anything to process for the current recognition.
+     * @return <code>true</code> if there is something to process
+     */
+    private synchronized boolean hasPending() {
+        return (props != null) && (expired || !buffer.isEmpty());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Processes all pending digits.
+     */
+    @Override
+    public void run() {
+        do {
+            try {
+                process();
+            } catch (RuntimeException e) {
+                LOGGER.warn("error processing DTMF input", e);
+            } finally {
+                scheduled.set(false);
+            }
+        } while (hasPending() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Processes all pending digits of the current recognition and notifies
+     * the listeners.
+     */
+    private void process() {
+        final Collection<SpokenInputEvent> events =
+                new java.util.ArrayList<SpokenInputEvent>();
+        String result = null;
+        boolean accepted = false;
+        synchronized (this) {
+            if (props == null) {
+                return;
+            }
+            final char termchar = props.getTermchar();
+            boolean terminated = false;
+            while (!terminated && !buffer.isEmpty()) {
+                final char dtmf = buffer.poll();
+                if (!started) {
+                    final SpokenInputEvent startedEvent =
+                            new InputStartedEvent(input, null,
+                                    ModeType.DTMF);
+                    events.add(startedEvent);
+                    started = true;
+                }
+                if (dtmf == termchar) {
+                    terminated = true;
+                } else {
+                    utterance.append(dtmf);
+                    expired = false;
+                    terminated = evaluate();
+                }
+            }
+            terminated |= expired;
+            if (terminated) {
+                result = utterance.toString();
+                accepted = !rejected;
+                rejected = false;
+                timer.cancel();
+                timer = null;
+                props = null;
+                if (completedEarly) {
+                    earlyTermchar = termchar;
+                    skipTermchar();
+                }
+            }
+        }
+        for (SpokenInputEvent event : events) {
+            input.fireInputEvent(event);
+        }
+        if (result != null) {
+            notifyInput(result, accepted);
+        }
+    }
+
+    /**
+     * Evaluates the digits that have been entered so far against the active
+     * grammars. The input is terminated as soon as it is complete or can
+     * not be accepted. Otherwise, the inter-digit timeout is restarted.
+     * @return <code>true</code> if the input is terminated
+     */
+    private boolean evaluate() {
+        final String partial = utterance.toString();
+        final PrefixMatch match = input.getPrefixMatch(partial);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("partial DTMF input '" + partial + "' is " + match);
+        }
+        if (match == PrefixMatch.DEAD) {
+            rejected = true;
+            return true;
+        }
+        if (match == PrefixMatch.COMPLETE) {
+            final long termtimeout = props.getTermtimeoutAsMsec();
+            if (termtimeout <= 0) {
+                completedEarly = true;
+                return true;
+            }
+            timer.start(termtimeout);
+            return false;
+        }
+        timer.enteredDigit();
+        return false;
+    }
+
+    /**
+     * Notifies all listeners about the received input.
+     * @param dtmf the received input
+     * @param acceptable <code>false</code> if the input has been rejected
+     *          already
+     */
+    private void notifyInput(final String dtmf, final boolean acceptable) {
+        final DtmfInputResult result = new DtmfInputResult(dtmf);
+        final boolean accepted = acceptable && input.isAccepted(result);
+        result.setAccepted(accepted);
+        final SpokenInputEvent event;
+        if (accepted) {
+            event = new RecognitionEvent(input, null, result);
+        } else {
+            event = new NomatchEvent(input, null, result);
+        }
+        input.fireInputEvent(event);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2010-2017 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+package org.jvoicexml.implementation.dtmf;
+
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.implementation.TimerService;
+
+/**
+ * Waits after the first digit has been entered for a certain time until the
+ * next digit has been entered. If the time passes without another digit, the
+ * collector is notified to terminate the input.
+ * <p>
+ * Each scheduling of the timeout carries a generation number. A timeout
+ * that has already been queued for execution when the timer is rescheduled
+ * or canceled is detected as stale by its outdated generation and ignored.
+ * </p>
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.4
+ */
+final class InterdigitTimer {
+    /** Logger for this class. */
+    private static final Logger LOGGER =
+            LogManager.getLogger(InterdigitTimer.class);
+
+    /** The related collector. */
+    private final DtmfCollector collector;
+
+    /**
+     * The inter-digit timeout value to use when recognizing DTMF input.
+     */
+    private final long interdigittimeout;
+
+    /** The scheduled timeout, <code>null</code> if not scheduled. */
+    private ScheduledFuture<?> future;
+
+    /** Generation of the current scheduling. */
+    private long generation;
+
+    /**
+     * Constructs a new object.
+     * @param dtmfCollector the related collector
+     * @param timeout inter-digit timeout value to use when recognizing DTMF
+     *          input
+     */
+    InterdigitTimer(final DtmfCollector dtmfCollector, final long timeout) {
+        collector = dtmfCollector;
+        interdigittimeout = timeout;
+    }
+
+    /**
+     * Starts waiting for the next digit.
+     * @since 0.7.9
+     */
+    public void start() {
+        start(interdigittimeout);
+    }
+
+    /**
+     * Starts waiting for the given time instead of the inter-digit timeout,
+     * e.g., for the terminating character after a complete input.
+     * @param timeout the time to wait in msec
+     * @since 0.7.9
+     */
+    public synchronized void start(final long timeout) {
+        if (future != null) {
+            future.cancel(false);
+        }
+        final long current = ++generation;
+        final TimerService service = TimerService.getInstance();
+        future = service.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expired(current);
+            }
+        }, timeout);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("started interdigit timeout of " + timeout
+                    + " msecs");
+        }
+    }
+
+    /**
+     * The user has entered another digit.
+     */
+    public void enteredDigit() {
+        start();
+    }
+
+    /**
+     * Stops waiting for the next digit.
+     * @since 0.7.9
+     */
+    public synchronized void cancel() {
+        ++generation;
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * The timeout of the given generation expired.
+     * @param expiredGeneration the generation of the expired timeout
+     */
+    private void expired(final long expiredGeneration) {
+        synchronized (this) {
+            if (expiredGeneration != generation || future == null) {
+                return;
+            }
+            future = null;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("interdigit timeout expired");
+        }
+        collector.interdigitTimeout(this);
+    }
+}
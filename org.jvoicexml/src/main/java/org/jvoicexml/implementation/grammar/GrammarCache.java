@@ -26,7 +26,8 @@
 package org.jvoicexml.implementation.grammar;
 
 import java.util.Collection;
-import java.util.Set;
+import java.util.Iterator;
+import java.util.Map;
 
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.implementation.GrammarImplementation;
@@ -34,19 +35,60 @@ import org.jvoicexml.implementation.GrammarImplementation;
 /**
  * The grammars that have been processed by the grammar processor.
  *
+ * <p>
+ * Grammars are indexed by the digest of their content, their URI and the
+ * loader that processed them, so that a lookup does not need to compare
+ * the contents of all known grammars. A cache can be shared among all
+ * sessions. In this case, each session acquires the grammars it uses and
+ * releases them when it is done. Grammars that are no longer referenced are
+ * kept for later sessions until the maximum number of unreferenced grammars
+ * is exceeded.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  * @version $Revision$
  * @since 0.7.2
  */
 public final class GrammarCache {
-    /** Set of active grammars. */
-    private final Set<LoadedGrammar> grammars;
+    /** Default maximum number of unreferenced grammars to keep. */
+    public static final int DEFAULT_MAX_UNREFERENCED = 100;
+
+    /** Processed grammars by their key. */
+    private final Map<GrammarKey, CachedGrammar> grammars;
+
+    /** Keys of the processed grammars. */
+    private final Map<LoadedGrammar, GrammarKey> keys;
+
+    /** Keys of the unreferenced grammars, eldest first. */
+    private final Map<GrammarKey, CachedGrammar> unreferenced;
+
+    /** Maximum number of unreferenced grammars to keep. */
+    private final int maxUnreferenced;
 
     /**
      * Constructs a new object.
      */
     public GrammarCache() {
-        grammars = new java.util.HashSet<LoadedGrammar>();
+        this(DEFAULT_MAX_UNREFERENCED);
+    }
+
+    /**
+     * Constructs a new object.
+     * 
+     * @param max
+     *            maximum number of unreferenced grammars to keep
+     * @since 0.7.9
+     */
+    public GrammarCache(final int max) {
+        grammars = new java.util.HashMap<GrammarKey, CachedGrammar>();
+        keys = new java.util.IdentityHashMap<LoadedGrammar, GrammarKey>();
+        unreferenced =
+                new java.util.LinkedHashMap<GrammarKey, CachedGrammar>();
+        maxUnreferenced = max;
     }
 
     /**
@@ -54,7 +96,7 @@ public final class GrammarCache {
      * 
      * @return number of active grammars
      */
-    public int size() {
+    public synchronized int size() {
         return grammars.size();
     }
 
@@ -65,7 +107,150 @@ public final class GrammarCache {
      *            the grammar to add
      */
     public void add(final LoadedGrammar grammar) {
-        grammars.add(grammar);
+        add(new GrammarKey(null, grammar.getDocument()), grammar);
+    }
+
+    /**
+     * Adds the given grammar that has been processed by the given loader
+     * and acquires it. If an equal grammar of this loader has been added
+     * in the meantime, this one is acquired and returned instead.
+     * 
+     * @param loader
+     *            the loader that processed the grammar, e.g. the spoken
+     *            input
+     * @param grammar
+     *            the grammar to add
+     * @return the acquired grammar
+     * @since 0.7.9
+     */
+    public LoadedGrammar add(final Object loader,
+            final LoadedGrammar grammar) {
+        final GrammarKey key = new GrammarKey(loader, grammar.getDocument());
+        return add(key, grammar);
+    }
+
+    /**
+     * Adds the given grammar with the given key and acquires it. If a
+     * grammar with an equal key has been added in the meantime, this one is
+     * acquired and returned instead.
+     * 
+     * @param key
+     *            key of the grammar
+     * @param grammar
+     *            the grammar to add
+     * @return the acquired grammar
+     * @since 0.7.9
+     */
+    public synchronized LoadedGrammar add(final GrammarKey key,
+            final LoadedGrammar grammar) {
+        CachedGrammar cached = grammars.get(key);
+        if (cached == null) {
+            cached = new CachedGrammar(grammar);
+            grammars.put(key, cached);
+            keys.put(grammar, key);
+        }
+        acquire(key, cached);
+        return cached.getGrammar();
+    }
+
+    /**
+     * Acquires the grammar for the given document that has been processed
+     * by the given loader.
+     * 
+     * @param loader
+     *            the loader that processed the grammar, e.g. the spoken
+     *            input
+     * @param document
+     *            the grammar document to look for
+     * @return the acquired grammar, <code>null</code> if there is no such
+     *         grammar
+     * @since 0.7.9
+     */
+    public LoadedGrammar acquire(final Object loader,
+            final GrammarDocument document) {
+        final GrammarKey key = new GrammarKey(loader, document);
+        return acquire(key);
+    }
+
+    /**
+     * Acquires the grammar with the given key.
+     * 
+     * @param key
+     *            key of the grammar to look for
+     * @return the acquired grammar, <code>null</code> if there is no such
+     *         grammar
+     * @since 0.7.9
+     */
+    public synchronized LoadedGrammar acquire(final GrammarKey key) {
+        final CachedGrammar cached = grammars.get(key);
+        if (cached == null) {
+            return null;
+        }
+        acquire(key, cached);
+        return cached.getGrammar();
+    }
+
+    /**
+     * Increments the reference count of the given grammar.
+     * 
+     * @param key
+     *            key of the grammar
+     * @param cached
+     *            the grammar
+     */
+    private void acquire(final GrammarKey key, final CachedGrammar cached) {
+        if (cached.acquire() == 1) {
+            unreferenced.remove(key);
+        }
+    }
+
+    /**
+     * Releases the given grammar that has been acquired before.
+     * 
+     * @param grammar
+     *            the grammar to release
+     * @since 0.7.9
+     */
+    public synchronized void release(final LoadedGrammar grammar) {
+        final GrammarKey key = keys.get(grammar);
+        if (key == null) {
+            return;
+        }
+        final CachedGrammar cached = grammars.get(key);
+        if (cached.release() > 0) {
+            return;
+        }
+        unreferenced.put(key, cached);
+        final Iterator<Map.Entry<GrammarKey, CachedGrammar>> iterator =
+                unreferenced.entrySet().iterator();
+        while (unreferenced.size() > maxUnreferenced) {
+            final Map.Entry<GrammarKey, CachedGrammar> eldest =
+                    iterator.next();
+            iterator.remove();
+            grammars.remove(eldest.getKey());
+            keys.remove(eldest.getValue().getGrammar());
+        }
+    }
+
+    /**
+     * Retrieves the number of references to the given grammar.
+     * 
+     * @param loader
+     *            the loader that processed the grammar
+     * @param document
+     *            the grammar document
+     * @return number of references, <code>-1</code> if the grammar is not
+     *         known
+     * @since 0.7.9
+     */
+    public synchronized int getReferenceCount(final Object loader,
+            final GrammarDocument document) {
+        final CachedGrammar cached =
+                grammars.get(new GrammarKey(loader, document));
+        if (cached == null) {
+            return -1;
+        }
+        return cached.getReferences();
     }
 
     /**
@@ -73,10 +258,12 @@ public final class GrammarCache {
      * 
      * @return set of active grammar implementations.
      */
-    public Collection<GrammarImplementation<?>> getImplementations() {
+    public synchronized Collection<GrammarImplementation<?>>
+        getImplementations() {
         final Collection<GrammarImplementation<?>> col =
                 new java.util.ArrayList<GrammarImplementation<?>>();
-        for (LoadedGrammar grammar : grammars) {
+        for (CachedGrammar cached : grammars.values()) {
+            final LoadedGrammar grammar = cached.getGrammar();
             final GrammarImplementation<?> impl = grammar.getImplementation();
             col.add(impl);
         }
@@ -91,14 +278,13 @@ public final class GrammarCache {
      * @return the processed grammar, <code>null</code> if there is no processed
      *         grammar.
      */
-    public LoadedGrammar get(final GrammarDocument document) {
-        for (LoadedGrammar grammar : grammars) {
-            final GrammarDocument current = grammar.getDocument();
-            if (current.equals(document)) {
-                return grammar;
-            }
+    public synchronized LoadedGrammar get(final GrammarDocument document) {
+        final CachedGrammar cached =
+                grammars.get(new GrammarKey(null, document));
+        if (cached == null) {
+            return null;
         }
-        return null;
+        return cached.getGrammar();
     }
 
     /**
@@ -127,13 +313,7 @@ public final class GrammarCache {
      *         grammar document
      */
     public boolean contains(final GrammarDocument document) {
-        for (LoadedGrammar grammar : grammars) {
-            final GrammarDocument current = grammar.getDocument();
-            if (current.equals(document)) {
-                return true;
-            }
-        }
-        return false;
+        return get(document) != null;
     }
 
     /**
@@ -145,9 +325,10 @@ public final class GrammarCache {
      * @return <code>true</code> if the active grammar set contains the given
      *         grammar implementation
      */
-    public boolean contains(final GrammarImplementation<?> implementation) {
-        for (LoadedGrammar grammar : grammars) {
-            final GrammarImplementation<?> current = grammar
+    public synchronized boolean contains(
+            final GrammarImplementation<?> implementation) {
+        for (CachedGrammar cached : grammars.values()) {
+            final GrammarImplementation<?> current = cached.getGrammar()
                     .getImplementation();
             if (current.equals(implementation)) {
                 return true;
@@ -155,4 +336,61 @@ public final class GrammarCache {
         }
         return false;
     }
+
+    /**
+     * A processed grammar with its reference count.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class CachedGrammar {
+        /** The processed grammar. */
+        private final LoadedGrammar grammar;
+
+        /** Number of references to the grammar. */
+        private int references;
+
+        /**
+         * Constructs a new object.
+         * @param loaded the processed grammar
+         */
+        CachedGrammar(final LoadedGrammar loaded) {
+            grammar = loaded;
+        }
+
+        /**
+         * Retrieves the processed grammar.
+         * @return the processed grammar
+         */
+        LoadedGrammar getGrammar() {
+            return grammar;
+        }
+
+        /**
+         * Increments the number of references.
+         * @return new number of references
+         */
+        int acquire() {
+            return ++references;
+        }
+
+        /**
+         * Decrements the number of references.
+         * @return new number of references
+         */
+        int release() {
+            if (references > 0) {
+                --references;
+            }
+            return references;
+        }
+
+        /**
+         * Retrieves the number of references.
+         * @return number of references
+         */
+        int getReferences() {
+            return references;
+        }
+    }
 }
@@ -55,4 +55,16 @@ public interface GrammarEvaluator {
      *         the utterance is not valid
      */
     Object getSemanticInterpretation(final DataModel model, final String utterance);
+
+    /**
+     * Checks how the grammar relates to the given partial DTMF input. This
+     * method is called with each entered digit to terminate the input as
+     * soon as it is unambiguous. Evaluators that can not tell should
+     * return {@link PrefixMatch#CONTINUE} so that the input is terminated
+     * by the terminating character or a timeout.
+     * @param utterance the digits that have been entered so far
+     * @return state of the partial input
+     * @since 0.7.9
+     */
+    PrefixMatch getPrefixMatch(final String utterance);
 }
@@ -0,0 +1,124 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.jvoicexml.GrammarDocument;
+
+/**
+ * Key of a processed grammar. Grammars are identified by the loader that
+ * processed them, their URI and the digest of their content.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class GrammarKey {
+    /** Algorithm to compute the digest of the grammar contents. */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** The loader that processed the grammar. */
+    private final Object loader;
+
+    /** The URI of the grammar. */
+    private final URI uri;
+
+    /** The digest of the grammar contents. */
+    private final byte[] digest;
+
+    /** The precomputed hash code. */
+    private final int hash;
+
+    /**
+     * Constructs a new object.
+     * @param processor the loader that processed the grammar
+     * @param document the grammar document
+     */
+    public GrammarKey(final Object processor, final GrammarDocument document) {
+        loader = processor;
+        uri = document.getURI();
+        digest = getDigest(document);
+        final int prime = 31;
+        int result = System.identityHashCode(loader);
+        result = prime * result + ((uri == null) ? 0 : uri.hashCode());
+        result = prime * result + Arrays.hashCode(digest);
+        hash = result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GrammarKey)) {
+            return false;
+        }
+        final GrammarKey other = (GrammarKey) obj;
+        if (loader != other.loader) {
+            return false;
+        }
+        if (uri == null) {
+            if (other.uri != null) {
+                return false;
+            }
+        } else if (!uri.equals(other.uri)) {
+            return false;
+        }
+        return Arrays.equals(digest, other.digest);
+    }
+
+    /**
+     * Computes the digest of the contents of the given grammar document.
+     * 
+     * @param document
+     *            the grammar document
+     * @return digest of the contents
+     * @since 0.7.9
+     */
+    static byte[] getDigest(final GrammarDocument document) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        final byte[] buffer = document.getBuffer();
+        if (buffer != null) {
+            digest.update(buffer);
+        }
+        return digest.digest();
+    }
+}
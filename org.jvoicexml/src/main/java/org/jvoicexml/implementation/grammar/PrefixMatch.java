@@ -0,0 +1,49 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar;
+
+/**
+ * State of a partial DTMF input with regard to a grammar, as determined by
+ * {@link GrammarEvaluator#getPrefixMatch(String)}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public enum PrefixMatch {
+    /**
+     * The input is accepted by the grammar and the grammar can not accept
+     * any longer input. The input can be completed.
+     */
+    COMPLETE,
+
+    /**
+     * The input may be extended to an input that is accepted by the
+     * grammar. The input may already be accepted. More input must be
+     * awaited.
+     */
+    CONTINUE,
+
+    /**
+     * Neither the input nor any extension of it is accepted by the grammar.
+     */
+    DEAD
+}
@@ -0,0 +1,111 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin type <code>boolean</code>. The semantic interpretation is
+ * either {@link Boolean#TRUE} or {@link Boolean#FALSE}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class BooleanGrammar extends BuiltinGrammar {
+    /** The input for <em>yes</em>. */
+    private final String yes;
+
+    /** The input for <em>no</em>. */
+    private final String no;
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     * @param yesInput the input for <em>yes</em>
+     * @param noInput the input for <em>no</em>
+     */
+    BooleanGrammar(final URI uri, final ModeType mode, final String yesInput,
+            final String noInput) {
+        super(uri, mode);
+        yes = yesInput;
+        no = noInput;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        final String input;
+        if (isDtmf()) {
+            input = utterance;
+        } else {
+            input = utterance.trim();
+        }
+        if (input.equalsIgnoreCase(yes)) {
+            return Boolean.TRUE;
+        }
+        if (input.equalsIgnoreCase(no)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        final PrefixMatch yesMatch = match(yes, utterance);
+        final PrefixMatch noMatch = match(no, utterance);
+        if ((yesMatch == PrefixMatch.CONTINUE)
+                || (noMatch == PrefixMatch.CONTINUE)) {
+            return PrefixMatch.CONTINUE;
+        }
+        if ((yesMatch == PrefixMatch.COMPLETE)
+                || (noMatch == PrefixMatch.COMPLETE)) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.DEAD;
+    }
+
+    /**
+     * Checks how the given partial input relates to the given option.
+     * @param option the option
+     * @param utterance the partial input
+     * @return state of the partial input with regard to the option
+     */
+    private static PrefixMatch match(final String option,
+            final String utterance) {
+        if (!option.startsWith(utterance)) {
+            return PrefixMatch.DEAD;
+        }
+        if (option.length() == utterance.length()) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
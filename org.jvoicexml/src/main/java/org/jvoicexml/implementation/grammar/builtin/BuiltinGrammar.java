@@ -0,0 +1,188 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.GrammarImplementation;
+import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.interpreter.datamodel.DataModel;
+import org.jvoicexml.xml.srgs.GrammarType;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * A builtin grammar that evaluates the input directly rather than by means
+ * of a generated SRGS document.
+ *
+ * <p>
+ * Implementations scan the utterance once, character by character. They
+ * do not keep any state between calls and can be shared by all sessions.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public abstract class BuiltinGrammar
+        implements GrammarImplementation<URI>, GrammarEvaluator {
+    /** The builtin URI of this grammar. */
+    private final URI uri;
+
+    /** The mode of this grammar. */
+    private final ModeType mode;
+
+    /**
+     * Constructs a new object.
+     * @param builtinUri the builtin URI of this grammar
+     * @param modeType the mode of this grammar
+     */
+    protected BuiltinGrammar(final URI builtinUri, final ModeType modeType) {
+        uri = builtinUri;
+        mode = modeType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final URI getURI() {
+        return uri;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Builtin grammars replace generated SRGS XML grammars.
+     * </p>
+     */
+    @Override
+    public final GrammarType getMediaType() {
+        return GrammarType.SRGS_XML;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final ModeType getModeType() {
+        return mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The grammar document of a builtin grammar is its builtin URI.
+     * </p>
+     */
+    @Override
+    public final URI getGrammarDocument() {
+        return uri;
+    }
+
+    /**
+     * Checks if this grammar accepts DTMF input.
+     * @return <code>true</code> if this is a DTMF grammar
+     */
+    protected final boolean isDtmf() {
+        return mode == ModeType.DTMF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Object getSemanticInterpretation(final DataModel model,
+            final String utterance) {
+        if (utterance == null) {
+            return null;
+        }
+        return interpret(utterance);
+    }
+
+    /**
+     * Processes the given utterance into the semantic interpretation as
+     * defined for the builtin type.
+     * @param utterance the current utterance
+     * @return the semantic interpretation, <code>null</code> if the
+     *          utterance is not accepted
+     */
+    protected abstract Object interpret(final String utterance);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public abstract PrefixMatch getPrefixMatch(final String utterance);
+
+    /**
+     * Checks if the given character is a decimal digit.
+     * @param ch the character to check
+     * @return <code>true</code> if the character is a digit
+     */
+    protected static boolean isDigit(final char ch) {
+        return (ch >= '0') && (ch <= '9');
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean equals(final GrammarImplementation<URI> other) {
+        if (other == null) {
+            return false;
+        }
+        return uri.equals(other.getGrammarDocument());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BuiltinGrammar)) {
+            return false;
+        }
+        final BuiltinGrammar other = (BuiltinGrammar) obj;
+        return uri.equals(other.uri);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() {
+        return uri.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final String toString() {
+        return uri.toString();
+    }
+}
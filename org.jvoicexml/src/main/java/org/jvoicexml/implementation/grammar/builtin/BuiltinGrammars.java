@@ -0,0 +1,403 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.documentserver.jetty.BuiltinGrammarHandler;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * Factory for the {@link BuiltinGrammar}s.
+ *
+ * <p>
+ * Builtin grammars are referenced by URIs of the form
+ * <pre>builtin:&lt;mode&gt;/&lt;type&gt;[?parameters]</pre>
+ * or by the URIs that a local document server resolves them to. These
+ * servers register their base URI via {@link #addServerUri(URI)}. Grammars are
+ * stateless and memoized per type, mode and parameters so that all
+ * sessions share the same instance, e.g. for
+ * <code>builtin:dtmf/digits?length=4</code>.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class BuiltinGrammars {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(BuiltinGrammars.class);
+
+    /** Scheme of builtin grammar URIs. */
+    private static final String SCHEME = "builtin";
+
+    /** Maximal number of memoized grammars. */
+    private static final int MAX_GRAMMARS = 256;
+
+    /** The memoized grammars by their normalized URI. */
+    private static final ConcurrentMap<String, BuiltinGrammar> GRAMMARS =
+            new ConcurrentHashMap<String, BuiltinGrammar>();
+
+    /** Base URIs of the local document servers serving builtin grammars. */
+    private static final Collection<URI> SERVERS =
+            new java.util.concurrent.CopyOnWriteArraySet<URI>();
+
+    /**
+     * Do not create from outside.
+     */
+    private BuiltinGrammars() {
+    }
+
+    /**
+     * Registers the base URI of a local document server that resolves
+     * builtin grammars. URIs with the same scheme, host and port that
+     * point to its builtin grammar handler reference builtin grammars.
+     * @param uri base URI of the document server
+     */
+    public static void addServerUri(final URI uri) {
+        SERVERS.add(uri);
+    }
+
+    /**
+     * Removes the base URI of a local document server that has been
+     * registered via {@link #addServerUri(URI)}.
+     * @param uri base URI of the document server
+     */
+    public static void removeServerUri(final URI uri) {
+        SERVERS.remove(uri);
+    }
+
+    /**
+     * Retrieves the builtin grammar for the given URI.
+     * @param uri URI of the grammar
+     * @return the builtin grammar, <code>null</code> if the URI does not
+     *          reference a supported builtin grammar
+     */
+    public static BuiltinGrammar getGrammar(final URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        final String builtin = getBuiltinPart(uri);
+        if (builtin == null) {
+            return null;
+        }
+        final BuiltinGrammar known = GRAMMARS.get(builtin);
+        if (known != null) {
+            return known;
+        }
+        final String key;
+        final BuiltinGrammar grammar;
+        try {
+            key = normalize(builtin);
+            if (key == null) {
+                return null;
+            }
+            final BuiltinGrammar memoized = GRAMMARS.get(key);
+            if (memoized != null) {
+                return memoized;
+            }
+            grammar = createGrammar(key);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("invalid builtin grammar '" + uri + "': "
+                    + e.getMessage());
+            return null;
+        } catch (URISyntaxException e) {
+            LOGGER.warn("invalid builtin grammar '" + uri + "': "
+                    + e.getMessage());
+            return null;
+        }
+        if (grammar == null) {
+            return null;
+        }
+        if (GRAMMARS.size() >= MAX_GRAMMARS) {
+            return grammar;
+        }
+        final BuiltinGrammar previous = GRAMMARS.putIfAbsent(key, grammar);
+        if (previous != null) {
+            return previous;
+        }
+        if (!key.equals(builtin)) {
+            GRAMMARS.putIfAbsent(builtin, grammar);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("created builtin grammar '" + grammar + "'");
+        }
+        return grammar;
+    }
+
+    /**
+     * Extracts the part after the scheme of a builtin URI, i.e.
+     * <code>&lt;mode&gt;/&lt;type&gt;[?parameters]</code>.
+     * @param uri the URI
+     * @return the builtin part, <code>null</code> if the URI does not
+     *          reference a builtin grammar
+     */
+    private static String getBuiltinPart(final URI uri) {
+        final String scheme = uri.getScheme();
+        if (SCHEME.equalsIgnoreCase(scheme)) {
+            return uri.getSchemeSpecificPart();
+        }
+        if (uri.isOpaque() || !isServerUri(uri)) {
+            return null;
+        }
+        final String path = uri.getPath();
+        final String context = BuiltinGrammarHandler.CONTEXT_PATH + "/";
+        if ((path == null) || !path.startsWith(context)) {
+            return null;
+        }
+        final String builtin = path.substring(context.length());
+        final String query = uri.getQuery();
+        if (query == null) {
+            return builtin;
+        }
+        return builtin + "?" + query;
+    }
+
+    /**
+     * Checks if the given URI points to a registered local document server.
+     * @param uri the URI
+     * @return <code>true</code> if scheme, host and port match those of a
+     *          registered document server
+     */
+    private static boolean isServerUri(final URI uri) {
+        final String scheme = uri.getScheme();
+        final String host = uri.getHost();
+        if ((scheme == null) || (host == null)) {
+            return false;
+        }
+        for (URI server : SERVERS) {
+            if (scheme.equalsIgnoreCase(server.getScheme())
+                    && host.equalsIgnoreCase(server.getHost())
+                    && (uri.getPort() == server.getPort())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes the given builtin part so that equal grammars have an
+     * equal representation.
+     * @param builtin the builtin part of the URI
+     * @return normalized builtin part, <code>null</code> if this is not a
+     *          valid builtin grammar
+     */
+    private static String normalize(final String builtin) {
+        final int pos = builtin.indexOf('?');
+        final String path;
+        final String query;
+        if (pos < 0) {
+            path = builtin;
+            query = null;
+        } else {
+            path = builtin.substring(0, pos);
+            query = builtin.substring(pos + 1);
+        }
+        final String[] segments = path.split("/");
+        if (segments.length != 2) {
+            return null;
+        }
+        final ModeType mode = getMode(segments[0]);
+        final StringBuilder str = new StringBuilder();
+        str.append(mode.getMode());
+        str.append('/');
+        str.append(segments[1].toLowerCase());
+        final Map<String, String> parameters = getParameters(query);
+        if (!parameters.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, String> entry : parameters.entrySet()) {
+                str.append(separator);
+                str.append(entry.getKey());
+                str.append('=');
+                str.append(entry.getValue());
+                separator = ';';
+            }
+        }
+        return str.toString();
+    }
+
+    /**
+     * Determines the mode from the given mode specifier.
+     * @param specifier the mode specifier of the URI
+     * @return the mode
+     * @exception IllegalArgumentException
+     *            if the mode is unknown
+     */
+    private static ModeType getMode(final String specifier) {
+        final String str = specifier.toUpperCase();
+        // Voice based grammars start with grammar rather than with voice.
+        if (str.equals("GRAMMAR")) {
+            return ModeType.VOICE;
+        }
+        return ModeType.valueOf(str);
+    }
+
+    /**
+     * Parses the given parameters.
+     * @param query the parameters, may be <code>null</code>
+     * @return parameters sorted by their name
+     * @exception IllegalArgumentException
+     *            if the parameters can not be parsed
+     */
+    private static Map<String, String> getParameters(final String query) {
+        final Map<String, String> parameters =
+                new java.util.TreeMap<String, String>();
+        if ((query == null) || query.isEmpty()) {
+            return parameters;
+        }
+        final String[] pairs = query.split(";");
+        for (String pair : pairs) {
+            final String[] current = pair.split("=");
+            if (current.length != 2) {
+                throw new IllegalArgumentException("error parsing the "
+                        + "parameter '" + pair + "'");
+            }
+            parameters.put(current[0], current[1]);
+        }
+        return parameters;
+    }
+
+    /**
+     * Creates the grammar for the given normalized builtin part.
+     * @param key the normalized builtin part of the URI
+     * @return created grammar, <code>null</code> if the type is not
+     *          supported
+     * @exception URISyntaxException
+     *            if the builtin URI can not be created
+     * @exception IllegalArgumentException
+     *            if the parameters are invalid
+     */
+    private static BuiltinGrammar createGrammar(final String key)
+            throws URISyntaxException {
+        final URI uri = new URI(SCHEME, key, null);
+        final int pos = key.indexOf('?');
+        final String path;
+        final Map<String, String> parameters;
+        if (pos < 0) {
+            path = key;
+            parameters = getParameters(null);
+        } else {
+            path = key.substring(0, pos);
+            parameters = getParameters(key.substring(pos + 1));
+        }
+        final String[] segments = path.split("/");
+        final ModeType mode = getMode(segments[0]);
+        final String type = segments[1];
+        if (type.equals("digits")) {
+            return createDigits(uri, mode, parameters);
+        } else if (type.equals("boolean")) {
+            return createBoolean(uri, mode, parameters);
+        } else if (type.equals("number")) {
+            return new DecimalGrammar(uri, mode, false);
+        } else if (type.equals("currency")) {
+            return new DecimalGrammar(uri, mode, true);
+        } else if (type.equals("date")) {
+            return new DateGrammar(uri, mode);
+        } else if (type.equals("time")) {
+            return new TimeGrammar(uri, mode);
+        } else if (type.equals("phone")) {
+            return new PhoneGrammar(uri, mode);
+        }
+        return null;
+    }
+
+    /**
+     * Creates a grammar for the type <code>digits</code>.
+     * @param uri the builtin URI
+     * @param mode the mode
+     * @param parameters the parameters
+     * @return created grammar
+     * @exception IllegalArgumentException
+     *            if the parameters are invalid
+     */
+    private static BuiltinGrammar createDigits(final URI uri,
+            final ModeType mode, final Map<String, String> parameters) {
+        final int length = getIntParameter(parameters, "length", -1);
+        final int min;
+        final int max;
+        if (length < 0) {
+            min = getIntParameter(parameters, "minlength", 1);
+            max = getIntParameter(parameters, "maxlength", -1);
+        } else {
+            min = length;
+            max = length;
+        }
+        if ((min < 0) || ((max >= 0) && (max < min))) {
+            throw new IllegalArgumentException("invalid length " + min
+                    + " to " + max);
+        }
+        return new DigitsGrammar(uri, mode, min, max);
+    }
+
+    /**
+     * Creates a grammar for the type <code>boolean</code>.
+     * @param uri the builtin URI
+     * @param mode the mode
+     * @param parameters the parameters
+     * @return created grammar
+     */
+    private static BuiltinGrammar createBoolean(final URI uri,
+            final ModeType mode, final Map<String, String> parameters) {
+        if (mode == ModeType.VOICE) {
+            return new BooleanGrammar(uri, mode, "yes", "no");
+        }
+        String yes = parameters.get("y");
+        if (yes == null) {
+            yes = "1";
+        }
+        String no = parameters.get("n");
+        if (no == null) {
+            no = "2";
+        }
+        return new BooleanGrammar(uri, mode, yes, no);
+    }
+
+    /**
+     * Converts the parameter with the given name to an integer.
+     * @param parameters all parameters
+     * @param name name of the parameter
+     * @param defValue default value
+     * @return value of the parameter, <code>defValue</code> if there is no
+     *         value
+     * @exception NumberFormatException
+     *            if the value is not a number
+     */
+    private static int getIntParameter(final Map<String, String> parameters,
+            final String name, final int defValue) {
+        final String value = parameters.get(name);
+        if (value == null) {
+            return defValue;
+        }
+        return Integer.parseInt(value);
+    }
+}
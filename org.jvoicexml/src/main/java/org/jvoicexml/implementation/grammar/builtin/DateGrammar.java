@@ -0,0 +1,178 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin type <code>date</code>. The input is a date in the form
+ * <code>yyyymmdd</code> which is also the semantic interpretation. Spoken
+ * dates may be separated by blanks, <code>-</code> or <code>/</code>.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DateGrammar extends BuiltinGrammar {
+    /** Number of digits of a date. */
+    private static final int LENGTH = 8;
+
+    /** Position of the first digit of the month. */
+    private static final int MONTH = 4;
+
+    /** Position of the first digit of the day. */
+    private static final int DAY = 6;
+
+    /** Number of months. */
+    private static final int MONTHS = 12;
+
+    /** Number of days of the months in a leap year. */
+    private static final int[] DAYS = {
+        31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31
+    };
+
+    /** Month of February. */
+    private static final int FEBRUARY = 2;
+
+    /** Number of days of February in a common year. */
+    private static final int FEBRUARY_DAYS = 28;
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     */
+    DateGrammar(final URI uri, final ModeType mode) {
+        super(uri, mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        final StringBuilder date = new StringBuilder(LENGTH);
+        for (int i = 0; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (isDigit(ch)) {
+                date.append(ch);
+            } else if (isDtmf() || !isSeparator(ch)) {
+                return null;
+            }
+        }
+        if ((date.length() != LENGTH) || !isValid(date)) {
+            return null;
+        }
+        return date.toString();
+    }
+
+    /**
+     * Checks if the given character may separate the parts of a spoken
+     * date.
+     * @param ch the character to check
+     * @return <code>true</code> if the character is a separator
+     */
+    private static boolean isSeparator(final char ch) {
+        return Character.isWhitespace(ch) || (ch == '-') || (ch == '/');
+    }
+
+    /**
+     * Checks if the given digits are the beginning of a valid date.
+     * @param digits the digits
+     * @return <code>true</code> if the digits may be continued to a valid
+     *          date
+     */
+    private static boolean isValid(final CharSequence digits) {
+        final int length = digits.length();
+        if (length > LENGTH) {
+            return false;
+        }
+        if (length <= MONTH) {
+            return true;
+        }
+        final int monthTens = digits.charAt(MONTH) - '0';
+        if (monthTens > 1) {
+            return false;
+        }
+        if (length == MONTH + 1) {
+            return true;
+        }
+        final int month = monthTens * 10 + digits.charAt(MONTH + 1) - '0';
+        if ((month < 1) || (month > MONTHS)) {
+            return false;
+        }
+        if (length == DAY) {
+            return true;
+        }
+        final int days = getDays(digits, month);
+        final int dayTens = digits.charAt(DAY) - '0';
+        if (dayTens > days / 10) {
+            return false;
+        }
+        if (length == DAY + 1) {
+            return true;
+        }
+        final int day = dayTens * 10 + digits.charAt(DAY + 1) - '0';
+        return (day >= 1) && (day <= days);
+    }
+
+    /**
+     * Determines the number of days of the given month.
+     * @param digits the digits of the date
+     * @param month the month
+     * @return number of days
+     */
+    private static int getDays(final CharSequence digits, final int month) {
+        if (month != FEBRUARY) {
+            return DAYS[month - 1];
+        }
+        final int year = Integer.parseInt(digits.subSequence(0, MONTH)
+                .toString());
+        final boolean leap = (year % 4 == 0)
+                && ((year % 100 != 0) || (year % 400 == 0));
+        if (leap) {
+            return DAYS[month - 1];
+        }
+        return FEBRUARY_DAYS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        for (int i = 0; i < utterance.length(); i++) {
+            if (!isDigit(utterance.charAt(i))) {
+                return PrefixMatch.DEAD;
+            }
+        }
+        if (!isValid(utterance)) {
+            return PrefixMatch.DEAD;
+        }
+        if (utterance.length() == LENGTH) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin types <code>number</code> and <code>currency</code>. The
+ * semantic interpretation is a string with the digits and an optional
+ * decimal point, e.g. <code>12.5</code>.
+ *
+ * <p>
+ * In DTMF, the decimal point is entered as <code>*</code>. Spoken numbers
+ * may have a leading sign. Spoken amounts of the type
+ * <code>currency</code> may be preceded by an ISO 4217 currency code which
+ * is prepended to the semantic interpretation, e.g.
+ * <code>USD12.50</code>. Amounts may have at most two fraction digits.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DecimalGrammar extends BuiltinGrammar {
+    /** The decimal point in DTMF. */
+    private static final char DTMF_POINT = '*';
+
+    /** The decimal point in spoken input. */
+    private static final char VOICE_POINT = '.';
+
+    /** Length of an ISO 4217 currency code. */
+    private static final int CODE_LENGTH = 3;
+
+    /** Maximal number of fraction digits of an amount. */
+    private static final int CURRENCY_FRACTION_DIGITS = 2;
+
+    /** <code>true</code> if this grammar accepts currency amounts. */
+    private final boolean currency;
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     * @param amount <code>true</code> if this grammar accepts currency
+     *          amounts
+     */
+    DecimalGrammar(final URI uri, final ModeType mode, final boolean amount) {
+        super(uri, mode);
+        currency = amount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        final StringBuilder number = new StringBuilder(utterance.length());
+        final char point;
+        int pos = 0;
+        if (isDtmf()) {
+            point = DTMF_POINT;
+        } else {
+            point = VOICE_POINT;
+            pos = skipWhitespace(utterance, pos);
+            if (currency) {
+                pos = readCode(utterance, pos, number);
+                if (pos < 0) {
+                    return null;
+                }
+            } else if ((pos < utterance.length())
+                    && (utterance.charAt(pos) == '-'
+                    || utterance.charAt(pos) == '+')) {
+                if (utterance.charAt(pos) == '-') {
+                    number.append('-');
+                }
+                ++pos;
+            }
+        }
+        final int start = number.length();
+        int integerDigits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (int i = pos; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (isDigit(ch)) {
+                number.append(ch);
+                if (fraction) {
+                    ++fractionDigits;
+                } else {
+                    ++integerDigits;
+                }
+            } else if ((ch == point) && !fraction) {
+                number.append(VOICE_POINT);
+                fraction = true;
+            } else if (isDtmf() || !Character.isWhitespace(ch)) {
+                return null;
+            }
+        }
+        if ((integerDigits + fractionDigits == 0)
+                || (fraction && (fractionDigits == 0))
+                || (currency && (fractionDigits > CURRENCY_FRACTION_DIGITS))) {
+            return null;
+        }
+        if (integerDigits == 0) {
+            number.insert(start, '0');
+        }
+        return number.toString();
+    }
+
+    /**
+     * Skips any whitespace starting at the given position.
+     * @param utterance the utterance
+     * @param pos the start position
+     * @return position of the next character that is not a whitespace
+     */
+    private static int skipWhitespace(final String utterance, final int pos) {
+        int current = pos;
+        while ((current < utterance.length())
+                && Character.isWhitespace(utterance.charAt(current))) {
+            ++current;
+        }
+        return current;
+    }
+
+    /**
+     * Reads an optional currency code starting at the given position.
+     * @param utterance the utterance
+     * @param pos the start position
+     * @param number buffer to append the code to
+     * @return position after the code, <code>-1</code> if there is an
+     *          invalid code
+     */
+    private static int readCode(final String utterance, final int pos,
+            final StringBuilder number) {
+        int current = pos;
+        while ((current < utterance.length())
+                && Character.isLetter(utterance.charAt(current))) {
+            ++current;
+        }
+        final int length = current - pos;
+        if (length == 0) {
+            return pos;
+        }
+        if (length != CODE_LENGTH) {
+            return -1;
+        }
+        final String code = utterance.substring(pos, current);
+        number.append(code.toUpperCase());
+        return skipWhitespace(utterance, current);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        int fractionDigits = -1;
+        for (int i = 0; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (isDigit(ch)) {
+                if (fractionDigits >= 0) {
+                    ++fractionDigits;
+                }
+            } else if ((ch == DTMF_POINT) && (fractionDigits < 0)) {
+                fractionDigits = 0;
+            } else {
+                return PrefixMatch.DEAD;
+            }
+        }
+        if (!currency) {
+            return PrefixMatch.CONTINUE;
+        }
+        if (fractionDigits > CURRENCY_FRACTION_DIGITS) {
+            return PrefixMatch.DEAD;
+        }
+        if (fractionDigits == CURRENCY_FRACTION_DIGITS) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin type <code>digits</code>. The semantic interpretation is the
+ * string of the entered digits. Spoken digits may be separated by blanks.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class DigitsGrammar extends BuiltinGrammar {
+    /** Minimal number of digits. */
+    private final int minLength;
+
+    /** Maximal number of digits, <code>-1</code> if unlimited. */
+    private final int maxLength;
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     * @param min minimal number of digits
+     * @param max maximal number of digits, <code>-1</code> if unlimited
+     */
+    DigitsGrammar(final URI uri, final ModeType mode, final int min,
+            final int max) {
+        super(uri, mode);
+        minLength = min;
+        maxLength = max;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        final StringBuilder digits = new StringBuilder(utterance.length());
+        for (int i = 0; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (isDigit(ch)) {
+                digits.append(ch);
+            } else if (isDtmf() || !Character.isWhitespace(ch)) {
+                return null;
+            }
+        }
+        final int length = digits.length();
+        if ((length < minLength) || ((maxLength >= 0)
+                && (length > maxLength))) {
+            return null;
+        }
+        return digits.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        for (int i = 0; i < utterance.length(); i++) {
+            if (!isDigit(utterance.charAt(i))) {
+                return PrefixMatch.DEAD;
+            }
+        }
+        final int length = utterance.length();
+        if (maxLength < 0) {
+            return PrefixMatch.CONTINUE;
+        }
+        if (length > maxLength) {
+            return PrefixMatch.DEAD;
+        }
+        if ((length == maxLength) && (length >= minLength)) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
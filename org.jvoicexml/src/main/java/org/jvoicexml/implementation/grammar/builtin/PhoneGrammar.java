@@ -0,0 +1,127 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin type <code>phone</code>. The semantic interpretation is the
+ * string of digits of the phone number, optionally followed by
+ * <code>x</code> and the digits of an extension.
+ *
+ * <p>
+ * In DTMF, the extension is separated by <code>*</code>. Spoken numbers
+ * may be grouped by blanks, <code>-</code>, <code>.</code> or parentheses
+ * and may start with <code>+</code>.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class PhoneGrammar extends BuiltinGrammar {
+    /** Separator of the extension in DTMF. */
+    private static final char DTMF_EXTENSION = '*';
+
+    /** Separator of the extension in the semantic interpretation. */
+    private static final char EXTENSION = 'x';
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     */
+    PhoneGrammar(final URI uri, final ModeType mode) {
+        super(uri, mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        final StringBuilder phone = new StringBuilder(utterance.length());
+        int extension = -1;
+        for (int i = 0; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (isDigit(ch)) {
+                phone.append(ch);
+            } else if (isExtension(ch) && (extension < 0)
+                    && (phone.length() > 0)) {
+                extension = phone.length();
+                phone.append(EXTENSION);
+            } else if (isDtmf() || !isSeparator(ch, i)) {
+                return null;
+            }
+        }
+        if ((phone.length() == 0) || (extension == phone.length() - 1)) {
+            return null;
+        }
+        return phone.toString();
+    }
+
+    /**
+     * Checks if the given character separates the extension.
+     * @param ch the character to check
+     * @return <code>true</code> if the character separates the extension
+     */
+    private boolean isExtension(final char ch) {
+        if (isDtmf()) {
+            return ch == DTMF_EXTENSION;
+        }
+        return Character.toLowerCase(ch) == EXTENSION;
+    }
+
+    /**
+     * Checks if the given character may group the digits of a spoken
+     * phone number.
+     * @param ch the character to check
+     * @param pos position of the character
+     * @return <code>true</code> if the character is a separator
+     */
+    private static boolean isSeparator(final char ch, final int pos) {
+        return Character.isWhitespace(ch) || (ch == '-') || (ch == '.')
+                || (ch == '(') || (ch == ')') || ((ch == '+') && (pos == 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        boolean extension = false;
+        for (int i = 0; i < utterance.length(); i++) {
+            final char ch = utterance.charAt(i);
+            if (ch == DTMF_EXTENSION) {
+                if (extension || (i == 0)) {
+                    return PrefixMatch.DEAD;
+                }
+                extension = true;
+            } else if (!isDigit(ch)) {
+                return PrefixMatch.DEAD;
+            }
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
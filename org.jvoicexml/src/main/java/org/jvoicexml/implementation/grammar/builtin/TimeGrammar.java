@@ -0,0 +1,208 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * The builtin type <code>time</code>. The semantic interpretation is a
+ * string of the form <code>hhmmx</code> where <code>x</code> is
+ * <code>a</code> for AM, <code>p</code> for PM, <code>h</code> for the 24
+ * hour format or <code>?</code> if it is ambiguous.
+ *
+ * <p>
+ * In DTMF, the time is entered as four digits in the 24 hour format.
+ * Spoken times may contain a colon, e.g. <code>9:30 pm</code>.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class TimeGrammar extends BuiltinGrammar {
+    /** Number of digits of a time in DTMF. */
+    private static final int LENGTH = 4;
+
+    /** Maximal number of digits of an hour. */
+    private static final int HOUR_DIGITS = 2;
+
+    /** Maximal hour in the 24 hour format. */
+    private static final int MAX_HOUR = 23;
+
+    /** Maximal hour in the 12 hour format. */
+    private static final int MAX_HALF_DAY_HOUR = 12;
+
+    /** Maximal minute. */
+    private static final int MAX_MINUTE = 59;
+
+    /** Hours and minutes are converted with this base. */
+    private static final int HUNDRED = 100;
+
+    /**
+     * Constructs a new object.
+     * @param uri the builtin URI of this grammar
+     * @param mode the mode of this grammar
+     */
+    TimeGrammar(final URI uri, final ModeType mode) {
+        super(uri, mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object interpret(final String utterance) {
+        if (isDtmf()) {
+            if ((utterance.length() != LENGTH)
+                    || (getPrefixMatch(utterance) != PrefixMatch.COMPLETE)) {
+                return null;
+            }
+            return utterance + 'h';
+        }
+        int value = 0;
+        int digits = 0;
+        int colon = -1;
+        int pos = 0;
+        while (pos < utterance.length()) {
+            final char ch = utterance.charAt(pos);
+            if (isDigit(ch)) {
+                value = value * 10 + ch - '0';
+                ++digits;
+            } else if ((ch == ':') && (colon < 0)) {
+                colon = digits;
+            } else if (!Character.isWhitespace(ch)) {
+                break;
+            }
+            ++pos;
+        }
+        final char suffix = getSuffix(utterance.substring(pos));
+        if (suffix == 0) {
+            return null;
+        }
+        final int hour;
+        final int minute;
+        if (colon >= 0) {
+            if ((colon == 0) || (colon > HOUR_DIGITS)
+                    || (digits - colon != 2)) {
+                return null;
+            }
+            hour = value / HUNDRED;
+            minute = value % HUNDRED;
+        } else if ((digits > 0) && (digits <= HOUR_DIGITS)) {
+            hour = value;
+            minute = 0;
+        } else if ((digits > HOUR_DIGITS) && (digits <= LENGTH)) {
+            hour = value / HUNDRED;
+            minute = value % HUNDRED;
+        } else {
+            return null;
+        }
+        if ((minute > MAX_MINUTE) || (hour > MAX_HOUR)) {
+            return null;
+        }
+        final char format;
+        if (suffix != '?') {
+            if ((hour < 1) || (hour > MAX_HALF_DAY_HOUR)) {
+                return null;
+            }
+            format = suffix;
+        } else if ((hour == 0) || (hour > MAX_HALF_DAY_HOUR)) {
+            format = 'h';
+        } else {
+            format = '?';
+        }
+        final StringBuilder time = new StringBuilder(LENGTH + 1);
+        append(time, hour);
+        append(time, minute);
+        time.append(format);
+        return time.toString();
+    }
+
+    /**
+     * Determines the suffix of a spoken time.
+     * @param rest the remaining utterance after the digits
+     * @return <code>a</code> for AM, <code>p</code> for PM, <code>?</code>
+     *          if there is no suffix, <code>0</code> if the suffix is
+     *          invalid
+     */
+    private static char getSuffix(final String rest) {
+        final String suffix = rest.replace(".", "").trim().toLowerCase();
+        if (suffix.isEmpty()) {
+            return '?';
+        }
+        if (suffix.equals("am") || suffix.equals("a")) {
+            return 'a';
+        }
+        if (suffix.equals("pm") || suffix.equals("p")) {
+            return 'p';
+        }
+        return 0;
+    }
+
+    /**
+     * Appends the given number with two digits.
+     * @param time the buffer to append to
+     * @param number the number
+     */
+    private static void append(final StringBuilder time, final int number) {
+        if (number < 10) {
+            time.append('0');
+        }
+        time.append(number);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixMatch getPrefixMatch(final String utterance) {
+        final int length = utterance.length();
+        if (length > LENGTH) {
+            return PrefixMatch.DEAD;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!isDigit(utterance.charAt(i))) {
+                return PrefixMatch.DEAD;
+            }
+        }
+        if (length >= HOUR_DIGITS) {
+            final int hour = (utterance.charAt(0) - '0') * 10
+                    + utterance.charAt(1) - '0';
+            if (hour > MAX_HOUR) {
+                return PrefixMatch.DEAD;
+            }
+        } else if ((length == 1)
+                && (utterance.charAt(0) - '0' > MAX_HOUR / 10)) {
+            return PrefixMatch.DEAD;
+        }
+        if ((length > HOUR_DIGITS)
+                && (utterance.charAt(HOUR_DIGITS) - '0' > MAX_MINUTE / 10)) {
+            return PrefixMatch.DEAD;
+        }
+        if (length == LENGTH) {
+            return PrefixMatch.COMPLETE;
+        }
+        return PrefixMatch.CONTINUE;
+    }
+}
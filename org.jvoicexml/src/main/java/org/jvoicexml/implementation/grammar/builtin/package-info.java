@@ -0,0 +1,6 @@
+/**
+ * Builtin grammars that evaluate the input without a generated grammar
+ * document.
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
@@ -20,20 +20,29 @@
  */
 package org.jvoicexml.implementation.jvxml;
 
+import java.util.concurrent.ScheduledFuture;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.implementation.SpokenInput;
 import org.jvoicexml.implementation.SynthesizedOutput;
+import org.jvoicexml.implementation.TimerService;
 import org.jvoicexml.xml.vxml.BargeInType;
 
 /**
  * Reaper for external resources to return them after a timeout when the
  * session has closed.
+ *
+ * <p>
+ * The resources are not returned on the shared timer threads but handed off
+ * via {@link TimerService#dispatch(Runnable)} since returning them may block.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  * @since 0.7.7
  */
-class ImplementationPlatformReaper extends Thread {
+class ImplementationPlatformReaper implements Runnable {
     /** Logger for this class. */
     private static final Logger LOGGER = LogManager
             .getLogger(ImplementationPlatformReaper.class);
@@ -44,9 +53,9 @@ class ImplementationPlatformReaper extends Thread {
     /** The platform. */
     private final JVoiceXmlImplementationPlatform platform;
 
-    /** The waiting lock. */
-    private final Object lock;
-    
+    /** The scheduled reaping. */
+    private ScheduledFuture<?> future;
+
     /** Flag if the platform closed normally. */
     private boolean stopReaping;
 
@@ -65,7 +74,6 @@ class ImplementationPlatformReaper extends Thread {
     ImplementationPlatformReaper(
             final JVoiceXmlImplementationPlatform impl, final JVoiceXmlUserInput in,
             final JVoiceXmlSystemOutput out) {
-        lock = new Object();
         platform = impl;
         if (in != null) {
             input = in.getSpokenInput();
@@ -77,10 +85,6 @@ class ImplementationPlatformReaper extends Thread {
         } else {
             output = null;
         }
-        final org.jvoicexml.Session session = impl.getSession();
-        final String id = session.getSessionId();
-        setName("platform-reaper-" + id);
-        setDaemon(true);
         reapingDelay = DEFAULT_REAPING_DELAY;
     }
 
@@ -93,25 +97,35 @@ class ImplementationPlatformReaper extends Thread {
         reapingDelay = delay;
     }
 
+    /**
+     * Starts the reaper.
+     * @since 0.7.9
+     */
+    public synchronized void start() {
+        LOGGER.info("implementation platform reaper started with a delay of "
+                + reapingDelay + " msecs");
+        final TimerService service = TimerService.getInstance();
+        future = service.schedule(this, reapingDelay);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void run() {
-        LOGGER.info("implementation platform reaper started with a delay of "
-                + reapingDelay + " msecs");
-        synchronized (lock) {
-            try {
-                lock.wait(reapingDelay);
-                if (!stopReaping) {
-                    LOGGER.info("delay exceeded: cleaning up");
-                    forceReturnResources();
-                }
-            } catch (InterruptedException e) {
+        synchronized (this) {
+            if (stopReaping) {
                 return;
             }
         }
-        LOGGER.info("reaper stopped");
+        LOGGER.info("delay exceeded: cleaning up");
+        final TimerService service = TimerService.getInstance();
+        service.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                forceReturnResources();
+            }
+        });
     }
     
     /**
@@ -120,6 +134,11 @@ class ImplementationPlatformReaper extends Thread {
      * @since 0.7.9
      */
     private void forceReturnResources() {
+        synchronized (this) {
+            if (stopReaping) {
+                return;
+            }
+        }
         LOGGER.warn("force returning resources");
         if ((input != null) && input.isBusy()) {
             input.stopRecognition();
@@ -138,11 +157,12 @@ class ImplementationPlatformReaper extends Thread {
     /**
      * Stops reaping if the platform closed normally.
      */
-    public void stopReaping() {
-        synchronized (lock) {
-            LOGGER.info("stopping reaper");
-            stopReaping = true;
-            lock.notifyAll();
+    public synchronized void stopReaping() {
+        LOGGER.info("stopping reaper");
+        stopReaping = true;
+        if (future != null) {
+            future.cancel(false);
+            future = null;
         }
     }
 }
@@ -23,6 +23,7 @@ package org.jvoicexml.implementation.jvxml;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -67,6 +68,7 @@ import org.jvoicexml.implementation.Telephony;
 import org.jvoicexml.implementation.TelephonyEvent;
 import org.jvoicexml.implementation.TelephonyListener;
 import org.jvoicexml.implementation.dtmf.BufferedDtmfInput;
+import org.jvoicexml.implementation.grammar.GrammarCache;
 import org.jvoicexml.implementation.pool.KeyedResourcePool;
 import org.jvoicexml.xml.srgs.ModeType;
 import org.jvoicexml.xml.vxml.BargeInType;
@@ -96,8 +98,8 @@ public final class JVoiceXmlImplementationPlatform
     private static final Logger LOGGER = LogManager
             .getLogger(JVoiceXmlImplementationPlatform.class);
 
-    /** Timeout in msec to wait until the resource is not busy. */
-    private static final int BUSY_WAIT_TIMEOUT = 1000;
+    /** Maximum time in msec to wait for the output to end upon close. */
+    private static final long OUTPUT_RELEASE_TIMEOUT = 120 * 1000;
 
     /** Pool of synthesizer output resource factories. */
     private final KeyedResourcePool<SynthesizedOutput> synthesizerPool;
@@ -126,12 +128,12 @@ public final class JVoiceXmlImplementationPlatform
     /** Support for audio input. */
     private JVoiceXmlUserInput input;
 
-    /** Input not busy notification lock. */
-    private final Object inputLock;
-
     /** Support for DTMF input. */
     private volatile BufferedDtmfInput dtmfInput;
 
+    /** The cache of processed grammars. */
+    private GrammarCache grammarCache;
+
     /** The calling device. */
     private JVoiceXmlCallControl call;
 
@@ -139,7 +141,7 @@ public final class JVoiceXmlImplementationPlatform
     private EventBus eventbus;
 
     /** A timer to get the noinput timeout. */
-    private TimerThread timer;
+    private NoinputTimer timer;
 
     /** The name of the mark last executed by the SSML processor. */
     private String markname;
@@ -147,12 +149,18 @@ public final class JVoiceXmlImplementationPlatform
     /**
      * Flag set to <code>true</code> if the implementation platform is closed.
      */
-    private boolean closed;
+    private volatile boolean closed;
 
     /**
      * Flag set to {@code true} if the caller hung up the phone.
      */
-    private boolean hungup;
+    private volatile boolean hungup;
+
+    /** Signal that the system output has been returned after closing. */
+    private volatile ResourceRelease outputRelease;
+
+    /** Signal that the user input has been returned after closing. */
+    private volatile ResourceRelease inputRelease;
 
     /** The current session. */
     private Session session;
@@ -229,7 +237,7 @@ public final class JVoiceXmlImplementationPlatform
         recognizerPool = spokenInputPool;
         recognizerPoolLock = new Object();
         dtmfInput = bufferedCharacterInput;
-        inputLock = new Object();
+        grammarCache = new GrammarCache();
         promptAccumulator = new JVoiceXmlPromptAccumulator(this);
     }
 
@@ -241,6 +249,16 @@ public final class JVoiceXmlImplementationPlatform
             throws ConfigurationException {
     }
 
+    /**
+     * Sets the cache of processed grammars. This allows to share the
+     * processed grammars among all sessions.
+     * @param cache the cache of processed grammars
+     * @since 0.7.9
+     */
+    void setGrammarCache(final GrammarCache cache) {
+        grammarCache = cache;
+    }
+
     /**
      * Retrieves the session associated with this platform.
      * @return the session
@@ -301,17 +319,17 @@ public final class JVoiceXmlImplementationPlatform
      */
     private void returnSystemOutput() {
         synchronized (synthesizerPoolLock) {
-            if (output == null) {
-                return;
-            }
-
-            if (!hungup && !closed && output.isBusy()) {
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("output still busy. Delaying return...");
+            if (output != null) {
+                if (!hungup && !closed && output.isBusy()) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("output still busy. Delaying return...");
+                    }
+                    maybeStartReaper();
+                    return;
+                }
+                if (input == null) {
+                    maybeStopReaper();
                 }
-                maybeStartReaper();
-            } else {
-                maybeStopReaper();
                 final JVoiceXmlSystemOutput systemOutput = output;
                 output = null;
                 final String type = info.getSystemOutput();
@@ -328,6 +346,10 @@ public final class JVoiceXmlImplementationPlatform
                 LOGGER.info("returned system output of type '" + type + "'");
             }
         }
+        final ResourceRelease release = outputRelease;
+        if (release != null) {
+            release.complete();
+        }
     }
 
     /**
@@ -412,7 +434,8 @@ public final class JVoiceXmlImplementationPlatform
             if (input == null) {
                 final SpokenInput spokenInput = getExternalResourceFromPool(
                         recognizerPool, type);
-                input = new JVoiceXmlUserInput(spokenInput, dtmfInput);
+                input = new JVoiceXmlUserInput(spokenInput, dtmfInput,
+                        grammarCache);
                 input.addListener(this);
                 LOGGER.info("borrowed user input of type '" + type + "'");
             }
@@ -436,16 +459,14 @@ public final class JVoiceXmlImplementationPlatform
      */
     private void returnUserInput() {
         synchronized (recognizerPoolLock) {
-            if (input == null) {
-                return;
-            }
-
-            if (!hungup && !closed && input.isBusy()) {
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("input still busy. delaying return");
+            if (input != null) {
+                if (!hungup && !closed && input.isBusy()) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("input still busy. delaying return");
+                    }
+                    maybeStartReaper();
+                    return;
                 }
-                maybeStartReaper();
-            } else {
                 final JVoiceXmlUserInput userInput = input;
                 input = null;
                 final String type = info.getUserInput();
@@ -454,6 +475,7 @@ public final class JVoiceXmlImplementationPlatform
                             + "'...");
                 }
                 userInput.removeListener(this);
+                userInput.releaseGrammars();
 
                 final SpokenInput spokenInput = userInput.getSpokenInput();
                 returnExternalResourceToPool(recognizerPool, spokenInput);
@@ -461,6 +483,10 @@ public final class JVoiceXmlImplementationPlatform
                 LOGGER.info("returned user input of type '" + type + "'");
             }
         }
+        final ResourceRelease release = inputRelease;
+        if (release != null) {
+            release.complete();
+        }
     }
 
     /**
@@ -549,71 +575,83 @@ public final class JVoiceXmlImplementationPlatform
 
     /**
      * {@inheritDoc}
+     *
+     * <p>
+     * Resources that are not busy are returned to their pools immediately.
+     * Busy resources are returned as soon as the output queue is empty or
+     * the recognition ends. The call control is returned once the system
+     * output and the user input have been returned. This method only waits
+     * until all prompts have been played if the user did not hang up and at
+     * most for {@link #OUTPUT_RELEASE_TIMEOUT} msec.
+     * </p>
      */
     @Override
     public void close() {
+        final ResourceRelease outputReleased;
+        final ResourceRelease inputReleased;
         synchronized (this) {
             if (closed) {
                 return;
             }
+            outputReleased = new ResourceRelease();
+            inputReleased = new ResourceRelease();
+            outputRelease = outputReleased;
+            inputRelease = inputReleased;
             closed = true;
         }
 
         LOGGER.info("closing implementation platform");
         maybeStopReaper();
-        if (output != null) {
-            if (!hungup) {
-                // If the user did not hang up, wait until all output has been
-                // played.
-                waitOutputQueueEmpty();
-            }
-        }
-
         if (timer != null) {
             timer.stopTimer();
             timer = null;
         }
 
-        if (input != null) {
-            if (hungup) {
-                input.stopRecognition(null);
-            } else {
-                try {
-                    waitInputNotBusy();
-                } catch (Exception e) {
-                    LOGGER.warn("error waiting for input not busy", e);
+        // Return the call control after output and input
+        final AtomicInteger pending = new AtomicInteger(2);
+        final Runnable callControlReturner = new Runnable() {
+            @Override
+            public void run() {
+                if (pending.decrementAndGet() == 0) {
+                    maybeStopReaper();
+                    returnCallControl();
+                    LOGGER.info("implementation platform closed");
                 }
             }
-        }
-        LOGGER.info("returning aqcuired resources");
-        returnSystemOutput();
-        returnUserInput();
-        returnCallControl();
-        LOGGER.info("implementation platform closed");
-    }
+        };
+        outputReleased.whenComplete(callControlReturner);
+        inputReleased.whenComplete(callControlReturner);
 
-    /**
-     * Delays until the input is no more busy.
-     */
-    private void waitInputNotBusy() {
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("waiting for empty input not busy...");
+        final JVoiceXmlUserInput userInput = input;
+        if (hungup && userInput != null) {
+            userInput.stopRecognition(null);
         }
-        while (input.isBusy()) {
-            synchronized (info) {
-                try {
-                    inputLock.wait(BUSY_WAIT_TIMEOUT);
-                } catch (InterruptedException e) {
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("waiting for input not busy interrupted",
-                                e);
-                    }
-                    return;
-                }
-            }
+        final JVoiceXmlSystemOutput systemOutput = output;
+        final boolean outputBusy = !hungup && systemOutput != null
+                && systemOutput.isBusy();
+        final boolean inputBusy = !hungup && userInput != null
+                && userInput.isBusy();
+        if (!outputBusy) {
+            returnSystemOutput();
         }
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("...input not busy.");
+        if (!inputBusy) {
+            returnUserInput();
+        }
+        if (outputBusy || inputBusy) {
+            LOGGER.info("delaying the return of busy resources");
+            maybeStartReaper();
+        }
+
+        // Make sure that all prompts have been played before the session
+        // ends.
+        try {
+            if (!outputReleased.await(OUTPUT_RELEASE_TIMEOUT)) {
+                LOGGER.warn("system output not returned after "
+                        + OUTPUT_RELEASE_TIMEOUT + " msec");
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("waiting for the output to end interrupted", e);
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -685,8 +723,8 @@ public final class JVoiceXmlImplementationPlatform
 
         markname = null;
 
-        synchronized (inputLock) {
-            inputLock.notifyAll();
+        if (closed) {
+            returnUserInput();
         }
     }
 
@@ -705,8 +743,8 @@ public final class JVoiceXmlImplementationPlatform
                     input.getSpokenInput(), session.getSessionId(), result);
             eventbus.publish(noMatchEvent);
         }
-        synchronized (inputLock) {
-            inputLock.notifyAll();
+        if (closed) {
+            returnUserInput();
         }
     }
 
@@ -832,7 +870,7 @@ public final class JVoiceXmlImplementationPlatform
 
         final long timeout = promptAccumulator.getPromptTimeout();
         if (timeout > 0) {
-            timer = new TimerThread(eventbus, timeout);
+            timer = new NoinputTimer(eventbus, timeout);
             timer.start();
         }
     }
@@ -855,7 +893,7 @@ public final class JVoiceXmlImplementationPlatform
             }
             LOGGER.info("done stop record request");
         }
-        if (hungup) {
+        if (hungup || closed) {
             returnUserInput();
         }
     }
@@ -961,6 +999,9 @@ public final class JVoiceXmlImplementationPlatform
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("output queue is empty");
             }
+            if (closed) {
+                returnSystemOutput();
+            }
         } else if (event.isType(MarkerReachedEvent.EVENT_TYPE)) {
             final MarkerReachedEvent markReachedEvent =
                     (MarkerReachedEvent) event;
@@ -1001,6 +1042,14 @@ public final class JVoiceXmlImplementationPlatform
             return;
         }
 
+        if (closed) {
+            final JVoiceXmlSystemOutput systemOutput = output;
+            if (systemOutput == null || !systemOutput.isBusy()) {
+                returnSystemOutput();
+            }
+            return;
+        }
+
         if (eventbus == null) {
             return;
         }
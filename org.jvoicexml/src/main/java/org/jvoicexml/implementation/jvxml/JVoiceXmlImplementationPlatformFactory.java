@@ -38,7 +38,9 @@ import org.jvoicexml.implementation.SpokenInput;
 import org.jvoicexml.implementation.SynthesizedOutput;
 import org.jvoicexml.implementation.Telephony;
 import org.jvoicexml.implementation.dtmf.BufferedDtmfInput;
+import org.jvoicexml.implementation.grammar.GrammarCache;
 import org.jvoicexml.implementation.pool.KeyedResourcePool;
+import org.jvoicexml.implementation.pool.PoolMetrics;
 
 /**
  * Basic implementation of an {@link ImplementationPlatformFactory}.
@@ -73,6 +75,9 @@ public final class JVoiceXmlImplementationPlatformFactory
     /** The JVoiceXML configuration. */
     private Configuration configuration;
 
+    /** The processed grammars, shared by all implementation platforms. */
+    private final GrammarCache grammarCache;
+
     /**
      * Constructs a new object.
      * 
@@ -87,6 +92,63 @@ public final class JVoiceXmlImplementationPlatformFactory
         synthesizerPool = new KeyedResourcePool<SynthesizedOutput>();
         spokenInputPool = new KeyedResourcePool<SpokenInput>();
         telephonyPool = new KeyedResourcePool<Telephony>();
+        grammarCache = new GrammarCache();
+    }
+
+    /**
+     * Sets the maximum time to wait for a resource if all resources of the
+     * requested type are in use.
+     * 
+     * @param timeout
+     *            time in msec, <code>0</code> to fail immediately
+     * @since 0.7.9
+     */
+    public void setBorrowTimeout(final long timeout) {
+        synthesizerPool.setBorrowTimeout(timeout);
+        spokenInputPool.setBorrowTimeout(timeout);
+        telephonyPool.setBorrowTimeout(timeout);
+    }
+
+    /**
+     * Sets the number of instances per resource type that may be created on
+     * demand in addition to those requested by the resource factories.
+     * 
+     * @param instances
+     *            number of additional instances
+     * @since 0.7.9
+     */
+    public void setOverflowInstances(final int instances) {
+        synthesizerPool.setOverflowInstances(instances);
+        spokenInputPool.setOverflowInstances(instances);
+        telephonyPool.setOverflowInstances(instances);
+    }
+
+    /**
+     * Sets the time after which borrowed resources that have not been
+     * returned are reported as leaks.
+     * 
+     * @param threshold
+     *            time in msec, <code>0</code> to disable the check
+     * @since 0.7.9
+     */
+    public void setLeakThreshold(final long threshold) {
+        synthesizerPool.setLeakThreshold(threshold);
+        spokenInputPool.setLeakThreshold(threshold);
+        telephonyPool.setLeakThreshold(threshold);
+    }
+
+    /**
+     * Adds the given receiver of the pool measurements, e.g., to forward
+     * them to an external metrics registry.
+     * 
+     * @param metrics
+     *            the receiver
+     * @since 0.7.9
+     */
+    public void setMetrics(final PoolMetrics metrics) {
+        synthesizerPool.addMetrics(metrics);
+        spokenInputPool.addMetrics(metrics);
+        telephonyPool.addMetrics(metrics);
     }
 
     /**
@@ -129,6 +191,11 @@ public final class JVoiceXmlImplementationPlatformFactory
         // Give a short summary of what is available
         reportPlatforms();
 
+        // Publish the pool statistics
+        synthesizerPool.registerMBeans("synthesizer");
+        spokenInputPool.registerMBeans("spokeninput");
+        telephonyPool.registerMBeans("telephony");
+
         // Keep a reference to the configuration
         configuration = config;
     }
@@ -261,7 +328,7 @@ public final class JVoiceXmlImplementationPlatformFactory
     /**
      * {@inheritDoc}
      */
-    public synchronized ImplementationPlatform getImplementationPlatform(
+    public ImplementationPlatform getImplementationPlatform(
             final ConnectionInformation info) throws NoresourceError {
         if (info == null) {
             throw new NoresourceError("No connection information given!");
@@ -274,6 +341,7 @@ public final class JVoiceXmlImplementationPlatformFactory
                     new JVoiceXmlImplementationPlatform(
                     telephonyPool, synthesizerPool, spokenInputPool, input,
                     info);
+            platform.setGrammarCache(grammarCache);
             platform.init(configuration);
             return platform;
         } catch (ConfigurationException e) {
@@ -24,6 +24,7 @@ package org.jvoicexml.implementation.jvxml;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,6 +43,7 @@ import org.jvoicexml.implementation.SpokenInputListener;
 import org.jvoicexml.implementation.SpokenInputProvider;
 import org.jvoicexml.implementation.dtmf.BufferedDtmfInput;
 import org.jvoicexml.implementation.grammar.GrammarCache;
+import org.jvoicexml.implementation.grammar.GrammarKey;
 import org.jvoicexml.implementation.grammar.LoadedGrammar;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.xml.srgs.GrammarType;
@@ -76,6 +78,12 @@ final class JVoiceXmlUserInput implements UserInput, SpokenInputProvider {
     /** The cache of already processed grammars. */
     private final GrammarCache cache;
 
+    /** The grammars acquired from the cache by their keys. */
+    private final Map<GrammarKey, LoadedGrammar> acquired;
+
+    /** The acquired grammars by the instances of their documents. */
+    private final Map<GrammarDocument, LoadedGrammar> documents;
+
     /**
      * Constructs a new object.
      * 
@@ -85,9 +93,29 @@ final class JVoiceXmlUserInput implements UserInput, SpokenInputProvider {
      *            the buffered character input.
      */
     JVoiceXmlUserInput(final SpokenInput input, final BufferedDtmfInput dtmf) {
+        this(input, dtmf, new GrammarCache());
+    }
+
+    /**
+     * Constructs a new object.
+     * 
+     * @param input
+     *            the spoken input implementation.
+     * @param dtmf
+     *            the buffered character input.
+     * @param grammarCache
+     *            the cache of processed grammars, that may be shared with
+     *            other sessions
+     * @since 0.7.9
+     */
+    JVoiceXmlUserInput(final SpokenInput input, final BufferedDtmfInput dtmf,
+            final GrammarCache grammarCache) {
         spokenInput = input;
         dtmfInput = dtmf;
-        cache = new GrammarCache();
+        cache = grammarCache;
+        acquired = new java.util.HashMap<GrammarKey, LoadedGrammar>();
+        documents = new java.util.IdentityHashMap<GrammarDocument,
+            LoadedGrammar>();
     }
 
     /**
@@ -159,7 +187,7 @@ final class JVoiceXmlUserInput implements UserInput, SpokenInputProvider {
                 new java.util.ArrayList<GrammarImplementation<?>>();
 
         for (GrammarDocument grammar : grammars) {
-            GrammarImplementation<?> impl = cache.getImplementation(grammar);
+            final GrammarImplementation<?> impl = getImplementation(grammar);
             if (impl == null) {
                 LOGGER.warn("no implementation for grammar " + grammar);
                 continue;
@@ -229,14 +257,30 @@ final class JVoiceXmlUserInput implements UserInput, SpokenInputProvider {
         final URI uri = document.getURI();
 
         // Check if the grammar has already been loaded
-        if (cache.contains(document)) {
+        synchronized (acquired) {
+            final LoadedGrammar grammar = documents.get(document);
+            if (grammar != null) {
+                return grammar.getImplementation();
+            }
+        }
+        final ModeType mode = document.getModeType();
+        final GrammarKey key = new GrammarKey(getLoader(mode), document);
+        synchronized (acquired) {
+            final LoadedGrammar grammar = acquired.get(key);
+            if (grammar != null) {
+                documents.put(document, grammar);
+                return grammar.getImplementation();
+            }
+        }
+        final LoadedGrammar cached = cache.acquire(key);
+        if (cached != null) {
             LOGGER.info("grammar from '" + uri + "' already loaded");
-            return cache.getImplementation(document);
+            return addAcquired(key, document, cached)
+                    .getImplementation();
         }
 
         // Actually load and cache the grammar
         final GrammarType type = document.getMediaType();
-        final ModeType mode = document.getModeType();
         try {
             LOGGER.info("loading '" + type + "' grammar from '" + uri + "'");
             final GrammarImplementation<?> implementation;
@@ -247,13 +291,108 @@ final class JVoiceXmlUserInput implements UserInput, SpokenInputProvider {
             }
             final LoadedGrammar loaded = new LoadedGrammar(document,
                     implementation);
-            cache.add(loaded);
-            return implementation;
+            final LoadedGrammar added = cache.add(key, loaded);
+            return addAcquired(key, document, added).getImplementation();
         } catch (IOException e) {
             throw new BadFetchError(e.getMessage(), e);
         }
     }
 
+    /**
+     * Retrieves the loader of grammars for the given mode. Grammars for
+     * the spoken input are bound to the spoken input that loaded them.
+     * Grammars of the DTMF input do not depend on the DTMF input instance.
+     * 
+     * @param mode
+     *            the mode of the grammar
+     * @return the loader
+     * @since 0.7.9
+     */
+    private Object getLoader(final ModeType mode) {
+        if (mode == ModeType.DTMF) {
+            return BufferedDtmfInput.class;
+        }
+        return spokenInput;
+    }
+
+    /**
+     * Remembers the given grammar as acquired by this user input. If the
+     * grammar has been acquired in the meantime, the given grammar is
+     * released and the one acquired before is used.
+     * 
+     * @param key
+     *            key of the grammar
+     * @param document
+     *            the grammar document
+     * @param grammar
+     *            the acquired grammar
+     * @return the grammar to use
+     * @since 0.7.9
+     */
+    private LoadedGrammar addAcquired(final GrammarKey key,
+            final GrammarDocument document, final LoadedGrammar grammar) {
+        final LoadedGrammar previous;
+        synchronized (acquired) {
+            previous = acquired.get(key);
+            if (previous == null) {
+                acquired.put(key, grammar);
+                documents.put(document, grammar);
+                return grammar;
+            }
+            documents.put(document, previous);
+        }
+        cache.release(grammar);
+        return previous;
+    }
+
+    /**
+     * Retrieves the implementation of the given grammar document that has
+     * been loaded by this user input.
+     * 
+     * @param document
+     *            the grammar document
+     * @return the implementation, <code>null</code> if the document has not
+     *         been loaded
+     * @since 0.7.9
+     */
+    private GrammarImplementation<?> getImplementation(
+            final GrammarDocument document) {
+        synchronized (acquired) {
+            final LoadedGrammar grammar = documents.get(document);
+            if (grammar != null) {
+                return grammar.getImplementation();
+            }
+        }
+        final ModeType mode = document.getModeType();
+        final GrammarKey key = new GrammarKey(getLoader(mode), document);
+        synchronized (acquired) {
+            final LoadedGrammar grammar = acquired.get(key);
+            if (grammar == null) {
+                return null;
+            }
+            return grammar.getImplementation();
+        }
+    }
+
+    /**
+     * Releases all grammars that have been acquired by this user input
+     * from the grammar cache.
+     * 
+     * @since 0.7.9
+     */
+    void releaseGrammars() {
+        final Collection<LoadedGrammar> grammars;
+        synchronized (acquired) {
+            grammars = new java.util.ArrayList<LoadedGrammar>(
+                    acquired.values());
+            acquired.clear();
+            documents.clear();
+        }
+        for (LoadedGrammar grammar : grammars) {
+            cache.release(grammar);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
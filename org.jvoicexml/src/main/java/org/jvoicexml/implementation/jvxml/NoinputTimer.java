@@ -21,54 +21,68 @@
 
 package org.jvoicexml.implementation.jvxml;
 
+import java.util.concurrent.ScheduledFuture;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jvoicexml.event.EventBus;
 import org.jvoicexml.event.plain.NoinputEvent;
+import org.jvoicexml.implementation.TimerService;
 
 /**
  * Timer to send timeout events if the user did not say anything.
  *
+ * <p>
+ * The event is not published on the shared timer threads but handed off
+ * via {@link TimerService#dispatch(Runnable)} since the subscribers of the
+ * event bus may block.
+ * </p>
+ *
  * @author Dirk Schnelle-Walka
  */
-final class TimerThread
-        extends Thread {
+final class NoinputTimer implements Runnable {
     /** Logger for this class. */
     private static final Logger LOGGER =
-        LogManager.getLogger(TimerThread.class);
+        LogManager.getLogger(NoinputTimer.class);
 
-    /** Default timeout for the timer thread. */
+    /** Default timeout for the timer. */
     private static final long DEFAULT_TIMEOUT = 30000;
 
-    /** Flag, if the thread has been stopped. */
-    private boolean stopped;
+    /** Flag, if the timer has been stopped. */
+    private volatile boolean stopped;
 
     /** The event bus to notify when the timeout expired. */
     private final EventBus eventbus;
 
-    /** Semaphore to handle the wait/notify mechanism. */
-    private final Object semaphor;
-
     /** Timeout to wait in msec. */
     private final long timeout;
 
+    /** The scheduled timeout. */
+    private ScheduledFuture<?> future;
+
     /**
      * Constructs a new object.
      * @param bus the event bus to notify when the timeout expired.
      * @param delay milliseconds to wait, a value <code>&lt;0</code> indicates
      *              that the default timeout should be taken.
      */
-    TimerThread(final EventBus bus, final long delay) {
-        setDaemon(true);
-        setName("noinput-TimerThread");
-
+    NoinputTimer(final EventBus bus, final long delay) {
         eventbus = bus;
         if (delay > 0) {
             timeout = delay;
         } else {
             timeout = DEFAULT_TIMEOUT;
         }
-        semaphor = new Object();
+    }
+
+    /**
+     * Starts this timer.
+     * @since 0.7.9
+     */
+    public synchronized void start() {
+        LOGGER.info("timer started with a delay of " + timeout + " msec");
+        final TimerService service = TimerService.getInstance();
+        future = service.schedule(this, timeout);
     }
 
     /**
@@ -76,45 +90,47 @@ final class TimerThread
      */
     @Override
     public void run() {
-        LOGGER.info("timer thread started with a delay of "
-                + timeout + " msec");
-
-        try {
-            synchronized (semaphor) {
-                semaphor.wait(timeout);
-            }
-        } catch (InterruptedException ie) {
-            LOGGER.error("error waiting for input timeout");
+        if (stopped) {
+            return;
         }
-
-        if (!stopped) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("sending no input event");
+        final TimerService service = TimerService.getInstance();
+        service.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                publishNoinput();
             }
+        });
+    }
 
-            final NoinputEvent event = new NoinputEvent();
-            eventbus.publish(event);
+    /**
+     * Publishes the <code>noinput</code> event unless this timer has been
+     * stopped in the meantime.
+     * @since 0.7.9
+     */
+    private void publishNoinput() {
+        if (stopped) {
+            return;
         }
-
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("timer thread terminated");
+            LOGGER.debug("sending no input event");
         }
+
+        final NoinputEvent event = new NoinputEvent();
+        eventbus.publish(event);
     }
 
     /**
-     * Stops this timer thread.
+     * Stops this timer.
      */
-    public void stopTimer() {
+    public synchronized void stopTimer() {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("stopping timer...");
         }
 
-        if (eventbus != null) {
-            stopped = true;
-        }
-
-        synchronized (semaphor) {
-            semaphor.notifyAll();
+        stopped = true;
+        if (future != null) {
+            future.cancel(false);
+            future = null;
         }
     }
 }
@@ -45,8 +45,8 @@ final class RecordingThread extends Thread {
     private static final Logger LOGGER = LogManager
             .getLogger(RecordingThread.class);
 
-    /** Read buffer size when reading from the microphone. */
-    private static final int BUFFER_SIZE = 512;
+    /** Number of reads from the microphone per second. */
+    private static final int READS_PER_SECOND = 20;
 
     /** The output stream where to write the recording. */
     private final OutputStream out;
@@ -58,7 +58,7 @@ final class RecordingThread extends Thread {
     private final AudioFormat format;
 
     /** Flag to check if recording should be stopped. */
-    private boolean shouldStop;
+    private volatile boolean shouldStop;
     
     /**
      * Constructs a new object.
@@ -87,27 +87,44 @@ final class RecordingThread extends Thread {
         }
         try {
             line.start();
-            final byte[] buffer = new byte[BUFFER_SIZE];
+            final byte[] buffer = new byte[getBufferSize()];
             while (!shouldStop) {
                 final int count = line.read(buffer, 0, buffer.length);
                 if (count > 0) {
                     out.write(buffer, 0, count);
+                } else if (!line.isOpen()) {
+                    break;
                 }
             }
         } catch (IOException ex) {
-            ex.printStackTrace();
+            LOGGER.warn("recording aborted: " + ex.getMessage());
+            line.stop();
+            line.close();
         }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("recording stopped");
         }
     }
 
+    /**
+     * Determines the size of the read buffer so that the recorded audio is
+     * passed on in chunks of complete frames.
+     * @return size of the read buffer in bytes
+     * @since 0.7.9
+     */
+    private int getBufferSize() {
+        final int frameSize = Math.max(1, format.getFrameSize());
+        final int frames = Math.max(1,
+                (int) (format.getFrameRate() / READS_PER_SECOND));
+        return frames * frameSize;
+    }
+
     /**
      * Stops the recording.
      */
     public void stopRecording() {
+        shouldStop = true;
         line.stop();
         line.close();
-        shouldStop = true;
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.jvxml;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signal that a resource of an implementation platform has been returned
+ * to its pool.
+ *
+ * <p>
+ * The signal is completed only once. Tasks that are added via
+ * {@link #whenComplete(Runnable)} are executed by the thread that completes
+ * the signal or immediately if the signal has already been completed.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class ResourceRelease {
+    /** The latch for waiting threads. */
+    private final CountDownLatch latch;
+
+    /** Tasks to execute upon completion. */
+    private final Collection<Runnable> tasks;
+
+    /** Flag if the signal has been completed. */
+    private boolean completed;
+
+    /**
+     * Constructs a new object.
+     */
+    ResourceRelease() {
+        latch = new CountDownLatch(1);
+        tasks = new java.util.ArrayList<Runnable>();
+    }
+
+    /**
+     * Completes this signal. Subsequent calls have no effect.
+     */
+    void complete() {
+        final Collection<Runnable> pending;
+        synchronized (tasks) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            pending = new java.util.ArrayList<Runnable>(tasks);
+            tasks.clear();
+        }
+        latch.countDown();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    /**
+     * Executes the given task once this signal is completed.
+     * @param task the task to execute
+     */
+    void whenComplete(final Runnable task) {
+        synchronized (tasks) {
+            if (!completed) {
+                tasks.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    /**
+     * Waits until this signal is completed.
+     * @param timeout maximum time to wait in msec
+     * @return <code>true</code> if the signal has been completed
+     * @exception InterruptedException
+     *            waiting was interrupted
+     */
+    boolean await(final long timeout) throws InterruptedException {
+        return latch.await(timeout, TimeUnit.MILLISECONDS);
+    }
+}
@@ -21,18 +21,28 @@
 
 package org.jvoicexml.implementation.pool;
 
+import java.lang.management.ManagementFactory;
 import java.util.Collection;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.implementation.ExternalResource;
 import org.jvoicexml.implementation.ResourceFactory;
+import org.jvoicexml.implementation.TimerService;
 
 /**
  * Pool to hold all instantiated resources of type <code>T</code>.
@@ -40,7 +50,23 @@ import org.jvoicexml.implementation.ResourceFactory;
  * <p>
  * The <code>KeyedResourcePool</code> uses a {@link ResourceFactory} to create
  * new objects for the pool until the number of instances is exceeded that is
- * set by the factory.
+ * set by the factory. Additional instances may be created on demand, see
+ * {@link #setOverflowInstances(int)}.
+ * </p>
+ *
+ * <p>
+ * The pools of different keys do not share any locks. If all resources of a
+ * key are in use, callers wait in the order of their arrival for a resource
+ * to be returned, at most for the borrow timeout, see
+ * {@link #setBorrowTimeout(long)}. Thus, short bursts above the capacity
+ * are queued rather than failed.
+ * </p>
+ *
+ * <p>
+ * Borrow wait times, exhaustions, times in use and leaks are collected in
+ * {@link PoolStatistics} and can be forwarded to further
+ * {@link PoolMetrics}. The statistics of each key can be published via JMX,
+ * see {@link #registerMBeans(String)}.
  * </p>
  *
  * @param <T> Type of {@link ExternalResource} to produce in this factory.
@@ -54,15 +80,198 @@ public final class KeyedResourcePool<T extends ExternalResource> {
     private static final Logger LOGGER =
         LogManager.getLogger(KeyedResourcePool.class);
 
+    /** Default time in msec to wait for a resource. */
+    public static final long DEFAULT_BORROW_TIMEOUT = 500;
+
+    /** Time in seconds that idle prewarming threads are kept. */
+    private static final long KEEP_ALIVE = 60;
+
     /** Known pools. */
-    private final Map<String, ObjectPool<T>> pools;
+    private final ConcurrentMap<String, ResourceTypePool<T>> pools;
+
+    /** Executor to create resources in the background. */
+    private final ThreadPoolExecutor prewarmer;
+
+    /** Time in msec to wait for a resource. */
+    private volatile long borrowTimeout;
+
+    /** Number of instances to create on demand per key. */
+    private volatile int overflowInstances;
+
+    /** The collected statistics. */
+    private final PoolStatistics statistics;
+
+    /** Receivers of the measurements. */
+    private final Collection<PoolMetrics> metrics;
+
+    /** Time in msec after which borrowed resources are reported. */
+    private long leakThreshold;
+
+    /** The periodic leak check, <code>null</code> if disabled. */
+    private ScheduledFuture<?> leakCheck;
+
+    /** Names of the registered MBeans. */
+    private final Collection<ObjectName> mbeans;
 
     /**
      * Constructs a new object.
      */
     public KeyedResourcePool() {
         super();
-        pools = new java.util.HashMap<String, ObjectPool<T>>();
+        pools = new ConcurrentHashMap<String, ResourceTypePool<T>>();
+        prewarmer = new ThreadPoolExecutor(1, 1, KEEP_ALIVE,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new PrewarmThreadFactory());
+        prewarmer.allowCoreThreadTimeOut(true);
+        borrowTimeout = DEFAULT_BORROW_TIMEOUT;
+        statistics = new PoolStatistics();
+        metrics = new CopyOnWriteArrayList<PoolMetrics>();
+        metrics.add(statistics);
+        mbeans = new CopyOnWriteArrayList<ObjectName>();
+    }
+
+    /**
+     * Sets the maximum time to wait for a resource if all resources of the
+     * requested type are in use.
+     * @param timeout time in msec, <code>0</code> to fail immediately
+     * @since 0.7.9
+     */
+    public void setBorrowTimeout(final long timeout) {
+        borrowTimeout = timeout;
+    }
+
+    /**
+     * Retrieves the maximum time to wait for a resource.
+     * @return time in msec
+     * @since 0.7.9
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * Sets the number of instances per key that may be created on demand in
+     * addition to those requested by the {@link ResourceFactory}. Instances
+     * above that number are closed again once they are no longer needed.
+     * This setting applies to factories that are added afterwards.
+     * @param instances number of additional instances
+     * @since 0.7.9
+     */
+    public void setOverflowInstances(final int instances) {
+        overflowInstances = instances;
+    }
+
+    /**
+     * Adds the given receiver of measurements, e.g., to forward them to an
+     * external metrics registry.
+     * @param receiver the receiver to add
+     * @since 0.7.9
+     */
+    public void addMetrics(final PoolMetrics receiver) {
+        metrics.add(receiver);
+    }
+
+    /**
+     * Retrieves the statistics of this pool.
+     * @return the statistics
+     * @since 0.7.9
+     */
+    public PoolStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the time after which borrowed resources that have not been
+     * returned are reported as leaks. The check runs periodically with half
+     * of the given time.
+     * @param threshold time in msec, <code>0</code> to disable the check
+     * @since 0.7.9
+     */
+    public synchronized void setLeakThreshold(final long threshold) {
+        if (leakCheck != null) {
+            leakCheck.cancel(false);
+            leakCheck = null;
+        }
+        leakThreshold = threshold;
+        if (threshold <= 0) {
+            return;
+        }
+        final TimerService service = TimerService.getInstance();
+        final long period = Math.max(1, threshold / 2);
+        leakCheck = service.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                checkLeaks(threshold);
+            }
+        }, period);
+    }
+
+    /**
+     * Retrieves the time after which borrowed resources are reported as
+     * leaks.
+     * @return time in msec, <code>0</code> if the check is disabled
+     * @since 0.7.9
+     */
+    public synchronized long getLeakThreshold() {
+        return leakThreshold;
+    }
+
+    /**
+     * Reports all resources that are borrowed for longer than the given time
+     * to the {@link PoolMetrics}. Each borrow is reported only once.
+     * @param threshold time in msec
+     * @since 0.7.9
+     */
+    public void checkLeaks(final long threshold) {
+        final Collection<ResourceTypePool<T>> col = pools.values();
+        for (ResourceTypePool<T> pool : col) {
+            pool.checkLeaks(threshold);
+        }
+    }
+
+    /**
+     * Publishes the statistics of all keys as MBeans named
+     * <code>org.jvoicexml:type=ResourcePool,pool=</code><em>name</em>
+     * <code>,key=</code><em>key</em>.
+     * @param name name of this pool
+     * @since 0.7.9
+     */
+    public void registerMBeans(final String name) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (String key : pools.keySet()) {
+            try {
+                final ObjectName objectName = new ObjectName(
+                        "org.jvoicexml:type=ResourcePool,pool="
+                        + ObjectName.quote(name) + ",key="
+                        + ObjectName.quote(key));
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+                final ResourcePoolMonitor monitor =
+                        new ResourcePoolMonitor(this, key);
+                server.registerMBean(monitor, objectName);
+                mbeans.add(objectName);
+            } catch (JMException e) {
+                LOGGER.warn("unable to register pool statistics for '"
+                        + key + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Removes all MBeans that were published by
+     * {@link #registerMBeans(String)}.
+     */
+    private void unregisterMBeans() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : mbeans) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.warn("unable to unregister '" + name + "'", e);
+            }
+        }
+        mbeans.clear();
     }
 
     /**
@@ -72,20 +281,20 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      */
     public void addResourceFactory(
             final ResourceFactory<T> resourceFactory) throws Exception {
-        final PoolableObjectFactory<T> factory =
-            new PoolableResourceFactory<T>(resourceFactory);
-        final GenericObjectPool<T> pool = new GenericObjectPool<T>(factory);
+        final ResourceTypePool<T> pool = new ResourceTypePool<T>(
+                resourceFactory, overflowInstances, prewarmer, metrics);
         final int instances = resourceFactory.getInstances();
-        pool.setMinIdle(instances);
-        pool.setMaxActive(instances);
-        pool.setMaxIdle(instances);
-        pool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_FAIL);
         final String type = resourceFactory.getType();
-        pools.put(type, pool);
         LOGGER.info("loading " + instances + " instance(s) of type '" + type
                 + "'");
-        for (int i = 0; i < instances; i++) {
-            pool.addObject();
+        try {
+            pool.populate();
+        } catch (NoresourceError e) {
+            throw new Exception(e.getMessage(), e);
+        }
+        final ResourceTypePool<T> previous = pools.put(type, pool);
+        if (previous != null) {
+            previous.close();
         }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("...resources loaded.");
@@ -93,28 +302,34 @@ public final class KeyedResourcePool<T extends ExternalResource> {
     }
 
     /**
-     * Type safe return of the object to borrow from the pool.
+     * Retrieves the pool for the given key.
+     * @param key the key
+     * @return the pool, <code>null</code> if there is no pool for that key
+     * @since 0.7.9
+     */
+    private ResourceTypePool<T> getPool(final Object key) {
+        if (key == null) {
+            return null;
+        }
+        return pools.get(key);
+    }
+
+    /**
+     * Type safe return of the object to borrow from the pool. If all
+     * resources are in use, this method waits at most for the borrow
+     * timeout for a resource to be returned.
      * @param key the type of the object to borrow from the pool
      * @return borrowed object
      * @exception NoresourceError
      *            the object could not be borrowed
      */
-    public synchronized T borrowObject(final Object key)
+    public T borrowObject(final Object key)
         throws NoresourceError {
-        final ObjectPool<T> pool = pools.get(key);
+        final ResourceTypePool<T> pool = getPool(key);
         if (pool == null) {
             throw new NoresourceError("Pool of type '" + key + "' is unknown!");
         }
-        T resource;
-        try {
-            resource = pool.borrowObject();
-        } catch (NoSuchElementException e) {
-            throw new NoresourceError(e.getMessage(), e);
-        } catch (IllegalStateException e) {
-            throw new NoresourceError(e.getMessage(), e);
-        } catch (Exception e) {
-            throw new NoresourceError(e.getMessage(), e);
-        }
+        final T resource = pool.borrow(borrowTimeout);
         LOGGER.info("borrowed object of type '" + key + "' ("
                 + resource.getClass().getCanonicalName() + ")");
         if (LOGGER.isDebugEnabled()) {
@@ -137,17 +352,13 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      *         Error returning the object to the pool.
      * @since 0.6
      */
-    public synchronized void returnObject(final String key,
+    public void returnObject(final String key,
             final T resource) throws NoresourceError {
-        final ObjectPool<T> pool = pools.get(key);
+        final ResourceTypePool<T> pool = getPool(key);
         if (pool == null) {
             throw new NoresourceError("Pool of type '" + key + "' is unknown!");
         }
-        try {
-            pool.returnObject(resource);
-        } catch (Exception e) {
-            throw new NoresourceError(e.getMessage(), e);
-        }
+        pool.giveBack(resource);
         LOGGER.info("returned object of type '" + key + "' ("
                 + resource.getClass().getCanonicalName() + ")");
 
@@ -166,10 +377,10 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      * @return number of active resources
      * @since 0.7.3
      */
-    public synchronized int getNumActive() {
+    public int getNumActive() {
         int active = 0;
-        final Collection<ObjectPool<T>> col = pools.values();
-        for (ObjectPool<T> pool : col) {
+        final Collection<ResourceTypePool<T>> col = pools.values();
+        for (ResourceTypePool<T> pool : col) {
             active += pool.getNumActive();
         }
         return active;
@@ -181,20 +392,36 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      * @return number of active resources
      * @since 0.7.3
      */
-    public synchronized int getNumActive(final String key) {
-        final ObjectPool<T> pool = pools.get(key);
+    public int getNumActive(final String key) {
+        final ResourceTypePool<T> pool = getPool(key);
         return pool.getNumActive();
     }
 
+    /**
+     * Retrieves the number of callers that wait for a resource of the given
+     * key.
+     * @param key the key
+     * @return number of waiting callers, <code>-1</code> if there is no
+     *         resource with that key
+     * @since 0.7.9
+     */
+    public int getNumWaiting(final String key) {
+        final ResourceTypePool<T> pool = getPool(key);
+        if (pool == null) {
+            return -1;
+        }
+        return pool.getNumWaiting();
+    }
+
     /**
      * Retrieves the number of idle resources in all pools.
      * @return number of idle resources
      * @since 0.7.3
      */
-    public synchronized int getNumIdle() {
+    public int getNumIdle() {
         int idle = 0;
-        final Collection<ObjectPool<T>> col = pools.values();
-        for (ObjectPool<T> pool : col) {
+        final Collection<ResourceTypePool<T>> col = pools.values();
+        for (ResourceTypePool<T> pool : col) {
             idle += pool.getNumIdle();
         }
         return idle;
@@ -207,8 +434,8 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      *         with that key
      * @since 0.7.3
      */
-    public synchronized int getNumIdle(final String key) {
-        final ObjectPool<T> pool = pools.get(key);
+    public int getNumIdle(final String key) {
+        final ResourceTypePool<T> pool = getPool(key);
         if (pool == null) {
             return -1;
         }
@@ -230,10 +457,37 @@ public final class KeyedResourcePool<T extends ExternalResource> {
      *         error closing a pool
      * @since 0.7.3
      */
-    public synchronized void close() throws Exception {
-        final Collection<ObjectPool<T>> col = pools.values();
-        for (ObjectPool<T> pool : col) {
+    public void close() throws Exception {
+        setLeakThreshold(0);
+        unregisterMBeans();
+        prewarmer.shutdownNow();
+        final Collection<ResourceTypePool<T>> col = pools.values();
+        for (ResourceTypePool<T> pool : col) {
             pool.close();
         }
     }
+
+    /**
+     * Factory for the daemon threads that create resources in the
+     * background.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class PrewarmThreadFactory
+            implements ThreadFactory {
+        /** Number of created threads. */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                    "JVoiceXML pool prewarm-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
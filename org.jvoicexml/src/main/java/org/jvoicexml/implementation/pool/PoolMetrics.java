@@ -0,0 +1,66 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.pool;
+
+/**
+ * Receiver of measurements of a {@link KeyedResourcePool}.
+ *
+ * <p>
+ * Implementations can be added via
+ * {@link KeyedResourcePool#addMetrics(PoolMetrics)} to forward the
+ * measurements to an external metrics registry. The methods are called by
+ * the threads that borrow and return resources and must not block.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface PoolMetrics {
+    /**
+     * A resource has been borrowed.
+     * @param key type of the resource
+     * @param wait time in msec that the caller had to wait
+     */
+    void borrowed(final String key, final long wait);
+
+    /**
+     * No resource could be borrowed within the borrow timeout.
+     * @param key type of the resource
+     * @param wait time in msec that the caller waited
+     */
+    void exhausted(final String key, final long wait);
+
+    /**
+     * A resource has been returned.
+     * @param key type of the resource
+     * @param inUse time in msec that the resource was borrowed
+     */
+    void returned(final String key, final long inUse);
+
+    /**
+     * A resource has been borrowed for longer than the leak threshold
+     * without being returned. This is reported once per borrow.
+     * @param key type of the resource
+     * @param inUse time in msec that the resource is borrowed so far
+     */
+    void leaked(final String key, final long inUse);
+}
@@ -0,0 +1,273 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.pool;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of the resources of a {@link KeyedResourcePool} per resource
+ * type.
+ *
+ * <p>
+ * The wait times for borrowing a resource are counted in the buckets
+ * given by {@link #BORROW_WAIT_BUCKETS}. Bucket <code>i</code> counts the
+ * borrows that waited at most <code>BORROW_WAIT_BUCKETS[i]</code> msec. The
+ * last bucket counts all longer waits.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class PoolStatistics implements PoolMetrics {
+    /** Upper bounds in msec of the buckets of the borrow wait histogram. */
+    private static final long[] BORROW_WAIT_BUCKETS =
+        {0, 1, 5, 10, 50, 100, 250, 500, 1000};
+
+    /** Statistics per resource type. */
+    private final ConcurrentMap<String, KeyStatistics> statistics;
+
+    /**
+     * Constructs a new object.
+     */
+    public PoolStatistics() {
+        statistics = new ConcurrentHashMap<String, KeyStatistics>();
+    }
+
+    /**
+     * Retrieves the statistics for the given key.
+     * @param key the key
+     * @return statistics for the key
+     */
+    private KeyStatistics getStatistics(final String key) {
+        final KeyStatistics current = statistics.get(key);
+        if (current != null) {
+            return current;
+        }
+        final KeyStatistics created = new KeyStatistics();
+        final KeyStatistics previous = statistics.putIfAbsent(key, created);
+        if (previous == null) {
+            return created;
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void borrowed(final String key, final long wait) {
+        final KeyStatistics stats = getStatistics(key);
+        stats.borrows.incrementAndGet();
+        stats.totalWait.addAndGet(wait);
+        updateMax(stats.maxWait, wait);
+        int bucket = 0;
+        while (bucket < BORROW_WAIT_BUCKETS.length
+                && wait > BORROW_WAIT_BUCKETS[bucket]) {
+            ++bucket;
+        }
+        stats.waitHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exhausted(final String key, final long wait) {
+        final KeyStatistics stats = getStatistics(key);
+        stats.exhaustions.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void returned(final String key, final long inUse) {
+        final KeyStatistics stats = getStatistics(key);
+        stats.returns.incrementAndGet();
+        stats.totalInUse.addAndGet(inUse);
+        updateMax(stats.maxInUse, inUse);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void leaked(final String key, final long inUse) {
+        final KeyStatistics stats = getStatistics(key);
+        stats.leaks.incrementAndGet();
+    }
+
+    /**
+     * Sets the given maximum to the given value if it is larger.
+     * @param max the maximum
+     * @param value the new value
+     */
+    private static void updateMax(final AtomicLong max, final long value) {
+        long current = max.get();
+        while (value > current) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+            current = max.get();
+        }
+    }
+
+    /**
+     * Retrieves the upper bounds of the buckets of the borrow wait
+     * histogram.
+     * @return upper bounds in msec
+     */
+    public static long[] getBorrowWaitBuckets() {
+        return BORROW_WAIT_BUCKETS.clone();
+    }
+
+    /**
+     * Retrieves the number of borrowed resources of the given type.
+     * @param key the key
+     * @return number of borrows
+     */
+    public long getBorrowCount(final String key) {
+        return getStatistics(key).borrows.get();
+    }
+
+    /**
+     * Retrieves the number of failed borrows of the given type since all
+     * resources were in use.
+     * @param key the key
+     * @return number of failed borrows
+     */
+    public long getExhaustedCount(final String key) {
+        return getStatistics(key).exhaustions.get();
+    }
+
+    /**
+     * Retrieves the number of resources of the given type that were not
+     * returned within the leak threshold.
+     * @param key the key
+     * @return number of leaked resources
+     */
+    public long getLeakCount(final String key) {
+        return getStatistics(key).leaks.get();
+    }
+
+    /**
+     * Retrieves the average time to borrow a resource of the given type.
+     * @param key the key
+     * @return average wait time in msec
+     */
+    public long getAverageBorrowWaitTime(final String key) {
+        final KeyStatistics stats = getStatistics(key);
+        final long borrows = stats.borrows.get();
+        if (borrows == 0) {
+            return 0;
+        }
+        return stats.totalWait.get() / borrows;
+    }
+
+    /**
+     * Retrieves the maximum time to borrow a resource of the given type.
+     * @param key the key
+     * @return maximum wait time in msec
+     */
+    public long getMaxBorrowWaitTime(final String key) {
+        return getStatistics(key).maxWait.get();
+    }
+
+    /**
+     * Retrieves the borrow wait histogram for the given type.
+     * @param key the key
+     * @return number of borrows per bucket
+     * @see #getBorrowWaitBuckets()
+     */
+    public long[] getBorrowWaitHistogram(final String key) {
+        final AtomicLongArray histogram = getStatistics(key).waitHistogram;
+        final long[] counts = new long[histogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the average time that resources of the given type were
+     * borrowed.
+     * @param key the key
+     * @return average time in use in msec
+     */
+    public long getAverageTimeInUse(final String key) {
+        final KeyStatistics stats = getStatistics(key);
+        final long returns = stats.returns.get();
+        if (returns == 0) {
+            return 0;
+        }
+        return stats.totalInUse.get() / returns;
+    }
+
+    /**
+     * Retrieves the maximum time that a resource of the given type was
+     * borrowed.
+     * @param key the key
+     * @return maximum time in use in msec
+     */
+    public long getMaxTimeInUse(final String key) {
+        return getStatistics(key).maxInUse.get();
+    }
+
+    /**
+     * Counters of a single resource type.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class KeyStatistics {
+        /** Number of borrows. */
+        private final AtomicLong borrows = new AtomicLong();
+
+        /** Number of failed borrows. */
+        private final AtomicLong exhaustions = new AtomicLong();
+
+        /** Number of returns. */
+        private final AtomicLong returns = new AtomicLong();
+
+        /** Number of leaks. */
+        private final AtomicLong leaks = new AtomicLong();
+
+        /** Sum of all borrow wait times. */
+        private final AtomicLong totalWait = new AtomicLong();
+
+        /** Maximum borrow wait time. */
+        private final AtomicLong maxWait = new AtomicLong();
+
+        /** Sum of all times in use. */
+        private final AtomicLong totalInUse = new AtomicLong();
+
+        /** Maximum time in use. */
+        private final AtomicLong maxInUse = new AtomicLong();
+
+        /** Histogram of the borrow wait times. */
+        private final AtomicLongArray waitHistogram =
+                new AtomicLongArray(BORROW_WAIT_BUCKETS.length + 1);
+    }
+}
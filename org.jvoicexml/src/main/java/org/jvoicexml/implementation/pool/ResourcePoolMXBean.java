@@ -0,0 +1,112 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.pool;
+
+/**
+ * Management interface of the resources of a single type in a
+ * {@link KeyedResourcePool}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface ResourcePoolMXBean {
+    /**
+     * Retrieves the type of the resources.
+     * @return type of the resources
+     */
+    String getKey();
+
+    /**
+     * Retrieves the number of borrowed resources.
+     * @return number of borrowed resources
+     */
+    int getNumActive();
+
+    /**
+     * Retrieves the number of idle resources.
+     * @return number of idle resources
+     */
+    int getNumIdle();
+
+    /**
+     * Retrieves the number of callers that wait for a resource.
+     * @return number of waiting callers
+     */
+    int getNumWaiting();
+
+    /**
+     * Retrieves the number of borrows.
+     * @return number of borrows
+     */
+    long getBorrowCount();
+
+    /**
+     * Retrieves the number of borrows that failed since all resources were
+     * in use.
+     * @return number of failed borrows
+     */
+    long getExhaustedCount();
+
+    /**
+     * Retrieves the number of resources that were not returned within the
+     * leak threshold.
+     * @return number of leaked resources
+     */
+    long getLeakCount();
+
+    /**
+     * Retrieves the average time to borrow a resource.
+     * @return average wait time in msec
+     */
+    long getAverageBorrowWaitTime();
+
+    /**
+     * Retrieves the maximum time to borrow a resource.
+     * @return maximum wait time in msec
+     */
+    long getMaxBorrowWaitTime();
+
+    /**
+     * Retrieves the upper bounds of the buckets of the borrow wait
+     * histogram. The last bucket of the histogram counts all longer waits.
+     * @return upper bounds in msec
+     */
+    long[] getBorrowWaitBuckets();
+
+    /**
+     * Retrieves the number of borrows per bucket of wait time.
+     * @return number of borrows per bucket
+     */
+    long[] getBorrowWaitHistogram();
+
+    /**
+     * Retrieves the average time that resources were borrowed.
+     * @return average time in use in msec
+     */
+    long getAverageTimeInUse();
+
+    /**
+     * Retrieves the maximum time that a resource was borrowed.
+     * @return maximum time in use in msec
+     */
+    long getMaxTimeInUse();
+}
@@ -0,0 +1,152 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.pool;
+
+/**
+ * Management view on the resources of a single type in a
+ * {@link KeyedResourcePool}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class ResourcePoolMonitor implements ResourcePoolMXBean {
+    /** The monitored pool. */
+    private final KeyedResourcePool<?> pool;
+
+    /** The type of the resources. */
+    private final String key;
+
+    /**
+     * Constructs a new object.
+     * @param resourcePool the monitored pool
+     * @param type the type of the resources
+     */
+    ResourcePoolMonitor(final KeyedResourcePool<?> resourcePool,
+            final String type) {
+        pool = resourcePool;
+        key = type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumActive() {
+        return pool.getNumActive(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumIdle() {
+        return pool.getNumIdle(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumWaiting() {
+        return pool.getNumWaiting(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBorrowCount() {
+        return pool.getStatistics().getBorrowCount(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getExhaustedCount() {
+        return pool.getStatistics().getExhaustedCount(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLeakCount() {
+        return pool.getStatistics().getLeakCount(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAverageBorrowWaitTime() {
+        return pool.getStatistics().getAverageBorrowWaitTime(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMaxBorrowWaitTime() {
+        return pool.getStatistics().getMaxBorrowWaitTime(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long[] getBorrowWaitBuckets() {
+        return PoolStatistics.getBorrowWaitBuckets();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long[] getBorrowWaitHistogram() {
+        return pool.getStatistics().getBorrowWaitHistogram(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAverageTimeInUse() {
+        return pool.getStatistics().getAverageTimeInUse(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMaxTimeInUse() {
+        return pool.getStatistics().getMaxTimeInUse(key);
+    }
+}
@@ -0,0 +1,504 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.pool;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.event.error.NoresourceError;
+import org.jvoicexml.implementation.ExternalResource;
+import org.jvoicexml.implementation.ResourceFactory;
+
+/**
+ * Pool of the resources of a single type.
+ *
+ * <p>
+ * The pool holds at least the number of instances that is set by the
+ * {@link ResourceFactory}. These are recreated in the background if one of
+ * them had to be closed. Up to a given number of additional overflow
+ * instances are only created on demand, when all other instances are
+ * borrowed, and closed again when they are returned while another instance
+ * is idle. Callers
+ * that can not be served immediately wait in the order of their arrival
+ * until a resource is returned or the borrow timeout expires.
+ * </p>
+ *
+ * @param <T> Type of {@link ExternalResource} in this pool.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class ResourceTypePool<T extends ExternalResource> {
+    /** Logger for this class. */
+    private static final Logger LOGGER =
+        LogManager.getLogger(ResourceTypePool.class);
+
+    /** Time in msec to wait for a resource that is being created. */
+    private static final long RETRY_INTERVAL = 50;
+
+    /** The factory to create new resources. */
+    private final ResourceFactory<T> factory;
+
+    /** Number of instances to keep. */
+    private final int minInstances;
+
+    /** Maximum number of instances. */
+    private final int maxInstances;
+
+    /** Permits to borrow a resource, handed out in the order of requests. */
+    private final Semaphore permits;
+
+    /** The idle resources. */
+    private final BlockingQueue<T> idle;
+
+    /** Number of resources that exist or are being created. */
+    private final AtomicInteger instances;
+
+    /** Number of borrowed resources. */
+    private final AtomicInteger active;
+
+    /** Executor to create resources in the background. */
+    private final Executor prewarmer;
+
+    /** Receivers of the measurements. */
+    private final Collection<PoolMetrics> metrics;
+
+    /** Times in msec when the borrowed resources were handed out. */
+    private final ConcurrentMap<ResourceIdentity, Borrow> borrowed;
+
+    /** Flag if this pool has been closed. */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new object.
+     * @param resourceFactory the factory to create new resources
+     * @param overflow number of instances that may be created on demand in
+     *          addition to those requested by the factory
+     * @param executor executor to create resources in the background
+     * @param receivers receivers of the measurements
+     */
+    ResourceTypePool(final ResourceFactory<T> resourceFactory,
+            final int overflow, final Executor executor,
+            final Collection<PoolMetrics> receivers) {
+        factory = resourceFactory;
+        minInstances = resourceFactory.getInstances();
+        maxInstances = minInstances + overflow;
+        permits = new Semaphore(maxInstances, true);
+        idle = new LinkedBlockingQueue<T>();
+        instances = new AtomicInteger();
+        active = new AtomicInteger();
+        prewarmer = executor;
+        metrics = receivers;
+        borrowed = new ConcurrentHashMap<ResourceIdentity, Borrow>();
+    }
+
+    /**
+     * Creates the instances that are requested by the factory.
+     * @exception NoresourceError
+     *            error creating a resource
+     */
+    void populate() throws NoresourceError {
+        try {
+            for (int i = 0; i < minInstances; i++) {
+                if (!reserve()) {
+                    return;
+                }
+                final T resource = create();
+                idle.add(resource);
+            }
+        } catch (NoresourceError e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a resource from this pool.
+     * @param timeout maximum time in msec to wait for a resource
+     * @return borrowed resource
+     * @exception NoresourceError
+     *            no resource available within the given time
+     */
+    T borrow(final long timeout) throws NoresourceError {
+        if (closed) {
+            throw new NoresourceError("Pool of type '" + factory.getType()
+                    + "' is closed!");
+        }
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                final long wait = elapsed(start);
+                for (PoolMetrics receiver : metrics) {
+                    receiver.exhausted(factory.getType(), wait);
+                }
+                throw new NoresourceError("No resource of type '"
+                        + factory.getType() + "' available within "
+                        + timeout + " msec");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoresourceError(e.getMessage(), e);
+        }
+        T resource = null;
+        try {
+            resource = obtain(deadline);
+            resource.activate();
+        } catch (NoresourceError e) {
+            if (resource != null) {
+                destroy(resource);
+            }
+            permits.release();
+            prewarm();
+            throw e;
+        }
+        active.incrementAndGet();
+        final long wait = elapsed(start);
+        borrowed.put(new ResourceIdentity(resource),
+                new Borrow(System.currentTimeMillis()));
+        for (PoolMetrics receiver : metrics) {
+            receiver.borrowed(factory.getType(), wait);
+        }
+        prewarm();
+        return resource;
+    }
+
+    /**
+     * Obtains an idle resource or creates a new one. This method must only
+     * be called with an acquired permit.
+     * @param deadline time in nanoseconds until a resource must be available
+     * @return the resource
+     * @exception NoresourceError
+     *            no resource available in time
+     */
+    private T obtain(final long deadline) throws NoresourceError {
+        while (true) {
+            final T resource = idle.poll();
+            if (resource != null) {
+                return resource;
+            }
+            if (reserve()) {
+                return create();
+            }
+            // All instances exist or are being created. Since we hold a
+            // permit, one of them is about to become idle.
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new NoresourceError("No resource of type '"
+                        + factory.getType() + "' available in time");
+            }
+            final long wait = Math.min(remaining,
+                    TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVAL));
+            try {
+                final T created = idle.poll(wait, TimeUnit.NANOSECONDS);
+                if (created != null) {
+                    return created;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NoresourceError(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns a previously borrowed resource to this pool.
+     * @param resource the resource
+     */
+    void giveBack(final T resource) {
+        active.decrementAndGet();
+        final Borrow borrow = borrowed.remove(new ResourceIdentity(resource));
+        if (borrow != null) {
+            final long inUse = System.currentTimeMillis() - borrow.getTime();
+            for (PoolMetrics receiver : metrics) {
+                receiver.returned(factory.getType(), inUse);
+            }
+        }
+        try {
+            resource.passivate();
+            if (closed) {
+                destroy(resource);
+            } else if (instances.get() > minInstances && !idle.isEmpty()
+                    && !permits.hasQueuedThreads()) {
+                // An overflow instance that is no longer needed.
+                destroy(resource);
+            } else {
+                idle.add(resource);
+            }
+        } catch (NoresourceError e) {
+            LOGGER.warn("error passivating resource of type '"
+                    + factory.getType() + "'", e);
+            destroy(resource);
+        } finally {
+            permits.release();
+        }
+        prewarm();
+    }
+
+    /**
+     * Creates a new resource in the background if there is no idle resource
+     * and there are less than the minimum number of instances, e.g., after
+     * a resource had to be closed. Overflow instances are not created in
+     * advance but only on demand.
+     */
+    private void prewarm() {
+        if (closed || !idle.isEmpty() || !reserve(minInstances)) {
+            return;
+        }
+        try {
+            prewarmer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final T resource = create();
+                        if (closed) {
+                            destroy(resource);
+                        } else {
+                            idle.add(resource);
+                        }
+                    } catch (NoresourceError e) {
+                        LOGGER.warn("error creating resource of type '"
+                                + factory.getType() + "'", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            instances.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reports all resources that are borrowed for longer than the given
+     * time and have not been reported before.
+     * @param threshold time in msec
+     */
+    void checkLeaks(final long threshold) {
+        final long now = System.currentTimeMillis();
+        final Collection<Borrow> borrows = borrowed.values();
+        for (Borrow borrow : borrows) {
+            final long inUse = now - borrow.getTime();
+            if (inUse > threshold && borrow.markReported()) {
+                LOGGER.warn("resource of type '" + factory.getType()
+                        + "' has not been returned for " + inUse + " msec");
+                for (PoolMetrics receiver : metrics) {
+                    receiver.leaked(factory.getType(), inUse);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the time in msec since the given start.
+     * @param start start time in nanoseconds
+     * @return elapsed time in msec
+     */
+    private static long elapsed(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Reserves the creation of a new instance.
+     * @return <code>true</code> if the maximum number of instances has not
+     *         been reached
+     */
+    private boolean reserve() {
+        return reserve(maxInstances);
+    }
+
+    /**
+     * Reserves the creation of a new instance up to the given limit.
+     * @param limit maximum number of instances
+     * @return <code>true</code> if the limit has not been reached
+     */
+    private boolean reserve(final int limit) {
+        int current = instances.get();
+        while (current < limit) {
+            if (instances.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = instances.get();
+        }
+        return false;
+    }
+
+    /**
+     * Creates and opens a new resource. The creation must have been
+     * reserved.
+     * @return the new resource
+     * @exception NoresourceError
+     *            error creating the resource
+     */
+    private T create() throws NoresourceError {
+        try {
+            final T resource = factory.createResource();
+            resource.open();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("created resource of type '" + factory.getType()
+                        + "' (" + instances.get() + "/" + maxInstances + ")");
+            }
+            return resource;
+        } catch (NoresourceError e) {
+            instances.decrementAndGet();
+            throw new NoresourceError("error creating resource of type "
+                    + factory.getType() + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            instances.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the given resource.
+     * @param resource the resource
+     */
+    private void destroy(final T resource) {
+        instances.decrementAndGet();
+        resource.close();
+    }
+
+    /**
+     * Retrieves the number of borrowed resources.
+     * @return number of borrowed resources
+     */
+    int getNumActive() {
+        return active.get();
+    }
+
+    /**
+     * Retrieves the number of idle resources.
+     * @return number of idle resources
+     */
+    int getNumIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Retrieves the number of callers that wait for a resource.
+     * @return number of waiting callers
+     */
+    int getNumWaiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Closes all idle resources. Borrowed resources are closed when they are
+     * returned.
+     */
+    void close() {
+        closed = true;
+        T resource = idle.poll();
+        while (resource != null) {
+            destroy(resource);
+            resource = idle.poll();
+        }
+    }
+
+    /**
+     * Key to identify a borrowed resource by identity rather than by
+     * equality.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class ResourceIdentity {
+        /** The resource. */
+        private final Object resource;
+
+        /**
+         * Constructs a new object.
+         * @param object the resource
+         */
+        ResourceIdentity(final Object object) {
+            resource = object;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(resource);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ResourceIdentity)) {
+                return false;
+            }
+            final ResourceIdentity other = (ResourceIdentity) obj;
+            return resource == other.resource;
+        }
+    }
+
+    /**
+     * A single borrow of a resource.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class Borrow {
+        /** Time in msec when the resource was handed out. */
+        private final long time;
+
+        /** Flag if this borrow has been reported as a leak. */
+        private final AtomicBoolean reported;
+
+        /**
+         * Constructs a new object.
+         * @param borrowTime time in msec when the resource was handed out
+         */
+        Borrow(final long borrowTime) {
+            time = borrowTime;
+            reported = new AtomicBoolean();
+        }
+
+        /**
+         * Retrieves the time when the resource was handed out.
+         * @return time in msec
+         */
+        long getTime() {
+            return time;
+        }
+
+        /**
+         * Marks this borrow as reported.
+         * @return <code>true</code> if it has not been reported before
+         */
+        boolean markReported() {
+            return reported.compareAndSet(false, true);
+        }
+    }
+}
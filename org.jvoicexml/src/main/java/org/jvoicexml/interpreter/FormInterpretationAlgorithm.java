@@ -29,10 +29,14 @@ import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.sound.sampled.AudioFormat;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jvoicexml.Application;
+import org.jvoicexml.AudioRecording;
 import org.jvoicexml.CallControl;
 import org.jvoicexml.CallControlProperties;
 import org.jvoicexml.Configuration;
@@ -1349,7 +1353,7 @@ public final class FormInterpretationAlgorithm implements FormItemVisitor {
         // Execute...
         final ObjectExecutorThread objectExecutor = new ObjectExecutorThread(
                 context, object);
-        objectExecutor.start();
+        execute(objectExecutor, "ObjectExecutor");
     }
 
     /**
@@ -1384,9 +1388,15 @@ public final class FormInterpretationAlgorithm implements FormItemVisitor {
         final EventBus eventbus = context.getEventBus();
         platform.setEventBus(eventbus);
 
+        // Store the recording while it is being recorded
+        final AudioFormat format = call.getRecordingAudioFormat();
+        final DocumentServer server = context.getDocumentServer();
+        final AudioRecording audio = server.createAudioRecording(format,
+                maxTime);
+
         // Notify that the recording has started
         final RecordingReceiverThread recording = new RecordingReceiverThread(
-                eventbus, maxTime);
+                eventbus, maxTime, audio);
         final Session session = context.getSession();
         final String sessionId = session.getSessionId();
         final RecordingStartedEvent started =
@@ -1394,14 +1404,25 @@ public final class FormInterpretationAlgorithm implements FormItemVisitor {
         eventbus.publish(started);
 
         // Actually start the recording
-        recording.start();
+        try {
+            execute(recording, "RecordingReceiver");
+        } catch (NoresourceError e) {
+            audio.discard();
+            throw e;
+        }
 
         // Start recording
         final OutputStream stream = recording.getOutputStream();
+        boolean recordingStarted = false;
         try {
             call.startRecording(input, stream, null);
+            recordingStarted = true;
         } catch (IOException e) {
             throw new NoresourceError(e.getMessage(), e);
+        } finally {
+            if (!recordingStarted) {
+                recording.cancel();
+            }
         }
     }
 
@@ -1455,10 +1476,35 @@ public final class FormInterpretationAlgorithm implements FormItemVisitor {
                 new VoiceXmlInterpreterContext(session, configuration,
                         observer, subdialogModel);
         final EventBus bus = context.getEventBus();
-        // Start the subdialog thread
-        final Thread thread = new SubdialogExecutorThread(resolvedUri,
+        // Start the subdialog
+        final Runnable executor = new SubdialogExecutorThread(resolvedUri,
                 subdialogContext, application, parameters, bus, model);
-        thread.start();
+        execute(executor, "SubdialogExecutor");
+    }
+
+    /**
+     * Executes the given task concurrently to the session with the
+     * {@link SessionExecutor} of the session.
+     * 
+     * @param task
+     *            the task to execute
+     * @param name
+     *            name of the task
+     * @throws NoresourceError
+     *             the task could not be started
+     * @since 0.7.9
+     */
+    private void execute(final Runnable task, final String name)
+            throws NoresourceError {
+        final JVoiceXmlSession session = (JVoiceXmlSession) context
+                .getSession();
+        final SessionExecutor executor = session.getSessionExecutor();
+        final String sessionId = session.getSessionId();
+        try {
+            executor.execute(task, name + "-" + sessionId);
+        } catch (RejectedExecutionException e) {
+            throw new NoresourceError("unable to start " + name, e);
+        }
     }
 
     /**
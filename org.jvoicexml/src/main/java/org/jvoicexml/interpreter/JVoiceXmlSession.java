@@ -24,6 +24,10 @@ package org.jvoicexml.interpreter;
 import java.net.URI;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,6 +54,7 @@ import org.jvoicexml.event.plain.implementation.SpokenInputEvent;
 import org.jvoicexml.event.plain.implementation.SynthesizedOutputEvent;
 import org.jvoicexml.interpreter.datamodel.Connection;
 import org.jvoicexml.interpreter.datamodel.DataModel;
+import org.jvoicexml.interpreter.executor.ThreadSessionExecutor;
 import org.jvoicexml.interpreter.scope.Scope;
 import org.jvoicexml.interpreter.scope.ScopeObserver;
 import org.jvoicexml.interpreter.scope.ScopedCollection;
@@ -61,22 +66,28 @@ import org.slf4j.MDC;
  * Implementation of a {@link Session}.
  * 
  * <p>
- * Each session is started in a new thread with the session id as the name.
+ * Each session is executed by a {@link SessionExecutor} with the session id
+ * as the name of the task. Tasks that the session runs concurrently, like
+ * subdialogs, are executed by the same {@link SessionExecutor}.
  * </p>
  * 
  * @author Dirk Schnelle-Walka
  */
-public class JVoiceXmlSession extends Thread
-        implements Session, EventSubscriber {
+public class JVoiceXmlSession
+        implements Session, EventSubscriber, Runnable {
     /** Logger for this class. */
     private static final Logger LOGGER = LogManager
             .getLogger(JVoiceXmlSession.class);
 
+    /** The executor if none is specified. */
+    private static final SessionExecutor DEFAULT_EXECUTOR =
+            new ThreadSessionExecutor();
+
     /** The connection info that was used when connecting to JVoiceXML. */
     private final ConnectionInformation info;
 
     /** The VoiceXML interpreter context related to this session. */
-    private VoiceXmlInterpreterContext context;
+    private volatile VoiceXmlInterpreterContext context;
 
     /** Reference to the implementation platform. */
     private final ImplementationPlatform implementationPlatform;
@@ -100,7 +111,7 @@ public class JVoiceXmlSession extends Thread
     private ErrorEvent processingError;
 
     /** Flag, of this session is closed. */
-    private boolean closed;
+    private volatile boolean closed;
 
     /** Registered session listeners. */
     private final ScopedCollection<SessionListener> sessionListeners;
@@ -114,12 +125,22 @@ public class JVoiceXmlSession extends Thread
     /** The configuration to use. */
     private final Configuration configuration;
 
-    /** Semaphore to that is set while the session is running. */
-    private final Object sem;
+    /**
+     * Lock to wait for the end of the session. A lock is used rather than a
+     * monitor so that virtual threads do not pin their carrier while
+     * waiting.
+     */
+    private final Lock endLock;
+
+    /** Condition that is signaled when the session has ended. */
+    private final Condition ended;
 
     /** The URI of the application to call. */
     private URI applicationUri;
 
+    /** The executor of this session. */
+    private final SessionExecutor executor;
+
     /**
      * Constructs a new object.
      * 
@@ -136,6 +157,28 @@ public class JVoiceXmlSession extends Thread
             final JVoiceXmlCore jvxml,
             final ConnectionInformation connectionInformation,
             final Profile prof) {
+        this(ip, jvxml, connectionInformation, prof, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Constructs a new object.
+     * 
+     * @param ip
+     *            the implementation platform.
+     * @param jvxml
+     *            the main object to retrieve further resources.
+     * @param connectionInformation
+     *            the connection information to use
+     * @param prof
+     *            the profile
+     * @param sessionExecutor
+     *            the executor of this session
+     * @since 0.7.9
+     */
+    public JVoiceXmlSession(final ImplementationPlatform ip,
+            final JVoiceXmlCore jvxml,
+            final ConnectionInformation connectionInformation,
+            final Profile prof, final SessionExecutor sessionExecutor) {
         // Create a unique session id
         uuid = UUID.randomUUID();
         // Store it in the MDC so that the session Id can be used by the loggers
@@ -150,8 +193,10 @@ public class JVoiceXmlSession extends Thread
         grammarProcessor = jvxml.getGrammarProcessor();
         scopeObserver = new ScopeObserver();
         configuration = jvxml.getConfiguration();
-        sem = new Object();
+        endLock = new ReentrantLock();
+        ended = endLock.newCondition();
         closed = false;
+        executor = sessionExecutor;
         sessionListeners = new ScopedCollection<SessionListener>(scopeObserver);
         detailedSessionListeners =
                 new java.util.ArrayList<DetailedSessionListener>();
@@ -222,10 +267,20 @@ public class JVoiceXmlSession extends Thread
         return profile;
     }
 
+    /**
+     * Retrieves the executor of this session.
+     * 
+     * @return the executor
+     * @since 0.7.9
+     */
+    public SessionExecutor getSessionExecutor() {
+        return executor;
+    }
+
     /**
      * {@inheritDoc}
      * 
-     * Starts this session in a new thread.
+     * Starts this session with the {@link SessionExecutor}.
      */
     public Application call(final URI uri) throws ErrorEvent {
         if (closed) {
@@ -239,25 +294,46 @@ public class JVoiceXmlSession extends Thread
         application = new JVoiceXmlApplication(scopeObserver);
         applicationUri = uri;
         final String sessionId = getSessionId();
-        setName(sessionId);
 
         // Start processing of the given URI
-        start();
+        try {
+            executor.execute(this, sessionId);
+        } catch (RejectedExecutionException e) {
+            final NoresourceError error =
+                    new NoresourceError("unable to start the session", e);
+            processingError = error;
+            cleanup();
+            throw error;
+        }
 
         return application;
     }
 
     /**
      * {@inheritDoc}
+     *
+     * If the session has not been started yet, it is closed immediately.
      */
     public void hangup() {
-        if (closed) {
+        final VoiceXmlInterpreterContext current;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            current = context;
+            if (current == null) {
+                closed = true;
+            }
+        }
+        if (current == null) {
+            LOGGER.info("hangup before the session started");
+            release();
             return;
         }
 
         // Generate a hangup event.
         LOGGER.info("initiating a hangup event");
-        final EventBus eventbus = context.getEventBus();
+        final EventBus eventbus = current.getEventBus();
         final JVoiceXMLEvent event = new ConnectionDisconnectHangupEvent();
         eventbus.publish(event);
     }
@@ -296,15 +372,16 @@ public class JVoiceXmlSession extends Thread
         }
 
         // Wait until the session ends.
-        synchronized (sem) {
-            try {
-                if (!closed) {
-                    sem.wait();
-                }
-            } catch (InterruptedException e) {
-                throw new NoresourceError(
-                        "waiting for end of session interrupted", e);
+        endLock.lock();
+        try {
+            while (!closed) {
+                ended.await();
             }
+        } catch (InterruptedException e) {
+            throw new NoresourceError(
+                    "waiting for end of session interrupted", e);
+        } finally {
+            endLock.unlock();
         }
         LOGGER.info("...session ended");
         if (processingError != null) {
@@ -346,7 +423,28 @@ public class JVoiceXmlSession extends Thread
      */
     @Override
     public void run() {
-        createContext();
+        // Store the session Id in the MDC of the executing thread
+        MDC.put("sessionId", uuid.toString());
+        try {
+            process();
+        } finally {
+            MDC.remove("sessionId");
+        }
+    }
+
+    /**
+     * Processes the application.
+     * 
+     * @since 0.7.9
+     */
+    private void process() {
+        synchronized (this) {
+            if (closed) {
+                LOGGER.info("session closed before it started");
+                return;
+            }
+            createContext();
+        }
 
         try {
             final DocumentDescriptor descriptor = new DocumentDescriptor(
@@ -414,18 +512,36 @@ public class JVoiceXmlSession extends Thread
      */
     private void cleanup() {
         LOGGER.info("finished processing application '" + application + "'");
-        if (closed) {
-            return;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
         }
-        closed = true;
+        release();
+    }
+
+    /**
+     * Releases all acquired resources of this session that has just been
+     * marked as closed and notifies the listeners. The context only needs to
+     * be released if the session has been started.
+     * 
+     * @since 0.7.9
+     */
+    private void release() {
         LOGGER.info("closing session...");
 
-        profile.terminate(context);
+        final VoiceXmlInterpreterContext current = context;
+        if (current != null) {
+            profile.terminate(current);
+        }
         implementationPlatform.close();
         final String sessionId = getSessionId();
         documentServer.sessionClosed(sessionId);
-        scopeObserver.exitScope(Scope.SESSION);
-        context.close();
+        if (current != null) {
+            scopeObserver.exitScope(Scope.SESSION);
+            current.close();
+        }
 
         LOGGER.info("...session closed");
         notifySessionEnded();
@@ -468,9 +584,12 @@ public class JVoiceXmlSession extends Thread
             }
         }
 
-        // Also notify the end of the session via the sem
-        synchronized (sem) {
-            sem.notifyAll();
+        // Also notify the end of the session to the waiting threads
+        endLock.lock();
+        try {
+            ended.signalAll();
+        } finally {
+            endLock.unlock();
         }
     }
 
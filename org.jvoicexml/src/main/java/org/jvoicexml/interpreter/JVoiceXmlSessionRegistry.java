@@ -0,0 +1,372 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.Session;
+import org.jvoicexml.SessionListener;
+import org.jvoicexml.SessionRegistry;
+
+/**
+ * Registry of the sessions of the interpreter.
+ *
+ * <p>
+ * The sessions are distributed over a fixed number of shards by their
+ * session id. Each shard is a concurrent map so that sessions can be
+ * created, looked up and closed without a common lock. Registered sessions
+ * are removed automatically when they end.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class JVoiceXmlSessionRegistry
+        implements SessionRegistry, SessionListener {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(JVoiceXmlSessionRegistry.class);
+
+    /** Number of shards. Must be a power of two. */
+    private static final int SHARDS = 16;
+
+    /** The shards with the registered sessions by their session id. */
+    private final Shard[] shards;
+
+    /** The registered sessions by their call id. */
+    private final ConcurrentMap<String, Entry> calls;
+
+    /** Number of registered sessions. */
+    private final AtomicInteger count;
+
+    /** Monitor that is notified when the last session is removed. */
+    private final Object empty;
+
+    /**
+     * Constructs a new object.
+     */
+    public JVoiceXmlSessionRegistry() {
+        shards = new Shard[SHARDS];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        calls = new ConcurrentHashMap<String, Entry>();
+        count = new AtomicInteger();
+        empty = new Object();
+    }
+
+    /**
+     * Retrieves the shard of the given session id.
+     * @param sessionId the session id
+     * @return the shard
+     */
+    private Shard getShard(final String sessionId) {
+        int hash = sessionId.hashCode();
+        hash ^= hash >>> 16;
+        return shards[hash & (SHARDS - 1)];
+    }
+
+    /**
+     * Registers the given session. The session is removed when it ends.
+     * @param session the session to register
+     */
+    public void register(final Session session) {
+        final String sessionId = session.getSessionId();
+        final Shard shard = getShard(sessionId);
+        final Entry entry = new Entry(session);
+        if (shard.getEntries().putIfAbsent(sessionId, entry) != null) {
+            return;
+        }
+        count.incrementAndGet();
+        session.addSessionListener(this);
+        if (session.hasEnded()) {
+            unregister(session);
+        }
+    }
+
+    /**
+     * Removes the given session.
+     * @param session the session to remove
+     * @return <code>true</code> if the session was registered
+     */
+    public boolean unregister(final Session session) {
+        final String sessionId = session.getSessionId();
+        final Shard shard = getShard(sessionId);
+        final Entry entry = shard.getEntries().remove(sessionId);
+        if (entry == null) {
+            return false;
+        }
+        final String callId = entry.getCallId();
+        if (callId != null) {
+            calls.remove(callId, entry);
+        }
+        if (count.decrementAndGet() == 0) {
+            synchronized (empty) {
+                empty.notifyAll();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Session getSession(final String sessionId) {
+        final Shard shard = getShard(sessionId);
+        final Entry entry = shard.getEntries().get(sessionId);
+        if (entry == null) {
+            return null;
+        }
+        return entry.getSession();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Session getSessionByCallId(final String callId) {
+        final Entry entry = calls.get(callId);
+        if (entry == null) {
+            return null;
+        }
+        return entry.getSession();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setCallId(final Session session, final String callId) {
+        final String sessionId = session.getSessionId();
+        final Shard shard = getShard(sessionId);
+        final Entry entry = shard.getEntries().get(sessionId);
+        if (entry == null) {
+            return false;
+        }
+        final String previous = entry.getCallId();
+        if (previous != null) {
+            calls.remove(previous, entry);
+        }
+        entry.setCallId(callId);
+        calls.put(callId, entry);
+        // The session may have ended meanwhile.
+        if (shard.getEntries().get(sessionId) != entry) {
+            calls.remove(callId, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<Session> getSessions() {
+        return new Iterable<Session>() {
+            @Override
+            public Iterator<Session> iterator() {
+                return new SessionIterator();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * Hangs up all registered sessions and waits until they ended.
+     * @param timeout maximum time in msec to wait for the sessions to end
+     * @return number of sessions that did not end within the timeout
+     */
+    public int hangupAll(final long timeout) {
+        for (Session session : getSessions()) {
+            try {
+                session.hangup();
+            } catch (RuntimeException e) {
+                LOGGER.warn("error hanging up session "
+                        + session.getSessionId(), e);
+            }
+        }
+        final long end = System.currentTimeMillis() + timeout;
+        synchronized (empty) {
+            long remaining = timeout;
+            while ((count.get() > 0) && (remaining > 0)) {
+                try {
+                    empty.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = end - System.currentTimeMillis();
+            }
+        }
+        return count.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sessionStarted(final Session session) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sessionEnded(final Session session) {
+        unregister(session);
+    }
+
+    /**
+     * A registered session together with its call id.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class Entry {
+        /** The session. */
+        private final Session session;
+
+        /** The call id, <code>null</code> if none has been assigned. */
+        private volatile String callId;
+
+        /**
+         * Constructs a new object.
+         * @param registered the session
+         */
+        Entry(final Session registered) {
+            session = registered;
+        }
+
+        /**
+         * Retrieves the session.
+         * @return the session
+         */
+        Session getSession() {
+            return session;
+        }
+
+        /**
+         * Retrieves the call id.
+         * @return the call id, <code>null</code> if none has been assigned
+         */
+        String getCallId() {
+            return callId;
+        }
+
+        /**
+         * Sets the call id.
+         * @param id the call id
+         */
+        void setCallId(final String id) {
+            callId = id;
+        }
+    }
+
+    /**
+     * A part of the registered sessions.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private static final class Shard {
+        /** The registered sessions by their session id. */
+        private final ConcurrentMap<String, Entry> entries;
+
+        /**
+         * Constructs a new object.
+         */
+        Shard() {
+            entries = new ConcurrentHashMap<String, Entry>();
+        }
+
+        /**
+         * Retrieves the registered sessions.
+         * @return the registered sessions by their session id
+         */
+        ConcurrentMap<String, Entry> getEntries() {
+            return entries;
+        }
+    }
+
+    /**
+     * Iterator over the sessions of all shards.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private final class SessionIterator implements Iterator<Session> {
+        /** Index of the next shard to iterate. */
+        private int shard;
+
+        /** Iterator over the current shard. */
+        private Iterator<Entry> current;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            while ((current == null) || !current.hasNext()) {
+                if (shard == shards.length) {
+                    return false;
+                }
+                current = shards[shard].getEntries().values().iterator();
+                ++shard;
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Session next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Entry entry = current.next();
+            return entry.getSession();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -60,7 +60,7 @@ import org.jvoicexml.xml.vxml.ObjectTag;
  * @author Andrew Nick (ucmtech@sourceforge.net)
  * @author Dirk Schnelle-Walka
  */
-final class ObjectExecutorThread extends Thread {
+final class ObjectExecutorThread implements Runnable {
     /** Logger for this class. */
     private static final Logger LOGGER = LogManager
             .getLogger(ObjectExecutorThread.class);
@@ -108,9 +108,6 @@ final class ObjectExecutorThread extends Thread {
      */
     ObjectExecutorThread(final VoiceXmlInterpreterContext ctx,
             final ObjectFormItem item) throws SemanticError, BadFetchError {
-        setDaemon(true);
-        setName("ObjectExecutor");
-
         context = ctx;
         object = item;
         eventbus = context.getEventBus();
@@ -21,6 +21,7 @@
 
 package org.jvoicexml.interpreter;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
@@ -30,6 +31,7 @@ import org.apache.commons.lang3.StringEscapeUtils;
 import org.jvoicexml.DocumentDescriptor;
 import org.jvoicexml.DocumentServer;
 import org.jvoicexml.Session;
+import org.jvoicexml.documentserver.ReadBuffer;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.SemanticError;
 import org.jvoicexml.interpreter.datamodel.DataModel;
@@ -130,7 +132,9 @@ class ParamParser {
                     final String type = param.getType();
                     final DocumentDescriptor descriptor =
                             new DocumentDescriptor(uri);
-                    value = server.getObject(sessionId, descriptor, type);
+                    final Object object = server.getObject(sessionId,
+                            descriptor, type);
+                    value = detach(object);
                 }
             }
             parameters.put(name, value);
@@ -180,7 +184,9 @@ class ParamParser {
                     final String type = param.getType();
                     final DocumentDescriptor descriptor =
                             new DocumentDescriptor(uri);
-                    value = server.getObject(sessionId, descriptor, type);
+                    final Object object = server.getObject(sessionId,
+                            descriptor, type);
+                    value = detach(object);
                 }
             }
             parameters.add(value);
@@ -188,4 +194,26 @@ class ParamParser {
 
         return parameters;
     }
+
+    /**
+     * Copies a buffer that has been retrieved from the document server into
+     * memory. The parameter values are handed out to consumers that do not
+     * release the buffer.
+     * @param object the retrieved object
+     * @return the object to use as the value of the parameter
+     * @throws BadFetchError
+     *             error reading the buffer
+     * @since 0.7.9
+     */
+    private static Object detach(final Object object) throws BadFetchError {
+        if (!(object instanceof ReadBuffer)) {
+            return object;
+        }
+        final ReadBuffer buffer = (ReadBuffer) object;
+        try {
+            return buffer.detach();
+        } catch (IOException e) {
+            throw new BadFetchError(e.getMessage(), e);
+        }
+    }
 }
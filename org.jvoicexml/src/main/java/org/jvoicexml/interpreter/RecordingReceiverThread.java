@@ -21,13 +21,17 @@
 
 package org.jvoicexml.interpreter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jvoicexml.AudioRecording;
 import org.jvoicexml.event.EventBus;
 import org.jvoicexml.event.JVoiceXMLEvent;
+import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.event.plain.jvxml.RecordingEvent;
 
@@ -36,13 +40,14 @@ import org.jvoicexml.event.plain.jvxml.RecordingEvent;
  *
  * <p>
  * This implementation simply waits until the recording time has passed and
- * creates an appropriate event, once the time has passed.
+ * creates an appropriate event, once the time has passed. The recorded audio
+ * is stored by the {@link AudioRecording} while it is being recorded.
  * </p>
  *
  * @author Dirk Schnelle-Walka
  * @since 0.6
  */
-final class RecordingReceiverThread extends Thread {
+final class RecordingReceiverThread implements Runnable {
     /** Logger for this class. */
     private static final Logger LOGGER =
         LogManager.getLogger(RecordingReceiverThread.class);
@@ -53,21 +58,24 @@ final class RecordingReceiverThread extends Thread {
     /** Maximal recording time. */
     private final long maxTime;
 
-    /** The output stream buffer for the recording. */
-    private final ByteArrayOutputStream out;
+    /** The storage of the recording. */
+    private final AudioRecording recording;
+
+    /** Signal that the recording has been canceled. */
+    private final CountDownLatch canceled;
 
     /**
      * Creates a new object.
      * @param bus the event bus to propagate the end of the recording.
      * @param recordingTime maximal recording time.
+     * @param audioRecording the storage of the recording
      */
     RecordingReceiverThread(final EventBus bus,
-            final long recordingTime) {
+            final long recordingTime, final AudioRecording audioRecording) {
         eventbus = bus;
         maxTime = recordingTime;
-        setDaemon(true);
-        setName("RecordingReceiverThread");
-        out = new ByteArrayOutputStream();
+        recording = audioRecording;
+        canceled = new CountDownLatch(1);
     }
 
     /**
@@ -77,24 +85,45 @@ final class RecordingReceiverThread extends Thread {
     public void run() {
         LOGGER.info("waiting until record max timeout " + maxTime + " expired");
         try {
-            Thread.sleep(maxTime);
+            if (canceled.await(maxTime, TimeUnit.MILLISECONDS)) {
+                LOGGER.info("recording canceled");
+                recording.discard();
+                return;
+            }
         } catch (InterruptedException e) {
+            recording.discard();
             final JVoiceXMLEvent event = new NoresourceError(e.getMessage(), e);
             eventbus.publish(event);
             return;
         }
 
         // Take what was recorded so far and ignore the rest.
-        final byte[] buffer = out.toByteArray();
-        final JVoiceXMLEvent event = new RecordingEvent(buffer);
+        final URI uri;
+        try {
+            uri = recording.finish();
+        } catch (BadFetchError e) {
+            recording.discard();
+            eventbus.publish(e);
+            return;
+        }
+        final JVoiceXMLEvent event = new RecordingEvent(uri);
         eventbus.publish(event);
     }
 
+    /**
+     * Cancels the recording, e.g. if it could not be started. The
+     * recording is discarded and no event is published.
+     * @since 0.7.9
+     */
+    public void cancel() {
+        canceled.countDown();
+    }
+
     /**
      * Retrieves the output stream buffer for the recording.
      * @return output stream.
      */
     public OutputStream getOutputStream() {
-        return out;
+        return recording.getOutputStream();
     }
 }
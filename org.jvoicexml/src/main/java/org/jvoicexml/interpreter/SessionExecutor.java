@@ -0,0 +1,51 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Execution model of the sessions. Each session and each task that a
+ * session runs concurrently, like subdialogs, objects or recordings, is
+ * executed by a {@link SessionExecutor}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public interface SessionExecutor {
+    /**
+     * Executes the given task.
+     * @param task the task to execute
+     * @param name name of the task, e.g., the session id, to be used as the
+     *          name of the executing thread
+     * @exception RejectedExecutionException
+     *          if the task can not be accepted for execution
+     */
+    void execute(final Runnable task, final String name)
+        throws RejectedExecutionException;
+
+    /**
+     * Stops accepting new tasks. Tasks that are already running are not
+     * interrupted.
+     */
+    void shutdown();
+}
@@ -40,7 +40,7 @@ import org.jvoicexml.interpreter.scope.Scope;
  * @author Dirk Schnelle-Walka
  * @since 0.7.4
  */
-final class SubdialogExecutorThread extends Thread {
+final class SubdialogExecutorThread implements Runnable {
     /** The URI of the subdialog. */
     private final URI uri;
 
@@ -0,0 +1,81 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.datamodel;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+/**
+ * Provider of scopes with the ECMAScript standard objects like
+ * <code>Object</code>, <code>Array</code> or <code>JSON</code>.
+ *
+ * <p>
+ * The standard objects are created only once in a sealed scope that is
+ * shared by the root scopes of all sessions and by the global scopes for the
+ * execution of semantic interpretation tags. Each scope that is handed out
+ * uses this shared scope as its prototype, so that one session or grammar can
+ * not see or modify the variables of another one.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class StandardObjectsScope {
+    /** The shared scope with the standard objects. */
+    private static ScriptableObject standardObjects;
+
+    /**
+     * Do not create from outside.
+     */
+    private StandardObjectsScope() {
+    }
+
+    /**
+     * Retrieves the shared scope with the standard objects. The scope is
+     * created on the first call. Standard objects are loaded lazily upon
+     * their first use.
+     * @param context the current context
+     * @return the sealed shared scope
+     */
+    static synchronized ScriptableObject getStandardObjects(
+            final Context context) {
+        if (standardObjects == null) {
+            standardObjects = context.initStandardObjects(null, true);
+            standardObjects.sealObject();
+        }
+        return standardObjects;
+    }
+
+    /**
+     * Creates a new top level scope on top of the shared standard objects.
+     * @param context the current context
+     * @return new scope inheriting the standard objects
+     */
+    public static Scriptable createScope(final Context context) {
+        final ScriptableObject shared = getStandardObjects(context);
+        final Scriptable scope = context.newObject(shared);
+        scope.setPrototype(shared);
+        scope.setParentScope(null);
+        return scope;
+    }
+}
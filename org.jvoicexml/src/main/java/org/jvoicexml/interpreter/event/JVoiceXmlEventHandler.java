@@ -23,6 +23,9 @@ package org.jvoicexml.interpreter.event;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -93,8 +96,14 @@ public final class JVoiceXmlEventHandler implements EventHandler {
      */
     private final ScopedCollection<EventStrategy> strategies;
 
-    /** Semaphore to handle the wait/notify mechanism. */
-    private final Object semaphore;
+    /**
+     * Lock to wait for an event. A lock is used rather than a monitor so
+     * that virtual threads do not pin their carrier while waiting.
+     */
+    private final Lock lock;
+
+    /** Condition that is signaled when an event has been received. */
+    private final Condition received;
 
     /** The employed data model. */
     private final DataModel model;
@@ -111,7 +120,8 @@ public final class JVoiceXmlEventHandler implements EventHandler {
             final ScopeObserver observer) {
         strategies = new ScopedCollection<EventStrategy>(observer);
         inputItemFactory = new EventStrategyDecoratorFactory();
-        semaphore = new Object();
+        lock = new ReentrantLock();
+        received = lock.newCondition();
         filters = new java.util.ArrayList<EventFilter>();
         filters.add(new EventTypeFilter());
         filters.add(new ConditionEventTypeFilter());
@@ -427,17 +437,16 @@ public final class JVoiceXmlEventHandler implements EventHandler {
             LOGGER.debug("waiting for an event...");
         }
 
-        while (event == null) {
-            try {
-                synchronized (semaphore) {
-                    if (event == null) {
-                        semaphore.wait();
-                    }
-                }
-            } catch (InterruptedException ie) {
-                LOGGER.error("wait event was interrupted", ie);
-                return null;
+        lock.lock();
+        try {
+            while (event == null) {
+                received.await();
             }
+        } catch (InterruptedException ie) {
+            LOGGER.error("wait event was interrupted", ie);
+            return null;
+        } finally {
+            lock.unlock();
         }
 
         if (LOGGER.isDebugEnabled()) {
@@ -549,13 +558,13 @@ public final class JVoiceXmlEventHandler implements EventHandler {
                     + "' current  event is '" + event.getEventType() + "'");
             return;
         }
-        synchronized (semaphore) {
-            try {
-                event = e;
-                LOGGER.info("notified event '" + event.getEventType() + "'");
-            } finally {
-                semaphore.notify();
-            }
+        lock.lock();
+        try {
+            event = e;
+            LOGGER.info("notified event '" + event.getEventType() + "'");
+            received.signal();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -0,0 +1,63 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+/**
+ * A task that names the executing thread while it is running.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+final class NamedTask implements Runnable {
+    /** The task to run. */
+    private final Runnable task;
+
+    /** Name of the task. */
+    private final String name;
+
+    /**
+     * Constructs a new object.
+     * @param runnable the task to run
+     * @param taskName name of the task
+     */
+    NamedTask(final Runnable runnable, final String taskName) {
+        task = runnable;
+        name = taskName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run() {
+        final Thread thread = Thread.currentThread();
+        final String previous = thread.getName();
+        if (name != null) {
+            thread.setName(name);
+        }
+        try {
+            task.run();
+        } finally {
+            thread.setName(previous);
+        }
+    }
+}
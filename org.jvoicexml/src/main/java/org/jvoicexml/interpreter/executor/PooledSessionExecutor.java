@@ -0,0 +1,111 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.interpreter.SessionExecutor;
+
+/**
+ * A {@link SessionExecutor} that runs the tasks on a bounded pool of
+ * platform threads.
+ *
+ * <p>
+ * Idle threads are reused for new tasks. Tasks are never queued. If all
+ * threads are busy, new tasks are rejected so that a caller learns
+ * immediately that there is no capacity for another session. The threads
+ * are daemon threads so that they do not keep the JVM alive.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class PooledSessionExecutor implements SessionExecutor {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(PooledSessionExecutor.class);
+
+    /** The default maximum number of threads. */
+    private static final int DEFAULT_MAX_THREADS = 200;
+
+    /** The default time in msec that idle threads are kept. */
+    private static final long DEFAULT_KEEP_ALIVE = 60000;
+
+    /** The thread pool. */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructs a new object.
+     */
+    public PooledSessionExecutor() {
+        executor = new ThreadPoolExecutor(0, DEFAULT_MAX_THREADS,
+                DEFAULT_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Sets the maximum number of threads.
+     * @param threads maximum number of threads
+     */
+    public void setMaxThreads(final int threads) {
+        executor.setMaximumPoolSize(threads);
+        LOGGER.info("maximum number of session threads: " + threads);
+    }
+
+    /**
+     * Sets the time that idle threads are kept.
+     * @param msec time in msec
+     */
+    public void setKeepAlive(final long msec) {
+        executor.setKeepAliveTime(msec, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable task, final String name)
+        throws RejectedExecutionException {
+        executor.execute(new NamedTask(task, name));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
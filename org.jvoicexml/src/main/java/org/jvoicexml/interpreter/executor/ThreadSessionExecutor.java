@@ -0,0 +1,64 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jvoicexml.interpreter.SessionExecutor;
+
+/**
+ * A {@link SessionExecutor} that starts a new platform thread for each
+ * task. Like the former session threads, these threads are daemon threads
+ * so that they do not keep the JVM alive.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class ThreadSessionExecutor implements SessionExecutor {
+    /** Flag if this executor has been shut down. */
+    private volatile boolean shutdown;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable task, final String name)
+        throws RejectedExecutionException {
+        if (shutdown) {
+            throw new RejectedExecutionException("executor is shut down");
+        }
+        final Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        if (name != null) {
+            thread.setName(name);
+        }
+        thread.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvoicexml.interpreter.SessionExecutor;
+
+/**
+ * A {@link SessionExecutor} that starts a new virtual thread for each task.
+ *
+ * <p>
+ * Virtual threads are only available as of Java 21. They are created via
+ * reflection so that this class can be compiled and loaded by older
+ * versions. If virtual threads are not available, a new platform thread is
+ * started for each task instead.
+ * </p>
+ *
+ * <p>
+ * A virtual thread that blocks in <code>Object.wait()</code> or within a
+ * <code>synchronized</code> block pins its carrier thread on Java versions
+ * before 24. Hence, the session and its event handler wait with
+ * {@link java.util.concurrent.locks.Condition}s which let a blocked virtual
+ * thread unmount from its carrier.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class VirtualThreadSessionExecutor implements SessionExecutor {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LogManager
+            .getLogger(VirtualThreadSessionExecutor.class);
+
+    /** The method <code>Thread.ofVirtual()</code>. */
+    private static final Method OF_VIRTUAL;
+
+    /** The method <code>Thread.Builder.unstarted(Runnable)</code>. */
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual;
+        Method unstarted;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            ofVirtual = null;
+            unstarted = null;
+        } catch (ClassNotFoundException e) {
+            ofVirtual = null;
+            unstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    /** Fallback if virtual threads are not available. */
+    private final ThreadSessionExecutor fallback;
+
+    /** Flag if this executor has been shut down. */
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new object.
+     */
+    public VirtualThreadSessionExecutor() {
+        if (OF_VIRTUAL == null) {
+            LOGGER.warn("virtual threads are not available."
+                    + " using platform threads");
+            fallback = new ThreadSessionExecutor();
+        } else {
+            fallback = null;
+        }
+    }
+
+    /**
+     * Checks if virtual threads are available.
+     * @return <code>true</code> if virtual threads are available
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable task, final String name)
+        throws RejectedExecutionException {
+        if (shutdown) {
+            throw new RejectedExecutionException("executor is shut down");
+        }
+        if (fallback != null) {
+            fallback.execute(task, name);
+            return;
+        }
+        final Thread thread = newVirtualThread(task);
+        if (name != null) {
+            thread.setName(name);
+        }
+        thread.start();
+    }
+
+    /**
+     * Creates a new virtual thread that is not started.
+     * @param task the task to execute
+     * @return created thread
+     * @exception RejectedExecutionException
+     *          error creating the thread
+     */
+    private static Thread newVirtualThread(final Runnable task)
+        throws RejectedExecutionException {
+        try {
+            final Object builder = OF_VIRTUAL.invoke(null);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (IllegalAccessException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        } catch (InvocationTargetException e) {
+            throw new RejectedExecutionException(e.getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (fallback != null) {
+            fallback.shutdown();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Implementations of a {@link org.jvoicexml.interpreter.SessionExecutor}
+ * that define how sessions are mapped onto threads.
+ */
+
+package org.jvoicexml.interpreter.executor;
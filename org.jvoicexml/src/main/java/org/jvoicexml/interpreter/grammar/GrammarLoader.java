@@ -32,9 +32,11 @@ import org.jvoicexml.DocumentServer;
 import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.Session;
+import org.jvoicexml.documentserver.UriGrammarDocument;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.SemanticError;
 import org.jvoicexml.event.error.UnsupportedFormatError;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammars;
 import org.jvoicexml.interpreter.VoiceXmlInterpreterContext;
 import org.jvoicexml.interpreter.datamodel.DataModel;
 import org.jvoicexml.xml.IllegalAttributeException;
@@ -188,6 +190,10 @@ final class GrammarLoader {
         // Maybe adapt a builtin grammar URI
         final String scheme = src.getScheme();
         if ((scheme != null) && scheme.equalsIgnoreCase("builtin")) {
+            // Builtin grammars that we know need not to be fetched
+            if (BuiltinGrammars.getGrammar(src) != null) {
+                return loadBuiltinGrammar(src, grammar);
+            }
             final DocumentServer server = context.getDocumentServer();
             src = server.resolveBuiltinUri(src);
         }
@@ -206,6 +212,31 @@ final class GrammarLoader {
         return document;
     }
 
+    /**
+     * Creates a document for the given builtin grammar. The document only
+     * carries the builtin URI since the user input resolves builtin
+     * grammars itself. Hence, there is nothing to fetch from the document
+     * server.
+     *
+     * @param src
+     *            URI of the builtin grammar
+     * @param grammar
+     *            the grammar to be processed
+     * @return document referencing the builtin grammar
+     * @since 0.7.9
+     */
+    private GrammarDocument loadBuiltinGrammar(final URI src,
+            final Grammar grammar) {
+        LOGGER.info("using builtin grammar '" + src + "'");
+        final GrammarDocument document = new UriGrammarDocument(src, null,
+                null);
+        adaptGrammarAttributes(grammar, document);
+        if (document.getMediaType() == null) {
+            document.setMediaType(GrammarType.SRGS_XML);
+        }
+        return document;
+    }
+
     /**
      * Adapt the attributes of a loaded grammar document, i.e. type and mode.
      * @param grammar the grammar
@@ -272,9 +303,12 @@ final class GrammarLoader {
      * @param grammar
      *            the current grammar.
      * @return attributes governing the fetch.
+     * @throws BadFetchError
+     *             invalid <code>maxage</code> or <code>maxstale</code>
      */
-    private FetchAttributes adaptFetchAttributes(
-            final FetchAttributes docAttributes, final Grammar grammar) {
+    FetchAttributes adaptFetchAttributes(
+            final FetchAttributes docAttributes, final Grammar grammar)
+            throws BadFetchError {
         final FetchAttributes attributes;
         if (docAttributes == null) {
             attributes = new FetchAttributes();
@@ -290,13 +324,15 @@ final class GrammarLoader {
         if (fetchTimeout > 0) {
             attributes.setFetchTimeout(fetchTimeout);
         }
-        final long maxAge = grammar.getMaxageAsMsec();
-        if (maxAge > 0) {
-            attributes.setMaxage(maxAge);
+        final String maxAge = grammar.getMaxage();
+        if (maxAge != null) {
+            attributes.setMaxage(FetchAttributes.parseAge(
+                    Grammar.ATTRIBUTE_MAXAGE, maxAge));
         }
-        final long maxStale = grammar.getMaxageAsMsec();
-        if (maxStale > 0) {
-            attributes.setMaxstale(maxStale);
+        final String maxStale = grammar.getMaxstale();
+        if (maxStale != null) {
+            attributes.setMaxstale(FetchAttributes.parseAge(
+                    Grammar.ATTRIBUTE_MAXSTALE, maxStale));
         }
 
         return attributes;
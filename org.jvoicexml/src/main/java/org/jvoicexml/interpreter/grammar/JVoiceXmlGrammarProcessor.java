@@ -28,6 +28,7 @@ import org.jvoicexml.Configuration;
 import org.jvoicexml.ConfigurationException;
 import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.GrammarDocument;
+import org.jvoicexml.documentserver.UriGrammarDocument;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.event.error.SemanticError;
@@ -105,8 +106,11 @@ public final class JVoiceXmlGrammarProcessor implements GrammarProcessor {
         final GrammarDocument document = loader.loadGrammarDocument(context,
                 attributes, grammar, language);
 
-        // Identify the grammar.
-        identifyGrammar(grammar, document);
+        // Identify the grammar. Documents that are only referenced by their
+        // URI, like builtin grammars, have no content to identify.
+        if (!(document instanceof UriGrammarDocument)) {
+            identifyGrammar(grammar, document);
+        }
         adaptMode(grammar, document);
 
         return document;
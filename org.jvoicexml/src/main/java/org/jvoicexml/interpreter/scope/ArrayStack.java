@@ -0,0 +1,138 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.scope;
+
+import java.util.Arrays;
+
+/**
+ * A simple array-backed stack.
+ *
+ * <p>
+ * Other than {@link java.util.Stack} this stack is not synchronized. The
+ * scoped containers are only accessed by the thread of the interpreter.
+ * </p>
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ * @param <E> type of the elements on the stack
+ */
+final class ArrayStack<E> {
+    /** Initial capacity of the stack. */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** The elements on the stack. */
+    private Object[] elements;
+
+    /** Number of elements on the stack. */
+    private int size;
+
+    /**
+     * Constructs a new object.
+     */
+    ArrayStack() {
+        elements = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Pushes the given element onto the stack.
+     * @param element the element to push
+     */
+    void push(final E element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size] = element;
+        ++size;
+    }
+
+    /**
+     * Removes the topmost element from the stack.
+     * @return the removed element
+     * @exception IllegalStateException
+     *            if the stack is empty
+     */
+    E pop() {
+        final E element = peek();
+        --size;
+        elements[size] = null;
+        return element;
+    }
+
+    /**
+     * Retrieves the topmost element from the stack.
+     * @return the topmost element
+     * @exception IllegalStateException
+     *            if the stack is empty
+     */
+    E peek() {
+        if (size == 0) {
+            throw new IllegalStateException("stack is empty");
+        }
+        return get(size - 1);
+    }
+
+    /**
+     * Retrieves the element at the given position, starting with the
+     * element at the bottom.
+     * @param index position of the element
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    E get(final int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return (E) elements[index];
+    }
+
+    /**
+     * Checks if the stack is empty.
+     * @return <code>true</code> if there are no elements on the stack
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the number of elements on the stack.
+     * @return number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements from the stack.
+     */
+    void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(elements, size));
+    }
+}
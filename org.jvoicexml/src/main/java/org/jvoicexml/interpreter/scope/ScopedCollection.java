@@ -22,7 +22,8 @@ package org.jvoicexml.interpreter.scope;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Stack;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +41,13 @@ import org.apache.logging.log4j.Logger;
  * return those elements from the topmost scope prior to elements from lower
  * scopes.
  * </p>
+ * <p>
+ * Each scope keeps the elements that have been added while it was active,
+ * so that exiting a scope only touches the elements of that scope. The
+ * elements of all scopes are kept in a single list with the elements of the
+ * topmost scope at its tail. Hence, adding an element appends to the list
+ * and exiting a scope truncates its tail.
+ * </p>
  *
  *
  * @author Dirk Schnelle-Walka
@@ -53,14 +61,14 @@ public final class ScopedCollection<E>
             .getLogger(ScopedCollection.class);
 
     /** The scope stack. All changes are made to the topmost item. */
-    private final Stack<ScopedCollectionItem<E>> stack;
+    private final ArrayStack<ScopedCollectionItem<E>> stack;
 
-    /** A view onto all items of all elements. */
-    private final Collection<E> view;
+    /**
+     * A view onto all items of all elements. The elements of the topmost
+     * item are at the end.
+     */
+    private final List<E> view;
 
-    /** {@code true} if the view must be recreated. */
-    private boolean needRecreatedView;
-    
     /** The scope observer. */
     private final ScopeObserver observer;
 
@@ -72,7 +80,7 @@ public final class ScopedCollection<E>
      * @param scopeObserver The current scope observer.
      */
     public ScopedCollection(final ScopeObserver scopeObserver) {
-        stack = new Stack<ScopedCollectionItem<E>>();
+        stack = new ArrayStack<ScopedCollectionItem<E>>();
         view = new java.util.ArrayList<E>();
         if (scopeObserver != null) {
             observer = scopeObserver;
@@ -83,6 +91,7 @@ public final class ScopedCollection<E>
             observer = null;
             scope = null;
         }
+        stack.push(new ScopedCollectionItem<E>(scope));
     }
 
     /**
@@ -98,18 +107,32 @@ public final class ScopedCollection<E>
      *{@inheritDoc}
      */
     public void enterScope(final Scope previous, final Scope next) {
+        stack.push(new ScopedCollectionItem<E>(next));
         scope = next;
     }
 
     /**
      *{@inheritDoc}
+     *
+     * <p>
+     * Inner scopes that have not been exited explicitly are exited as
+     * well.
+     * </p>
      */
     public void exitScope(final Scope previous, final Scope next) {
-        if (!stack.isEmpty()) {
-            final ScopedCollectionItem<E> item = stack.peek();
-            if (item.getScope() == previous) {
-                stack.pop();
-                view.removeAll(item);
+        int index = stack.size() - 1;
+        while ((index >= 0) && (stack.get(index).getScope() != previous)) {
+            --index;
+        }
+        if (index >= 0) {
+            int removed = 0;
+            while (stack.size() > index) {
+                final ScopedCollectionItem<E> item = stack.pop();
+                removed += item.size();
+            }
+            if (removed > 0) {
+                final int size = view.size();
+                view.subList(size - removed, size).clear();
             }
         }
 
@@ -118,101 +141,87 @@ public final class ScopedCollection<E>
 
     /**
      * Retrieves the current collection. Usually this is the topmost item
-     * from the stack. If the stack is empty, a new item is created and
-     * pushed onto the stack
+     * from the stack. If the topmost item belongs to another scope, a new
+     * item is created and pushed onto the stack
      *
      * @return current collection.
      */
     private ScopedCollectionItem<E> getTopmostCollection() {
-        ScopedCollectionItem<E> item = null;
-        if (!stack.empty()) {
-            item = stack.peek();
+        if (!stack.isEmpty()) {
+            final ScopedCollectionItem<E> item = stack.peek();
+            if (item.getScope() == scope) {
+                return item;
+            }
         }
 
         // Create a new  entry in the scope stack if there are no items
         // on the stack or if the topmost scope differs from the current scope.
-        if (item == null) {
-            item = new ScopedCollectionItem<E>(scope);
-            stack.push(item);
-        } else if (item.getScope() != scope) {
-            item = new ScopedCollectionItem<E>(scope);
-            stack.push(item);
-        }
-
+        final ScopedCollectionItem<E> item =
+                new ScopedCollectionItem<E>(scope);
+        stack.push(item);
         return item;
     }
 
-    /**
-     * Retrieves the current view onto all elements.
-     * @return current view
-     * @since 0.7.7
-     */
-    private Collection<E> getView() {
-        if (needRecreatedView) {
-            view.clear();
-            for (int i = stack.size() - 1; i >= 0; i--) {
-                final ScopedCollectionItem<E> item = stack.get(i);
-                view.addAll(item);
-            }
-            needRecreatedView = false;
-        }
-        return view;
-    }
     /**
      * {@inheritDoc}
      */
     public boolean add(final E e) {
-        needRecreatedView = true;
         final ScopedCollectionItem<E> collection = getTopmostCollection();
-        return collection.add(e);
+        final boolean added = collection.add(e);
+        if (added) {
+            view.add(e);
+        }
+        return added;
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean addAll(final Collection<? extends E> c) {
-        needRecreatedView = true;
-        final ScopedCollectionItem<E> collection = getTopmostCollection();
-        return collection.addAll(c);
+        boolean changed = false;
+        for (E e : c) {
+            changed = add(e) || changed;
+        }
+        return changed;
     }
 
     /**
      * {@inheritDoc}
      */
     public void clear() {
-        needRecreatedView = true;
-        stack.clear();
+        for (int i = 0; i < stack.size(); i++) {
+            final ScopedCollectionItem<E> item = stack.get(i);
+            item.clear();
+        }
+        view.clear();
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean contains(final Object o) {
-        final Collection<E> currentView = getView();
-        return currentView.contains(o);
+        return view.contains(o);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean containsAll(final Collection<?> c) {
-        final Collection<E> currentView = getView();
-        return currentView.containsAll(c);
+        return view.containsAll(c);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean isEmpty() {
-        final Collection<E> currentView = getView();
-        return currentView.isEmpty();
+        return view.isEmpty();
     }
 
     /**
      * {@inheritDoc}
      */
     public Iterator<E> iterator() {
-        return view.iterator();
+        return new ScopedIterator();
     }
 
     /**
@@ -221,11 +230,15 @@ public final class ScopedCollection<E>
     public boolean remove(final Object o) {
         // Iterate over the stack and try to find the collection where
         // the item has been added
-        for (ScopedCollectionItem<E> item : stack) {
+        int end = view.size();
+        for (int i = stack.size() - 1; i >= 0; i--) {
+            final ScopedCollectionItem<E> item = stack.get(i);
+            final int start = end - item.size();
             if (item.remove(o)) {
-                needRecreatedView = true;
+                view.subList(start, end).remove(o);
                 return true;
             }
+            end = start;
         }
 
         return false;
@@ -238,7 +251,6 @@ public final class ScopedCollection<E>
         boolean changed = false;
         for (Object o : c) {
             if (remove(o) && !changed) {
-                needRecreatedView = true;
                 changed = true;
             }
         }
@@ -256,24 +268,109 @@ public final class ScopedCollection<E>
      * {@inheritDoc}
      */
     public int size() {
-        final Collection<E> currentView = getView();
-        return currentView.size();
+        return view.size();
     }
 
     /**
      * {@inheritDoc}
      */
     public Object[] toArray() {
-        final Collection<E> currentView = getView();
-        return currentView.toArray();
+        return getOrderedView().toArray();
     }
 
     /**
      * {@inheritDoc}
      */
     public <T> T[] toArray(final T[] a) {
-        final Collection<E> currentView = getView();
-        return currentView.toArray(a);
+        return getOrderedView().toArray(a);
     }
-}
 
+    /**
+     * Retrieves a copy of all elements with the elements of the topmost
+     * item at the beginning.
+     * @return ordered copy of all elements
+     * @since 0.7.9
+     */
+    private List<E> getOrderedView() {
+        final List<E> ordered = new java.util.ArrayList<E>(view.size());
+        final Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            ordered.add(iterator.next());
+        }
+        return ordered;
+    }
+
+    /**
+     * Iterator over all elements that returns the elements of the topmost
+     * item first.
+     *
+     * @author Dirk Schnelle-Walka
+     * @since 0.7.9
+     */
+    private final class ScopedIterator implements Iterator<E> {
+        /** Index of the item in the stack that is currently iterated. */
+        private int index;
+
+        /** End of the elements of the current item in the view. */
+        private int end;
+
+        /** Iterator over the elements of the current item. */
+        private Iterator<E> current;
+
+        /** The item of the last returned element. */
+        private ScopedCollectionItem<E> lastItem;
+
+        /** The last returned element. */
+        private E last;
+
+        /**
+         * Constructs a new object.
+         */
+        ScopedIterator() {
+            index = stack.size();
+            end = view.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            while ((current == null) || !current.hasNext()) {
+                if (index == 0) {
+                    return false;
+                }
+                --index;
+                final ScopedCollectionItem<E> item = stack.get(index);
+                final int start = end - item.size();
+                current = view.subList(start, end).iterator();
+                end = start;
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastItem = stack.get(index);
+            last = current.next();
+            return last;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void remove() {
+            if (lastItem == null) {
+                throw new IllegalStateException();
+            }
+            current.remove();
+            lastItem.remove(last);
+            lastItem = null;
+            last = null;
+        }
+    }
+}
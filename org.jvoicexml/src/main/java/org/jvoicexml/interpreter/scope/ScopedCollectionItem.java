@@ -49,7 +49,17 @@ final class ScopedCollectionItem<E>
      * @param s the scope of this collection.
      */
     public ScopedCollectionItem(final Scope s) {
-        collection = new java.util.ArrayList<E>();
+        this(s, new java.util.ArrayList<E>());
+    }
+
+    /**
+     * Constructs a new object.
+     * @param s the scope of this collection.
+     * @param elements the collection to hold the elements of this scope.
+     * @since 0.7.9
+     */
+    ScopedCollectionItem(final Scope s, final Collection<E> elements) {
+        collection = elements;
         scope = s;
     }
 
@@ -23,7 +23,6 @@ package org.jvoicexml.interpreter.scope;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -39,7 +38,9 @@ import org.apache.logging.log4j.Logger;
  *
  * <p>
  * All keys are associated with a stack. The topmost element of the stack
- * is the current value.
+ * is the current value. Each scope keeps a log of the keys that have been
+ * put while it was active, so that exiting a scope only touches the keys
+ * of that scope.
  * </p>
  *
  * @author Dirk Schnelle-Walka
@@ -55,7 +56,10 @@ public final class ScopedMap<K, V>
             LogManager.getLogger(ScopedMap.class);
 
     /** The encapsulated map. */
-    private final Map<K, Stack<ScopedMapItem<V>>> map;
+    private final Map<K, ArrayStack<ScopedMapItem<V>>> map;
+
+    /** The keys that have been put per scope, innermost scope on top. */
+    private final ArrayStack<ScopedCollectionItem<K>> logs;
 
     /** The scope observer. */
     private final ScopeObserver observer;
@@ -68,7 +72,8 @@ public final class ScopedMap<K, V>
      * @param scopeObserver The current scope observer.
      */
     public ScopedMap(final ScopeObserver scopeObserver) {
-        map = new java.util.HashMap<K, Stack<ScopedMapItem<V>>>();
+        map = new java.util.HashMap<K, ArrayStack<ScopedMapItem<V>>>();
+        logs = new ArrayStack<ScopedCollectionItem<K>>();
 
         if (scopeObserver != null) {
             observer = scopeObserver;
@@ -79,6 +84,7 @@ public final class ScopedMap<K, V>
             observer = null;
             scope = null;
         }
+        logs.push(new ScopedCollectionItem<K>(scope));
     }
 
     /**
@@ -95,37 +101,64 @@ public final class ScopedMap<K, V>
      *{@inheritDoc}
      */
     public void enterScope(final Scope previous, final Scope next) {
+        logs.push(new ScopedCollectionItem<K>(next));
         scope = next;
     }
 
     /**
      *{@inheritDoc}
+     *
+     * <p>
+     * Inner scopes that have not been exited explicitly are exited as
+     * well.
+     * </p>
      */
     public void exitScope(final Scope previous, final Scope next) {
-        // Pop the scope relevant item from the stack
-        final Collection<Stack<ScopedMapItem<V>>> stacks = map.values();
-        for (Stack<ScopedMapItem<V>> stack : stacks) {
-            if (!stack.empty()) {
-                final ScopedMapItem<V> item = stack.peek();
-                if (item.getScope() == previous) {
-                    stack.pop();
-                }
+        int index = logs.size() - 1;
+        while ((index >= 0) && (logs.get(index).getScope() != previous)) {
+            --index;
+        }
+        if (index >= 0) {
+            while (logs.size() > index) {
+                final ScopedCollectionItem<K> log = logs.pop();
+                undo(log);
             }
         }
+        scope = next;
+    }
 
-        // Remove all empty stacks.
-        final Collection<K> keysToRemove = new java.util.ArrayList<K>();
-        for (K key : map.keySet()) {
-            final Stack<ScopedMapItem<V>> stack = map.get(key);
-            if (stack.isEmpty()) {
-                keysToRemove.add(key);
+    /**
+     * Removes the values that have been put in the scope of the given log.
+     * @param log the keys that have been put in the scope
+     */
+    private void undo(final ScopedCollectionItem<K> log) {
+        for (K key : log) {
+            final ArrayStack<ScopedMapItem<V>> stack = map.get(key);
+            if (stack != null) {
+                stack.pop();
+                if (stack.isEmpty()) {
+                    map.remove(key);
+                }
             }
         }
-        for (K key : keysToRemove) {
-            map.remove(key);
-        }
+    }
 
-        scope = next;
+    /**
+     * Retrieves the log of the current scope. If the innermost log belongs
+     * to another scope, a new log is created for the current scope.
+     * @return log of the current scope
+     */
+    private ScopedCollectionItem<K> getCurrentLog() {
+        if (!logs.isEmpty()) {
+            final ScopedCollectionItem<K> log = logs.peek();
+            if (log.getScope() == scope) {
+                return log;
+            }
+        }
+        final ScopedCollectionItem<K> log =
+                new ScopedCollectionItem<K>(scope);
+        logs.push(log);
+        return log;
     }
 
     /**
@@ -167,7 +200,8 @@ public final class ScopedMap<K, V>
      *   specified value.
      */
     public boolean containsValue(final Object value) {
-        return map.containsValue(value);
+        final Collection<V> values = values();
+        return values.contains(value);
     }
 
     /**
@@ -178,16 +212,12 @@ public final class ScopedMap<K, V>
      *   <tt>null</tt> if the map contains no mapping for this key.
      */
     public V get(final Object key) {
-        final Stack<ScopedMapItem<V>> stack = map.get(key);
+        final ArrayStack<ScopedMapItem<V>> stack = map.get(key);
 
         if (stack == null) {
             return null;
         }
 
-        if (stack.empty()) {
-            return null;
-        }
-
         final ScopedMapItem<V> item = stack.peek();
         return item.getValue();
     }
@@ -205,25 +235,23 @@ public final class ScopedMap<K, V>
      *   supports <tt>null</tt> values.
      */
     public V put(final K key, final V value) {
-        Stack<ScopedMapItem<V>> stack = map.get(key);
-        ScopedMapItem<V> previousItem;
+        ArrayStack<ScopedMapItem<V>> stack = map.get(key);
+        final ScopedMapItem<V> previousItem;
 
         if (stack == null) {
-            stack = new Stack<ScopedMapItem<V>>();
+            stack = new ArrayStack<ScopedMapItem<V>>();
 
             map.put(key, stack);
 
             previousItem = null;
         } else {
-            if (stack.empty()) {
-                previousItem = null;
-            } else {
-                previousItem = stack.peek();
-            }
+            previousItem = stack.peek();
         }
 
         final ScopedMapItem<V> item = new ScopedMapItem<V>(scope, value);
         stack.push(item);
+        final ScopedCollectionItem<K> log = getCurrentLog();
+        log.add(key);
 
         if (previousItem == null) {
             return null;
@@ -241,16 +269,12 @@ public final class ScopedMap<K, V>
      *   <tt>null</tt> if there was no mapping for key.
      */
     public V remove(final Object key) {
-        final Stack<ScopedMapItem<V>> stack = map.remove(key);
+        final ArrayStack<ScopedMapItem<V>> stack = map.remove(key);
 
         if (stack == null) {
             return null;
         }
 
-        if (stack.empty()) {
-            return null;
-        }
-
         final ScopedMapItem<V> item = stack.peek();
         return item.getValue();
     }
@@ -269,6 +293,10 @@ public final class ScopedMap<K, V>
      */
     public void clear() {
         map.clear();
+        for (int i = 0; i < logs.size(); i++) {
+            final ScopedCollectionItem<K> log = logs.get(i);
+            log.clear();
+        }
     }
 
     /**
@@ -286,15 +314,13 @@ public final class ScopedMap<K, V>
      * @return a collection view of the values contained in this map.
      */
     public Collection<V> values() {
-        final Collection<Stack<ScopedMapItem<V>>> stacks = map.values();
+        final Collection<ArrayStack<ScopedMapItem<V>>> stacks = map.values();
         final Collection<V> values = new java.util.ArrayList<V>();
 
-        for (Stack<ScopedMapItem<V>> stack : stacks) {
-            if (!stack.empty()) {
-                final ScopedMapItem<V> item = stack.peek();
-                final V value = item.getValue();
-                values.add(value);
-            }
+        for (ArrayStack<ScopedMapItem<V>> stack : stacks) {
+            final ScopedMapItem<V> item = stack.peek();
+            final V value = item.getValue();
+            values.add(value);
         }
 
         return values;
@@ -306,12 +332,10 @@ public final class ScopedMap<K, V>
      * @return a set view of the mappings contained in this map.
      */
     public Set<Map.Entry<K, V>> entrySet() {
-        final Set<Map.Entry<K, Stack<ScopedMapItem<V>>>> entries =
-            map.entrySet();
+        final Set<K> keys = map.keySet();
         final Set<Map.Entry<K, V>> set =
             new java.util.HashSet<Map.Entry<K, V>>();
-        for (Map.Entry<K, Stack<ScopedMapItem<V>>> entry : entries) {
-            final K key = entry.getKey();
+        for (K key : keys) {
             final ScopedMapEntry<K, V> current =
                 new ScopedMapEntry<K, V>(key, this);
             set.add(current);
@@ -22,8 +22,8 @@ package org.jvoicexml.interpreter.scope;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -37,6 +37,10 @@ import org.apache.logging.log4j.Logger;
  * aware.
  * </p>
  *
+ * <p>
+ * Each scope keeps the elements that have been added while it was active,
+ * so that exiting a scope only touches the elements of that scope.
+ * </p>
  *
  * @author Dirk Schnelle-Walka
  * @since 0.7.2
@@ -48,10 +52,10 @@ public final class ScopedSet<E>
     private static final Logger LOGGER = LogManager.getLogger(ScopedSet.class);
 
     /** Scope stack. */
-    private final Stack<ScopedCollectionItem<E>> stack;
+    private final ArrayStack<ScopedCollectionItem<E>> stack;
 
-    /** A view onto all items of all elements. */
-    private final Set<E> view;
+    /** All elements with the item of the scope they have been added in. */
+    private final Map<E, ScopedCollectionItem<E>> view;
 
     /** The scope observer. */
     private final ScopeObserver observer;
@@ -67,8 +71,8 @@ public final class ScopedSet<E>
      * @param scopeObserver The current scope observer.
      */
     public ScopedSet(final ScopeObserver scopeObserver) {
-        stack = new Stack<ScopedCollectionItem<E>>();
-        view = new java.util.HashSet<E>();
+        stack = new ArrayStack<ScopedCollectionItem<E>>();
+        view = new java.util.HashMap<E, ScopedCollectionItem<E>>();
         observers = new java.util.ArrayList<ScopedSetObserver<E>>();
 
         if (scopeObserver != null) {
@@ -80,6 +84,17 @@ public final class ScopedSet<E>
             observer = null;
             scope = null;
         }
+        stack.push(createItem(scope));
+    }
+
+    /**
+     * Creates a new item for the elements of the given scope.
+     * @param itemScope the scope
+     * @return created item
+     */
+    private ScopedCollectionItem<E> createItem(final Scope itemScope) {
+        return new ScopedCollectionItem<E>(itemScope,
+                new java.util.LinkedHashSet<E>());
     }
 
     /**
@@ -117,21 +132,34 @@ public final class ScopedSet<E>
      *{@inheritDoc}
      */
     public void enterScope(final Scope previous, final Scope next) {
+        stack.push(createItem(next));
         scope = next;
     }
 
     /**
      *{@inheritDoc}
+     *
+     * <p>
+     * Inner scopes that have not been exited explicitly are exited as
+     * well.
+     * </p>
      */
     public void exitScope(final Scope previous, final Scope next) {
-        if (!stack.isEmpty()) {
+        int index = stack.size() - 1;
+        while ((index >= 0) && (stack.get(index).getScope() != previous)) {
+            --index;
+        }
+        if (index >= 0) {
             // Remove the corresponding scoped items.
-            final ScopedCollectionItem<E> item = stack.peek();
-            if (item.getScope() == previous) {
-                final Collection<E> removed = new java.util.ArrayList<E>();
+            final Collection<E> removed = new java.util.ArrayList<E>();
+            while (stack.size() > index) {
+                final ScopedCollectionItem<E> item = stack.pop();
+                for (E e : item) {
+                    view.remove(e);
+                }
                 removed.addAll(item);
-                stack.pop();
-                view.removeAll(removed);
+            }
+            if (!removed.isEmpty()) {
                 // Notify all registered scoped set observers
                 synchronized (observers) {
                     for (ScopedSetObserver<E> obs : observers) {
@@ -146,26 +174,21 @@ public final class ScopedSet<E>
 
     /**
      * Retrieves the current collection. Usually this is the topmost item
-     * from the stack. If the stack is empty, a new item is created and
-     * pushed onto the stack
+     * from the stack. If the topmost item belongs to another scope, a new
+     * item is created and pushed onto the stack
      *
      * @return current collection.
      */
     private ScopedCollectionItem<E> getCurrentCollection() {
-        ScopedCollectionItem<E> item = null;
-        if (!stack.empty()) {
-            item = stack.peek();
-        }
-        if (item == null) {
-            // There is no item on the stack
-            item = new ScopedCollectionItem<E>(scope);
-            stack.push(item);
-        } else if (item.getScope() != scope) {
-            // the topmost item's scope is not the current scope
-            item = new ScopedCollectionItem<E>(scope);
-            stack.push(item);
+        if (!stack.isEmpty()) {
+            final ScopedCollectionItem<E> item = stack.peek();
+            if (item.getScope() == scope) {
+                return item;
+            }
         }
-
+        // the topmost item's scope is not the current scope
+        final ScopedCollectionItem<E> item = createItem(scope);
+        stack.push(item);
         return item;
     }
 
@@ -173,11 +196,11 @@ public final class ScopedSet<E>
      * {@inheritDoc}
      */
     public boolean add(final E e) {
-        if (view.contains(e)) {
+        if (view.containsKey(e)) {
             return false;
         }
-        view.add(e);
         final ScopedCollectionItem<E> collection = getCurrentCollection();
+        view.put(e, collection);
         return collection.add(e);
     }
 
@@ -197,53 +220,52 @@ public final class ScopedSet<E>
      * {@inheritDoc}
      */
     public void clear() {
+        for (int i = 0; i < stack.size(); i++) {
+            final ScopedCollectionItem<E> item = stack.get(i);
+            item.clear();
+        }
         view.clear();
-        stack.clear();
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean contains(final Object o) {
-        return view.contains(o);
+        return view.containsKey(o);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean containsAll(final Collection<?> c) {
-        return view.containsAll(c);
+        final Set<E> elements = view.keySet();
+        return elements.containsAll(c);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean isEmpty() {
-        return stack.empty();
+        return view.isEmpty();
     }
 
     /**
      * {@inheritDoc}
      */
     public Iterator<E> iterator() {
-        return view.iterator();
+        final Set<E> elements = view.keySet();
+        return elements.iterator();
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean remove(final Object o) {
-        if (!contains(o)) {
+        final ScopedCollectionItem<E> item = view.remove(o);
+        if (item == null) {
             return false;
         }
-        view.remove(o);
-        for (ScopedCollectionItem<E> item : stack) {
-            if (item.remove(o)) {
-                return true;
-            }
-        }
-
-        return false;
+        return item.remove(o);
     }
 
     /**
@@ -278,14 +300,16 @@ public final class ScopedSet<E>
      * {@inheritDoc}
      */
     public Object[] toArray() {
-        return view.toArray();
+        final Set<E> elements = view.keySet();
+        return elements.toArray();
     }
 
     /**
      * {@inheritDoc}
      */
     public <T> T[] toArray(final T[] a) {
-        return view.toArray(a);
+        final Set<E> elements = view.keySet();
+        return elements.toArray(a);
     }
 }
 
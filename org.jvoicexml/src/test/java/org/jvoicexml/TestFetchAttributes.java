@@ -0,0 +1,86 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jvoicexml.event.JVoiceXMLEvent;
+import org.jvoicexml.event.error.BadFetchError;
+
+/**
+ * Test cases for {@link FetchAttributes}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestFetchAttributes {
+    /**
+     * Test method for {@link FetchAttributes#parseAge(String, String)}.
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testParseAge() throws JVoiceXMLEvent {
+        Assert.assertEquals(0, FetchAttributes.parseAge("maxage", "0s"));
+        Assert.assertEquals(0, FetchAttributes.parseAge("maxage", "0"));
+        Assert.assertEquals(60000,
+                FetchAttributes.parseAge("maxage", "60"));
+        Assert.assertEquals(1500,
+                FetchAttributes.parseAge("maxstale", "1500ms"));
+        Assert.assertEquals(2500,
+                FetchAttributes.parseAge("maxstale", "2.5s"));
+    }
+
+    /**
+     * Test method for {@link FetchAttributes#parseAge(String, String)} with
+     * an invalid value.
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test(expected = BadFetchError.class)
+    public void testParseAgeInvalid() throws JVoiceXMLEvent {
+        FetchAttributes.parseAge("maxstale", "soon");
+    }
+
+    /**
+     * Test method for {@link FetchAttributes#parseAge(String, String)} with
+     * a negative value.
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test(expected = BadFetchError.class)
+    public void testParseAgeNegative() throws JVoiceXMLEvent {
+        FetchAttributes.parseAge("maxage", "-1s");
+    }
+
+    /**
+     * Test method for {@link FetchAttributes#getMaxage()} if not specified.
+     */
+    @Test
+    public void testGetMaxageUnspecified() {
+        final FetchAttributes attributes = new FetchAttributes();
+        Assert.assertEquals(FetchAttributes.UNSPECIFIED,
+                attributes.getMaxage());
+        Assert.assertEquals(FetchAttributes.UNSPECIFIED,
+                attributes.getMaxstale());
+    }
+}
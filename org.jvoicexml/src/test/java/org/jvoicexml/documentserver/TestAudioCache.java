@@ -0,0 +1,163 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.net.URI;
+import java.net.URL;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jvoicexml.FetchAttributes;
+
+/**
+ * Test cases for {@link AudioCache}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestAudioCache {
+    /** Size of the cache that is used by the tests. */
+    private static final long CACHE_SIZE = 4 * 1024 * 1024;
+
+    /** Freshness lifetime of cached entries without caching headers. */
+    private static final long LIFETIME = 60000;
+
+    /**
+     * Creates a response without caching headers.
+     * @return the response
+     */
+    private static CacheableResponse createResponse() {
+        final CacheableResponse response = new CacheableResponse();
+        response.setStorable(true);
+        return response;
+    }
+
+    /**
+     * Reads the complete content of the given stream.
+     * @param stream the stream
+     * @return number of read bytes
+     * @throws Exception
+     *         error reading
+     */
+    private static long readAll(final AudioInputStream stream)
+            throws Exception {
+        final byte[] buffer = new byte[1024];
+        long total = 0;
+        int read;
+        while ((read = stream.read(buffer)) >= 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Test method for
+     * {@link AudioCache#put(URI, CacheableResponse, AudioInputStream)} and
+     * {@link AudioCache#get(URI)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testPutGet() throws Exception {
+        final AudioCache cache = new AudioCache(CACHE_SIZE);
+        final URL file = TestAudioCache.class.getResource("/test.wav");
+        final URI uri = file.toURI();
+        Assert.assertNull(cache.get(uri));
+        final AudioInputStream original = AudioSystem.getAudioInputStream(
+                file);
+        final AudioFormat format = original.getFormat();
+        final long frames = original.getFrameLength();
+        final AudioInputStream first = cache.put(uri, createResponse(),
+                original);
+        Assert.assertEquals(frames, first.getFrameLength());
+        final long size = readAll(first);
+        Assert.assertEquals(frames * format.getFrameSize(), size);
+        Assert.assertEquals(size, cache.getBytes());
+        final AudioInputStream second = cache.get(uri).getAudioInputStream();
+        Assert.assertNotNull(second);
+        Assert.assertTrue(format.matches(second.getFormat()));
+        Assert.assertEquals(size, readAll(second));
+        final AudioInputStream third = cache.get(uri).getAudioInputStream();
+        Assert.assertEquals(size, readAll(third));
+    }
+
+    /**
+     * Test method for
+     * {@link AudioCache#put(URI, CacheableResponse, AudioInputStream)} with
+     * an audio file that exceeds the cache.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testPutTooLarge() throws Exception {
+        final AudioCache cache = new AudioCache(4);
+        final URL file = TestAudioCache.class.getResource("/test.wav");
+        final URI uri = file.toURI();
+        final AudioInputStream original = AudioSystem.getAudioInputStream(
+                file);
+        final AudioInputStream stream = cache.put(uri, createResponse(),
+                original);
+        Assert.assertSame(original, stream);
+        Assert.assertNull(cache.get(uri));
+        Assert.assertEquals(0, cache.getBytes());
+    }
+
+    /**
+     * Test method for
+     * {@link AudioCache.CachedAudio#isFresh(long, FetchAttributes, long)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testIsFresh() throws Exception {
+        final AudioCache cache = new AudioCache(CACHE_SIZE);
+        final URL file = TestAudioCache.class.getResource("/test.wav");
+        final URI uri = file.toURI();
+        final CacheableResponse response = createResponse();
+        cache.put(uri, response, AudioSystem.getAudioInputStream(file));
+        final AudioCache.CachedAudio audio = cache.get(uri);
+        final long date = response.getDate();
+        final FetchAttributes attributes = new FetchAttributes();
+        Assert.assertTrue(audio.isFresh(date + LIFETIME, attributes,
+                LIFETIME));
+        Assert.assertFalse(audio.isFresh(date + LIFETIME + 1, attributes,
+                LIFETIME));
+        Assert.assertFalse(audio.isFresh(date, attributes,
+                CacheableResponse.UNKNOWN_LIFETIME));
+
+        final FetchAttributes maxage = new FetchAttributes();
+        maxage.setMaxage(0);
+        Assert.assertFalse(audio.isFresh(date + 1, maxage, LIFETIME));
+        maxage.setMaxstale(LIFETIME);
+        Assert.assertTrue(audio.isFresh(date + 1, maxage, LIFETIME));
+
+        final CacheableResponse revalidation = createResponse();
+        revalidation.setFreshnessLifetime(2 * LIFETIME);
+        audio.revalidated(revalidation);
+        Assert.assertTrue(audio.isFresh(revalidation.getDate() + LIFETIME + 1,
+                attributes, LIFETIME));
+    }
+}
@@ -18,7 +18,10 @@
  */
 package org.jvoicexml.documentserver;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URI;
 import java.net.URL;
@@ -32,6 +35,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.jvoicexml.DocumentDescriptor;
 import org.jvoicexml.DocumentServer;
+import org.jvoicexml.FetchAttributes;
+import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.Session;
 import org.jvoicexml.documentserver.jetty.DocumentStorage;
 import org.jvoicexml.documentserver.schemestrategy.DocumentMap;
@@ -39,7 +44,11 @@ import org.jvoicexml.documentserver.schemestrategy.FileSchemeStrategy;
 import org.jvoicexml.documentserver.schemestrategy.MappedDocumentStrategy;
 import org.jvoicexml.event.JVoiceXMLEvent;
 import org.jvoicexml.event.error.BadFetchError;
+import org.jvoicexml.interpreter.datamodel.KeyValuePair;
+import org.jvoicexml.xml.srgs.Grammar;
+import org.jvoicexml.xml.vxml.Field;
 import org.jvoicexml.xml.vxml.Form;
+import org.jvoicexml.xml.vxml.RequestMethod;
 import org.jvoicexml.xml.vxml.VoiceXmlDocument;
 import org.jvoicexml.xml.vxml.Vxml;
 import org.mockito.Mockito;
@@ -151,6 +160,46 @@ public final class TestJVoiceXmlDocumentServer {
         Assert.assertTrue(object instanceof ReadBuffer);
         final ReadBuffer buffer = (ReadBuffer) object;
         Assert.assertFalse(buffer.isAscii());
+        buffer.release();
+    }
+
+    /**
+     * Test method for
+     * {@link JVoiceXmlDocumentServer#getObject(String, DocumentDescriptor, String)}
+     * with a character set that is declared by the scheme strategy.
+     * 
+     * @exception JVoiceXMLEvent
+     *                Test failed.
+     * @throws Exception
+     *             Test failed.
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetObjectDeclaredCharset() throws JVoiceXMLEvent,
+        Exception {
+        final String test = "Gr\u00fc\u00dfe";
+        final SchemeStrategy strategy = Mockito.mock(SchemeStrategy.class);
+        Mockito.when(strategy.getScheme()).thenReturn("test");
+        server.addSchemeStrategy(strategy);
+        final URI uri = new URI("test://localhost/greeting.txt");
+        final ReadBuffer content = new ReadBuffer();
+        content.read(new ByteArrayInputStream(test.getBytes("ISO-8859-1")),
+                "ISO-8859-1");
+        final InputStream view = content.getInputStream();
+        content.release();
+        Mockito.when(strategy.getInputStream(Mockito.anyString(),
+                Mockito.eq(uri), Mockito.any(RequestMethod.class),
+                Mockito.anyLong(), Mockito.anyCollectionOf(
+                        KeyValuePair.class))).thenReturn(view);
+
+        final DocumentDescriptor descriptor = new DocumentDescriptor(uri);
+        final Object object = server.getObject("1", descriptor, null);
+        Assert.assertSame(content, object);
+        final ReadBuffer buffer = (ReadBuffer) object;
+        Assert.assertEquals("ISO-8859-1", buffer.getCharset());
+        Assert.assertEquals(test, new String(buffer.getBytes(),
+                buffer.getCharset()));
+        buffer.release();
     }
 
     /**
@@ -175,7 +224,7 @@ public final class TestJVoiceXmlDocumentServer {
 
     /**
      * Test method for
-     * {@link JVoiceXmlDocumentServer#getAudioInputStream(String, URI)}.
+     * {@link JVoiceXmlDocumentServer#getAudioInputStream(String, URI, FetchAttributes)}.
      * 
      * @since 0.7.2
      * @exception Exception
@@ -191,7 +240,7 @@ public final class TestJVoiceXmlDocumentServer {
                 UUID.randomUUID().toString());
         final String sessionId = session.getSessionId();
         final AudioInputStream in = server.getAudioInputStream(sessionId,
-                file.toURI());
+                file.toURI(), null);
         Assert.assertNotNull(in);
     }
 
@@ -245,6 +294,33 @@ public final class TestJVoiceXmlDocumentServer {
         Assert.assertEquals(document.toString(), retrievedDocument.toString());
     }
 
+    /**
+     * Test case for
+     * {@link JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}
+     * to ensure that modifications of a retrieved document do not affect
+     * subsequent retrievals.
+     * 
+     * @throws Exception
+     *             test failed
+     * @throws JVoiceXMLEvent
+     *             test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetDocumentCopy() throws Exception, JVoiceXMLEvent {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final URI uri = map.getUri("/test");
+        map.addDocument(uri, document);
+        final DocumentDescriptor descriptor = new DocumentDescriptor(uri);
+        final VoiceXmlDocument first = server.getDocument("1", descriptor);
+        first.getVxml().appendChild(Form.class);
+        final VoiceXmlDocument second = server.getDocument("2", descriptor);
+        Assert.assertNotSame(first.getDocument(), second.getDocument());
+        Assert.assertEquals(1, first.getVxml().getForms().size());
+        Assert.assertEquals(0, second.getVxml().getForms().size());
+        Assert.assertEquals(document.toString(), second.toString());
+    }
+
     /**
      * Test case for
      * {@link JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}.
@@ -272,4 +348,313 @@ public final class TestJVoiceXmlDocumentServer {
                 sessionId, descriptor);
         Assert.assertEquals(document, retrievedDocument);
     }
+
+    /**
+     * Test method for
+     * {@link org.jvoicexml.documentserver.JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}
+     * with a fresh document in the cache.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetDocumentCached() throws Exception, JVoiceXMLEvent {
+        final ConditionalSchemeStrategy strategy = mockConditionalStrategy();
+        final CacheableResponse response = createResponse(60000);
+        final URI uri = new URI("http://localhost/root.vxml");
+        Mockito.when(strategy.getCacheableResponse(Mockito.anyString(),
+                Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class))).thenReturn(response);
+
+        final DocumentDescriptor descriptor = new DocumentDescriptor(uri);
+        final VoiceXmlDocument first = server.getDocument("1", descriptor);
+        final VoiceXmlDocument second = server.getDocument("2", descriptor);
+        Mockito.verify(strategy, Mockito.times(1)).getCacheableResponse(
+                Mockito.anyString(), Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class));
+        Assert.assertNotSame(first.getDocument(), second.getDocument());
+        Assert.assertEquals(first.toString(), second.toString());
+    }
+
+    /**
+     * Test method for
+     * {@link org.jvoicexml.documentserver.JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}
+     * with a stale document in the cache that is revalidated.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetDocumentRevalidated() throws Exception,
+        JVoiceXMLEvent {
+        final ConditionalSchemeStrategy strategy = mockConditionalStrategy();
+        final CacheableResponse response = createResponse(0);
+        response.setEtag("\"1\"");
+        final CacheableResponse notModified = new CacheableResponse();
+        notModified.setNotModified(true);
+        final URI uri = new URI("http://localhost/root.vxml");
+        Mockito.when(strategy.getCacheableResponse(Mockito.anyString(),
+                Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class))).thenReturn(response,
+                        notModified);
+
+        final DocumentDescriptor descriptor = new DocumentDescriptor(uri);
+        server.getDocument("1", descriptor);
+        final VoiceXmlDocument second = server.getDocument("2", descriptor);
+        Mockito.verify(strategy).getCacheableResponse("2", uri, 0, response);
+        Assert.assertNotNull(second.getVxml());
+    }
+
+    /**
+     * Test method for
+     * {@link org.jvoicexml.documentserver.JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}
+     * with a <code>maxage</code> that overrides the server's freshness
+     * lifetime.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetDocumentMaxage() throws Exception, JVoiceXMLEvent {
+        final ConditionalSchemeStrategy strategy = mockConditionalStrategy();
+        final URI uri = new URI("http://localhost/root.vxml");
+        Mockito.when(strategy.getCacheableResponse(Mockito.anyString(),
+                Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class))).thenReturn(
+                        createResponse(60000), createResponse(60000));
+
+        final DocumentDescriptor descriptor = new DocumentDescriptor(uri);
+        server.getDocument("1", descriptor);
+        final DocumentDescriptor maxageDescriptor =
+                new DocumentDescriptor(uri);
+        final FetchAttributes attributes = new FetchAttributes();
+        attributes.setMaxage(0);
+        maxageDescriptor.setAttributes(attributes);
+        Thread.sleep(2);
+        server.getDocument("2", maxageDescriptor);
+        Mockito.verify(strategy, Mockito.times(2)).getCacheableResponse(
+                Mockito.anyString(), Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class));
+    }
+
+    /**
+     * Test method for
+     * {@link JVoiceXmlDocumentServer#getAudioInputStream(String, URI, FetchAttributes)}
+     * with a <code>maxage</code> that forces a revalidation of the cached
+     * audio file.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testGetAudioInputStreamRevalidated() throws Exception,
+        JVoiceXMLEvent {
+        final ConditionalSchemeStrategy strategy = mockConditionalStrategy();
+        final URL file = this.getClass().getResource("/test.wav");
+        final InputStream input = file.openStream();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        input.close();
+        final CacheableResponse response = new CacheableResponse();
+        response.setContent(out.toByteArray());
+        response.setFreshnessLifetime(60000);
+        response.setEtag("\"1\"");
+        response.setStorable(true);
+        final CacheableResponse notModified = new CacheableResponse();
+        notModified.setNotModified(true);
+        final URI uri = new URI("http://localhost/test.wav");
+        Mockito.when(strategy.getCacheableResponse(Mockito.anyString(),
+                Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class))).thenReturn(response,
+                        notModified);
+
+        final AudioInputStream first = server.getAudioInputStream("1", uri,
+                null);
+        final AudioInputStream second = server.getAudioInputStream("2", uri,
+                null);
+        Mockito.verify(strategy, Mockito.times(1)).getCacheableResponse(
+                Mockito.anyString(), Mockito.eq(uri), Mockito.anyLong(),
+                Mockito.any(CacheableResponse.class));
+        Assert.assertEquals(first.getFrameLength(),
+                second.getFrameLength());
+
+        final FetchAttributes attributes = new FetchAttributes();
+        attributes.setMaxage(0);
+        Thread.sleep(2);
+        final AudioInputStream third = server.getAudioInputStream("3", uri,
+                attributes);
+        Mockito.verify(strategy).getCacheableResponse("3", uri, 0, response);
+        Assert.assertEquals(first.getFrameLength(), third.getFrameLength());
+    }
+
+    /**
+     * Test method for
+     * {@link org.jvoicexml.documentserver.JVoiceXmlDocumentServer#getDocument(String, DocumentDescriptor)}
+     * with a grammar that is marked to be prefetched.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testPrefetchGrammar() throws Exception, JVoiceXMLEvent {
+        final String sessionId = UUID.randomUUID().toString();
+        final URI grammarUri = new URI("prefetch://localhost/grammar.srgs");
+        final SchemeStrategy strategy = mockGrammarStrategy(sessionId,
+                grammarUri);
+        final DocumentDescriptor descriptor = createPrefetchDocument(
+                "grammar.srgs");
+
+        server.getDocument(sessionId, descriptor);
+        Mockito.verify(strategy, Mockito.timeout(5000)).getInputStream(
+                Mockito.eq(sessionId), Mockito.eq(grammarUri),
+                Mockito.eq(RequestMethod.GET), Mockito.anyLong(),
+                Mockito.anyCollectionOf(KeyValuePair.class));
+        final GrammarDocument grammar = server.getGrammarDocument(sessionId,
+                grammarUri, new FetchAttributes());
+        Assert.assertEquals("<grammar/>", grammar.getDocument());
+        Mockito.verify(strategy, Mockito.times(1)).getInputStream(
+                Mockito.eq(sessionId), Mockito.eq(grammarUri),
+                Mockito.eq(RequestMethod.GET), Mockito.anyLong(),
+                Mockito.anyCollectionOf(KeyValuePair.class));
+    }
+
+    /**
+     * Test method for
+     * {@link org.jvoicexml.documentserver.JVoiceXmlDocumentServer#sessionClosed(String)}
+     * with a prefetched grammar.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testPrefetchSessionClosed() throws Exception,
+        JVoiceXMLEvent {
+        final String sessionId = UUID.randomUUID().toString();
+        final URI grammarUri = new URI("prefetch://localhost/grammar.srgs");
+        final SchemeStrategy strategy = mockGrammarStrategy(sessionId,
+                grammarUri);
+        final DocumentDescriptor descriptor = createPrefetchDocument(
+                "prefetch://localhost/grammar.srgs");
+
+        server.getDocument(sessionId, descriptor);
+        Mockito.verify(strategy, Mockito.timeout(5000)).getInputStream(
+                Mockito.eq(sessionId), Mockito.eq(grammarUri),
+                Mockito.eq(RequestMethod.GET), Mockito.anyLong(),
+                Mockito.anyCollectionOf(KeyValuePair.class));
+        server.sessionClosed(sessionId);
+        server.getGrammarDocument(sessionId, grammarUri,
+                new FetchAttributes());
+        Mockito.verify(strategy, Mockito.times(2)).getInputStream(
+                Mockito.eq(sessionId), Mockito.eq(grammarUri),
+                Mockito.eq(RequestMethod.GET), Mockito.anyLong(),
+                Mockito.anyCollectionOf(KeyValuePair.class));
+    }
+
+    /**
+     * Creates a mocked scheme strategy for the <code>prefetch</code> scheme
+     * that delivers a grammar and adds it to the server.
+     * @param sessionId the Id of the session
+     * @param uri the URI of the grammar
+     * @return the created strategy
+     * @throws Exception
+     *         error creating the strategy
+     * @throws JVoiceXMLEvent
+     *         error creating the strategy
+     * @since 0.7.9
+     */
+    private SchemeStrategy mockGrammarStrategy(final String sessionId,
+            final URI uri) throws Exception, JVoiceXMLEvent {
+        final SchemeStrategy strategy = Mockito.mock(SchemeStrategy.class);
+        Mockito.when(strategy.getScheme()).thenReturn("prefetch");
+        final byte[] content = "<grammar/>".getBytes("UTF-8");
+        Mockito.when(strategy.getInputStream(Mockito.eq(sessionId),
+                Mockito.eq(uri), Mockito.eq(RequestMethod.GET),
+                Mockito.anyLong(),
+                Mockito.anyCollectionOf(KeyValuePair.class))).thenReturn(
+                        new ByteArrayInputStream(content),
+                        new ByteArrayInputStream(content));
+        server.addSchemeStrategy(strategy);
+        return strategy;
+    }
+
+    /**
+     * Creates a document that is served from
+     * <code>prefetch://localhost/root.vxml</code> with a grammar that is
+     * marked to be prefetched.
+     * @param src the source of the grammar
+     * @return descriptor of the document
+     * @throws Exception
+     *         error creating the document
+     * @since 0.7.9
+     */
+    private DocumentDescriptor createPrefetchDocument(final String src)
+            throws Exception {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        vxml.setXmlBase("prefetch://localhost/root.vxml");
+        final Form form = vxml.appendChild(Form.class);
+        final Field field = form.appendChild(Field.class);
+        final Grammar grammar = field.appendChild(Grammar.class);
+        grammar.setSrc(src);
+        grammar.setFetchhint(FetchAttributes.HINT_PREFETCH);
+        final URI uri = map.getUri("/prefetch");
+        map.addDocument(uri, document);
+        return new DocumentDescriptor(uri);
+    }
+
+    /**
+     * Creates a mocked conditional scheme strategy for the <code>http</code>
+     * scheme and adds it to the server.
+     * @return the created strategy
+     * @since 0.7.9
+     */
+    private ConditionalSchemeStrategy mockConditionalStrategy() {
+        final ConditionalSchemeStrategy strategy =
+                Mockito.mock(ConditionalSchemeStrategy.class);
+        Mockito.when(strategy.getScheme()).thenReturn("http");
+        server.addSchemeStrategy(strategy);
+        return strategy;
+    }
+
+    /**
+     * Creates a storable response with a simple VoiceXML document.
+     * @param lifetime freshness lifetime in msec
+     * @return created response
+     * @throws Exception
+     *         error creating the document
+     * @since 0.7.9
+     */
+    private CacheableResponse createResponse(final long lifetime)
+            throws Exception {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        vxml.appendChild(Form.class);
+        final CacheableResponse response = new CacheableResponse();
+        response.setContent(document.toString().getBytes("UTF-8"));
+        response.setFreshnessLifetime(lifetime);
+        response.setStorable(true);
+        return response;
+    }
 }
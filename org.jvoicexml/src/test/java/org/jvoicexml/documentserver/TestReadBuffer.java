@@ -0,0 +1,205 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ReadBuffer}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestReadBuffer {
+    /**
+     * Creates test data of the given size.
+     * @param size number of bytes
+     * @return test data
+     */
+    private static byte[] createData(final int size) {
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + (i % 26));
+        }
+        return data;
+    }
+
+    /**
+     * Reads the complete content of the given stream.
+     * @param input the stream
+     * @return read bytes
+     * @throws Exception
+     *         error reading
+     */
+    private static byte[] readAll(final InputStream input) throws Exception {
+        final java.io.ByteArrayOutputStream out =
+                new java.io.ByteArrayOutputStream();
+        final byte[] buffer = new byte[1000];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        input.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#read(InputStream)} with data that
+     * spans several chunks.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testRead() throws Exception {
+        final byte[] data = createData(3 * ReadBuffer.CHUNK_SIZE + 17);
+        final ReadBuffer buffer = new ReadBuffer();
+        buffer.read(new ByteArrayInputStream(data));
+        Assert.assertTrue(buffer.isAscii());
+        Assert.assertFalse(buffer.isSpilled());
+        Assert.assertEquals(data.length, buffer.size());
+        Assert.assertArrayEquals(data, buffer.getBytes());
+        Assert.assertArrayEquals(data, readAll(buffer.getInputStream()));
+        Assert.assertEquals(new String(data, "US-ASCII"), buffer.toString());
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#read(InputStream)} with data that
+     * exceeds the memory limit.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testReadSpilled() throws Exception {
+        final byte[] data = createData(5 * ReadBuffer.CHUNK_SIZE + 3);
+        final ReadBuffer buffer = new ReadBuffer(
+                ReadBuffer.DEFAULT_DETECTION_LIMIT, ReadBuffer.CHUNK_SIZE);
+        buffer.read(new ByteArrayInputStream(data));
+        Assert.assertTrue(buffer.isSpilled());
+        Assert.assertEquals(data.length, buffer.size());
+        Assert.assertArrayEquals(data, buffer.getBytes());
+        final InputStream view = buffer.getInputStream();
+        buffer.release();
+        Assert.assertTrue(buffer.isSpilled());
+        Assert.assertArrayEquals(data, readAll(view));
+        Assert.assertFalse(buffer.isSpilled());
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#getCharset()} with an encoding in
+     * the XML declaration.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testGetCharsetXmlDeclaration() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+                + "<data>Grüße</data>";
+        final ReadBuffer buffer = new ReadBuffer();
+        buffer.read(new ByteArrayInputStream(xml.getBytes("ISO-8859-1")));
+        Assert.assertFalse(buffer.isAscii());
+        Assert.assertEquals("ISO-8859-1", buffer.getCharset());
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#getCharset()} with a character set
+     * that has been declared by the server.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testGetCharsetDeclared() throws Exception {
+        final String text = "plain text";
+        final ReadBuffer buffer = new ReadBuffer();
+        buffer.read(new ByteArrayInputStream(text.getBytes("UTF-8")),
+                "UTF-8");
+        Assert.assertTrue(buffer.isAscii());
+        Assert.assertEquals("UTF-8", buffer.getCharset());
+        Assert.assertEquals(text, buffer.toString());
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#getCharset()} with an encoding in
+     * the XML declaration of data that exceeds the memory limit.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testGetCharsetXmlDeclarationSpilled() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+                + "<data>" + new String(createData(ReadBuffer.CHUNK_SIZE),
+                        "US-ASCII") + "Grüße</data>";
+        final ReadBuffer buffer = new ReadBuffer(
+                ReadBuffer.DEFAULT_DETECTION_LIMIT, 0);
+        buffer.read(new ByteArrayInputStream(xml.getBytes("ISO-8859-1")));
+        Assert.assertTrue(buffer.isSpilled());
+        Assert.assertEquals("ISO-8859-1", buffer.getCharset());
+        Assert.assertEquals(xml, new String(buffer.getBytes(),
+                buffer.getCharset()));
+        buffer.release();
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#detach()}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testDetach() throws Exception {
+        final byte[] data = createData(5 * ReadBuffer.CHUNK_SIZE + 3);
+        final ReadBuffer buffer = new ReadBuffer(
+                ReadBuffer.DEFAULT_DETECTION_LIMIT, ReadBuffer.CHUNK_SIZE);
+        buffer.read(new ByteArrayInputStream(data));
+        Assert.assertTrue(buffer.isSpilled());
+        final ReadBuffer copy = buffer.detach();
+        Assert.assertFalse(buffer.isSpilled());
+        Assert.assertFalse(copy.isSpilled());
+        Assert.assertTrue(copy.isAscii());
+        Assert.assertEquals(data.length, copy.size());
+        Assert.assertArrayEquals(data, copy.getBytes());
+    }
+
+    /**
+     * Test method for {@link ReadBuffer#reclaim(InputStream)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testReclaim() throws Exception {
+        final byte[] data = createData(3 * ReadBuffer.CHUNK_SIZE + 5);
+        final ReadBuffer buffer = new ReadBuffer();
+        buffer.read(new ByteArrayInputStream(data), "ISO-8859-1");
+        final InputStream view = buffer.getInputStream();
+        Assert.assertNull(ReadBuffer.reclaim(view));
+        buffer.release();
+        final InputStream other = new ByteArrayInputStream(data);
+        Assert.assertNull(ReadBuffer.reclaim(other));
+        final ReadBuffer reclaimed = ReadBuffer.reclaim(view);
+        Assert.assertSame(buffer, reclaimed);
+        Assert.assertEquals("ISO-8859-1", reclaimed.getCharset());
+        Assert.assertArrayEquals(data, reclaimed.getBytes());
+        reclaimed.release();
+    }
+}
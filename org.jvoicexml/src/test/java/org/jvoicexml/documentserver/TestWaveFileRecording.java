@@ -0,0 +1,237 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.jvoicexml.event.JVoiceXMLEvent;
+
+/**
+ * Test cases for {@link WaveFileRecording}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestWaveFileRecording {
+    /** Sample rate of the recordings. */
+    private static final float SAMPLE_RATE = 8000;
+
+    /** The executor to write the recordings. */
+    private ExecutorService executor;
+
+    /** The file of the recording. */
+    private File file;
+
+    /**
+     * Set up the test environment.
+     * @throws Exception
+     *         set up failed
+     */
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+        file = File.createTempFile("rec-", ".wav");
+    }
+
+    /**
+     * Tear down the test environment.
+     */
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        file.delete();
+    }
+
+    /**
+     * Creates a 16 bit mono audio format.
+     * @param bigEndian <code>true</code> for big endian samples
+     * @return the audio format
+     */
+    private static AudioFormat createFormat(final boolean bigEndian) {
+        return new AudioFormat(SAMPLE_RATE, 16, 1, true, bigEndian);
+    }
+
+    /**
+     * Writes the given bytes in small chunks that do not match the frames.
+     * @param out the stream to write to
+     * @param bytes the bytes to write
+     * @throws Exception
+     *         error writing
+     */
+    private static void writeChunked(final OutputStream out,
+            final byte[] bytes) throws Exception {
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int length = Math.min(37, bytes.length - offset);
+            out.write(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Reads the audio data of the recorded file.
+     * @param uri URI of the file
+     * @param expectedFrames expected number of frames
+     * @return the audio data
+     * @throws Exception
+     *         error reading
+     */
+    private static byte[] readRecording(final URI uri,
+            final long expectedFrames) throws Exception {
+        final AudioInputStream in = AudioSystem.getAudioInputStream(
+                new File(uri));
+        try {
+            Assert.assertEquals(expectedFrames, in.getFrameLength());
+            final AudioFormat format = in.getFormat();
+            Assert.assertEquals(SAMPLE_RATE, format.getSampleRate(), 0.1);
+            Assert.assertFalse(format.isBigEndian());
+            final byte[] data = new byte[(int) expectedFrames * 2];
+            int offset = 0;
+            while (offset < data.length) {
+                final int num = in.read(data, offset, data.length - offset);
+                Assert.assertTrue(num >= 0);
+                offset += num;
+            }
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Test method for {@link WaveFileRecording#finish()}.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testFinish()
+            throws Exception, JVoiceXMLEvent {
+        final WaveFileRecording recording = new WaveFileRecording(file,
+                createFormat(false), 0, false, executor);
+        final byte[] audio = new byte[1600];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        writeChunked(recording.getOutputStream(), audio);
+        final URI uri = recording.finish();
+        Assert.assertEquals(file.toURI(), uri);
+        Assert.assertEquals(WaveFileRecording.HEADER_SIZE + audio.length,
+                file.length());
+        Assert.assertArrayEquals(audio, readRecording(uri, 800));
+    }
+
+    /**
+     * Test method for {@link WaveFileRecording#discard()}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testDiscard() throws Exception {
+        final WaveFileRecording recording = new WaveFileRecording(file,
+                createFormat(false), 0, false, executor);
+        final OutputStream out = recording.getOutputStream();
+        writeChunked(out, new byte[1600]);
+        recording.discard();
+        Assert.assertFalse(file.exists());
+        try {
+            out.write(new byte[2]);
+            Assert.fail("expected an IOException");
+        } catch (java.io.IOException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link WaveFileRecording#finish()} with big endian
+     * samples.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testFinishBigEndian()
+            throws Exception, JVoiceXMLEvent {
+        final WaveFileRecording recording = new WaveFileRecording(file,
+                createFormat(true), 0, false, executor);
+        final byte[] audio = new byte[] {1, 2, 3, 4};
+        writeChunked(recording.getOutputStream(), audio);
+        final URI uri = recording.finish();
+        final byte[] expected = new byte[] {2, 1, 4, 3};
+        Assert.assertArrayEquals(expected, readRecording(uri, 2));
+    }
+
+    /**
+     * Test method for {@link WaveFileRecording#finish()} with a maximum
+     * recording time.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testFinishMaxTime()
+            throws Exception, JVoiceXMLEvent {
+        final WaveFileRecording recording = new WaveFileRecording(file,
+                createFormat(false), 100, false, executor);
+        final OutputStream out = recording.getOutputStream();
+        writeChunked(out, new byte[4000]);
+        final URI uri = recording.finish();
+        readRecording(uri, 800);
+    }
+
+    /**
+     * Test method for {@link WaveFileRecording#finish()} with silence at the
+     * end.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testFinishTrimSilence()
+            throws Exception, JVoiceXMLEvent {
+        final WaveFileRecording recording = new WaveFileRecording(file,
+                createFormat(false), 0, true, executor);
+        final byte[] audio = new byte[1600];
+        for (int i = 0; i < 400; i += 2) {
+            audio[i + 1] = 0x20;
+        }
+        writeChunked(recording.getOutputStream(), audio);
+        final URI uri = recording.finish();
+        readRecording(uri, 200);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.documentserver.schemestrategy;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link HttpClientConnectionPool}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestHttpClientConnectionPool {
+    /**
+     * Test method for {@link HttpClientConnectionPool#getClient()}.
+     */
+    @Test
+    public void testGetClient() {
+        final HttpClientConnectionPool pool = new HttpClientConnectionPool();
+        pool.setMaxConnections(10);
+        pool.setMaxConnectionsPerRoute(2);
+        pool.setKeepAlive(1000);
+        final CloseableHttpClient client = pool.getClient();
+        Assert.assertNotNull(client);
+        Assert.assertSame(client, pool.getClient());
+    }
+
+    /**
+     * Test method for {@link HttpClientConnectionPool#setKeepAlive(long)}
+     * after the client has been created.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testSetKeepAliveAfterCreation() {
+        final HttpClientConnectionPool pool = new HttpClientConnectionPool();
+        pool.getClient();
+        pool.setKeepAlive(1000);
+    }
+
+    /**
+     * Test method for
+     * {@link HttpClientConnectionPool#setMaxConnections(int)} after the
+     * client has been created.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testSetMaxConnectionsAfterCreation() {
+        final HttpClientConnectionPool pool = new HttpClientConnectionPool();
+        pool.getClient();
+        pool.setMaxConnections(10);
+    }
+}
@@ -26,19 +26,31 @@
 package org.jvoicexml.documentserver.schemestrategy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.protocol.HttpContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -49,6 +61,8 @@ import org.jvoicexml.xml.vxml.RequestMethod;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.mockito.runners.MockitoJUnitRunner;
 
 /**
@@ -65,8 +79,8 @@ public final class TestHttpSchemeStrategy {
     private static final String BASE_URL = "http://example.com:8080";
     private static final long TIMEOUT = 0;
 
-    @Mock private SessionStorage<HttpClientBuilder> sessionStorage;
-    @Mock private HttpClientBuilder httpClientBuilder;
+    @Mock private SessionStorage<HttpClientContext> sessionStorage;
+    @Mock private HttpClientConnectionPool connectionPool;
     @Mock private CloseableHttpClient httpClient;
     @Captor private ArgumentCaptor<HttpUriRequest> httpRequestCaptor;
 
@@ -77,10 +91,11 @@ public final class TestHttpSchemeStrategy {
 
     @Before
     public void initSessionStorage() throws Exception {
-        when(sessionStorage.getSessionIdentifier(SESSION_ID)).thenReturn(httpClientBuilder);
-        when(httpClientBuilder.build()).thenReturn(httpClient);
-        when(httpClient.execute(any())).thenReturn(new MockHttpResponse());
+        when(sessionStorage.getSessionIdentifier(SESSION_ID)).thenReturn(HttpClientContext.create());
+        when(connectionPool.getClient()).thenReturn(httpClient);
+        when(httpClient.execute(any(HttpUriRequest.class), any(HttpContext.class))).thenReturn(new MockHttpResponse());
         HttpSchemeStrategy.SESSION_STORAGE = sessionStorage;
+        HttpSchemeStrategy.CONNECTION_POOL = connectionPool;
     }
 
     /**
@@ -96,7 +111,7 @@ public final class TestHttpSchemeStrategy {
     @Test(expected = BadFetchError.class)
     public void testBadFetch() throws Exception, BadFetchError {
 
-        when(httpClient.execute(any())).thenThrow(new IOException("Simulated HTTP IOException"));
+        when(httpClient.execute(any(HttpUriRequest.class), any(HttpContext.class))).thenThrow(new IOException("Simulated HTTP IOException"));
 
         final URI uri = new URI(BASE_URL + "?session=id");
         final Collection<KeyValuePair> parameters = Arrays.asList(
@@ -119,7 +134,7 @@ public final class TestHttpSchemeStrategy {
         );
         strategy.getInputStream(SESSION_ID, uri, RequestMethod.GET, TIMEOUT, parameters);
 
-        verify(httpClient).execute(httpRequestCaptor.capture());
+        verify(httpClient).execute(httpRequestCaptor.capture(), any(HttpContext.class));
         HttpUriRequest httpRequest = httpRequestCaptor.getValue();
         assertEquals("GET", httpRequest.getMethod());
         assertEquals("http://example.com:8080?firstName=Horst&lastName=Buchholz", httpRequest.getURI().toString());
@@ -184,8 +199,86 @@ public final class TestHttpSchemeStrategy {
         assertEquals(BASE_URL, httpRequestString);
     }
 
+    /**
+     * Verify that requests are executed with the cookies of the session so
+     * that cookies are maintained per session.
+     */
+    @Test
+    public void testSessionContext() throws Exception, BadFetchError {
+        final HttpClientContext session = HttpClientContext.create();
+        session.setCookieStore(new BasicCookieStore());
+        when(sessionStorage.getSessionIdentifier(SESSION_ID)).thenReturn(session);
+        final URI uri = new URI(BASE_URL);
+        final Collection<KeyValuePair> parameters = Collections.emptyList();
+        strategy.getInputStream(SESSION_ID, uri, RequestMethod.GET, TIMEOUT, parameters);
+
+        final ArgumentCaptor<HttpContext> contextCaptor =
+                ArgumentCaptor.forClass(HttpContext.class);
+        verify(httpClient).execute(any(HttpUriRequest.class), contextCaptor.capture());
+        final HttpClientContext context =
+                HttpClientContext.adapt(contextCaptor.getValue());
+        assertNotSame(session, context);
+        assertSame(session.getCookieStore(), context.getCookieStore());
+    }
+
+    /**
+     * Verify that a prefetch and a foreground fetch of the same session
+     * that run concurrently do not share their context but the cookies of
+     * the session.
+     */
+    @Test(timeout = 10000)
+    public void testConcurrentFetchesInSession() throws Exception, BadFetchError {
+        final HttpClientContext session = HttpClientContext.create();
+        session.setCookieStore(new BasicCookieStore());
+        when(sessionStorage.getSessionIdentifier(SESSION_ID)).thenReturn(session);
+        final CountDownLatch executing = new CountDownLatch(2);
+        final List<HttpContext> contexts =
+                Collections.synchronizedList(new java.util.ArrayList<HttpContext>());
+        when(httpClient.execute(any(HttpUriRequest.class), any(HttpContext.class))).thenAnswer(
+                new Answer<CloseableHttpResponse>() {
+                    @Override
+                    public CloseableHttpResponse answer(
+                            final InvocationOnMock invocation) throws Throwable {
+                        contexts.add((HttpContext) invocation.getArguments()[1]);
+                        // Keep both requests in flight at the same time.
+                        executing.countDown();
+                        executing.await();
+                        return new MockHttpResponse();
+                    }
+                });
+        final URI uri = new URI(BASE_URL);
+        final Collection<KeyValuePair> parameters = Collections.emptyList();
+        final ExecutorService prefetcher = Executors.newSingleThreadExecutor();
+        try {
+            final Future<InputStream> prefetch = prefetcher.submit(
+                    new Callable<InputStream>() {
+                        @Override
+                        public InputStream call() throws Exception {
+                            try {
+                                return strategy.getInputStream(SESSION_ID,
+                                        uri, RequestMethod.GET, TIMEOUT,
+                                        parameters);
+                            } catch (BadFetchError e) {
+                                throw new Exception(e.getMessage(), e);
+                            }
+                        }
+                    });
+            strategy.getInputStream(SESSION_ID, uri, RequestMethod.GET,
+                    TIMEOUT, parameters);
+            prefetch.get();
+        } finally {
+            prefetcher.shutdownNow();
+        }
+        assertEquals(2, contexts.size());
+        final HttpClientContext first = HttpClientContext.adapt(contexts.get(0));
+        final HttpClientContext second = HttpClientContext.adapt(contexts.get(1));
+        assertNotSame(first, second);
+        assertSame(session.getCookieStore(), first.getCookieStore());
+        assertSame(session.getCookieStore(), second.getCookieStore());
+    }
+
     private String captureHttpRequestString() throws IOException {
-        verify(httpClient).execute(httpRequestCaptor.capture());
+        verify(httpClient).execute(httpRequestCaptor.capture(), any(HttpContext.class));
         HttpUriRequest httpRequest = httpRequestCaptor.getValue();
         return httpRequest.getURI().toString();
     }
@@ -25,10 +25,17 @@
  */
 package org.jvoicexml.event;
 
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.event.error.BadFetchHttpResponsecodeError;
+import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.mock.event.MockEventSubscriber;
 
 /**
@@ -93,4 +100,99 @@ public final class TestEventBus {
         bus.publish(event);
         Assert.assertEquals(event, subscriber.getEvent());
     }
+
+    /**
+     * Test method for {@link org.jvoicexml.event.EventBus#unsubscribe(java.lang.String, org.jvoicexml.event.EventSubscriber)}.
+     */
+    @Test
+    public void testUnsubscribe() {
+        final MockEventSubscriber subscriber = new MockEventSubscriber();
+        final EventBus bus = new EventBus();
+        final String type = BadFetchError.EVENT_TYPE;
+        Assert.assertFalse(bus.unsubscribe(type, subscriber));
+        bus.subscribe(type, subscriber);
+        final JVoiceXMLEvent event1 = new BadFetchError("test message");
+        bus.publish(event1);
+        Assert.assertEquals(event1, subscriber.getEvent());
+        Assert.assertTrue(bus.unsubscribe(type, subscriber));
+        Assert.assertFalse(bus.unsubscribe(type, subscriber));
+        final JVoiceXMLEvent event2 = new BadFetchError("test message");
+        bus.publish(event2);
+        Assert.assertEquals(event1, subscriber.getEvent());
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.event.EventBus#publish(org.jvoicexml.event.JVoiceXMLEvent)}.
+     * @exception Exception
+     *            test failed
+     */
+    @Test(timeout = 5000)
+    public void testPublishAsynchronous() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final EventBus bus = new EventBus(executor);
+            final int count = 100;
+            final List<JVoiceXMLEvent> received =
+                    new java.util.ArrayList<JVoiceXMLEvent>();
+            final CountDownLatch latch = new CountDownLatch(count);
+            bus.subscribe(BadFetchError.EVENT_TYPE, new EventSubscriber() {
+                @Override
+                public void onEvent(final JVoiceXMLEvent event) {
+                    synchronized (received) {
+                        received.add(event);
+                    }
+                    latch.countDown();
+                }
+            });
+            final List<JVoiceXMLEvent> published =
+                    new java.util.ArrayList<JVoiceXMLEvent>();
+            for (int i = 0; i < count; i++) {
+                final JVoiceXMLEvent event = new BadFetchError("event " + i);
+                published.add(event);
+                bus.publish(event);
+            }
+            Assert.assertTrue(latch.await(4, TimeUnit.SECONDS));
+            synchronized (received) {
+                Assert.assertEquals(published, received);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.event.EventBus#publish(org.jvoicexml.event.JVoiceXMLEvent)}.
+     * @exception Exception
+     *            test failed
+     */
+    @Test(timeout = 5000)
+    public void testPublishSlowSubscriber() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final EventBus bus = new EventBus(executor);
+            final CountDownLatch release = new CountDownLatch(1);
+            final MockEventSubscriber subscriber = new MockEventSubscriber();
+            bus.subscribe(NoresourceError.EVENT_TYPE, new EventSubscriber() {
+                @Override
+                public void onEvent(final JVoiceXMLEvent event) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            bus.subscribe(BadFetchError.EVENT_TYPE, subscriber);
+            bus.publish(new NoresourceError("blocking"));
+            final JVoiceXMLEvent event = new BadFetchError("test message");
+            bus.publish(event);
+            Assert.assertNull(subscriber.getEvent());
+            release.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(4, TimeUnit.SECONDS));
+            Assert.assertEquals(event, subscriber.getEvent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -21,11 +21,18 @@
 
 package org.jvoicexml.implementation;
 
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.jvoicexml.event.error.NoresourceError;
 import org.jvoicexml.implementation.pool.KeyedResourcePool;
+import org.jvoicexml.implementation.pool.PoolMetrics;
+import org.jvoicexml.implementation.pool.PoolStatistics;
 import org.mockito.Mockito;
 
 /**
@@ -160,4 +167,205 @@ public final class TestKeyedResourcePool {
         Assert.assertEquals(0, pool.getNumActive(key1));
         Assert.assertEquals(0, pool.getNumActive(key2));
     }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#borrowObject(java.lang.Object)}.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test failed
+     * @since 0.7.9
+     */
+    @Test(timeout = 5000)
+    public void testBorrowObjectWaits() throws Exception, NoresourceError {
+        final int instances = 2;
+        Mockito.when(factory.getInstances()).thenReturn(instances);
+        pool.setBorrowTimeout(2000);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        final SynthesizedOutput first = pool.borrowObject(key);
+        pool.borrowObject(key);
+        final Thread returner = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                    pool.returnObject(key, first);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (NoresourceError e) {
+                    return;
+                }
+            }
+        };
+        returner.start();
+        final SynthesizedOutput output = pool.borrowObject(key);
+        Assert.assertSame(first, output);
+        Assert.assertEquals(instances, pool.getNumActive(key));
+        returner.join();
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#borrowObject(java.lang.Object)}.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test succeeded
+     * @since 0.7.9
+     */
+    @Test(expected = NoresourceError.class)
+    public void testBorrowObjectTimeout() throws Exception, NoresourceError {
+        Mockito.when(factory.getInstances()).thenReturn(1);
+        pool.setBorrowTimeout(0);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        pool.borrowObject(key);
+        pool.borrowObject(key);
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#borrowObject(java.lang.Object)}.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testBorrowObjectOverflow() throws Exception, NoresourceError {
+        final int instances = 2;
+        final int overflow = 3;
+        Mockito.when(factory.getInstances()).thenReturn(instances);
+        pool.setBorrowTimeout(1000);
+        pool.setOverflowInstances(overflow);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        Assert.assertEquals(instances, pool.getNumIdle(key));
+        final SynthesizedOutput[] outputs =
+                new SynthesizedOutput[instances + overflow];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = pool.borrowObject(key);
+        }
+        Assert.assertEquals(instances + overflow, pool.getNumActive(key));
+        Mockito.verify(factory, Mockito.times(instances + overflow))
+            .createResource();
+        pool.setBorrowTimeout(0);
+        try {
+            pool.borrowObject(key);
+            Assert.fail("exceeding the overflow must fail");
+        } catch (NoresourceError e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            pool.returnObject(key, outputs[i]);
+        }
+        Assert.assertEquals(0, pool.getNumActive(key));
+        Assert.assertTrue(pool.getNumIdle(key) <= instances + 1);
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#borrowObject(java.lang.Object)}
+     * to check that repeated sequential borrows with overflow instances
+     * neither create nor close resources.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testBorrowObjectNoChurn() throws Exception, NoresourceError {
+        final SynthesizedOutput output = Mockito.mock(SynthesizedOutput.class);
+        Mockito.when(factory.createResource()).thenReturn(output);
+        Mockito.when(factory.getInstances()).thenReturn(1);
+        pool.setOverflowInstances(2);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        for (int i = 0; i < 10; i++) {
+            final SynthesizedOutput borrowed = pool.borrowObject(key);
+            pool.returnObject(key, borrowed);
+        }
+        // Give a possible background creation the chance to complete.
+        Thread.sleep(100);
+        Mockito.verify(factory, Mockito.times(1)).createResource();
+        Mockito.verify(output, Mockito.never()).close();
+        Assert.assertEquals(1, pool.getNumIdle(key));
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#getStatistics()}.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testStatistics() throws Exception, NoresourceError {
+        Mockito.when(factory.getInstances()).thenReturn(1);
+        pool.setBorrowTimeout(0);
+        final PoolMetrics metrics = Mockito.mock(PoolMetrics.class);
+        pool.addMetrics(metrics);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        final SynthesizedOutput output = pool.borrowObject(key);
+        try {
+            pool.borrowObject(key);
+            Assert.fail("exceeding the instances must fail");
+        } catch (NoresourceError e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+        Thread.sleep(20);
+        pool.checkLeaks(10);
+        pool.checkLeaks(10);
+        pool.returnObject(key, output);
+        final PoolStatistics statistics = pool.getStatistics();
+        Assert.assertEquals(1, statistics.getBorrowCount(key));
+        Assert.assertEquals(1, statistics.getExhaustedCount(key));
+        Assert.assertEquals(1, statistics.getLeakCount(key));
+        Assert.assertTrue(statistics.getAverageTimeInUse(key) >= 20);
+        final long[] histogram = statistics.getBorrowWaitHistogram(key);
+        Assert.assertEquals(PoolStatistics.getBorrowWaitBuckets().length + 1,
+                histogram.length);
+        long borrows = 0;
+        for (long count : histogram) {
+            borrows += count;
+        }
+        Assert.assertEquals(1, borrows);
+        Mockito.verify(metrics).borrowed(Mockito.eq(key),
+                Mockito.anyLong());
+        Mockito.verify(metrics).exhausted(Mockito.eq(key),
+                Mockito.anyLong());
+        Mockito.verify(metrics).leaked(Mockito.eq(key), Mockito.anyLong());
+        Mockito.verify(metrics).returned(Mockito.eq(key),
+                Mockito.anyLong());
+    }
+
+    /**
+     * Test method for {@link org.jvoicexml.implementation.pool.KeyedResourcePool#registerMBeans(String)}.
+     * @throws Exception
+     *         Test failed.
+     * @throws NoresourceError
+     *         Test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testRegisterMBeans() throws Exception, NoresourceError {
+        Mockito.when(factory.getInstances()).thenReturn(3);
+        pool.addResourceFactory(factory);
+        final String key = factory.getType();
+        pool.borrowObject(key);
+        pool.registerMBeans("test");
+        final MBeanServer server =
+                ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(
+                "org.jvoicexml:type=ResourcePool,pool=\"test\",key=\""
+                + key + "\"");
+        Assert.assertTrue(server.isRegistered(name));
+        Assert.assertEquals(1, server.getAttribute(name, "NumActive"));
+        Assert.assertEquals(2, server.getAttribute(name, "NumIdle"));
+        Assert.assertEquals(1L, server.getAttribute(name, "BorrowCount"));
+        pool.close();
+        Assert.assertFalse(server.isRegistered(name));
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link TimerService}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestTimerService {
+    /**
+     * Test method for {@link TimerService#schedule(Runnable, long)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testSchedule() throws Exception {
+        final TimerService service = TimerService.getInstance();
+        final CountDownLatch latch = new CountDownLatch(1);
+        service.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 10);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test method for {@link TimerService#schedule(Runnable, long)} with
+     * canceled timeouts.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testCancel() throws Exception {
+        final TimerService service = TimerService.getInstance();
+        final AtomicInteger count = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        final int before = service.getScheduledTimeouts();
+        for (int i = 0; i < 1000; i++) {
+            final ScheduledFuture<?> future = service.schedule(task, 60000);
+            future.cancel(false);
+        }
+        Assert.assertEquals(before, service.getScheduledTimeouts());
+        Assert.assertEquals(0, count.get());
+    }
+
+    /**
+     * Test method for {@link TimerService#dispatch(Runnable)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testDispatch() throws Exception {
+        final TimerService service = TimerService.getInstance();
+        final int tasks = 3;
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch dispatched = new CountDownLatch(tasks);
+        final Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                dispatched.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try {
+            // Block more tasks than there are timer threads.
+            for (int i = 0; i < tasks; i++) {
+                service.dispatch(blocking);
+            }
+            Assert.assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+            final CountDownLatch latch = new CountDownLatch(1);
+            service.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, 0);
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+}
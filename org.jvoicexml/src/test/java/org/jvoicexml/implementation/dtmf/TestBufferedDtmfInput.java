@@ -0,0 +1,391 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.dtmf;
+
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.jvoicexml.DtmfRecognizerProperties;
+import org.jvoicexml.RecognitionResult;
+import org.jvoicexml.event.ErrorEvent;
+import org.jvoicexml.event.JVoiceXMLEvent;
+import org.jvoicexml.event.plain.implementation.InputStartedEvent;
+import org.jvoicexml.event.plain.implementation.NomatchEvent;
+import org.jvoicexml.event.plain.implementation.RecognitionEvent;
+import org.jvoicexml.event.plain.implementation.SpokenInputEvent;
+import org.jvoicexml.implementation.GrammarImplementation;
+import org.jvoicexml.implementation.SpokenInputListener;
+import org.jvoicexml.implementation.grammar.GrammarEvaluator;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammar;
+import org.jvoicexml.xml.srgs.GrammarType;
+import org.mockito.Mockito;
+
+/**
+ * Test cases for {@link BufferedDtmfInput}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestBufferedDtmfInput implements SpokenInputListener {
+    /** Maximum time in seconds to wait for an event. */
+    private static final long TIMEOUT = 5;
+
+    /** The received events. */
+    private BlockingQueue<SpokenInputEvent> events;
+
+    /** The test object. */
+    private BufferedDtmfInput input;
+
+    /**
+     * Set up the test environment.
+     * @throws Exception
+     *         set up failed
+     * @throws JVoiceXMLEvent
+     *         set up failed
+     */
+    @Before
+    public void setUp() throws Exception, JVoiceXMLEvent {
+        events = new LinkedBlockingQueue<SpokenInputEvent>();
+        input = new BufferedDtmfInput();
+        input.addListener(this);
+        final GrammarImplementation<?> grammar =
+                Mockito.mock(GrammarImplementation.class);
+        final java.util.Collection<GrammarImplementation<?>> grammars =
+                new java.util.ArrayList<GrammarImplementation<?>>();
+        grammars.add(grammar);
+        input.activateGrammars(grammars);
+    }
+
+    /**
+     * Waits for the next event.
+     * @return the next event
+     * @throws Exception
+     *         no event received
+     */
+    private SpokenInputEvent nextEvent() throws Exception {
+        final SpokenInputEvent event = events.poll(TIMEOUT,
+                TimeUnit.SECONDS);
+        Assert.assertNotNull("no event received", event);
+        return event;
+    }
+
+    /**
+     * Waits for the next event and retrieves the recognized utterance.
+     * @return the recognized utterance
+     * @throws Exception
+     *         no recognition event received
+     */
+    private String nextUtterance() throws Exception {
+        final SpokenInputEvent event = nextEvent();
+        Assert.assertTrue(event instanceof RecognitionEvent);
+        final RecognitionEvent recognition = (RecognitionEvent) event;
+        final RecognitionResult result = recognition.getRecognitionResult();
+        return result.getUtterance();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)}.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testAddDtmf() throws Exception, JVoiceXMLEvent {
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        input.startRecognition(null, null, props);
+        input.addDtmf('1');
+        input.addDtmf('2');
+        input.addDtmf('*');
+        input.addDtmf('#');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("12*", nextUtterance());
+        input.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an
+     * invalid character.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddDtmfInvalid() {
+        input.addDtmf('a');
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with digits
+     * that have been entered before the recognition started.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testAddDtmfTypeAhead() throws Exception, JVoiceXMLEvent {
+        input.addDtmf('4');
+        input.addDtmf('2');
+        input.addDtmf('#');
+        input.addDtmf('7');
+        Assert.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        input.startRecognition(null, null, props);
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("42", nextUtterance());
+        input.startRecognition(null, null, props);
+        input.addDtmf('#');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("7", nextUtterance());
+        input.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an
+     * expiring inter digit timeout.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testInterdigitTimeout() throws Exception, JVoiceXMLEvent {
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("100ms");
+        input.startRecognition(null, null, props);
+        input.addDtmf('3');
+        input.addDtmf('5');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("35", nextUtterance());
+        input.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} without an
+     * active grammar.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testNomatch() throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput noGrammarInput = new BufferedDtmfInput();
+        noGrammarInput.addListener(this);
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        noGrammarInput.startRecognition(null, null, props);
+        noGrammarInput.addDtmf('9');
+        noGrammarInput.addDtmf('#');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertTrue(nextEvent() instanceof NomatchEvent);
+        noGrammarInput.stopRecognition();
+    }
+
+    /**
+     * Creates an input with a grammar that accepts <code>12</code> and
+     * starts a recognition.
+     * @param termtimeout the terminating timeout
+     * @return the input
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    private BufferedDtmfInput startEvaluatingInput(final String termtimeout)
+            throws JVoiceXMLEvent {
+        final GrammarImplementation<?> grammar =
+                Mockito.mock(GrammarImplementation.class, Mockito
+                        .withSettings().extraInterfaces(
+                                GrammarEvaluator.class));
+        final GrammarEvaluator evaluator = (GrammarEvaluator) grammar;
+        Mockito.when(evaluator.getPrefixMatch(Mockito.anyString()))
+                .thenReturn(PrefixMatch.DEAD);
+        Mockito.when(evaluator.getPrefixMatch("1"))
+                .thenReturn(PrefixMatch.CONTINUE);
+        Mockito.when(evaluator.getPrefixMatch("12"))
+                .thenReturn(PrefixMatch.COMPLETE);
+        final BufferedDtmfInput evaluatingInput = new BufferedDtmfInput();
+        evaluatingInput.addListener(this);
+        final java.util.Collection<GrammarImplementation<?>> grammars =
+                new java.util.ArrayList<GrammarImplementation<?>>();
+        grammars.add(grammar);
+        evaluatingInput.activateGrammars(grammars);
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        props.setTermtimeout(termtimeout);
+        evaluatingInput.startRecognition(null, null, props);
+        return evaluatingInput;
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an input
+     * that is complete before the terminating character.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testCompleteEarly() throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput evaluatingInput = startEvaluatingInput("0s");
+        evaluatingInput.addDtmf('1');
+        evaluatingInput.addDtmf('2');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("12", nextUtterance());
+        evaluatingInput.addDtmf('#');
+        evaluatingInput.addDtmf('1');
+        evaluatingInput.addDtmf('2');
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        evaluatingInput.startRecognition(null, null, props);
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("12", nextUtterance());
+        evaluatingInput.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an input
+     * that is complete before the terminating character and a terminating
+     * character that is only entered in the next recognition.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testCompleteEarlyNextRecognition()
+            throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput evaluatingInput = startEvaluatingInput("0s");
+        evaluatingInput.addDtmf('1');
+        evaluatingInput.addDtmf('2');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("12", nextUtterance());
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        evaluatingInput.startRecognition(null, null, props);
+        evaluatingInput.addDtmf('#');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("", nextUtterance());
+        evaluatingInput.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an input
+     * that is complete and a terminating timeout.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testCompleteTermtimeout() throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput evaluatingInput =
+                startEvaluatingInput("100ms");
+        evaluatingInput.addDtmf('1');
+        evaluatingInput.addDtmf('2');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("12", nextUtterance());
+        evaluatingInput.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#addDtmf(char)} with an input
+     * that can not be accepted.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testRejectEarly() throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput evaluatingInput = startEvaluatingInput("0s");
+        evaluatingInput.addDtmf('1');
+        evaluatingInput.addDtmf('3');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        final SpokenInputEvent event = nextEvent();
+        Assert.assertTrue(event instanceof NomatchEvent);
+        final NomatchEvent nomatch = (NomatchEvent) event;
+        Assert.assertEquals("13",
+                nomatch.getRecognitionResult().getUtterance());
+        evaluatingInput.stopRecognition();
+    }
+
+    /**
+     * Test method for {@link BufferedDtmfInput#loadGrammar(URI, GrammarType)}
+     * with a builtin grammar.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test
+    public void testLoadBuiltinGrammar() throws Exception, JVoiceXMLEvent {
+        final BufferedDtmfInput builtinInput = new BufferedDtmfInput();
+        builtinInput.addListener(this);
+        final URI uri = new URI("builtin:dtmf/digits?length=3");
+        final GrammarImplementation<?> grammar =
+                builtinInput.loadGrammar(uri, GrammarType.SRGS_XML);
+        Assert.assertTrue(grammar instanceof BuiltinGrammar);
+        final java.util.Collection<GrammarImplementation<?>> grammars =
+                new java.util.ArrayList<GrammarImplementation<?>>();
+        grammars.add(grammar);
+        builtinInput.activateGrammars(grammars);
+        final DtmfRecognizerProperties props =
+                new DtmfRecognizerProperties();
+        props.setInterdigittimeout("5s");
+        props.setTermtimeout("0s");
+        builtinInput.startRecognition(null, null, props);
+        builtinInput.addDtmf('1');
+        builtinInput.addDtmf('2');
+        builtinInput.addDtmf('3');
+        Assert.assertTrue(nextEvent() instanceof InputStartedEvent);
+        Assert.assertEquals("123", nextUtterance());
+        builtinInput.stopRecognition();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void inputStatusChanged(final SpokenInputEvent event) {
+        events.add(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void inputError(final ErrorEvent error) {
+    }
+}
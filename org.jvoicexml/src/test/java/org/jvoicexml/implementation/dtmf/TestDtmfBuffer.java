@@ -0,0 +1,82 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.dtmf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link DtmfBuffer}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestDtmfBuffer {
+    /**
+     * Test method for {@link DtmfBuffer#offer(char)} and
+     * {@link DtmfBuffer#poll()}.
+     */
+    @Test
+    public void testOfferPoll() {
+        final DtmfBuffer buffer = new DtmfBuffer(3);
+        Assert.assertTrue(buffer.isEmpty());
+        Assert.assertTrue(buffer.offer('1'));
+        Assert.assertTrue(buffer.offer('2'));
+        Assert.assertTrue(buffer.offer('3'));
+        Assert.assertFalse(buffer.offer('4'));
+        Assert.assertEquals(3, buffer.size());
+        Assert.assertEquals("123", buffer.toString());
+        Assert.assertEquals('1', buffer.poll());
+        Assert.assertEquals('2', buffer.poll());
+        Assert.assertTrue(buffer.offer('#'));
+        Assert.assertTrue(buffer.offer('*'));
+        Assert.assertEquals("3#*", buffer.toString());
+        Assert.assertEquals('3', buffer.poll());
+        Assert.assertEquals('#', buffer.poll());
+        Assert.assertEquals('*', buffer.poll());
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    /**
+     * Test method for {@link DtmfBuffer#poll()} with an empty buffer.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPollEmpty() {
+        final DtmfBuffer buffer = new DtmfBuffer(3);
+        buffer.poll();
+    }
+
+    /**
+     * Test method for {@link DtmfBuffer#clear()}.
+     */
+    @Test
+    public void testClear() {
+        final DtmfBuffer buffer = new DtmfBuffer(3);
+        buffer.offer('1');
+        buffer.offer('2');
+        buffer.clear();
+        Assert.assertTrue(buffer.isEmpty());
+        Assert.assertEquals("", buffer.toString());
+        Assert.assertTrue(buffer.offer('5'));
+        Assert.assertEquals('5', buffer.poll());
+    }
+}
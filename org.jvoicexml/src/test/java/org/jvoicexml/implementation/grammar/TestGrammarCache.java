@@ -0,0 +1,156 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar;
+
+import java.net.URI;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jvoicexml.GrammarDocument;
+import org.jvoicexml.implementation.GrammarImplementation;
+import org.mockito.Mockito;
+
+/**
+ * Test cases for {@link GrammarCache}.
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestGrammarCache {
+    /**
+     * Creates a grammar document with the given URI and content.
+     * @param uri the URI
+     * @param content the content
+     * @return created document
+     * @throws Exception
+     *         test failed
+     */
+    private GrammarDocument createDocument(final String uri,
+            final String content) throws Exception {
+        final GrammarDocument document = Mockito.mock(GrammarDocument.class);
+        Mockito.when(document.getURI()).thenReturn(new URI(uri));
+        Mockito.when(document.getBuffer()).thenReturn(content.getBytes());
+        return document;
+    }
+
+    /**
+     * Creates a loaded grammar for the given document.
+     * @param document the document
+     * @return created grammar
+     */
+    private LoadedGrammar createGrammar(final GrammarDocument document) {
+        final GrammarImplementation<?> implementation =
+                Mockito.mock(GrammarImplementation.class);
+        return new LoadedGrammar(document, implementation);
+    }
+
+    /**
+     * Test method for {@link GrammarCache#acquire(Object, GrammarDocument)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testAcquire() throws Exception {
+        final GrammarCache cache = new GrammarCache();
+        final Object loader = new Object();
+        final GrammarDocument document1 =
+                createDocument("http://localhost/yesno.grxml", "yes no");
+        Assert.assertNull(cache.acquire(loader, document1));
+        final LoadedGrammar grammar = createGrammar(document1);
+        Assert.assertSame(grammar, cache.add(loader, grammar));
+        final GrammarDocument document2 =
+                createDocument("http://localhost/yesno.grxml", "yes no");
+        Assert.assertSame(grammar, cache.acquire(loader, document2));
+        Assert.assertEquals(2, cache.getReferenceCount(loader, document2));
+        Assert.assertNull(cache.acquire(new Object(), document2));
+        final GrammarDocument document3 =
+                createDocument("http://localhost/yesno.grxml", "yes");
+        Assert.assertNull(cache.acquire(loader, document3));
+        final GrammarDocument document4 =
+                createDocument("http://localhost/other.grxml", "yes no");
+        Assert.assertNull(cache.acquire(loader, document4));
+    }
+
+    /**
+     * Test method for {@link GrammarCache#add(Object, LoadedGrammar)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testAddConcurrentlyLoaded() throws Exception {
+        final GrammarCache cache = new GrammarCache();
+        final Object loader = new Object();
+        final GrammarDocument document =
+                createDocument("http://localhost/yesno.grxml", "yes no");
+        final LoadedGrammar grammar1 = createGrammar(document);
+        final LoadedGrammar grammar2 = createGrammar(document);
+        Assert.assertSame(grammar1, cache.add(loader, grammar1));
+        Assert.assertSame(grammar1, cache.add(loader, grammar2));
+        Assert.assertEquals(2, cache.getReferenceCount(loader, document));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link GrammarCache#release(LoadedGrammar)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testRelease() throws Exception {
+        final GrammarCache cache = new GrammarCache(1);
+        final Object loader = new Object();
+        final GrammarDocument document1 =
+                createDocument("http://localhost/yesno.grxml", "yes no");
+        final LoadedGrammar grammar1 = createGrammar(document1);
+        cache.add(loader, grammar1);
+        cache.release(grammar1);
+        Assert.assertEquals(0, cache.getReferenceCount(loader, document1));
+        Assert.assertSame(grammar1, cache.acquire(loader, document1));
+        cache.release(grammar1);
+
+        final GrammarDocument document2 =
+                createDocument("http://localhost/digits.grxml", "one two");
+        final LoadedGrammar grammar2 = createGrammar(document2);
+        cache.add(loader, grammar2);
+        cache.release(grammar2);
+        Assert.assertEquals(-1, cache.getReferenceCount(loader, document1));
+        Assert.assertEquals(0, cache.getReferenceCount(loader, document2));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link GrammarCache#contains(GrammarDocument)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testContains() throws Exception {
+        final GrammarCache cache = new GrammarCache();
+        final GrammarDocument document =
+                createDocument("http://localhost/yesno.grxml", "yes no");
+        final LoadedGrammar grammar = createGrammar(document);
+        cache.add(grammar);
+        Assert.assertTrue(cache.contains(document));
+        Assert.assertTrue(cache.contains(grammar.getImplementation()));
+        Assert.assertSame(grammar.getImplementation(),
+                cache.getImplementation(document));
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.implementation.grammar.builtin;
+
+import java.net.URI;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.xml.srgs.ModeType;
+
+/**
+ * Test cases for {@link BuiltinGrammars}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestBuiltinGrammars {
+    /**
+     * Test method for {@link BuiltinGrammars#getGrammar(URI)}.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testGetGrammar() throws Exception {
+        final BuiltinGrammar grammar = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?minlength=2;maxlength=4"));
+        Assert.assertNotNull(grammar);
+        Assert.assertEquals(ModeType.DTMF, grammar.getModeType());
+        Assert.assertSame(grammar, BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?maxlength=4;minlength=2")));
+        Assert.assertNotSame(grammar, BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?length=4")));
+        Assert.assertEquals(ModeType.VOICE, BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/boolean")).getModeType());
+    }
+
+    /**
+     * Test method for {@link BuiltinGrammars#getGrammar(URI)} with URIs of
+     * the builtin grammar handler of a document server.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testGetGrammarServerUri() throws Exception {
+        final BuiltinGrammar grammar = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?minlength=2;maxlength=4"));
+        final URI local = new URI("http://localhost:9595/builtin/dtmf/digits"
+                + "?minlength=2;maxlength=4");
+        Assert.assertNull(BuiltinGrammars.getGrammar(local));
+        final URI server = new URI("http://localhost:9595/");
+        BuiltinGrammars.addServerUri(server);
+        try {
+            Assert.assertSame(grammar, BuiltinGrammars.getGrammar(local));
+            Assert.assertNull(BuiltinGrammars.getGrammar(new URI(
+                    "http://app.example.com/builtin/dtmf/digits")));
+            Assert.assertNull(BuiltinGrammars.getGrammar(new URI(
+                    "http://localhost:8080/builtin/dtmf/digits")));
+            Assert.assertNull(BuiltinGrammars.getGrammar(new URI(
+                    "https://localhost:9595/builtin/dtmf/digits")));
+        } finally {
+            BuiltinGrammars.removeServerUri(server);
+        }
+        Assert.assertNull(BuiltinGrammars.getGrammar(local));
+    }
+
+    /**
+     * Test method for {@link BuiltinGrammars#getGrammar(URI)} with URIs
+     * that do not denote a supported builtin grammar.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testGetGrammarUnsupported() throws Exception {
+        Assert.assertNull(BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/color")));
+        Assert.assertNull(BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?length=four")));
+        Assert.assertNull(BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?minlength=4;maxlength=2")));
+        Assert.assertNull(BuiltinGrammars.getGrammar(
+                new URI("http://localhost:8080/grammars/digits.srgs")));
+        Assert.assertNull(BuiltinGrammars.getGrammar(null));
+    }
+
+    /**
+     * Test method for the builtin type <code>digits</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testDigits() throws Exception {
+        final BuiltinGrammar dtmf = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/digits?length=4"));
+        Assert.assertEquals("1234",
+                dtmf.getSemanticInterpretation(null, "1234"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "123"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "12*4"));
+        Assert.assertEquals(PrefixMatch.CONTINUE, dtmf.getPrefixMatch("123"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                dtmf.getPrefixMatch("1234"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("12345"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("1*"));
+        final BuiltinGrammar voice = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/digits"));
+        Assert.assertEquals("123",
+                voice.getSemanticInterpretation(null, "1 2 3"));
+        Assert.assertNull(voice.getSemanticInterpretation(null, ""));
+    }
+
+    /**
+     * Test method for the builtin type <code>boolean</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testBoolean() throws Exception {
+        final BuiltinGrammar dtmf = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/boolean?y=7"));
+        Assert.assertEquals(Boolean.TRUE,
+                dtmf.getSemanticInterpretation(null, "7"));
+        Assert.assertEquals(Boolean.FALSE,
+                dtmf.getSemanticInterpretation(null, "2"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "1"));
+        Assert.assertEquals(PrefixMatch.COMPLETE, dtmf.getPrefixMatch("7"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("1"));
+        final BuiltinGrammar voice = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/boolean"));
+        Assert.assertEquals(Boolean.TRUE,
+                voice.getSemanticInterpretation(null, "Yes"));
+        Assert.assertEquals(Boolean.FALSE,
+                voice.getSemanticInterpretation(null, "no "));
+    }
+
+    /**
+     * Test method for the builtin types <code>number</code> and
+     * <code>currency</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testNumberCurrency() throws Exception {
+        final BuiltinGrammar number = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/number"));
+        Assert.assertEquals("12.5",
+                number.getSemanticInterpretation(null, "12*5"));
+        Assert.assertEquals("0.5",
+                number.getSemanticInterpretation(null, "*5"));
+        Assert.assertNull(number.getSemanticInterpretation(null, "12*"));
+        Assert.assertEquals(PrefixMatch.DEAD, number.getPrefixMatch("1*2*"));
+        final BuiltinGrammar spoken = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/number"));
+        Assert.assertEquals("-3.25",
+                spoken.getSemanticInterpretation(null, "-3.25"));
+        final BuiltinGrammar currency = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/currency"));
+        Assert.assertEquals("12.50",
+                currency.getSemanticInterpretation(null, "12*50"));
+        Assert.assertNull(currency.getSemanticInterpretation(null, "1*505"));
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                currency.getPrefixMatch("12*5"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                currency.getPrefixMatch("12*50"));
+        final BuiltinGrammar amount = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/currency"));
+        Assert.assertEquals("USD12.50",
+                amount.getSemanticInterpretation(null, "usd 12.50"));
+        Assert.assertNull(amount.getSemanticInterpretation(null, "US 12"));
+    }
+
+    /**
+     * Test method for the builtin type <code>date</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testDate() throws Exception {
+        final BuiltinGrammar dtmf = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/date"));
+        Assert.assertEquals("20200229",
+                dtmf.getSemanticInterpretation(null, "20200229"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "20190229"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "20201301"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("20202"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("2020044"));
+        Assert.assertEquals(PrefixMatch.CONTINUE,
+                dtmf.getPrefixMatch("2020043"));
+        Assert.assertEquals(PrefixMatch.COMPLETE,
+                dtmf.getPrefixMatch("20200430"));
+        final BuiltinGrammar voice = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/date"));
+        Assert.assertEquals("20201017",
+                voice.getSemanticInterpretation(null, "2020-10-17"));
+    }
+
+    /**
+     * Test method for the builtin type <code>time</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testTime() throws Exception {
+        final BuiltinGrammar dtmf = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/time"));
+        Assert.assertEquals("1730h",
+                dtmf.getSemanticInterpretation(null, "1730"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "2460"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("3"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("246"));
+        Assert.assertEquals(PrefixMatch.COMPLETE, dtmf.getPrefixMatch("0915"));
+        final BuiltinGrammar voice = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/time"));
+        Assert.assertEquals("0930p",
+                voice.getSemanticInterpretation(null, "9:30 pm"));
+        Assert.assertEquals("0930?",
+                voice.getSemanticInterpretation(null, "9:30"));
+        Assert.assertEquals("1700h",
+                voice.getSemanticInterpretation(null, "17"));
+        Assert.assertNull(voice.getSemanticInterpretation(null, "17:00 am"));
+    }
+
+    /**
+     * Test method for the builtin type <code>phone</code>.
+     * @exception Exception
+     *            test failed
+     */
+    @Test
+    public void testPhone() throws Exception {
+        final BuiltinGrammar dtmf = BuiltinGrammars.getGrammar(
+                new URI("builtin:dtmf/phone"));
+        Assert.assertEquals("8005551234x12",
+                dtmf.getSemanticInterpretation(null, "8005551234*12"));
+        Assert.assertNull(dtmf.getSemanticInterpretation(null, "800*"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("*"));
+        Assert.assertEquals(PrefixMatch.DEAD, dtmf.getPrefixMatch("1*2*"));
+        Assert.assertEquals(PrefixMatch.CONTINUE, dtmf.getPrefixMatch("1*2"));
+        final BuiltinGrammar voice = BuiltinGrammars.getGrammar(
+                new URI("builtin:grammar/phone"));
+        Assert.assertEquals("8005551234x12",
+                voice.getSemanticInterpretation(null, "(800) 555-1234 x12"));
+    }
+}
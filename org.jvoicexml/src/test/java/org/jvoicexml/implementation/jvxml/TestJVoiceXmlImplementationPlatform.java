@@ -29,8 +29,11 @@ import org.jvoicexml.SpeakableSsmlText;
 import org.jvoicexml.SpeakableText;
 import org.jvoicexml.SystemOutput;
 import org.jvoicexml.UserInput;
+import org.jvoicexml.event.EventBus;
 import org.jvoicexml.event.JVoiceXMLEvent;
 import org.jvoicexml.event.error.NoresourceError;
+import org.jvoicexml.event.plain.implementation.QueueEmptyEvent;
+import org.jvoicexml.event.plain.implementation.RecognitionStoppedEvent;
 import org.jvoicexml.implementation.ResourceFactory;
 import org.jvoicexml.implementation.SpokenInput;
 import org.jvoicexml.implementation.SynthesizedOutput;
@@ -227,4 +230,87 @@ public final class TestJVoiceXmlImplementationPlatform {
         Assert.assertTrue(platform.isHungup());
         Assert.assertFalse(platform.isClosed());
     }
+
+    /**
+     * Test case for {@link JVoiceXmlImplementationPlatform#close()}.
+     * @throws JVoiceXMLEvent test failed
+     * 
+     * @since 0.7.9
+     */
+    @Test(timeout = 5000)
+    public void testClose() throws JVoiceXMLEvent {
+        platform.getSystemOutput();
+        final JVoiceXmlUserInput input =
+                (JVoiceXmlUserInput) platform.getUserInput();
+        final SpokenInput spokenInput = input.getSpokenInput();
+        Mockito.when(spokenInput.getType()).thenReturn("dummy");
+        platform.getCallControl();
+        Assert.assertEquals(1, synthesizerPool.getNumActive());
+        Assert.assertEquals(1, recognizerPool.getNumActive());
+        Assert.assertEquals(1, telephonyPool.getNumActive());
+        platform.close();
+        Assert.assertTrue(platform.isClosed());
+        Assert.assertEquals(0, synthesizerPool.getNumActive());
+        Assert.assertEquals(0, recognizerPool.getNumActive());
+        Assert.assertEquals(0, telephonyPool.getNumActive());
+    }
+
+    /**
+     * Test case for {@link JVoiceXmlImplementationPlatform#close()}.
+     * @throws JVoiceXMLEvent test failed
+     * 
+     * @since 0.7.9
+     */
+    @Test(timeout = 5000)
+    public void testCloseInputBusy() throws JVoiceXMLEvent {
+        platform.setEventBus(new EventBus());
+        final JVoiceXmlUserInput input =
+                (JVoiceXmlUserInput) platform.getUserInput();
+        final SpokenInput spokenInput = input.getSpokenInput();
+        Mockito.when(spokenInput.getType()).thenReturn("dummy");
+        Mockito.when(spokenInput.isBusy()).thenReturn(true);
+        platform.getCallControl();
+        platform.close();
+        Assert.assertEquals(1, recognizerPool.getNumActive());
+        Assert.assertEquals(1, telephonyPool.getNumActive());
+        Mockito.when(spokenInput.isBusy()).thenReturn(false);
+        platform.inputStatusChanged(
+                new RecognitionStoppedEvent(spokenInput, null));
+        Assert.assertEquals(0, recognizerPool.getNumActive());
+        Assert.assertEquals(0, telephonyPool.getNumActive());
+    }
+
+    /**
+     * Test case for {@link JVoiceXmlImplementationPlatform#close()}.
+     * @throws Exception test failed
+     * @throws JVoiceXMLEvent test failed
+     * 
+     * @since 0.7.9
+     */
+    @Test(timeout = 5000)
+    public void testCloseOutputBusy() throws Exception, JVoiceXMLEvent {
+        platform.setEventBus(new EventBus());
+        final JVoiceXmlSystemOutput output =
+                (JVoiceXmlSystemOutput) platform.getSystemOutput();
+        final SynthesizedOutput synthesizedOutput =
+                output.getSynthesizedOutput();
+        Mockito.when(synthesizedOutput.isBusy()).thenReturn(true);
+        final Thread closer = new Thread() {
+            @Override
+            public void run() {
+                platform.close();
+            }
+        };
+        closer.start();
+        while (!platform.isClosed()) {
+            Thread.sleep(10);
+        }
+        closer.join(100);
+        Assert.assertTrue(closer.isAlive());
+        Assert.assertEquals(1, synthesizerPool.getNumActive());
+        platform.outputStatusChanged(
+                new QueueEmptyEvent(synthesizedOutput, null));
+        closer.join();
+        Assert.assertEquals(0, synthesizerPool.getNumActive());
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.jvoicexml.ImplementationPlatform;
+import org.jvoicexml.JVoiceXmlCore;
+import org.jvoicexml.Session;
+import org.jvoicexml.event.JVoiceXMLEvent;
+import org.jvoicexml.event.error.NoresourceError;
+import org.jvoicexml.mock.MockJvoiceXmlCore;
+import org.jvoicexml.mock.implementation.MockImplementationPlatform;
+import org.jvoicexml.profile.Profile;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Test cases for {@link JVoiceXmlSessionRegistry}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestJVoiceXmlSessionRegistry {
+    /** The test object. */
+    private JVoiceXmlSessionRegistry registry;
+
+    /**
+     * Set up the test environment.
+     */
+    @Before
+    public void setUp() {
+        registry = new JVoiceXmlSessionRegistry();
+    }
+
+    /**
+     * Creates a mock session with the given id.
+     * @param sessionId the session id
+     * @return the session
+     */
+    private Session createSession(final String sessionId) {
+        final Session session = Mockito.mock(Session.class);
+        Mockito.when(session.getSessionId()).thenReturn(sessionId);
+        return session;
+    }
+
+    /**
+     * Test method for
+     * {@link JVoiceXmlSessionRegistry#register(Session)}.
+     */
+    @Test
+    public void testRegister() {
+        final Session session1 = createSession("session1");
+        final Session session2 = createSession("session2");
+        registry.register(session1);
+        registry.register(session2);
+        registry.register(session2);
+        Assert.assertEquals(2, registry.size());
+        Assert.assertSame(session1, registry.getSession("session1"));
+        Assert.assertSame(session2, registry.getSession("session2"));
+        Assert.assertNull(registry.getSession("session3"));
+        Mockito.verify(session1).addSessionListener(registry);
+    }
+
+    /**
+     * Test method for
+     * {@link JVoiceXmlSessionRegistry#sessionEnded(Session)}.
+     */
+    @Test
+    public void testSessionEnded() {
+        final Session session = createSession("session1");
+        registry.register(session);
+        Assert.assertTrue(registry.setCallId(session, "call1"));
+        registry.sessionEnded(session);
+        Assert.assertEquals(0, registry.size());
+        Assert.assertNull(registry.getSession("session1"));
+        Assert.assertNull(registry.getSessionByCallId("call1"));
+        Assert.assertFalse(registry.unregister(session));
+    }
+
+    /**
+     * Test method for
+     * {@link JVoiceXmlSessionRegistry#setCallId(Session, String)}.
+     */
+    @Test
+    public void testSetCallId() {
+        final Session session = createSession("session1");
+        Assert.assertFalse(registry.setCallId(session, "call1"));
+        registry.register(session);
+        Assert.assertTrue(registry.setCallId(session, "call1"));
+        Assert.assertSame(session, registry.getSessionByCallId("call1"));
+        Assert.assertTrue(registry.setCallId(session, "call2"));
+        Assert.assertNull(registry.getSessionByCallId("call1"));
+        Assert.assertSame(session, registry.getSessionByCallId("call2"));
+    }
+
+    /**
+     * Test method for {@link JVoiceXmlSessionRegistry#getSessions()}.
+     */
+    @Test
+    public void testGetSessions() {
+        final int sessions = 100;
+        for (int i = 0; i < sessions; i++) {
+            registry.register(createSession("session" + i));
+        }
+        final java.util.Collection<String> ids =
+                new java.util.HashSet<String>();
+        for (Session session : registry.getSessions()) {
+            ids.add(session.getSessionId());
+            registry.unregister(session);
+        }
+        Assert.assertEquals(sessions, ids.size());
+        Assert.assertEquals(0, registry.size());
+        Assert.assertFalse(registry.getSessions().iterator().hasNext());
+    }
+
+    /**
+     * Test method for {@link JVoiceXmlSessionRegistry#hangupAll(long)}.
+     */
+    @Test
+    public void testHangupAll() {
+        final Session session1 = createSession("session1");
+        final Session session2 = createSession("session2");
+        final Answer<Void> end = new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                final Session session = (Session) invocation.getMock();
+                registry.sessionEnded(session);
+                return null;
+            }
+        };
+        Mockito.doAnswer(end).when(session1).hangup();
+        Mockito.doAnswer(end).when(session2).hangup();
+        registry.register(session1);
+        registry.register(session2);
+        Assert.assertEquals(0, registry.hangupAll(1000));
+        Assert.assertEquals(0, registry.size());
+    }
+
+    /**
+     * Test method for {@link JVoiceXmlSessionRegistry#hangupAll(long)} with
+     * a session that does not end.
+     */
+    @Test(timeout = 5000)
+    public void testHangupAllTimeout() {
+        final Session session = createSession("session1");
+        registry.register(session);
+        Assert.assertEquals(1, registry.hangupAll(100));
+        Mockito.verify(session).hangup();
+    }
+
+    /**
+     * Creates a session with the given executor.
+     * @param executor the executor of the session
+     * @return the session
+     */
+    private JVoiceXmlSession createSession(final SessionExecutor executor) {
+        final ImplementationPlatform platform =
+                new MockImplementationPlatform();
+        final JVoiceXmlCore jvxml = new MockJvoiceXmlCore();
+        final Profile profile = Mockito.mock(Profile.class);
+        return new JVoiceXmlSession(platform, jvxml, null, profile, executor);
+    }
+
+    /**
+     * Test method for {@link JVoiceXmlSessionRegistry#register(Session)}
+     * with a session that can not be started.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testRegisterCallRejected()
+            throws Exception, JVoiceXMLEvent {
+        final SessionExecutor executor = Mockito.mock(SessionExecutor.class);
+        Mockito.doThrow(new RejectedExecutionException()).when(executor)
+                .execute(Mockito.any(Runnable.class), Mockito.anyString());
+        final JVoiceXmlSession session = createSession(executor);
+        registry.register(session);
+        Assert.assertEquals(1, registry.size());
+        NoresourceError error = null;
+        try {
+            session.call(new URI("http://localhost/hello.vxml"));
+        } catch (NoresourceError e) {
+            error = e;
+        }
+        Assert.assertNotNull(error);
+        Assert.assertTrue(session.hasEnded());
+        Assert.assertEquals(0, registry.size());
+    }
+
+    /**
+     * Test method for {@link JVoiceXmlSessionRegistry#hangupAll(long)} with
+     * a session that has not been started yet.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test(timeout = 5000)
+    public void testHangupAllNotStarted() throws Exception, JVoiceXMLEvent {
+        final SessionExecutor executor = Mockito.mock(SessionExecutor.class);
+        final JVoiceXmlSession session = createSession(executor);
+        registry.register(session);
+        session.call(new URI("http://localhost/hello.vxml"));
+        Assert.assertEquals(0, registry.hangupAll(1000));
+        Assert.assertTrue(session.hasEnded());
+        Assert.assertNull(session.getVoiceXmlInterpreterContext());
+
+        // The delayed start must not process the closed session.
+        session.run();
+        Assert.assertNull(session.getVoiceXmlInterpreterContext());
+    }
+}
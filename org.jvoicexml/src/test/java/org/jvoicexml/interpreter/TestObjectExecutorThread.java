@@ -141,7 +141,8 @@ public final class TestObjectExecutorThread implements EventSubscriber {
         final ObjectExecutorThread executor = new ObjectExecutorThread(context,
                 item);
 
-        executor.start();
+        final Thread thread = new Thread(executor);
+        thread.start();
         synchronized (lock) {
             lock.wait();
         }
@@ -180,7 +181,8 @@ public final class TestObjectExecutorThread implements EventSubscriber {
         final ObjectExecutorThread executor = new ObjectExecutorThread(context,
                 item);
 
-        executor.start();
+        final Thread thread = new Thread(executor);
+        thread.start();
         synchronized (lock) {
             lock.wait();
         }
@@ -227,7 +229,8 @@ public final class TestObjectExecutorThread implements EventSubscriber {
         final ObjectExecutorThread executor = new ObjectExecutorThread(context,
                 item);
 
-        executor.start();
+        final Thread thread = new Thread(executor);
+        thread.start();
         synchronized (lock) {
             lock.wait();
         }
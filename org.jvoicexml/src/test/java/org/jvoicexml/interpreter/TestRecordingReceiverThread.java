@@ -0,0 +1,69 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter;
+
+import org.junit.Test;
+import org.jvoicexml.AudioRecording;
+import org.jvoicexml.event.EventBus;
+import org.jvoicexml.event.EventSubscriber;
+import org.jvoicexml.event.JVoiceXMLEvent;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link org.jvoicexml.interpreter.RecordingReceiverThread}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestRecordingReceiverThread {
+    /** Maximal recording time in msec. */
+    private static final long MAX_TIME = 60000;
+
+    /** Maximal time in msec to wait for the receiver to terminate. */
+    private static final long TIMEOUT = 5000;
+
+    /**
+     * Test method for {@link RecordingReceiverThread#cancel()}.
+     * @throws Exception
+     *         test failed
+     * @throws JVoiceXMLEvent
+     *         test failed
+     */
+    @Test(timeout = TIMEOUT)
+    public void testCancel() throws Exception, JVoiceXMLEvent {
+        final EventBus eventbus = new EventBus();
+        final EventSubscriber subscriber =
+                Mockito.mock(EventSubscriber.class);
+        eventbus.subscribe("", subscriber);
+        final AudioRecording audio = Mockito.mock(AudioRecording.class);
+        final RecordingReceiverThread recording =
+                new RecordingReceiverThread(eventbus, MAX_TIME, audio);
+        final Thread thread = new Thread(recording);
+        thread.start();
+        recording.cancel();
+        thread.join();
+        Mockito.verify(audio).discard();
+        Mockito.verify(audio, Mockito.never()).finish();
+        Mockito.verify(subscriber, Mockito.never()).onEvent(
+                Mockito.any(JVoiceXMLEvent.class));
+    }
+}
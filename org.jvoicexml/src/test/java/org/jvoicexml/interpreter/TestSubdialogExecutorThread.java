@@ -134,8 +134,9 @@ public class TestSubdialogExecutorThread {
         final SubdialogExecutorThread executor = new SubdialogExecutorThread(
                 uri, context, application, params, eventbus, null);
 
-        executor.start();
-        executor.join();
+        final Thread thread = new Thread(executor);
+        thread.start();
+        thread.join();
         ReturnEvent event = null;
         try {
             handler.processEvent(item);
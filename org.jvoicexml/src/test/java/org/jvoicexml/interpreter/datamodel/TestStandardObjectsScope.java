@@ -0,0 +1,71 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Library General Public
+ * License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.datamodel;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+/**
+ * Test cases for {@link StandardObjectsScope}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public class TestStandardObjectsScope {
+    /** The current context. */
+    private Context context;
+
+    /**
+     * Set up the test environment.
+     */
+    @Before
+    public void setUp() {
+        context = Context.enter();
+    }
+
+    /**
+     * Tear down the test environment.
+     */
+    @After
+    public void tearDown() {
+        Context.exit();
+    }
+
+    @Test
+    public void testCreateScope() {
+        final Scriptable first = StandardObjectsScope.createScope(context);
+        final Scriptable second = StandardObjectsScope.createScope(context);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.getPrototype(), second.getPrototype());
+        Assert.assertTrue(((ScriptableObject) first.getPrototype())
+                .isSealed());
+        final Object value = context.evaluateString(first,
+                "var a = JSON.stringify([1, 2]); a;", "test", 1, null);
+        Assert.assertEquals("[1,2]", Context.toString(value));
+        Assert.assertFalse(ScriptableObject.hasProperty(second, "a"));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link PooledSessionExecutor}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestPooledSessionExecutor {
+    /** Maximum time in seconds to wait for a task. */
+    private static final long TIMEOUT = 5;
+
+    /** The executor to test. */
+    private PooledSessionExecutor executor;
+
+    /**
+     * Set up the test environment.
+     */
+    @Before
+    public void setUp() {
+        executor = new PooledSessionExecutor();
+        executor.setMaxThreads(1);
+    }
+
+    /**
+     * Tear down the test environment.
+     */
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Test method for
+     * {@link PooledSessionExecutor#execute(Runnable, String)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testExecute() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] name = new String[1];
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                name[0] = Thread.currentThread().getName();
+                latch.countDown();
+            }
+        }, "session-1");
+        Assert.assertTrue(latch.await(TIMEOUT, TimeUnit.SECONDS));
+        Assert.assertEquals("session-1", name[0]);
+    }
+
+    /**
+     * Test method for
+     * {@link PooledSessionExecutor#execute(Runnable, String)} to check that
+     * sessions do not keep the JVM alive.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testExecuteDaemon() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final boolean[] daemon = new boolean[1];
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                daemon[0] = Thread.currentThread().isDaemon();
+                latch.countDown();
+            }
+        }, "session-1");
+        Assert.assertTrue(latch.await(TIMEOUT, TimeUnit.SECONDS));
+        Assert.assertTrue(daemon[0]);
+    }
+
+    /**
+     * Test method for
+     * {@link PooledSessionExecutor#execute(Runnable, String)} if all
+     * threads are busy.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testExecuteExhausted() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "session-1");
+        Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        RejectedExecutionException rejected = null;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, "session-2");
+        } catch (RejectedExecutionException e) {
+            rejected = e;
+        } finally {
+            release.countDown();
+        }
+        Assert.assertNotNull("expected the session to be rejected",
+                rejected);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.executor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ThreadSessionExecutor}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestThreadSessionExecutor {
+    /** Maximum time in seconds to wait for a task. */
+    private static final long TIMEOUT = 5;
+
+    /**
+     * Test method for
+     * {@link ThreadSessionExecutor#execute(Runnable, String)}.
+     * @throws Exception
+     *         test failed
+     */
+    @Test
+    public void testExecute() throws Exception {
+        final ThreadSessionExecutor executor = new ThreadSessionExecutor();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] name = new String[1];
+        final boolean[] daemon = new boolean[1];
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                name[0] = Thread.currentThread().getName();
+                daemon[0] = Thread.currentThread().isDaemon();
+                latch.countDown();
+            }
+        }, "session-1");
+        Assert.assertTrue(latch.await(TIMEOUT, TimeUnit.SECONDS));
+        Assert.assertEquals("session-1", name[0]);
+        Assert.assertTrue(daemon[0]);
+    }
+
+    /**
+     * Test method for
+     * {@link ThreadSessionExecutor#execute(Runnable, String)} after a
+     * shutdown.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void testExecuteShutdown() {
+        final ThreadSessionExecutor executor = new ThreadSessionExecutor();
+        executor.shutdown();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, "session-1");
+    }
+}
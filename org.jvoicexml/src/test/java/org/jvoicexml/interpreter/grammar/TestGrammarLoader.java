@@ -32,10 +32,12 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.jvoicexml.Configuration;
+import org.jvoicexml.FetchAttributes;
 import org.jvoicexml.GrammarDocument;
 import org.jvoicexml.ImplementationPlatform;
 import org.jvoicexml.JVoiceXmlCore;
 import org.jvoicexml.event.JVoiceXMLEvent;
+import org.jvoicexml.event.error.BadFetchError;
 import org.jvoicexml.interpreter.JVoiceXmlSession;
 import org.jvoicexml.interpreter.VoiceXmlInterpreterContext;
 import org.jvoicexml.mock.MockJvoiceXmlCore;
@@ -126,4 +128,79 @@ public final class TestGrammarLoader {
         Assert.assertEquals(grammar.toString(), grammarDocument.getDocument());
     }
 
+    /**
+     * Test method for
+     * {@link GrammarLoader#adaptFetchAttributes(FetchAttributes, Grammar)}
+     * with a <code>maxage</code> of <code>0s</code>.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testAdaptFetchAttributesMaxageZero()
+            throws Exception, JVoiceXMLEvent {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        final Form form = vxml.appendChild(Form.class);
+        final Grammar grammar = form.appendChild(Grammar.class);
+        grammar.setMaxage("0s");
+        final FetchAttributes documentAttributes = new FetchAttributes();
+        documentAttributes.setMaxage(60000);
+        final FetchAttributes attributes = loader.adaptFetchAttributes(
+                documentAttributes, grammar);
+        Assert.assertEquals(0, attributes.getMaxage());
+        Assert.assertEquals(FetchAttributes.UNSPECIFIED,
+                attributes.getMaxstale());
+    }
+
+    /**
+     * Test method for
+     * {@link GrammarLoader#adaptFetchAttributes(FetchAttributes, Grammar)}
+     * with values without a unit.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testAdaptFetchAttributesWithoutUnit()
+            throws Exception, JVoiceXMLEvent {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        final Form form = vxml.appendChild(Form.class);
+        final Grammar grammar = form.appendChild(Grammar.class);
+        grammar.setMaxage("0");
+        grammar.setMaxstale("30");
+        final FetchAttributes attributes = loader.adaptFetchAttributes(null,
+                grammar);
+        Assert.assertEquals(0, attributes.getMaxage());
+        Assert.assertEquals(30000, attributes.getMaxstale());
+    }
+
+    /**
+     * Test method for
+     * {@link GrammarLoader#adaptFetchAttributes(FetchAttributes, Grammar)}
+     * with an invalid value.
+     * 
+     * @exception Exception
+     *                test failed
+     * @exception JVoiceXMLEvent
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test(expected = BadFetchError.class)
+    public void testAdaptFetchAttributesInvalid()
+            throws Exception, JVoiceXMLEvent {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        final Form form = vxml.appendChild(Form.class);
+        final Grammar grammar = form.appendChild(Grammar.class);
+        grammar.setMaxstale("-5s");
+        loader.adaptFetchAttributes(null, grammar);
+    }
 }
@@ -40,7 +40,12 @@ import org.jvoicexml.event.JVoiceXMLEvent;
 import org.jvoicexml.event.error.UnsupportedFormatError;
 import org.jvoicexml.interpreter.JVoiceXmlSession;
 import org.jvoicexml.interpreter.VoiceXmlInterpreterContext;
+import org.jvoicexml.implementation.GrammarImplementation;
+import org.jvoicexml.implementation.dtmf.BufferedDtmfInput;
+import org.jvoicexml.implementation.grammar.PrefixMatch;
+import org.jvoicexml.implementation.grammar.builtin.BuiltinGrammar;
 import org.jvoicexml.interpreter.datamodel.DataModel;
+import org.jvoicexml.interpreter.formitem.FieldFormItem;
 import org.jvoicexml.interpreter.grammar.identifier.SrgsAbnfGrammarIdentifier;
 import org.jvoicexml.interpreter.grammar.identifier.SrgsXmlGrammarIdentifier;
 import org.jvoicexml.mock.MockJvoiceXmlCore;
@@ -54,6 +59,7 @@ import org.jvoicexml.xml.srgs.ModeType;
 import org.jvoicexml.xml.srgs.OneOf;
 import org.jvoicexml.xml.srgs.Rule;
 import org.jvoicexml.xml.srgs.SrgsXmlDocument;
+import org.jvoicexml.xml.vxml.Field;
 import org.jvoicexml.xml.vxml.Form;
 import org.jvoicexml.xml.vxml.VoiceXmlDocument;
 import org.jvoicexml.xml.vxml.Vxml;
@@ -208,6 +214,47 @@ public final class TestGrammarProcessor {
         processor.process(context, null, jsgfgrammar, Locale.US);
     }
 
+    /**
+     * Test case for a field with a builtin type. The builtin grammars must
+     * be resolved without a fetch.
+     *
+     * @exception JVoiceXMLEvent
+     *                Test failed.
+     * @exception Exception
+     *                test failed
+     * @since 0.7.9
+     */
+    @Test
+    public void testBuiltinFieldType() throws JVoiceXMLEvent, Exception {
+        final VoiceXmlDocument document = new VoiceXmlDocument();
+        final Vxml vxml = document.getVxml();
+        final Form form = vxml.appendChild(Form.class);
+        final Field field = form.appendChild(Field.class);
+        field.setName("day");
+        field.setType("date");
+        final FieldFormItem item = new FieldFormItem(context, field);
+        final Collection<Grammar> grammars = item.getGrammars();
+        Assert.assertEquals(2, grammars.size());
+        final BufferedDtmfInput input = new BufferedDtmfInput();
+        for (Grammar grammar : grammars) {
+            final GrammarDocument processed = processor.process(context,
+                    null, grammar, Locale.US);
+            Assert.assertNull(processed.getBuffer());
+            Assert.assertEquals("builtin", processed.getURI().getScheme());
+            Assert.assertEquals(GrammarType.SRGS_XML,
+                    processed.getMediaType());
+            if (processed.getModeType() == ModeType.DTMF) {
+                final GrammarImplementation<?> implementation = input
+                        .loadGrammar(processed.getURI(),
+                                processed.getMediaType());
+                final BuiltinGrammar builtin =
+                        (BuiltinGrammar) implementation;
+                Assert.assertEquals(PrefixMatch.COMPLETE,
+                        builtin.getPrefixMatch("20201017"));
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
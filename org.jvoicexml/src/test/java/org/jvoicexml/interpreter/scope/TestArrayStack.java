@@ -0,0 +1,76 @@
+/*
+ * JVoiceXML - A free VoiceXML implementation.
+ *
+ * Copyright (C) 2020 JVoiceXML group - http://jvoicexml.sourceforge.net
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Library General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Library General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Library General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package org.jvoicexml.interpreter.scope;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ArrayStack}.
+ *
+ * @author Dirk Schnelle-Walka
+ * @since 0.7.9
+ */
+public final class TestArrayStack {
+    /**
+     * Test method for {@link ArrayStack#push(Object)} and
+     * {@link ArrayStack#pop()}.
+     */
+    @Test
+    public void testPushPop() {
+        final ArrayStack<String> stack = new ArrayStack<String>();
+        Assert.assertTrue(stack.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            stack.push("element" + i);
+        }
+        Assert.assertEquals(10, stack.size());
+        Assert.assertEquals("element9", stack.peek());
+        Assert.assertEquals("element0", stack.get(0));
+        for (int i = 9; i >= 0; i--) {
+            Assert.assertEquals("element" + i, stack.pop());
+        }
+        Assert.assertTrue(stack.isEmpty());
+    }
+
+    /**
+     * Test method for {@link ArrayStack#pop()} with an empty stack.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPopEmpty() {
+        final ArrayStack<String> stack = new ArrayStack<String>();
+        stack.pop();
+    }
+
+    /**
+     * Test method for {@link ArrayStack#clear()}.
+     */
+    @Test
+    public void testClear() {
+        final ArrayStack<String> stack = new ArrayStack<String>();
+        stack.push("element1");
+        stack.push("element2");
+        stack.clear();
+        Assert.assertTrue(stack.isEmpty());
+        stack.push("element3");
+        Assert.assertEquals("element3", stack.peek());
+    }
+}
@@ -25,6 +25,8 @@
  */
 package org.jvoicexml.interpreter.scope;
 
+import java.util.Iterator;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -83,4 +85,67 @@ public final class TestScopedCollection {
         Assert.assertFalse(collection.contains(test3));
         Assert.assertEquals(2, collection.size());
     }
+
+    /**
+     * Test method for {@link ScopedCollection#iterator()} and
+     * {@link ScopedCollection#exitScope(Scope, Scope)}.
+     */
+    @Test
+    public void testIterator() {
+        final ScopedCollection<String> collection =
+            new ScopedCollection<String>(observer);
+        collection.enterScope(null, Scope.SESSION);
+        collection.add("test1");
+        collection.enterScope(Scope.SESSION, Scope.DOCUMENT);
+        collection.add("test2");
+        collection.add("test3");
+        collection.enterScope(Scope.DOCUMENT, Scope.DIALOG);
+        collection.add("test4");
+        final Iterator<String> iterator = collection.iterator();
+        Assert.assertEquals("test4", iterator.next());
+        Assert.assertEquals("test2", iterator.next());
+        Assert.assertEquals("test3", iterator.next());
+        Assert.assertEquals("test1", iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertTrue(collection.remove("test2"));
+        collection.exitScope(Scope.DOCUMENT, Scope.SESSION);
+        Assert.assertEquals(1, collection.size());
+        Assert.assertEquals("test1", collection.iterator().next());
+    }
+
+    /**
+     * Test method for {@link ScopedCollection#toArray()} and removal via
+     * the iterator.
+     * @since 0.7.9
+     */
+    @Test
+    public void testToArrayIteratorRemove() {
+        final ScopedCollection<String> collection =
+            new ScopedCollection<String>(observer);
+        collection.enterScope(null, Scope.SESSION);
+        collection.add("test1");
+        collection.enterScope(Scope.SESSION, Scope.DOCUMENT);
+        collection.add("test2");
+        collection.add("test3");
+        collection.enterScope(Scope.DOCUMENT, Scope.DIALOG);
+        collection.add("test4");
+        Assert.assertArrayEquals(
+                new Object[] {"test4", "test2", "test3", "test1"},
+                collection.toArray());
+        final Iterator<String> iterator = collection.iterator();
+        Assert.assertEquals("test4", iterator.next());
+        Assert.assertEquals("test2", iterator.next());
+        iterator.remove();
+        Assert.assertEquals("test3", iterator.next());
+        Assert.assertEquals("test1", iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertArrayEquals(new String[] {"test4", "test3", "test1"},
+                collection.toArray(new String[0]));
+        collection.exitScope(Scope.DIALOG, Scope.DOCUMENT);
+        Assert.assertArrayEquals(new Object[] {"test3", "test1"},
+                collection.toArray());
+        collection.exitScope(Scope.DOCUMENT, Scope.SESSION);
+        Assert.assertArrayEquals(new Object[] {"test1"},
+                collection.toArray());
+    }
 }
@@ -215,4 +215,29 @@ public final class TestScopedMap {
         Assert.assertEquals(value4, entry1.getValue());
         Assert.assertEquals(value4, map.get(key1));
     }
+
+    /**
+     * Test method for {@link ScopedMap#exitScope(Scope, Scope)} with
+     * values that are put several times in one scope and with inner
+     * scopes that are exited implicitly.
+     */
+    @Test
+    public void testExitScope() {
+        final ScopedMap<String, String> map =
+                new ScopedMap<String, String>(observer);
+        map.enterScope(null, Scope.SESSION);
+        Assert.assertNull(map.put("key1", "value1"));
+        map.enterScope(Scope.SESSION, Scope.DOCUMENT);
+        Assert.assertEquals("value1", map.put("key1", "value2"));
+        Assert.assertEquals("value2", map.put("key1", "value3"));
+        map.enterScope(Scope.DOCUMENT, Scope.DIALOG);
+        Assert.assertNull(map.put("key2", "value4"));
+        Assert.assertEquals(2, map.size());
+        map.exitScope(Scope.DOCUMENT, Scope.SESSION);
+        Assert.assertEquals("value1", map.get("key1"));
+        Assert.assertFalse(map.containsKey("key2"));
+        Assert.assertEquals(1, map.size());
+        map.exitScope(Scope.SESSION, null);
+        Assert.assertTrue(map.isEmpty());
+    }
 }
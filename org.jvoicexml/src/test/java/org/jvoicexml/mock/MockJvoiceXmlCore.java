@@ -32,6 +32,7 @@ import org.jvoicexml.ImplementationPlatform;
 import org.jvoicexml.ImplementationPlatformFactory;
 import org.jvoicexml.JVoiceXmlCore;
 import org.jvoicexml.Session;
+import org.jvoicexml.SessionRegistry;
 import org.jvoicexml.documentserver.JVoiceXmlDocumentServer;
 import org.jvoicexml.documentserver.jetty.DocumentStorage;
 import org.jvoicexml.documentserver.schemestrategy.FileSchemeStrategy;
@@ -40,6 +41,7 @@ import org.jvoicexml.documentserver.schemestrategy.MappedDocumentStrategy;
 import org.jvoicexml.event.ErrorEvent;
 import org.jvoicexml.interpreter.GrammarProcessor;
 import org.jvoicexml.interpreter.JVoiceXmlSession;
+import org.jvoicexml.interpreter.JVoiceXmlSessionRegistry;
 import org.jvoicexml.interpreter.grammar.GrammarIdentifierCentral;
 import org.jvoicexml.interpreter.grammar.JVoiceXmlGrammarProcessor;
 import org.jvoicexml.interpreter.grammar.identifier.SrgsXmlGrammarIdentifier;
@@ -62,6 +64,10 @@ public final class MockJvoiceXmlCore implements JVoiceXmlCore {
     /** The grammar processor. */
     private GrammarProcessor grammarProcessor;
 
+    /** The active sessions. */
+    private final JVoiceXmlSessionRegistry sessions =
+            new JVoiceXmlSessionRegistry();
+
     /**
      * {@inheritDoc}
      */
@@ -140,6 +146,14 @@ public final class MockJvoiceXmlCore implements JVoiceXmlCore {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SessionRegistry getSessionRegistry() {
+        return sessions;
+    }
+
     @Override
     public Session createSession(ConnectionInformation info,
             ImplementationPlatform platform) throws ErrorEvent {